@@ -46,6 +46,7 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.portfolio.servicecharge.service.ServiceChargeSheetSnapshotPlatformService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,16 +66,19 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
     private final GLAccountCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final CodeValueRepositoryWrapper codeValueRepositoryWrapper;
     private final JdbcTemplate jdbcTemplate;
+    private final ServiceChargeSheetSnapshotPlatformService scSheetSnapshotPlatformService;
 
     @Autowired
     public GLAccountWritePlatformServiceJpaRepositoryImpl(final GLAccountRepository glAccountRepository,
             final JournalEntryRepository glJournalEntryRepository, final GLAccountCommandFromApiJsonDeserializer fromApiJsonDeserializer,
-            final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final RoutingDataSource dataSource) {
+            final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final RoutingDataSource dataSource,
+            final ServiceChargeSheetSnapshotPlatformService scSheetSnapshotPlatformService) {
         this.glAccountRepository = glAccountRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.scSheetSnapshotPlatformService = scSheetSnapshotPlatformService;
     }
 
     @Transactional
@@ -169,6 +173,15 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
                 this.glAccountRepository.saveAndFlush(glAccount);
             }
 
+            // the service charge expense totals depend on the tag, type,
+            // usage and status of the account, rebuild them if any changed
+            if (changesOnly.containsKey(GLAccountJsonInputParams.TAGID.getValue())
+                    || changesOnly.containsKey(GLAccountJsonInputParams.TYPE.getValue())
+                    || changesOnly.containsKey(GLAccountJsonInputParams.USAGE.getValue())
+                    || changesOnly.containsKey(GLAccountJsonInputParams.DISABLED.getValue())) {
+                this.scSheetSnapshotPlatformService.resetJournalEntryTotals();
+            }
+
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(glAccount.getId())
                     .with(changesOnly).build();
         } catch (final DataIntegrityViolationException dve) {
@@ -33,9 +33,9 @@ import org.apache.fineract.accounting.common.AccountingConstants.CASH_ACCOUNTS_F
 import org.apache.fineract.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_SAVINGS;
 import org.apache.fineract.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_SHARES;
 import org.apache.fineract.accounting.common.AccountingConstants.FINANCIAL_ACTIVITY;
-import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccount;
-import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.financialactivityaccount.exception.FinancialActivityAccountNotFoundException;
 import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepository;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
 import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
 import org.apache.fineract.accounting.journalentry.data.ClientChargePaymentDTO;
@@ -53,9 +53,8 @@ import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException.GL_JOURNAL_ENTRY_INVALID_REASON;
 import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
-import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
-import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
 import org.apache.fineract.accounting.producttoaccountmapping.exception.ProductToGLAccountMappingNotFoundException;
+import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToGLAccountMappingIndex;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
@@ -86,35 +85,37 @@ public class AccountingProcessorHelper {
     public static final String PROVISIONING_TRANSACTION_IDENTIFIER = "P";
     public static final String SHARE_TRANSACTION_IDENTIFIER = "SH";
     private final JournalEntryRepository glJournalEntryRepository;
-    private final ProductToGLAccountMappingRepository accountMappingRepository;
-    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
+    private final ProductToGLAccountMappingIndex productToGLAccountMappingIndex;
     private final GLClosureRepository closureRepository;
     private final GLAccountRepositoryWrapper accountRepositoryWrapper;
+    private final GLAccountRepository glAccountRepository;
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
     private final LoanTransactionRepository loanTransactionRepository;
     private final ClientTransactionRepositoryWrapper clientTransactionRepository;
     private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
     private final AccountTransfersReadPlatformService accountTransfersReadPlatformService;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Autowired
     public AccountingProcessorHelper(final JournalEntryRepository glJournalEntryRepository,
-            final ProductToGLAccountMappingRepository accountMappingRepository, final GLClosureRepository closureRepository,
+            final ProductToGLAccountMappingIndex productToGLAccountMappingIndex, final GLClosureRepository closureRepository,
             final OfficeRepositoryWrapper officeRepositoryWrapper, final LoanTransactionRepository loanTransactionRepository,
             final SavingsAccountTransactionRepository savingsAccountTransactionRepository,
-            final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository,
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService,
-            final GLAccountRepositoryWrapper accountRepositoryWrapper,
-            final ClientTransactionRepositoryWrapper clientTransactionRepositoryWrapper) {
+            final GLAccountRepositoryWrapper accountRepositoryWrapper, final GLAccountRepository glAccountRepository,
+            final ClientTransactionRepositoryWrapper clientTransactionRepositoryWrapper,
+            final JournalEntryBatchWriter journalEntryBatchWriter) {
         this.glJournalEntryRepository = glJournalEntryRepository;
-        this.accountMappingRepository = accountMappingRepository;
+        this.productToGLAccountMappingIndex = productToGLAccountMappingIndex;
         this.closureRepository = closureRepository;
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.loanTransactionRepository = loanTransactionRepository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
-        this.financialActivityAccountRepository = financialActivityAccountRepository;
         this.accountTransfersReadPlatformService = accountTransfersReadPlatformService;
         this.accountRepositoryWrapper = accountRepositoryWrapper;
+        this.glAccountRepository = glAccountRepository;
         this.clientTransactionRepository = clientTransactionRepositoryWrapper;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
     }
 
     public LoanDTO populateLoanDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
@@ -397,6 +398,7 @@ public class AccountingProcessorHelper {
             final List<ChargePaymentDTO> chargePaymentDTOs) {
 
         GLAccount receivableAccount = getLinkedGLAccountForLoanCharges(loanProductId, accountTypeToBeDebited, null);
+        final LoanTransaction loanTransaction = resolveLoanTransaction(transactionId);
         final Map<GLAccount, BigDecimal> creditDetailsMap = new LinkedHashMap<>();
         for (final ChargePaymentDTO chargePaymentDTO : chargePaymentDTOs) {
             final Long chargeId = chargePaymentDTO.getChargeId();
@@ -418,11 +420,15 @@ public class AccountingProcessorHelper {
             final BigDecimal amount = entry.getValue();
             totalCreditedAmount = totalCreditedAmount.add(amount);
             if (isReversal) {
-                createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
-                createCreditJournalEntryForLoan(office, currencyCode, receivableAccount, loanId, transactionId, transactionDate, amount);
+                createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate,
+                        amount);
+                createCreditJournalEntryForLoan(office, currencyCode, receivableAccount, loanId, transactionId, loanTransaction,
+                        transactionDate, amount);
             } else {
-                createDebitJournalEntryForLoan(office, currencyCode, receivableAccount, loanId, transactionId, transactionDate, amount);
-                createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+                createDebitJournalEntryForLoan(office, currencyCode, receivableAccount, loanId, transactionId, loanTransaction,
+                        transactionDate, amount);
+                createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate,
+                        amount);
             }
         }
 
@@ -546,8 +552,10 @@ public class AccountingProcessorHelper {
             final String transactionId, final Date transactionDate, final BigDecimal amount) {
         final GLAccount debitAccount = getLinkedGLAccountForLoanProduct(loanProductId, accountTypeToDebitId, paymentTypeId);
         final GLAccount creditAccount = getLinkedGLAccountForLoanProduct(loanProductId, accountTypeToCreditId, paymentTypeId);
-        createDebitJournalEntryForLoan(office, currencyCode, debitAccount, loanId, transactionId, transactionDate, amount);
-        createCreditJournalEntryForLoan(office, currencyCode, creditAccount, loanId, transactionId, transactionDate, amount);
+        final LoanTransaction loanTransaction = resolveLoanTransaction(transactionId);
+        createDebitJournalEntryForLoan(office, currencyCode, debitAccount, loanId, transactionId, loanTransaction, transactionDate, amount);
+        createCreditJournalEntryForLoan(office, currencyCode, creditAccount, loanId, transactionId, loanTransaction, transactionDate,
+                amount);
     }
 
     private void createJournalEntriesForSavings(final Office office, final String currencyCode, final int accountTypeToDebitId,
@@ -555,8 +563,11 @@ public class AccountingProcessorHelper {
             final String transactionId, final Date transactionDate, final BigDecimal amount) {
         final GLAccount debitAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToDebitId, paymentTypeId);
         final GLAccount creditAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToCreditId, paymentTypeId);
-        createDebitJournalEntryForSavings(office, currencyCode, debitAccount, savingsId, transactionId, transactionDate, amount);
-        createCreditJournalEntryForSavings(office, currencyCode, creditAccount, savingsId, transactionId, transactionDate, amount);
+        final SavingsAccountTransaction savingsAccountTransaction = resolveSavingsTransaction(transactionId);
+        createDebitJournalEntryForSavings(office, currencyCode, debitAccount, savingsId, transactionId, savingsAccountTransaction,
+                transactionDate, amount);
+        createCreditJournalEntryForSavings(office, currencyCode, creditAccount, savingsId, transactionId, savingsAccountTransaction,
+                transactionDate, amount);
     }
 
     /**
@@ -584,94 +595,89 @@ public class AccountingProcessorHelper {
             final Long savingsProductId, final Long paymentTypeId, final Long savingsId, final String transactionId,
             final Date transactionDate, final BigDecimal amount, final Boolean isReversal, final List<TaxPaymentDTO> taxDetails) {
 
+        final SavingsAccountTransaction savingsAccountTransaction = resolveSavingsTransaction(transactionId);
         for (TaxPaymentDTO taxPaymentDTO : taxDetails) {
             if (taxPaymentDTO.getAmount() != null) {
-                if (taxPaymentDTO.getCreditAccountId() == null) {
-                    createCashBasedCreditJournalEntriesAndReversalsForSavings(office, currencyCode, accountTypeToBeCredited.getValue(),
-                            savingsProductId, paymentTypeId, savingsId, transactionId, transactionDate, taxPaymentDTO.getAmount(),
-                            isReversal);
-                } else {
-                    createCashBasedCreditJournalEntriesAndReversalsForSavings(office, currencyCode, taxPaymentDTO.getCreditAccountId(),
-                            savingsId, transactionId, transactionDate, taxPaymentDTO.getAmount(), isReversal);
-                }
+                final GLAccount creditAccount = taxPaymentDTO.getCreditAccountId() == null ? getLinkedGLAccountForSavingsProduct(
+                        savingsProductId, accountTypeToBeCredited.getValue(), paymentTypeId) : getGLAccountById(taxPaymentDTO
+                        .getCreditAccountId());
+                createCreditJournalEntryOrReversalForSavings(office, currencyCode, creditAccount, savingsId, transactionId,
+                        savingsAccountTransaction, transactionDate, taxPaymentDTO.getAmount(), isReversal);
             }
         }
-        createCashBasedDebitJournalEntriesAndReversalsForSavings(office, currencyCode, accountTypeToBeDebited.getValue(), savingsProductId,
-                paymentTypeId, savingsId, transactionId, transactionDate, amount, isReversal);
+        final GLAccount debitAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToBeDebited.getValue(),
+                paymentTypeId);
+        createDebitJournalEntryOrReversalForSavings(office, currencyCode, debitAccount, savingsId, transactionId,
+                savingsAccountTransaction, transactionDate, amount, isReversal);
     }
 
     public void createCashBasedDebitJournalEntriesAndReversalsForSavings(final Office office, final String currencyCode,
             final Integer accountTypeToBeDebited, final Long savingsProductId, final Long paymentTypeId, final Long savingsId,
             final String transactionId, final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
-        // reverse debits and credits for reversals
-        if (isReversal) {
-            createCreditJournalEntriesForSavings(office, currencyCode, accountTypeToBeDebited, savingsProductId, paymentTypeId, savingsId,
-                    transactionId, transactionDate, amount);
-        } else {
-            createDebitJournalEntriesForSavings(office, currencyCode, accountTypeToBeDebited, savingsProductId, paymentTypeId, savingsId,
-                    transactionId, transactionDate, amount);
-        }
+        final GLAccount debitAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToBeDebited, paymentTypeId);
+        createDebitJournalEntryOrReversalForSavings(office, currencyCode, debitAccount, savingsId, transactionId,
+                resolveSavingsTransaction(transactionId), transactionDate, amount, isReversal);
     }
 
     public void createCashBasedCreditJournalEntriesAndReversalsForSavings(final Office office, final String currencyCode,
             final Integer accountTypeToBeCredited, final Long savingsProductId, final Long paymentTypeId, final Long savingsId,
             final String transactionId, final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
-        // reverse debits and credits for reversals
-        if (isReversal) {
-            createDebitJournalEntriesForSavings(office, currencyCode, accountTypeToBeCredited, savingsProductId, paymentTypeId, savingsId,
-                    transactionId, transactionDate, amount);
-        } else {
-            createCreditJournalEntriesForSavings(office, currencyCode, accountTypeToBeCredited, savingsProductId, paymentTypeId, savingsId,
-                    transactionId, transactionDate, amount);
-        }
+        final GLAccount creditAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToBeCredited, paymentTypeId);
+        createCreditJournalEntryOrReversalForSavings(office, currencyCode, creditAccount, savingsId, transactionId,
+                resolveSavingsTransaction(transactionId), transactionDate, amount, isReversal);
     }
 
     public void createCashBasedDebitJournalEntriesAndReversalsForSavings(final Office office, final String currencyCode,
             final Long debitAccountId, final Long savingsId, final String transactionId, final Date transactionDate,
             final BigDecimal amount, final Boolean isReversal) {
-        // reverse debits and credits for reversals
         final GLAccount debitAccount = getGLAccountById(debitAccountId);
-        if (isReversal) {
-            createCreditJournalEntryForSavings(office, currencyCode, debitAccount, savingsId, transactionId, transactionDate, amount);
-        } else {
-            createDebitJournalEntryForSavings(office, currencyCode, debitAccount, savingsId, transactionId, transactionDate, amount);
-        }
+        createDebitJournalEntryOrReversalForSavings(office, currencyCode, debitAccount, savingsId, transactionId,
+                resolveSavingsTransaction(transactionId), transactionDate, amount, isReversal);
     }
 
     public void createCashBasedCreditJournalEntriesAndReversalsForSavings(final Office office, final String currencyCode,
             final Long creditAccountId, final Long savingsId, final String transactionId, final Date transactionDate,
             final BigDecimal amount, final Boolean isReversal) {
-        // reverse debits and credits for reversals
         final GLAccount creditAccount = getGLAccountById(creditAccountId);
+        createCreditJournalEntryOrReversalForSavings(office, currencyCode, creditAccount, savingsId, transactionId,
+                resolveSavingsTransaction(transactionId), transactionDate, amount, isReversal);
+    }
+
+    private void createDebitJournalEntryOrReversalForSavings(final Office office, final String currencyCode, final GLAccount account,
+            final Long savingsId, final String transactionId, final SavingsAccountTransaction savingsAccountTransaction,
+            final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
+        // reverse debits and credits for reversals
         if (isReversal) {
-            createDebitJournalEntryForSavings(office, currencyCode, creditAccount, savingsId, transactionId, transactionDate, amount);
+            createCreditJournalEntryForSavings(office, currencyCode, account, savingsId, transactionId, savingsAccountTransaction,
+                    transactionDate, amount);
         } else {
-            createCreditJournalEntryForSavings(office, currencyCode, creditAccount, savingsId, transactionId, transactionDate, amount);
+            createDebitJournalEntryForSavings(office, currencyCode, account, savingsId, transactionId, savingsAccountTransaction,
+                    transactionDate, amount);
         }
     }
 
-    private void createDebitJournalEntriesForSavings(final Office office, final String currencyCode, final int accountTypeToDebitId,
-            final Long savingsProductId, final Long paymentTypeId, final Long savingsId, final String transactionId,
-            final Date transactionDate, final BigDecimal amount) {
-        final GLAccount debitAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToDebitId, paymentTypeId);
-        createDebitJournalEntryForSavings(office, currencyCode, debitAccount, savingsId, transactionId, transactionDate, amount);
-    }
-
-    private void createCreditJournalEntriesForSavings(final Office office, final String currencyCode, final int accountTypeToCreditId,
-            final Long savingsProductId, final Long paymentTypeId, final Long savingsId, final String transactionId,
-            final Date transactionDate, final BigDecimal amount) {
-        final GLAccount creditAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToCreditId, paymentTypeId);
-        createCreditJournalEntryForSavings(office, currencyCode, creditAccount, savingsId, transactionId, transactionDate, amount);
+    private void createCreditJournalEntryOrReversalForSavings(final Office office, final String currencyCode, final GLAccount account,
+            final Long savingsId, final String transactionId, final SavingsAccountTransaction savingsAccountTransaction,
+            final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
+        // reverse debits and credits for reversals
+        if (isReversal) {
+            createDebitJournalEntryForSavings(office, currencyCode, account, savingsId, transactionId, savingsAccountTransaction,
+                    transactionDate, amount);
+        } else {
+            createCreditJournalEntryForSavings(office, currencyCode, account, savingsId, transactionId, savingsAccountTransaction,
+                    transactionDate, amount);
+        }
     }
 
     public void createDebitJournalEntryOrReversalForLoan(final Office office, final String currencyCode, final int accountMappingTypeId,
             final Long loanProductId, final Long paymentTypeId, final Long loanId, final String transactionId, final Date transactionDate,
             final BigDecimal amount, final Boolean isReversal) {
         final GLAccount account = getLinkedGLAccountForLoanProduct(loanProductId, accountMappingTypeId, paymentTypeId);
+        final LoanTransaction loanTransaction = resolveLoanTransaction(transactionId);
         if (isReversal) {
-            createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+            createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate, amount);
         } else {
-            createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+            createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate, amount);
         }
     }
 
@@ -683,6 +689,7 @@ public class AccountingProcessorHelper {
          * Map to track each account and the net credit to be made for a
          * particular account
          ***/
+        final LoanTransaction loanTransaction = resolveLoanTransaction(transactionId);
         final Map<GLAccount, BigDecimal> creditDetailsMap = new LinkedHashMap<>();
         for (final ChargePaymentDTO chargePaymentDTO : chargePaymentDTOs) {
             final Long chargeId = chargePaymentDTO.getChargeId();
@@ -704,9 +711,11 @@ public class AccountingProcessorHelper {
             final BigDecimal amount = entry.getValue();
             totalCreditedAmount = totalCreditedAmount.add(amount);
             if (isReversal) {
-                createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+                createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate,
+                        amount);
             } else {
-                createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+                createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate,
+                        amount);
             }
         }
 
@@ -760,16 +769,17 @@ public class AccountingProcessorHelper {
                 chargePaymentDTO.getChargeId());
         final GLAccount savingsControlAccount = getLinkedGLAccountForSavingsProduct(savingsProductId, accountTypeToBeDebited.getValue(),
                 paymentTypeId);
+        final SavingsAccountTransaction savingsAccountTransaction = resolveSavingsTransaction(transactionId);
         if (isReversal) {
-            createDebitJournalEntryForSavings(office, currencyCode, chargeSpecificAccount, loanId, transactionId, transactionDate,
-                    totalAmount);
-            createCreditJournalEntryForSavings(office, currencyCode, savingsControlAccount, loanId, transactionId, transactionDate,
-                    totalAmount);
+            createDebitJournalEntryForSavings(office, currencyCode, chargeSpecificAccount, loanId, transactionId, savingsAccountTransaction,
+                    transactionDate, totalAmount);
+            createCreditJournalEntryForSavings(office, currencyCode, savingsControlAccount, loanId, transactionId,
+                    savingsAccountTransaction, transactionDate, totalAmount);
         } else {
-            createDebitJournalEntryForSavings(office, currencyCode, savingsControlAccount, loanId, transactionId, transactionDate,
-                    totalAmount);
-            createCreditJournalEntryForSavings(office, currencyCode, chargeSpecificAccount, loanId, transactionId, transactionDate,
-                    totalAmount);
+            createDebitJournalEntryForSavings(office, currencyCode, savingsControlAccount, loanId, transactionId, savingsAccountTransaction,
+                    transactionDate, totalAmount);
+            createCreditJournalEntryForSavings(office, currencyCode, chargeSpecificAccount, loanId, transactionId,
+                    savingsAccountTransaction, transactionDate, totalAmount);
         }
     }
 
@@ -781,6 +791,27 @@ public class AccountingProcessorHelper {
         return this.savingsAccountTransactionRepository.findOne(savingsTransactionId);
     }
 
+    /**
+     * Looks up the loan transaction the legs of one posting refer to, so it is
+     * loaded once per posting instead of once per leg.
+     * 
+     * @return null for the non numeric transaction ids of accruals
+     */
+    private LoanTransaction resolveLoanTransaction(final String transactionId) {
+        if (!StringUtils.isNumeric(transactionId)) { return null; }
+        return this.loanTransactionRepository.findOne(Long.parseLong(transactionId));
+    }
+
+    /**
+     * Looks up the savings transaction the legs of one posting refer to.
+     * 
+     * @return null for non numeric transaction ids
+     */
+    private SavingsAccountTransaction resolveSavingsTransaction(final String transactionId) {
+        if (!StringUtils.isNumeric(transactionId)) { return null; }
+        return this.savingsAccountTransactionRepository.findOne(Long.parseLong(transactionId));
+    }
+
     private void createCreditJournalEntryOrReversalForLoan(final Office office, final String currencyCode, final int accountMappingTypeId,
             final Long loanProductId, final Long paymentTypeId, final Long loanId, final String transactionId, final Date transactionDate,
             final BigDecimal amount, final Boolean isReversal) {
@@ -791,10 +822,11 @@ public class AccountingProcessorHelper {
     public void createCreditJournalEntryOrReversalForLoan(final Office office, final String currencyCode, final Long loanId,
             final String transactionId, final Date transactionDate, final BigDecimal amount, final Boolean isReversal,
             final GLAccount account) {
+        final LoanTransaction loanTransaction = resolveLoanTransaction(transactionId);
         if (isReversal) {
-            createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+            createDebitJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate, amount);
         } else {
-            createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, transactionDate, amount);
+            createCreditJournalEntryForLoan(office, currencyCode, account, loanId, transactionId, loanTransaction, transactionDate, amount);
         }
     }
 
@@ -818,43 +850,39 @@ public class AccountingProcessorHelper {
     }
 
     private void createCreditJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
-            final Long savingsId, final String transactionId, final Date transactionDate, final BigDecimal amount) {
+            final Long savingsId, final String transactionId, final SavingsAccountTransaction savingsAccountTransaction, final Date transactionDate,
+            final BigDecimal amount) {
         final boolean manualEntry = false;
         LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
         ClientTransaction clientTransaction = null;
         final Long shareTransactionId = null;
         final PaymentDetail paymentDetail = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            savingsAccountTransaction = this.savingsAccountTransactionRepository.findOne(id);
             modifiedTransactionId = SAVINGS_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId,
                 null, loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.add(journalEntry);
     }
 
     private void createCreditJournalEntryForLoan(final Office office, final String currencyCode, final GLAccount account,
-            final Long loanId, final String transactionId, final Date transactionDate, final BigDecimal amount) {
+            final Long loanId, final String transactionId, final LoanTransaction loanTransaction, final Date transactionDate,
+            final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
         SavingsAccountTransaction savingsAccountTransaction = null;
         ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
         final Long shareTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            loanTransaction = this.loanTransactionRepository.findOne(id);
             modifiedTransactionId = LOAN_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null,
                 loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.add(journalEntry);
     }
 
     public void createProvisioningDebitJournalEntry(Date transactionDate, Long provisioningentryId, Office office, String currencyCode,
@@ -888,43 +916,38 @@ public class AccountingProcessorHelper {
     }
 
     private void createDebitJournalEntryForLoan(final Office office, final String currencyCode, final GLAccount account, final Long loanId,
-            final String transactionId, final Date transactionDate, final BigDecimal amount) {
+            final String transactionId, final LoanTransaction loanTransaction, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
         SavingsAccountTransaction savingsAccountTransaction = null;
         ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
         final Long shareTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            loanTransaction = this.loanTransactionRepository.findOne(id);
             modifiedTransactionId = LOAN_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null,
                 loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.add(journalEntry);
     }
 
     private void createDebitJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
-            final Long savingsId, final String transactionId, final Date transactionDate, final BigDecimal amount) {
+            final Long savingsId, final String transactionId, final SavingsAccountTransaction savingsAccountTransaction, final Date transactionDate,
+            final BigDecimal amount) {
         final boolean manualEntry = false;
         LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
         ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
         final Long shareTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            savingsAccountTransaction = this.savingsAccountTransactionRepository.findOne(id);
             modifiedTransactionId = SAVINGS_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId,
                 null, loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.add(journalEntry);
     }
 
     private void createDebitJournalEntryForClientPayments(final Office office, final String currencyCode, final GLAccount account,
@@ -1083,12 +1106,10 @@ public class AccountingProcessorHelper {
     public GLAccount getLinkedGLAccountForLoanProduct(final Long loanProductId, final int accountMappingTypeId, final Long paymentTypeId) {
         GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
+            glAccount = getLinkedGLAccountForFinancialActivity(accountMappingTypeId);
         } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
-                    PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
+            Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.LOAN, loanProductId,
+                    accountMappingTypeId, null, null);
 
             /****
              * Get more specific mapping for FUND source accounts (based on
@@ -1096,24 +1117,23 @@ public class AccountingProcessorHelper {
              * same for both cash and accrual accounts
              ***/
             if (accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.FUND_SOURCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(loanProductId,
-                                PortfolioProductType.LOAN.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
+                final Long paymentChannelSpecificGLAccountId = this.productToGLAccountMappingIndex.findGLAccountId(
+                        PortfolioProductType.LOAN, loanProductId, accountMappingTypeId, paymentTypeId, null);
+                if (paymentChannelSpecificGLAccountId != null) {
+                    glAccountId = paymentChannelSpecificGLAccountId;
                 }
             }
 
-            if (accountMapping == null) { throw new ProductToGLAccountMappingNotFoundException(PortfolioProductType.LOAN, loanProductId,
+            if (glAccountId == null) { throw new ProductToGLAccountMappingNotFoundException(PortfolioProductType.LOAN, loanProductId,
                     ACCRUAL_ACCOUNTS_FOR_LOAN.OVERPAYMENT.toString()); }
-            glAccount = accountMapping.getGlAccount();
+            glAccount = getGLAccountReference(glAccountId);
         }
         return glAccount;
     }
 
     private GLAccount getLinkedGLAccountForLoanCharges(final Long loanProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
-                PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
+        Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.LOAN, loanProductId,
+                accountMappingTypeId, null, null);
         /*****
          * Get more specific mappings for Charges and penalties (based on the
          * actual charge /penalty coupled with the loan product). Note the
@@ -1124,19 +1144,18 @@ public class AccountingProcessorHelper {
         // Vishwas TODO: remove this condition as it should always be true
         if (accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES.getValue()) {
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(loanProductId, PortfolioProductType.LOAN.getValue(),
-                            accountMappingTypeId, chargeId);
-            if (chargeSpecificIncomeAccountMapping != null) {
-                accountMapping = chargeSpecificIncomeAccountMapping;
+            final Long chargeSpecificIncomeGLAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.LOAN,
+                    loanProductId, accountMappingTypeId, null, chargeId);
+            if (chargeSpecificIncomeGLAccountId != null) {
+                glAccountId = chargeSpecificIncomeGLAccountId;
             }
         }
-        return accountMapping.getGlAccount();
+        return getLinkedGLAccount(PortfolioProductType.LOAN, loanProductId, accountMappingTypeId, glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForSavingsCharges(final Long savingsProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
-                PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
+        Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.SAVING, savingsProductId,
+                accountMappingTypeId, null, null);
         /*****
          * Get more specific mappings for Charges and penalties (based on the
          * actual charge /penalty coupled with the loan product). Note the
@@ -1147,40 +1166,36 @@ public class AccountingProcessorHelper {
         // Vishwas TODO: remove this condition as it should always be true
         if (accountMappingTypeId == CASH_ACCOUNTS_FOR_SAVINGS.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES.getValue()) {
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(savingsProductId,
-                            PortfolioProductType.SAVING.getValue(), accountMappingTypeId, chargeId);
-            if (chargeSpecificIncomeAccountMapping != null) {
-                accountMapping = chargeSpecificIncomeAccountMapping;
+            final Long chargeSpecificIncomeGLAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.SAVING,
+                    savingsProductId, accountMappingTypeId, null, chargeId);
+            if (chargeSpecificIncomeGLAccountId != null) {
+                glAccountId = chargeSpecificIncomeGLAccountId;
             }
         }
-        return accountMapping.getGlAccount();
+        return getLinkedGLAccount(PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId, glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForSavingsProduct(final Long savingsProductId, final int accountMappingTypeId,
             final Long paymentTypeId) {
         GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
+            glAccount = getLinkedGLAccountForFinancialActivity(accountMappingTypeId);
         } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
-                    PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
+            Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.SAVING, savingsProductId,
+                    accountMappingTypeId, null, null);
             /****
              * Get more specific mapping for FUND source accounts (based on
              * payment channels). Note that fund source placeholder ID would be
              * same for both cash and accrual accounts
              ***/
             if (accountMappingTypeId == CASH_ACCOUNTS_FOR_SAVINGS.SAVINGS_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(savingsProductId,
-                                PortfolioProductType.SAVING.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
+                final Long paymentChannelSpecificGLAccountId = this.productToGLAccountMappingIndex.findGLAccountId(
+                        PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId, paymentTypeId, null);
+                if (paymentChannelSpecificGLAccountId != null) {
+                    glAccountId = paymentChannelSpecificGLAccountId;
                 }
             }
-            glAccount = accountMapping.getGlAccount();
+            glAccount = getLinkedGLAccount(PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId, glAccountId);
         }
         return glAccount;
     }
@@ -1188,29 +1203,26 @@ public class AccountingProcessorHelper {
     private GLAccount getLinkedGLAccountForShareProduct(final Long shareProductId, final int accountMappingTypeId, final Long paymentTypeId) {
         GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
+            glAccount = getLinkedGLAccountForFinancialActivity(accountMappingTypeId);
         } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(shareProductId,
-                    PortfolioProductType.SHARES.getValue(), accountMappingTypeId);
+            Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.SHARES, shareProductId,
+                    accountMappingTypeId, null, null);
 
             if (accountMappingTypeId == CASH_ACCOUNTS_FOR_SHARES.SHARES_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(shareProductId,
-                                PortfolioProductType.SHARES.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
+                final Long paymentChannelSpecificGLAccountId = this.productToGLAccountMappingIndex.findGLAccountId(
+                        PortfolioProductType.SHARES, shareProductId, accountMappingTypeId, paymentTypeId, null);
+                if (paymentChannelSpecificGLAccountId != null) {
+                    glAccountId = paymentChannelSpecificGLAccountId;
                 }
             }
-            glAccount = accountMapping.getGlAccount();
+            glAccount = getLinkedGLAccount(PortfolioProductType.SHARES, shareProductId, accountMappingTypeId, glAccountId);
         }
         return glAccount;
     }
 
     private GLAccount getLinkedGLAccountForShareCharges(final Long shareProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(shareProductId,
-                PortfolioProductType.SHARES.getValue(), accountMappingTypeId);
+        Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.SHARES, shareProductId,
+                accountMappingTypeId, null, null);
         /*****
          * Get more specific mappings for Charges and penalties (based on the
          * actual charge /penalty coupled with the loan product). Note the
@@ -1218,13 +1230,33 @@ public class AccountingProcessorHelper {
          * the same for both cash and accrual based accounts
          *****/
 
-        final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(shareProductId, PortfolioProductType.SHARES.getValue(),
-                        accountMappingTypeId, chargeId);
-        if (chargeSpecificIncomeAccountMapping != null) {
-            accountMapping = chargeSpecificIncomeAccountMapping;
+        final Long chargeSpecificIncomeGLAccountId = this.productToGLAccountMappingIndex.findGLAccountId(PortfolioProductType.SHARES,
+                shareProductId, accountMappingTypeId, null, chargeId);
+        if (chargeSpecificIncomeGLAccountId != null) {
+            glAccountId = chargeSpecificIncomeGLAccountId;
         }
-        return accountMapping.getGlAccount();
+        return getLinkedGLAccount(PortfolioProductType.SHARES, shareProductId, accountMappingTypeId, glAccountId);
+    }
+
+    private GLAccount getLinkedGLAccount(final PortfolioProductType productType, final Long productId, final int accountMappingTypeId,
+            final Long glAccountId) {
+        if (glAccountId == null) { throw new ProductToGLAccountMappingNotFoundException(productType, productId,
+                String.valueOf(accountMappingTypeId)); }
+        return getGLAccountReference(glAccountId);
+    }
+
+    private GLAccount getLinkedGLAccountForFinancialActivity(final int financialActivityType) {
+        final Long glAccountId = this.productToGLAccountMappingIndex.findGLAccountIdForFinancialActivity(financialActivityType);
+        if (glAccountId == null) { throw new FinancialActivityAccountNotFoundException(financialActivityType); }
+        return getGLAccountReference(glAccountId);
+    }
+
+    /**
+     * GL accounts resolved through the mapping index are referenced by id so
+     * that linking them to a journal entry does not load them.
+     */
+    private GLAccount getGLAccountReference(final Long glAccountId) {
+        return this.glAccountRepository.getOne(glAccountId);
     }
 
     private boolean isOrganizationAccount(final int accountMappingTypeId) {
@@ -1274,8 +1306,7 @@ public class AccountingProcessorHelper {
 
     public void createDebitJournalEntryOrReversalForClientChargePayments(final Office office, final String currencyCode,
             final Long clientId, final Long transactionId, final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
-        final GLAccount account = financialActivityAccountRepository.findByFinancialActivityTypeWithNotFoundDetection(
-                FINANCIAL_ACTIVITY.ASSET_FUND_SOURCE.getValue()).getGlAccount();
+        final GLAccount account = getLinkedGLAccountForFinancialActivity(FINANCIAL_ACTIVITY.ASSET_FUND_SOURCE.getValue());
         if (isReversal) {
             createCreditJournalEntryForClientPayments(office, currencyCode, account, clientId, transactionId, transactionDate, amount);
         } else {
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the journal entry legs produced for portfolio transactions while a
+ * transaction is active and inserts them with a single JDBC batch just before
+ * it commits, instead of flushing the persistence context once per leg.
+ * 
+ * Code that reads journal entries back within the same transaction must call
+ * {@link #flush()} first.
+ */
+@Component
+public class JournalEntryBatchWriter {
+
+    private final static Logger logger = LoggerFactory.getLogger(JournalEntryBatchWriter.class);
+
+    private static final String INSERT_SQL = "insert into acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id, "
+            + "loan_transaction_id, savings_transaction_id, client_transaction_id, share_transaction_id, payment_details_id, reversed, "
+            + "manual_entry, entry_date, type_enum, amount, description, entity_type_enum, entity_id, ref_num, createdby_id, "
+            + "lastmodifiedby_id, created_date, lastmodified_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final int LOAN_TRANSACTION_ID_INDEX = 4;
+    static final int SAVINGS_TRANSACTION_ID_INDEX = 5;
+
+    private static final int[] INSERT_TYPES = { Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT,
+            Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BOOLEAN, Types.DATE, Types.SMALLINT, Types.DECIMAL, Types.VARCHAR,
+            Types.SMALLINT, Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP };
+
+    private static final Long SUPER_USER_ID = Long.valueOf(1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JournalEntryBatchWriter(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Queues a journal entry leg for the current transaction. Outside of a
+     * transaction the leg is written immediately.
+     */
+    public void add(final JournalEntry journalEntry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(Collections.singletonList(journalEntry));
+            return;
+        }
+        pendingJournalEntries().add(journalEntry);
+    }
+
+    /**
+     * Writes the legs queued so far in the current transaction.
+     */
+    public void flush() {
+        if (!TransactionSynchronizationManager.hasResource(this)) { return; }
+        @SuppressWarnings("unchecked")
+        final List<JournalEntry> pendingJournalEntries = (List<JournalEntry>) TransactionSynchronizationManager.getResource(this);
+        if (pendingJournalEntries.isEmpty()) { return; }
+        final List<JournalEntry> journalEntriesToWrite = new ArrayList<>(pendingJournalEntries);
+        pendingJournalEntries.clear();
+        write(journalEntriesToWrite);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<JournalEntry> pendingJournalEntries() {
+        List<JournalEntry> pendingJournalEntries = (List<JournalEntry>) TransactionSynchronizationManager.getResource(this);
+        if (pendingJournalEntries == null) {
+            pendingJournalEntries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pendingJournalEntries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void beforeCommit(final boolean readOnly) {
+                    JournalEntryBatchWriter.this.flush();
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(JournalEntryBatchWriter.this);
+                }
+            });
+        }
+        return pendingJournalEntries;
+    }
+
+    private void write(final List<JournalEntry> journalEntries) {
+        final Long userId = currentUserId();
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final List<Object[]> batchArgs = new ArrayList<>(journalEntries.size());
+        for (final JournalEntry journalEntry : journalEntries) {
+            batchArgs.add(insertParameters(journalEntry, userId, now));
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+        logger.debug("Wrote " + journalEntries.size() + " journal entries in one batch");
+    }
+
+    /**
+     * @return the values bound to {@link #INSERT_SQL} for one leg, in the order
+     *         of its columns
+     */
+    static Object[] insertParameters(final JournalEntry journalEntry, final Long userId, final Timestamp now) {
+        return new Object[] { journalEntry.getGlAccount().getId(), journalEntry.getOffice().getId(), journalEntry.getCurrencyCode(),
+                journalEntry.getTransactionId(), idOf(journalEntry.getLoanTransaction()), idOf(journalEntry.getSavingsTransaction()),
+                idOf(journalEntry.getClientTransaction()), journalEntry.getShareTransactionId(), idOf(journalEntry.getPaymentDetails()),
+                journalEntry.isManualEntry(), new java.sql.Date(journalEntry.getTransactionDate().getTime()), journalEntry.getType(),
+                journalEntry.getAmount(), journalEntry.getDescription(), journalEntry.getEntityType(), journalEntry.getEntityId(),
+                journalEntry.getReferenceNumber(), userId, userId, now, now };
+    }
+
+    private static Long idOf(final AbstractPersistableCustom<Long> entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    /**
+     * Same auditor as used for entities saved through JPA: the authenticated
+     * user, or the super user when there is none.
+     */
+    private static Long currentUserId() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AppUser) { return ((AppUser) authentication
+                .getPrincipal()).getId(); }
+        return SUPER_USER_ID;
+    }
+}
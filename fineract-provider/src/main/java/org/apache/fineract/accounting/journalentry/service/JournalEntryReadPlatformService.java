@@ -18,7 +18,10 @@
  */
 package org.apache.fineract.accounting.journalentry.service;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
 
 import org.apache.fineract.accounting.journalentry.data.JournalEntryAssociationParametersData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
@@ -36,4 +39,7 @@ public interface JournalEntryReadPlatformService {
     OfficeOpeningBalancesData retrieveOfficeOpeningBalances(Long officeId, String currencyCode);
 
     Page<JournalEntryData> retrieveJournalEntriesByEntityId(String transactionId, Long entityId, Integer entityType) ;
+
+    Map<Long, BigDecimal> retrieveNetAmountsOfGLAccounts(Collection<Long> glAccountIds, Boolean onlyManualEntries, Date fromDate,
+            Date toDate, Long afterJournalEntryId, Long uptoJournalEntryId);
 }
@@ -25,8 +25,11 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.accounting.common.AccountingEnumerations;
@@ -40,11 +43,13 @@ import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.OfficeOpeningBalancesData;
 import org.apache.fineract.accounting.journalentry.data.TransactionDetailData;
 import org.apache.fineract.accounting.journalentry.data.TransactionTypeEnumData;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntriesNotFoundException;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.KeysetPageRequest;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -65,7 +70,9 @@ import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
@@ -73,6 +80,7 @@ import org.springframework.util.CollectionUtils;
 public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlatformService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final GLAccountReadPlatformService glAccountReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
     private final ColumnValidator columnValidator;
@@ -87,6 +95,7 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             final OfficeReadPlatformService officeReadPlatformService,
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.glAccountReadPlatformService = glAccountReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
@@ -252,8 +261,9 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             final JournalEntryAssociationParametersData associationParametersData) {
 
         GLJournalEntryMapper rm = new GLJournalEntryMapper(associationParametersData);
+        final boolean keysetPaged = searchParameters.isKeysetPaged();
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(keysetPaged ? "select " : "select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(rm.schema());
 
         final Object[] objectArray = new Object[15];
@@ -359,6 +369,21 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             whereClose = " and ";
         }
 
+        if (keysetPaged) {
+            final KeysetPageRequest keysetPageRequest = searchParameters.getKeysetPageRequest();
+            if (keysetPageRequest.hasCursor()) {
+                sqlBuilder.append(whereClose + " journalEntry.id > ?");
+                objectArray[arrayPos] = keysetPageRequest.getAfterId();
+                arrayPos = arrayPos + 1;
+
+                whereClose = " and ";
+            }
+            keysetPageRequest.appendOrderAndLimit(sqlBuilder, "journalEntry.id", searchParameters.getLimit());
+            final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
+            return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, rm,
+                    keysetPageRequest, searchParameters.getLimit(), "acc_gl_journal_entry");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -537,4 +562,56 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             throw new JournalEntriesNotFoundException(entityId);
         }
     }
+
+    /**
+     * Sums up the journal entries of all the given GL accounts in a single
+     * grouped query and returns the net amount (debits minus credits) per GL
+     * account. The optional journal entry id bounds allow a caller to fold in
+     * only the entries posted since it last looked
+     */
+    @Override
+    public Map<Long, BigDecimal> retrieveNetAmountsOfGLAccounts(final Collection<Long> glAccountIds, final Boolean onlyManualEntries,
+            final Date fromDate, final Date toDate, final Long afterJournalEntryId, final Long uptoJournalEntryId) {
+        final Map<Long, BigDecimal> netAmounts = new HashMap<>();
+        if (CollectionUtils.isEmpty(glAccountIds)) { return netAmounts; }
+
+        final DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
+        final Map<String, Object> paramMap = new HashMap<>();
+        final StringBuilder sqlBuilder = new StringBuilder(300);
+        sqlBuilder.append("select journalEntry.account_id as glAccountId,")
+                .append(" sum(if(journalEntry.type_enum = :debitType, journalEntry.amount, -journalEntry.amount)) as netAmount")
+                .append(" from acc_gl_journal_entry as journalEntry where journalEntry.account_id in (:glAccountIds)");
+        paramMap.put("debitType", JournalEntryType.DEBIT.getValue());
+        paramMap.put("glAccountIds", glAccountIds);
+
+        if (onlyManualEntries != null && onlyManualEntries) {
+            sqlBuilder.append(" and journalEntry.manual_entry = 1");
+        }
+        if (fromDate != null) {
+            sqlBuilder.append(" and journalEntry.entry_date >= :fromDate");
+            paramMap.put("fromDate", df.format(fromDate));
+        }
+        if (toDate != null) {
+            sqlBuilder.append(" and journalEntry.entry_date <= :toDate");
+            paramMap.put("toDate", df.format(toDate));
+        }
+        if (afterJournalEntryId != null) {
+            sqlBuilder.append(" and journalEntry.id > :afterJournalEntryId");
+            paramMap.put("afterJournalEntryId", afterJournalEntryId);
+        }
+        if (uptoJournalEntryId != null) {
+            sqlBuilder.append(" and journalEntry.id <= :uptoJournalEntryId");
+            paramMap.put("uptoJournalEntryId", uptoJournalEntryId);
+        }
+        sqlBuilder.append(" group by journalEntry.account_id");
+
+        this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                netAmounts.put(rs.getLong("glAccountId"), JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "netAmount"));
+            }
+        });
+        return netAmounts;
+    }
 }
@@ -22,6 +22,7 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +49,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -65,6 +67,10 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     private final FromJsonHelper fromApiJsonHelper;
 
     private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
+
+    // journal entries are read and their balances written in pages of this
+    // many rows, so memory use does not grow with the number of entries
+    private static final int RUNNING_BALANCE_BATCH_SIZE = 1000;
     
     // if a limit is not added to the running balance select statements below and the resultset is more than 400,000, 
     // the script will eat up all of the server memory
@@ -160,40 +166,8 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
         }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0 ; index < entryDatas.size() ; index++) {
-            	JournalEntryData entryData = entryDatas.get(index) ;
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql.add(sql) ;
-                batchIndex++ ;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size()-1) {
-                    // run a batch update of the 1000 update SQL statements
-                	String[] batch = new String[updateSql.size()] ;
-                	updateSql.toArray(batch) ;
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
-                }
-            }
-        }
-
+        final RunningBalanceCalculator calculator = new RunningBalanceCalculator(runningBalanceMap, officesRunningBalance);
+        streamJournalEntries(calculator, null, entityDate);
     }
 
     private void updateRunningBalance(Long officeId, Date entityDate) {
@@ -206,17 +180,96 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
             }
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
+        final RunningBalanceCalculator calculator = new RunningBalanceCalculator(null, Collections.singletonMap(officeId,
+                runningBalanceMap));
+        streamJournalEntries(calculator, officeId, entityDate);
+    }
+
+    /**
+     * Reads the journal entries dated on or after the given date in (account,
+     * date, id) order, one page of {@link #RUNNING_BALANCE_BATCH_SIZE} rows at
+     * a time, continuing each page from the last row of the previous one. Only
+     * the current page's updates are held in memory.
+     */
+    private void streamJournalEntries(final RunningBalanceCalculator calculator, final Long officeId, final Date entityDate) {
+        int pages = 0;
+        do {
+            final List<Object> params = new ArrayList<>();
+            if (officeId != null) {
+                params.add(officeId);
+            }
+            params.add(entityDate);
+            final boolean continuation = calculator.lastAccountId != null;
+            if (continuation) {
+                params.add(calculator.lastAccountId);
+                params.add(calculator.lastAccountId);
+                params.add(calculator.lastEntryDate);
+                params.add(calculator.lastEntryDate);
+                params.add(calculator.lastId);
+            }
+            final String sql = officeId == null ? this.entryMapper.organizationRunningBalanceSchema(continuation) : this.entryMapper
+                    .officeRunningBalanceSchema(continuation);
+            calculator.rowsInPage = 0;
+            this.jdbcTemplate.query(sql, params.toArray(), calculator);
+            calculator.flush();
+            pages++;
+        } while (calculator.rowsInPage == RUNNING_BALANCE_BATCH_SIZE);
+        logger.debug("Running balance updated for " + calculator.rowsUpdated + " journal entries in " + pages + " pages");
+    }
+
+    private final class RunningBalanceCalculator implements RowCallbackHandler {
+
+        private final Map<Long, BigDecimal> organizationRunningBalances;
+        private final Map<Long, Map<Long, BigDecimal>> officesRunningBalances;
+        private final List<Object[]> batchArgs = new ArrayList<>(RUNNING_BALANCE_BATCH_SIZE);
+        private Long lastAccountId;
+        private Date lastEntryDate;
+        private Long lastId;
+        private int rowsInPage;
+        private long rowsUpdated;
+
+        /**
+         * @param organizationRunningBalances
+         *            opening organization balances by account, or null when
+         *            only office balances are updated
+         */
+        RunningBalanceCalculator(final Map<Long, BigDecimal> organizationRunningBalances,
+                final Map<Long, Map<Long, BigDecimal>> officesRunningBalances) {
+            this.organizationRunningBalances = organizationRunningBalances;
+            this.officesRunningBalances = officesRunningBalances;
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final JournalEntryData entryData = JournalEntryRunningBalanceUpdateServiceImpl.this.entryMapper.mapRow(rs, this.rowsInPage);
+            this.lastAccountId = entryData.getGlAccountId();
+            this.lastEntryDate = rs.getDate("entryDate");
+            this.lastId = entryData.getId();
+            this.rowsInPage++;
+
+            Map<Long, BigDecimal> officeRunningBalanceMap = this.officesRunningBalances.get(entryData.getOfficeId());
+            if (officeRunningBalanceMap == null) {
+                officeRunningBalanceMap = new HashMap<>();
+                this.officesRunningBalances.put(entryData.getOfficeId(), officeRunningBalanceMap);
+            }
+            final BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
+            if (this.organizationRunningBalances == null) {
+                this.batchArgs.add(new Object[] { officeRunningBalance, entryData.getId() });
+            } else {
+                final BigDecimal runningBalance = calculateRunningBalance(entryData, this.organizationRunningBalances);
+                this.batchArgs.add(new Object[] { runningBalance, officeRunningBalance, entryData.getId() });
+            }
+        }
+
+        void flush() {
+            if (this.batchArgs.isEmpty()) { return; }
+            final String sql = this.organizationRunningBalances == null ? "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?"
+                    : "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=1, organization_running_balance=?, "
+                            + "office_running_balance=? WHERE id=?";
+            JournalEntryRunningBalanceUpdateServiceImpl.this.jdbcTemplate.batchUpdate(sql, this.batchArgs);
+            this.rowsUpdated += this.batchArgs.size();
+            this.batchArgs.clear();
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
     }
 
     private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
@@ -265,18 +318,24 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
+        private static final String RUNNING_BALANCE_SELECT = "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,"
+                + "je.amount as amount,je.entry_date as entryDate,glAccount.classification_enum as classification,je.office_id as officeId "
+                + "from acc_gl_journal_entry je , acc_gl_account glAccount where je.account_id = glAccount.id ";
+
+        private static final String RUNNING_BALANCE_CONTINUATION = "and (je.account_id > ? or (je.account_id = ? and (je.entry_date > ? "
+                + "or (je.entry_date = ? and je.id > ?)))) ";
+
+        private static final String RUNNING_BALANCE_ORDER = "order by je.account_id,je.entry_date,je.id limit "
+                + RUNNING_BALANCE_BATCH_SIZE;
+
+        public String officeRunningBalanceSchema(final boolean continuation) {
+            return RUNNING_BALANCE_SELECT + "and je.office_id=? and je.entry_date >= ? "
+                    + (continuation ? RUNNING_BALANCE_CONTINUATION : "") + RUNNING_BALANCE_ORDER;
         }
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        public String organizationRunningBalanceSchema(final boolean continuation) {
+            return RUNNING_BALANCE_SELECT + "and je.entry_date >= ? " + (continuation ? RUNNING_BALANCE_CONTINUATION : "")
+                    + RUNNING_BALANCE_ORDER;
         }
 
         @Override
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.api;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductToGLAccountMappingIndexData;
+import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToGLAccountMappingIndex;
+import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
+import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/productaccountmappingindex")
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Component
+@Scope("singleton")
+@Api(value = "Product Account Mapping Index", description = "Usage of the in-memory index of product to GL account mappings used when posting journal entries.")
+public class ProductToGLAccountMappingIndexApiResource {
+
+    private final PlatformSecurityContext context;
+    private final ProductToGLAccountMappingIndex mappingIndex;
+    private final DefaultToApiJsonSerializer<ProductToGLAccountMappingIndexData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public ProductToGLAccountMappingIndexApiResource(final PlatformSecurityContext context, final ProductToGLAccountMappingIndex mappingIndex,
+            final DefaultToApiJsonSerializer<ProductToGLAccountMappingIndexData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.context = context;
+        this.mappingIndex = mappingIndex;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    @GET
+    @ApiOperation(value = "Retrieve Product Account Mapping Index Statistics", notes = "Returns the hits, misses, hit rate, invalidations and expirations of the product to GL account mapping index of the current tenant.\n" + "\n" + "Example Requests:\n" + "\n" + "productaccountmappingindex")
+    public String retrieveStatistics(@Context final UriInfo uriInfo) {
+
+        final boolean hasNotPermission = this.context.authenticatedUser().hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ");
+        if (hasNotPermission) {
+            final String authorizationMessage = "User has no authority to view the product account mapping index statistics";
+            throw new NoAuthorizationException(authorizationMessage);
+        }
+
+        final ProductToGLAccountMappingIndexData indexData = this.mappingIndex.retrieveStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, indexData);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.data;
+
+/**
+ * Immutable data object representing the usage of the in-memory product to
+ * GL account mapping index.
+ */
+public class ProductToGLAccountMappingIndexData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final Long version;
+    @SuppressWarnings("unused")
+    private final int indexedProducts;
+    @SuppressWarnings("unused")
+    private final long hits;
+    @SuppressWarnings("unused")
+    private final long misses;
+    @SuppressWarnings("unused")
+    private final double hitRate;
+    @SuppressWarnings("unused")
+    private final long invalidations;
+    @SuppressWarnings("unused")
+    private final long expirations;
+
+    public static ProductToGLAccountMappingIndexData instance(final String tenantIdentifier, final Long version, final int indexedProducts,
+            final long hits, final long misses, final long invalidations, final long expirations) {
+        final long lookups = hits + misses;
+        final double hitRate = lookups == 0 ? 0 : (double) hits / lookups;
+        return new ProductToGLAccountMappingIndexData(tenantIdentifier, version, indexedProducts, hits, misses, hitRate, invalidations,
+                expirations);
+    }
+
+    private ProductToGLAccountMappingIndexData(final String tenantIdentifier, final Long version, final int indexedProducts,
+            final long hits, final long misses, final double hitRate, final long invalidations, final long expirations) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.version = version;
+        this.indexedProducts = indexedProducts;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.invalidations = invalidations;
+        this.expirations = expirations;
+    }
+}
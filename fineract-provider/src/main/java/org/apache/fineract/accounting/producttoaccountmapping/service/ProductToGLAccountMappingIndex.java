@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductToGLAccountMappingIndexData;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantCacheGenerations;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per tenant in-memory index of the GL accounts mapped to products and to
+ * financial activities, so that posting journal entries does not query the
+ * mapping tables for every debit and credit leg.
+ * 
+ * The mappings of a product are loaded on first use into the index of the
+ * current generation of the tenant, so mappings loaded while they were being
+ * changed are dropped together with that index. Invalidation only reaches the
+ * node that changed the mappings, so a tenant index is also replaced once it
+ * is older than its time to live.
+ */
+@Component
+public class ProductToGLAccountMappingIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long timeToLiveMillis;
+    private final ConcurrentMap<String, TenantMappings> mappingsByTenant = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TenantStatistics> statisticsByTenant = new ConcurrentHashMap<>();
+    private final TenantCacheGenerations generations = new TenantCacheGenerations();
+
+    @Autowired
+    public ProductToGLAccountMappingIndex(final RoutingDataSource dataSource,
+            @Value("${fineract.accounting.mapping.index.ttl.seconds:60}") final long timeToLiveSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.timeToLiveMillis = timeToLiveSeconds * 1000;
+    }
+
+    /**
+     * Returns the id of the GL account mapped to the product for the given
+     * mapping type, payment type and charge, or null when no such mapping
+     * exists. Pass null payment type and charge for the core mapping.
+     */
+    public Long findGLAccountId(final PortfolioProductType productType, final Long productId, final int financialAccountType,
+            final Long paymentTypeId, final Long chargeId) {
+        final TenantMappings tenantMappings = tenantMappings();
+        final String productKey = productType.getValue() + ":" + productId;
+        Map<String, Long> productMappings = tenantMappings.glAccountIdsByProduct.get(productKey);
+        if (productMappings == null) {
+            tenantMappings.statistics.misses.incrementAndGet();
+            productMappings = loadProductMappings(productType, productId);
+            final Map<String, Long> existing = tenantMappings.glAccountIdsByProduct.putIfAbsent(productKey, productMappings);
+            if (existing != null) {
+                productMappings = existing;
+            }
+        } else {
+            tenantMappings.statistics.hits.incrementAndGet();
+        }
+        return productMappings.get(mappingKey(financialAccountType, paymentTypeId, chargeId));
+    }
+
+    /**
+     * Returns the id of the GL account mapped to the financial activity, or
+     * null when the financial activity is not mapped.
+     */
+    public Long findGLAccountIdForFinancialActivity(final int financialActivityType) {
+        final TenantMappings tenantMappings = tenantMappings();
+        Map<Integer, Long> financialActivityMappings = tenantMappings.financialActivityMappings;
+        if (financialActivityMappings == null) {
+            tenantMappings.statistics.misses.incrementAndGet();
+            financialActivityMappings = loadFinancialActivityMappings();
+            tenantMappings.financialActivityMappings = financialActivityMappings;
+        } else {
+            tenantMappings.statistics.hits.incrementAndGet();
+        }
+        return financialActivityMappings.get(financialActivityType);
+    }
+
+    /**
+     * Called when product or financial activity mappings of the current
+     * tenant change, so its index is rebuilt on next use.
+     */
+    public void invalidate() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        this.generations.invalidate(tenantIdentifier);
+        tenantStatistics(tenantIdentifier).invalidations.incrementAndGet();
+    }
+
+    public ProductToGLAccountMappingIndexData retrieveStatistics() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        TenantMappings tenantMappings = this.mappingsByTenant.get(tenantIdentifier);
+        if (tenantMappings != null && !isServable(tenantIdentifier, tenantMappings)) {
+            tenantMappings = null;
+        }
+        final Long version = tenantMappings == null ? null : tenantMappings.generation;
+        final int indexedProducts = tenantMappings == null ? 0 : tenantMappings.glAccountIdsByProduct.size();
+        final TenantStatistics statistics = tenantStatistics(tenantIdentifier);
+        return ProductToGLAccountMappingIndexData.instance(tenantIdentifier, version, indexedProducts, statistics.hits.get(),
+                statistics.misses.get(), statistics.invalidations.get(), statistics.expirations.get());
+    }
+
+    private TenantMappings tenantMappings() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final TenantMappings tenantMappings = this.mappingsByTenant.get(tenantIdentifier);
+        if (tenantMappings != null && isServable(tenantIdentifier, tenantMappings)) { return tenantMappings; }
+
+        final TenantStatistics statistics = tenantStatistics(tenantIdentifier);
+        final TenantMappings newTenantMappings = new TenantMappings(this.generations.current(tenantIdentifier), statistics);
+        if (tenantMappings == null) {
+            final TenantMappings existing = this.mappingsByTenant.putIfAbsent(tenantIdentifier, newTenantMappings);
+            return existing == null ? newTenantMappings : existing;
+        }
+        if (this.mappingsByTenant.replace(tenantIdentifier, tenantMappings, newTenantMappings)) {
+            if (this.generations.isCurrent(tenantIdentifier, tenantMappings.generation)) {
+                statistics.expirations.incrementAndGet();
+            }
+            return newTenantMappings;
+        }
+        // replaced or dropped concurrently, use whatever is current now
+        final TenantMappings current = this.mappingsByTenant.get(tenantIdentifier);
+        return current == null ? newTenantMappings : current;
+    }
+
+    private boolean isServable(final String tenantIdentifier, final TenantMappings tenantMappings) {
+        return this.generations.isCurrent(tenantIdentifier, tenantMappings.generation) && !tenantMappings.isExpired(this.timeToLiveMillis);
+    }
+
+    private TenantStatistics tenantStatistics(final String tenantIdentifier) {
+        TenantStatistics statistics = this.statisticsByTenant.get(tenantIdentifier);
+        if (statistics == null) {
+            final TenantStatistics newStatistics = new TenantStatistics();
+            statistics = this.statisticsByTenant.putIfAbsent(tenantIdentifier, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        return statistics;
+    }
+
+    private Map<String, Long> loadProductMappings(final PortfolioProductType productType, final Long productId) {
+        final String sql = "select financial_account_type as financialAccountType, payment_type as paymentTypeId, "
+                + "charge_id as chargeId, gl_account_id as glAccountId from acc_product_mapping where product_id = ? and product_type = ?";
+        final Map<String, Long> productMappings = new HashMap<>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long glAccountId = JdbcSupport.getLong(rs, "glAccountId");
+                if (glAccountId != null) {
+                    productMappings.put(
+                            mappingKey(rs.getInt("financialAccountType"), JdbcSupport.getLong(rs, "paymentTypeId"),
+                                    JdbcSupport.getLong(rs, "chargeId")), glAccountId);
+                }
+            }
+        }, productId, productType.getValue());
+        return Collections.unmodifiableMap(productMappings);
+    }
+
+    private Map<Integer, Long> loadFinancialActivityMappings() {
+        final String sql = "select financial_activity_type as financialActivityType, gl_account_id as glAccountId "
+                + "from acc_gl_financial_activity_account";
+        final Map<Integer, Long> financialActivityMappings = new HashMap<>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                financialActivityMappings.put(rs.getInt("financialActivityType"), rs.getLong("glAccountId"));
+            }
+        });
+        return Collections.unmodifiableMap(financialActivityMappings);
+    }
+
+    private static String mappingKey(final int financialAccountType, final Long paymentTypeId, final Long chargeId) {
+        return financialAccountType + ":" + paymentTypeId + ":" + chargeId;
+    }
+
+    private static final class TenantMappings {
+
+        private final long generation;
+        private final long loadedAt;
+        private final TenantStatistics statistics;
+        private final ConcurrentMap<String, Map<String, Long>> glAccountIdsByProduct = new ConcurrentHashMap<>();
+        private volatile Map<Integer, Long> financialActivityMappings;
+
+        TenantMappings(final long generation, final TenantStatistics statistics) {
+            this.generation = generation;
+            this.loadedAt = System.currentTimeMillis();
+            this.statistics = statistics;
+        }
+
+        boolean isExpired(final long timeToLiveMillis) {
+            return System.currentTimeMillis() - this.loadedAt > timeToLiveMillis;
+        }
+    }
+
+    /**
+     * Usage of the index of one tenant, kept across generations of the index
+     */
+    private static final class TenantStatistics {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong invalidations = new AtomicLong();
+        private final AtomicLong expirations = new AtomicLong();
+    }
+}
@@ -31,12 +31,19 @@ import org.joda.time.LocalDate;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class ImportHandlerUtils {
 
+    private static final Map<Sheet, Map<String, Long>> ID_BY_NAME_INDEXES = Collections
+            .synchronizedMap(new WeakHashMap<Sheet, Map<String, Long>>());
+
     public static Integer getNumberOfRows(Sheet sheet, int primaryColumn) {
         Integer noOfEntries = 0;
         // getLastRowNum and getPhysicalNumberOfRows showing false values
@@ -275,50 +282,87 @@ public class ImportHandlerUtils {
         }
     }
 
+    /**
+     * Looks the name up in an index of the sheet that is built on the first
+     * lookup, instead of scanning the sheet for every row being imported.
+     */
     public static Long getIdByName (Sheet sheet, String name) {
-        String sheetName = sheet.getSheetName();
-        if(!sheetName.equals(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME)) {
+        if (name == null) {
+            return 0L;
+        }
+        Map<String, Long> index = ID_BY_NAME_INDEXES.get(sheet);
+        if (index == null) {
+            index = buildIdByNameIndex(sheet);
+            ID_BY_NAME_INDEXES.put(sheet, index);
+        }
+        final Long id = index.get(name);
+        return id == null ? 0L : id;
+    }
+
+    /**
+     * Drops the name indexes of the workbook's sheets once it is imported.
+     */
+    public static void releaseIdByNameIndexes(Workbook workbook) {
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            ID_BY_NAME_INDEXES.remove(workbook.getSheetAt(i));
+        }
+    }
+
+    private static Map<String, Long> buildIdByNameIndex(Sheet sheet) {
+        final String sheetName = sheet.getSheetName();
+        final Map<String, Long> index = new HashMap<>();
+        if (sheetName.equals(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME)) {
             for (Row row : sheet) {
-                for (Cell cell : row) {
-                    if(name!=null) {
-                        if (cell.getCellType() == Cell.CELL_TYPE_STRING && cell.getRichStringCellValue().getString().trim().equals(name)) {
-                            if (sheetName.equals(TemplatePopulateImportConstants.OFFICE_SHEET_NAME) ||
-                                    sheetName.equals(TemplatePopulateImportConstants.GL_ACCOUNTS_SHEET_NAME) ||
-                                    sheetName.equals(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME) ||
-                                    sheetName.equals(TemplatePopulateImportConstants.SHARED_PRODUCTS_SHEET_NAME)||
-                                    sheetName.equals(TemplatePopulateImportConstants.ROLES_SHEET_NAME)) {
-                                if (row.getCell(cell.getColumnIndex() - 1).getCellType() == Cell.CELL_TYPE_NUMERIC)
-                                    return ((Double) row.getCell(cell.getColumnIndex() - 1).getNumericCellValue()).longValue();
-                                return 0L;
-                            } else if (sheetName.equals(TemplatePopulateImportConstants.CLIENT_SHEET_NAME) ||
-                                    sheetName.equals(TemplatePopulateImportConstants.CENTER_SHEET_NAME) ||
-                                    sheetName.equals(TemplatePopulateImportConstants.GROUP_SHEET_NAME) ||
-                                    sheetName.equals(TemplatePopulateImportConstants.STAFF_SHEET_NAME))
-                                if (row.getCell(cell.getColumnIndex() + 1).getCellType() == Cell.CELL_TYPE_NUMERIC)
-                                    return ((Double) row.getCell(cell.getColumnIndex() + 1).getNumericCellValue()).longValue();
-                            return 0L;
-                        }
-                    }else {
-                        return 0L;
-                    }
+                for (int i = 0; i < 2; i++) {
+                    addToIdByNameIndex(index, row, row.getCell(i), -1);
                 }
             }
-        } else if (sheetName.equals(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME)) {
-            for(Row row : sheet) {
-                for(int i = 0; i < 2; i++) {
-                    if (name != null) {
-                        Cell cell = row.getCell(i);
-                        if (cell.getCellType() == Cell.CELL_TYPE_STRING && cell.getRichStringCellValue().getString().trim().equals(name)) {
-                            return ((Double) row.getCell(cell.getColumnIndex() - 1).getNumericCellValue()).longValue();
-                        }
-                    }else {
-                        return 0L;
-                    }
-                }
+            return index;
+        }
+
+        // the id is in the column before the name on these sheets and in the
+        // column after it on the client, center, group and staff sheets
+        int idColumnOffset = 0;
+        if (sheetName.equals(TemplatePopulateImportConstants.OFFICE_SHEET_NAME) ||
+                sheetName.equals(TemplatePopulateImportConstants.GL_ACCOUNTS_SHEET_NAME) ||
+                sheetName.equals(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME) ||
+                sheetName.equals(TemplatePopulateImportConstants.SHARED_PRODUCTS_SHEET_NAME)||
+                sheetName.equals(TemplatePopulateImportConstants.ROLES_SHEET_NAME)) {
+            idColumnOffset = -1;
+        } else if (sheetName.equals(TemplatePopulateImportConstants.CLIENT_SHEET_NAME) ||
+                sheetName.equals(TemplatePopulateImportConstants.CENTER_SHEET_NAME) ||
+                sheetName.equals(TemplatePopulateImportConstants.GROUP_SHEET_NAME) ||
+                sheetName.equals(TemplatePopulateImportConstants.STAFF_SHEET_NAME)) {
+            idColumnOffset = 1;
+        }
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                addToIdByNameIndex(index, row, cell, idColumnOffset);
+            }
+        }
+        return index;
+    }
+
+    private static void addToIdByNameIndex(Map<String, Long> index, Row row, Cell cell, int idColumnOffset) {
+        if (cell == null || cell.getCellType() != Cell.CELL_TYPE_STRING) {
+            return;
+        }
+        // the first occurrence of a name wins, as it did when scanning
+        final String name = cell.getRichStringCellValue().getString().trim();
+        if (index.containsKey(name)) {
+            return;
+        }
+        Long id = 0L;
+        final int idColumn = cell.getColumnIndex() + idColumnOffset;
+        if (idColumnOffset != 0 && idColumn >= 0) {
+            final Cell idCell = row.getCell(idColumn);
+            if (idCell != null && idCell.getCellType() == Cell.CELL_TYPE_NUMERIC) {
+                id = ((Double) idCell.getNumericCellValue()).longValue();
             }
         }
-        return 0L;
+        index.put(name, id);
     }
+
     public static String getCodeByName(Sheet sheet, String name) {
         String sheetName = sheet.getSheetName();
         sheetName.equals(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME);
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports the rows read from a workbook in chunks on a pool of worker threads
+ * created for the import. Every row is still submitted as its own command, so
+ * a failing row does not undo the other rows of its chunk. The workbook is not
+ * touched by the workers: the outcome of each row is returned so the handler
+ * can write the status cells once all chunks are done.
+ * 
+ * Rows are kept together by partition key, so all the transactions of an
+ * account are imported in sheet order by the same worker. Imports run
+ * serially unless fineract.bulkimport.threads is raised above its default of
+ * one.
+ */
+@Component
+public class ImportRowChunkExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(ImportRowChunkExecutor.class);
+
+    private final int threadCount;
+    private final int chunkSize;
+
+    @Autowired
+    public ImportRowChunkExecutor(@Value("${fineract.bulkimport.threads:1}") final int threadCount,
+            @Value("${fineract.bulkimport.chunk.size:200}") final int chunkSize) {
+        this.threadCount = Math.max(1, threadCount);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * @return the error message of each row, in the order of the rows, or null
+     *         for the rows that were imported
+     */
+    public <T> List<String> execute(final List<T> rows, final ImportRowProcessor<T> processor) {
+        final String[] errors = new String[rows.size()];
+        if (this.threadCount == 1 || rows.size() <= this.chunkSize) {
+            importChunk(rows, processor, allRowIndexes(rows.size()), errors);
+            return Arrays.asList(errors);
+        }
+        final List<List<Integer>> rowChunks = partitionIntoChunks(rows, processor);
+        final int chunks = rowChunks.size();
+
+        final long startTime = System.currentTimeMillis();
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(this.threadCount, chunks));
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(chunks);
+            for (final List<Integer> rowChunk : rowChunks) {
+                futures.add(executorService.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() {
+                        ThreadLocalContextUtil.setTenant(tenant);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        try {
+                            importChunk(rows, processor, rowChunk, errors);
+                            return null;
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                            ThreadLocalContextUtil.clearTenant();
+                        }
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final ExecutionException e) {
+            final Throwable realCause = e.getCause() != null ? e.getCause() : e;
+            throw new GeneralPlatformDomainRuleException("error.msg.bulkimport.chunk.failed", "Bulk import chunk failed with message "
+                    + realCause.getMessage(), realCause.getMessage());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeneralPlatformDomainRuleException("error.msg.bulkimport.interrupted",
+                    "Bulk import was interrupted while waiting for its chunks");
+        } finally {
+            executorService.shutdownNow();
+        }
+        logger.info("Imported " + rows.size() + " rows in " + chunks + " chunks on " + Math.min(this.threadCount, chunks)
+                + " threads in " + (System.currentTimeMillis() - startTime) + " ms");
+        return Arrays.asList(errors);
+    }
+
+    /**
+     * Groups the row indexes by partition key, keeping sheet order within each
+     * partition, and packs whole partitions into chunks of about the chunk
+     * size. A partition larger than the chunk size makes up a chunk of its own.
+     */
+    private <T> List<List<Integer>> partitionIntoChunks(final List<T> rows, final ImportRowProcessor<T> processor) {
+        final Map<Object, List<Integer>> rowIndexesByPartition = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            final Object partitionKey = processor.getPartitionKey(rows.get(i));
+            List<Integer> rowIndexes = rowIndexesByPartition.get(partitionKey);
+            if (rowIndexes == null) {
+                rowIndexes = new ArrayList<>();
+                rowIndexesByPartition.put(partitionKey, rowIndexes);
+            }
+            rowIndexes.add(i);
+        }
+
+        final List<List<Integer>> rowChunks = new ArrayList<>();
+        List<Integer> rowChunk = new ArrayList<>();
+        for (final List<Integer> rowIndexes : rowIndexesByPartition.values()) {
+            if (!rowChunk.isEmpty() && rowChunk.size() + rowIndexes.size() > this.chunkSize) {
+                rowChunks.add(rowChunk);
+                rowChunk = new ArrayList<>();
+            }
+            rowChunk.addAll(rowIndexes);
+        }
+        if (!rowChunk.isEmpty()) {
+            rowChunks.add(rowChunk);
+        }
+        return rowChunks;
+    }
+
+    private static List<Integer> allRowIndexes(final int rowCount) {
+        final List<Integer> rowIndexes = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rowIndexes.add(i);
+        }
+        return rowIndexes;
+    }
+
+    private static <T> void importChunk(final List<T> rows, final ImportRowProcessor<T> processor, final List<Integer> rowIndexes,
+            final String[] errors) {
+        for (final int i : rowIndexes) {
+            try {
+                processor.process(rows.get(i));
+            } catch (final RuntimeException ex) {
+                logger.error("Bulk import row failed", ex);
+                errors[i] = errorMessageOf(ex);
+            }
+        }
+    }
+
+    /**
+     * A null error marks the row as imported, so a failure without a user
+     * message is reported by the name of its exception instead.
+     */
+    private static String errorMessageOf(final RuntimeException ex) {
+        final String errorMessage = ImportHandlerUtils.getErrorMessage(ex);
+        return errorMessage != null ? errorMessage : ex.getClass().getCanonicalName();
+    }
+}
@@ -30,10 +30,13 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowChunkExecutor;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowProcessor;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionData;
 import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -42,6 +45,7 @@ import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 @Service
@@ -52,11 +56,14 @@ public class LoanRepaymentImportHandler implements ImportHandler {
     private final LoanReadPlatformService loanReadPlatformService;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowChunkExecutor importRowChunkExecutor;
     @Autowired
     public LoanRepaymentImportHandler(final PortfolioCommandSourceWritePlatformService
-            commandsSourceWritePlatformService, final LoanReadPlatformService loanReadPlatformService) {
+            commandsSourceWritePlatformService, final LoanReadPlatformService loanReadPlatformService,
+            final ImportRowChunkExecutor importRowChunkExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.loanReadPlatformService = loanReadPlatformService;
+        this.importRowChunkExecutor = importRowChunkExecutor;
     }
 
     @Override
@@ -102,32 +109,44 @@ public class LoanRepaymentImportHandler implements ImportHandler {
         Sheet loanRepaymentSheet = workbook.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
         int successCount=0;
         int errorCount=0;
-        String errorMessage="";
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
+        final Gson gson = gsonBuilder.create();
 
-        for (LoanTransactionData loanRepayment : loanRepayments) {
-            try {
+        final List<String> errorMessages = this.importRowChunkExecutor.execute(loanRepayments,
+                new ImportRowProcessor<LoanTransactionData>() {
 
-                JsonObject loanRepaymentJsonob=gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
-                loanRepaymentJsonob.remove("manuallyReversed");
-                String payload=loanRepaymentJsonob.toString();
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .loanRepaymentTransaction(loanRepayment.getAccountId()) //
-                        .withJson(payload) //
-                        .build(); //
-                commandsSourceWritePlatformService.logCommandSource(commandRequest);
+                    @Override
+                    public Object getPartitionKey(final LoanTransactionData loanRepayment) {
+                        return loanRepayment.getAccountId();
+                    }
+
+                    @Override
+                    public void process(final LoanTransactionData loanRepayment) {
+                        JsonObject loanRepaymentJsonob = gson.toJsonTree(loanRepayment).getAsJsonObject();
+                        loanRepaymentJsonob.remove("manuallyReversed");
+                        String payload = loanRepaymentJsonob.toString();
+                        final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                                .loanRepaymentTransaction(loanRepayment.getAccountId()) //
+                                .withJson(payload) //
+                                .build(); //
+                        commandsSourceWritePlatformService.logCommandSource(commandRequest);
+                    }
+                });
+
+        final CellStyle importedStyle = ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN);
+        for (int i = 0; i < loanRepayments.size(); i++) {
+            final LoanTransactionData loanRepayment = loanRepayments.get(i);
+            final String errorMessage = errorMessages.get(i);
+            if (errorMessage == null) {
                 successCount++;
                 Cell statusCell = loanRepaymentSheet.getRow(loanRepayment.getRowIndex()).createCell(LoanRepaymentConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
-                statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            }catch (RuntimeException ex){
+                statusCell.setCellStyle(importedStyle);
+            } else {
                 errorCount++;
-                ex.printStackTrace();
-                errorMessage=ImportHandlerUtils.getErrorMessage(ex);
                 ImportHandlerUtils.writeErrorMessage(loanRepaymentSheet,loanRepayment.getRowIndex(),errorMessage,LoanRepaymentConstants.STATUS_COL);
             }
-
         }
         loanRepaymentSheet.setColumnWidth(LoanRepaymentConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
         ImportHandlerUtils.writeString(LoanRepaymentConstants.STATUS_COL,
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.importhandler.savings;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import org.apache.fineract.commands.domain.CommandWrapper;
@@ -28,9 +29,10 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TransactionConsta
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowChunkExecutor;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowProcessor;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.SavingsAccountTransactionEnumValueSerialiser;
-import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.exception.*;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionEnumData;
@@ -49,11 +51,13 @@ public class SavingsTransactionImportHandler implements ImportHandler {
     private String savingsAccountId = "";
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowChunkExecutor importRowChunkExecutor;
 
     @Autowired
     public SavingsTransactionImportHandler(final PortfolioCommandSourceWritePlatformService
-        commandsSourceWritePlatformService) {
+        commandsSourceWritePlatformService, final ImportRowChunkExecutor importRowChunkExecutor) {
     this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+    this.importRowChunkExecutor = importRowChunkExecutor;
     }
 
     @Override
@@ -105,41 +109,55 @@ public class SavingsTransactionImportHandler implements ImportHandler {
         Sheet savingsTransactionSheet = workbook.getSheet(TemplatePopulateImportConstants.SAVINGS_TRANSACTION_SHEET_NAME);
         int successCount=0;
         int errorCount=0;
-        String errorMessage="";
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
         gsonBuilder.registerTypeAdapter(SavingsAccountTransactionEnumData.class
                 ,new SavingsAccountTransactionEnumValueSerialiser());
+        final Gson gson = gsonBuilder.create();
 
-        for (SavingsAccountTransactionData transaction : savingsTransactions) {
-            try {
-                JsonObject savingsTransactionJsonob=gsonBuilder.create().toJsonTree(transaction).getAsJsonObject();
-                savingsTransactionJsonob.remove("transactionType");
-                savingsTransactionJsonob.remove("reversed");
-                savingsTransactionJsonob.remove("interestedPostedAsOn");
-                String payload= savingsTransactionJsonob.toString();
-                CommandWrapper commandRequest=null;
-                if (transaction.getTransactionType().getValue().equals("Withdrawal")) {
-                    commandRequest = new CommandWrapperBuilder() //
-                            .savingsAccountWithdrawal(transaction.getSavingsAccountId()) //
-                            .withJson(payload) //
-                            .build(); //
-
-                }else if (transaction.getTransactionType().getValue().equals("Deposit")){
-                    commandRequest = new CommandWrapperBuilder() //
-                            .savingsAccountDeposit(transaction.getSavingsAccountId()) //
-                            .withJson(payload) //
-                            .build();
-                }
-                final CommandProcessingResult result = commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        final List<String> errorMessages = this.importRowChunkExecutor.execute(savingsTransactions,
+                new ImportRowProcessor<SavingsAccountTransactionData>() {
+
+                    @Override
+                    public Object getPartitionKey(final SavingsAccountTransactionData transaction) {
+                        return transaction.getSavingsAccountId();
+                    }
+
+                    @Override
+                    public void process(final SavingsAccountTransactionData transaction) {
+                        JsonObject savingsTransactionJsonob = gson.toJsonTree(transaction).getAsJsonObject();
+                        savingsTransactionJsonob.remove("transactionType");
+                        savingsTransactionJsonob.remove("reversed");
+                        savingsTransactionJsonob.remove("interestedPostedAsOn");
+                        String payload = savingsTransactionJsonob.toString();
+                        CommandWrapper commandRequest = null;
+                        if (transaction.getTransactionType().getValue().equals("Withdrawal")) {
+                            commandRequest = new CommandWrapperBuilder() //
+                                    .savingsAccountWithdrawal(transaction.getSavingsAccountId()) //
+                                    .withJson(payload) //
+                                    .build(); //
+
+                        } else if (transaction.getTransactionType().getValue().equals("Deposit")) {
+                            commandRequest = new CommandWrapperBuilder() //
+                                    .savingsAccountDeposit(transaction.getSavingsAccountId()) //
+                                    .withJson(payload) //
+                                    .build();
+                        }
+                        commandsSourceWritePlatformService.logCommandSource(commandRequest);
+                    }
+                });
+
+        final CellStyle importedStyle = ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN);
+        for (int i = 0; i < savingsTransactions.size(); i++) {
+            final SavingsAccountTransactionData transaction = savingsTransactions.get(i);
+            final String errorMessage = errorMessages.get(i);
+            if (errorMessage == null) {
                 successCount++;
                 Cell statusCell = savingsTransactionSheet.getRow(transaction.getRowIndex()).createCell(TransactionConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
-                statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            }catch (RuntimeException ex){
+                statusCell.setCellStyle(importedStyle);
+            } else {
                 errorCount++;
-                ex.printStackTrace();
-                errorMessage=ImportHandlerUtils.getErrorMessage(ex);
                 ImportHandlerUtils.writeErrorMessage(savingsTransactionSheet,transaction.getRowIndex(),errorMessage,TransactionConstants.STATUS_COL);
             }
         }
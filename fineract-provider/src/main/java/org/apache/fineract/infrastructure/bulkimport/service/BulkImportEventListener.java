@@ -31,6 +31,7 @@ import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -40,6 +41,8 @@ import org.apache.fineract.infrastructure.documentmanagement.domain.Document;
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformService;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
@@ -48,6 +51,7 @@ import org.springframework.stereotype.Service;
 @Service
 public class BulkImportEventListener implements ApplicationListener<BulkImportEvent> {
 
+    private final static Logger logger = LoggerFactory.getLogger(BulkImportEventListener.class);
 
     private final TenantDetailsService tenantDetailsService;
     private final ApplicationContext applicationContext;
@@ -141,7 +145,16 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
         }
 
         final Workbook workbook = event.getWorkbook();
-        final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
+        final long startTime = System.currentTimeMillis();
+        final Count count;
+        try {
+            count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
+        } finally {
+            ImportHandlerUtils.releaseIdByNameIndexes(workbook);
+        }
+        logger.info("Bulk import " + importDocument.getId() + " of " + entityType.name() + " finished in "
+                + (System.currentTimeMillis() - startTime) + " ms with " + count.getSuccessCount() + " rows imported and "
+                + count.getErrorCount() + " errors");
         importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
         this.importRepository.save(importDocument);
 
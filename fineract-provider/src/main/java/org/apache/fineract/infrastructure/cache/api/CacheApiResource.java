@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -37,12 +38,15 @@ import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.TenantDetailsCacheData;
 import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Scope;
@@ -64,17 +68,23 @@ public class CacheApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
+    private final TenantDetailsCache tenantDetailsCache;
+    private final DefaultToApiJsonSerializer<TenantDetailsCacheData> tenantCacheToApiJsonSerializer;
 
     @Autowired
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
             final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
-            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final TenantDetailsCache tenantDetailsCache,
+            final DefaultToApiJsonSerializer<TenantDetailsCacheData> tenantCacheToApiJsonSerializer) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.tenantDetailsCache = tenantDetailsCache;
+        this.tenantCacheToApiJsonSerializer = tenantCacheToApiJsonSerializer;
     }
 
     @GET
@@ -102,4 +112,31 @@ public class CacheApiResource {
 
         return this.toApiJsonSerializer.serialize(result);
     }
+
+    @GET
+    @Path("tenants")
+    @ApiOperation(value = "Retrieve Tenant Details Cache Statistics", notes = "Returns the hits, misses and cached entries of the current tenant in the cache of tenant details used while resolving the tenant of a request.\n" + "\n" + "Example Requests:\n" + "\n" + "caches/tenants")
+    public String retrieveTenantCacheStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final TenantDetailsCacheData statistics = this.tenantDetailsCache
+                .retrieveStatistics(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.tenantCacheToApiJsonSerializer.serialize(settings, statistics);
+    }
+
+    @DELETE
+    @Path("tenants")
+    @ApiOperation(value = "Invalidate Tenant Details Cache", notes = "Removes the current tenant from the cache of tenant details so that changes to its entry in the tenants database are picked up immediately.")
+    public String invalidateTenantCache() {
+
+        this.context.authenticatedUser().validateHasPermissionTo("UPDATE_" + this.resourceNameForPermissions);
+
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        this.tenantDetailsCache.invalidate(tenantIdentifier);
+
+        return this.tenantCacheToApiJsonSerializer.serialize(this.tenantDetailsCache.retrieveStatistics(tenantIdentifier));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.data;
+
+/**
+ * Immutable data object representing the statistics of the tenant details
+ * cache for one tenant.
+ */
+public class TenantDetailsCacheData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final long hits;
+    @SuppressWarnings("unused")
+    private final long misses;
+    @SuppressWarnings("unused")
+    private final int cachedEntries;
+    @SuppressWarnings("unused")
+    private final long timeToLiveSeconds;
+
+    public static TenantDetailsCacheData instance(final String tenantIdentifier, final long hits, final long misses,
+            final int cachedEntries, final long timeToLiveSeconds) {
+        return new TenantDetailsCacheData(tenantIdentifier, hits, misses, cachedEntries, timeToLiveSeconds);
+    }
+
+    private TenantDetailsCacheData(final String tenantIdentifier, final long hits, final long misses, final int cachedEntries,
+            final long timeToLiveSeconds) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.hits = hits;
+        this.misses = misses;
+        this.cachedEntries = cachedEntries;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+}
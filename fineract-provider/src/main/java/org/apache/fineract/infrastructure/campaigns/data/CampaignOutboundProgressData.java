@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.campaigns.data;
+
+import java.util.Date;
+
+/**
+ * Immutable data object representing the progress of the latest run of a
+ * campaign since startup. When the campaign has not run, only the campaign id
+ * and <code>started = false</code> are returned.
+ */
+public class CampaignOutboundProgressData {
+
+    @SuppressWarnings("unused")
+    private final Long campaignId;
+    @SuppressWarnings("unused")
+    private final boolean started;
+    @SuppressWarnings("unused")
+    private final boolean completed;
+    @SuppressWarnings("unused")
+    private final Integer totalRecipients;
+    @SuppressWarnings("unused")
+    private final Integer processedRecipients;
+    @SuppressWarnings("unused")
+    private final Integer messagesWritten;
+    @SuppressWarnings("unused")
+    private final Integer skippedRecipients;
+    @SuppressWarnings("unused")
+    private final Date startedOn;
+    @SuppressWarnings("unused")
+    private final Date completedOn;
+
+    public static CampaignOutboundProgressData instance(final Long campaignId, final boolean completed, final int totalRecipients,
+            final int processedRecipients, final int messagesWritten, final int skippedRecipients, final Date startedOn,
+            final Date completedOn) {
+        return new CampaignOutboundProgressData(campaignId, true, completed, totalRecipients, processedRecipients, messagesWritten,
+                skippedRecipients, startedOn, completedOn);
+    }
+
+    public static CampaignOutboundProgressData notStarted(final Long campaignId) {
+        return new CampaignOutboundProgressData(campaignId, false, false, null, null, null, null, null, null);
+    }
+
+    private CampaignOutboundProgressData(final Long campaignId, final boolean started, final boolean completed,
+            final Integer totalRecipients, final Integer processedRecipients, final Integer messagesWritten,
+            final Integer skippedRecipients, final Date startedOn, final Date completedOn) {
+        this.campaignId = campaignId;
+        this.started = started;
+        this.completed = completed;
+        this.totalRecipients = totalRecipients;
+        this.processedRecipients = processedRecipients;
+        this.messagesWritten = messagesWritten;
+        this.skippedRecipients = skippedRecipients;
+        this.startedOn = startedOn;
+        this.completedOn = completedOn;
+    }
+}
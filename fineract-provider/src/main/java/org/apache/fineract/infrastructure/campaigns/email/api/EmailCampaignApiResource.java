@@ -32,11 +32,13 @@ import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.campaigns.data.CampaignOutboundProgressData;
 import org.apache.fineract.infrastructure.campaigns.email.data.PreviewCampaignMessage;
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailBusinessRulesData;
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailCampaignData;
 import org.apache.fineract.infrastructure.campaigns.email.service.EmailCampaignReadPlatformService;
 import org.apache.fineract.infrastructure.campaigns.email.service.EmailCampaignWritePlatformService;
+import org.apache.fineract.infrastructure.campaigns.helper.CampaignOutboundBatchWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -81,6 +83,8 @@ public class EmailCampaignApiResource {
     private final EmailCampaignWritePlatformService emailCampaignWritePlatformService;
 
     private final DefaultToApiJsonSerializer<PreviewCampaignMessage> previewCampaignMessageDefaultToApiJsonSerializer;
+    private final CampaignOutboundBatchWriter campaignOutboundBatchWriter;
+    private final DefaultToApiJsonSerializer<CampaignOutboundProgressData> progressToApiJsonSerializer;
 
 
     @Autowired
@@ -88,7 +92,9 @@ public class EmailCampaignApiResource {
                                   final EmailCampaignReadPlatformService emailCampaignReadPlatformService, final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
                                   final DefaultToApiJsonSerializer<EmailCampaignData> emailCampaignDataDefaultToApiJsonSerializer,
                                   final FromJsonHelper fromJsonHelper, final EmailCampaignWritePlatformService emailCampaignWritePlatformService,
-                                  final DefaultToApiJsonSerializer<PreviewCampaignMessage> previewCampaignMessageDefaultToApiJsonSerializer) {
+                                  final DefaultToApiJsonSerializer<PreviewCampaignMessage> previewCampaignMessageDefaultToApiJsonSerializer,
+                                  final CampaignOutboundBatchWriter campaignOutboundBatchWriter,
+                                  final DefaultToApiJsonSerializer<CampaignOutboundProgressData> progressToApiJsonSerializer) {
         this.context = context;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
@@ -98,6 +104,8 @@ public class EmailCampaignApiResource {
         this.fromJsonHelper = fromJsonHelper;
         this.emailCampaignWritePlatformService = emailCampaignWritePlatformService;
         this.previewCampaignMessageDefaultToApiJsonSerializer = previewCampaignMessageDefaultToApiJsonSerializer;
+        this.campaignOutboundBatchWriter = campaignOutboundBatchWriter;
+        this.progressToApiJsonSerializer = progressToApiJsonSerializer;
     }
 
 
@@ -113,6 +121,16 @@ public class EmailCampaignApiResource {
 
     }
 
+    @GET
+    @Path("{resourceId}/progress")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveCampaignProgress(@PathParam("resourceId") final Long resourceId){
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final CampaignOutboundProgressData progress = this.campaignOutboundBatchWriter.retrieveEmailProgress(resourceId);
+        return this.progressToApiJsonSerializer.serialize(progress);
+    }
+
     @GET
     @Produces({ MediaType.APPLICATION_JSON })
     public String retrieveAllCampaign(@Context final UriInfo uriInfo) {
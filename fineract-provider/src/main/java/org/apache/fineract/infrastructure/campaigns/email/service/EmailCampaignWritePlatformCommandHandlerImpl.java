@@ -18,9 +18,6 @@
  */
 package org.apache.fineract.infrastructure.campaigns.email.service;
 
-import com.github.mustachejava.DefaultMustacheFactory;
-import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 import com.google.gson.Gson;
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
@@ -51,6 +48,7 @@ import org.apache.fineract.infrastructure.campaigns.email.domain.*;
 import org.apache.fineract.infrastructure.campaigns.email.exception.EmailCampaignMustBeClosedToBeDeletedException;
 import org.apache.fineract.infrastructure.campaigns.email.exception.EmailCampaignMustBeClosedToEditException;
 import org.apache.fineract.infrastructure.campaigns.email.exception.EmailCampaignNotFound;
+import org.apache.fineract.infrastructure.campaigns.helper.CampaignOutboundBatchWriter;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
@@ -65,6 +63,7 @@ import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
+import org.apache.fineract.template.service.CompiledTemplateCache;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,6 +96,8 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
     private final LoanRepository loanRepository;
     private final SavingsAccountRepository savingsAccountRepository;
     private final EmailMessageJobEmailService emailMessageJobEmailService;
+    private final CompiledTemplateCache compiledTemplateCache;
+    private final CampaignOutboundBatchWriter campaignOutboundBatchWriter;
 
     @Autowired
     public EmailCampaignWritePlatformCommandHandlerImpl(final PlatformSecurityContext context,
@@ -105,7 +106,8 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
             final EmailMessageRepository emailMessageRepository, final ClientRepositoryWrapper clientRepositoryWrapper,
             final ReadReportingService readReportingService, final GenericDataService genericDataService,
             final FromJsonHelper fromJsonHelper, final LoanRepository loanRepository,
-            final SavingsAccountRepository savingsAccountRepository, final EmailMessageJobEmailService emailMessageJobEmailService) {
+            final SavingsAccountRepository savingsAccountRepository, final EmailMessageJobEmailService emailMessageJobEmailService,
+            final CompiledTemplateCache compiledTemplateCache, final CampaignOutboundBatchWriter campaignOutboundBatchWriter) {
         this.context = context;
         this.emailCampaignRepository = emailCampaignRepository;
         this.emailCampaignValidator = emailCampaignValidator;
@@ -119,6 +121,8 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
         this.loanRepository = loanRepository;
         this.savingsAccountRepository = savingsAccountRepository;
         this.emailMessageJobEmailService = emailMessageJobEmailService;
+        this.compiledTemplateCache = compiledTemplateCache;
+        this.campaignOutboundBatchWriter = campaignOutboundBatchWriter;
     }
 
     @Transactional
@@ -228,19 +232,8 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                     queryParamForRunReport);
 
             if (runReportObject != null) {
-                for (HashMap<String, Object> entry : runReportObject) {
-                    String message = this.compileEmailTemplate(messageTemplate, campaignName, entry);
-                    Integer clientId = (Integer) entry.get("id");
-                    EmailCampaign emailCampaign = this.emailCampaignRepository.findOne(campaignId);
-                    Client client = this.clientRepositoryWrapper.findOneWithNotFoundDetection(clientId.longValue());
-                    String emailAddress = client.emailAddress();
-
-                    if (emailAddress != null && isValidEmail(emailAddress)) {
-                        EmailMessage emailMessage = EmailMessage.pendingEmail(null, client, null, emailCampaign, emailSubject, message,
-                                emailAddress, campaignName);
-                        this.emailMessageRepository.save(emailMessage);
-                    }
-                }
+                this.campaignOutboundBatchWriter.writeEmailMessages(campaignId, campaignName, emailSubject, messageTemplate,
+                        runReportObject);
             }
         } catch (final IOException e) {
             // TODO throw something here
@@ -406,13 +399,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
 
     private String compileEmailTemplate(final String textMessageTemplate, final String campaignName,
             final Map<String, Object> emailParams) {
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(textMessageTemplate), campaignName);
-
-        final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, emailParams);
-
-        return stringWriter.toString();
+        return this.compiledTemplateCache.render(campaignName, textMessageTemplate, emailParams);
     }
 
     @SuppressWarnings({ "unused", "rawtypes" })
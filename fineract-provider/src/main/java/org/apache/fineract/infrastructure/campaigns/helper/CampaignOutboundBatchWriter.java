@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.campaigns.helper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.campaigns.data.CampaignOutboundProgressData;
+import org.apache.fineract.infrastructure.campaigns.email.domain.EmailMessageStatusType;
+import org.apache.fineract.infrastructure.campaigns.email.service.EmailCampaignWritePlatformCommandHandlerImpl;
+import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.apache.fineract.template.service.CompiledTemplateCache;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes the outbound messages of a campaign run straight into the outbound
+ * tables. Recipients are processed in batches: the messages of a batch are
+ * rendered in parallel, the recipients are validated with one query and the
+ * rows are inserted with one JDBC batch in their own transaction, so no
+ * entities pile up in the persistence context however large the campaign
+ * report is. The progress of the latest run of each campaign is kept per
+ * tenant so it can be followed while the messages are being queued.
+ */
+@Component
+public class CampaignOutboundBatchWriter {
+
+    private final static Logger logger = LoggerFactory.getLogger(CampaignOutboundBatchWriter.class);
+
+    private static final String SMS = "sms";
+    private static final String EMAIL = "email";
+
+    private static final String INSERT_SMS_SQL = "insert into sms_messages_outbound (client_id, campaign_id, status_enum, mobile_no, "
+            + "message, submittedon_date, is_notification) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EMAIL_SQL = "insert into scheduled_email_messages_outbound (client_id, email_campaign_id, "
+            + "status_enum, email_address, email_subject, message, campaign_name, submittedon_date) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CompiledTemplateCache compiledTemplateCache;
+    private final int batchSize;
+    private final ConcurrentMap<String, ConcurrentMap<String, CampaignOutboundProgress>> progressByTenant = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CampaignOutboundBatchWriter(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final CompiledTemplateCache compiledTemplateCache,
+            @Value("${fineract.campaigns.outbound.batch.size:1000}") final int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compiledTemplateCache = compiledTemplateCache;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Queues a pending SMS (or notification) for every row of the campaign
+     * report. Rows without a mobile number are skipped, as are the clients
+     * without a device registration for notification campaigns.
+     */
+    public void writeSmsMessages(final SmsCampaign smsCampaign, final List<? extends Map<String, Object>> recipients) {
+        final CampaignOutboundProgress progress = startProgress(SMS, smsCampaign.getId(), recipients.size());
+        final boolean notification = smsCampaign.isNotification();
+        final Date submittedOnDate = LocalDate.now().toDate();
+
+        for (int from = 0; from < recipients.size(); from += this.batchSize) {
+            final List<? extends Map<String, Object>> batch = recipients.subList(from, Math.min(from + this.batchSize, recipients.size()));
+            final List<String> messages = this.compiledTemplateCache.renderAll(smsCampaign.getCampaignName(), smsCampaign.getMessage(),
+                    batch);
+            final Set<Long> clientIds = notification ? retrieveRegisteredClientIds(clientIdsOf(batch))
+                    : retrieveExistingClientIds(clientIdsOf(batch));
+
+            final List<Object[]> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                final Long clientId = clientIdOf(batch.get(i));
+                final Object mobileNo = batch.get(i).get("mobileNo");
+                if (!clientIds.contains(clientId) || (!notification && mobileNo == null)) {
+                    continue;
+                }
+                rows.add(new Object[] { clientId, smsCampaign.getId(), SmsMessageStatusType.PENDING.getValue(),
+                        mobileNo == null ? null : mobileNo.toString(), messages.get(i), submittedOnDate, notification });
+            }
+            insertBatch(INSERT_SMS_SQL, rows);
+            progress.batchWritten(batch.size(), rows.size());
+            logProgress(SMS, smsCampaign.getId(), progress);
+        }
+        progress.complete();
+    }
+
+    /**
+     * Queues a pending email for every row of the campaign report whose
+     * client has a valid email address.
+     */
+    public void writeEmailMessages(final Long campaignId, final String campaignName, final String emailSubject,
+            final String messageTemplate, final List<? extends Map<String, Object>> recipients) {
+        final CampaignOutboundProgress progress = startProgress(EMAIL, campaignId, recipients.size());
+        final Date submittedOnDate = LocalDate.now().toDate();
+
+        for (int from = 0; from < recipients.size(); from += this.batchSize) {
+            final List<? extends Map<String, Object>> batch = recipients.subList(from, Math.min(from + this.batchSize, recipients.size()));
+            final List<String> messages = this.compiledTemplateCache.renderAll(campaignName, messageTemplate, batch);
+            final Map<Long, String> emailAddresses = retrieveEmailAddresses(clientIdsOf(batch));
+
+            final List<Object[]> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                final Long clientId = clientIdOf(batch.get(i));
+                final String emailAddress = emailAddresses.get(clientId);
+                if (emailAddress == null || !EmailCampaignWritePlatformCommandHandlerImpl.isValidEmail(emailAddress)) {
+                    continue;
+                }
+                rows.add(new Object[] { clientId, campaignId, EmailMessageStatusType.PENDING.getValue(), emailAddress, emailSubject,
+                        messages.get(i), campaignName, submittedOnDate });
+            }
+            insertBatch(INSERT_EMAIL_SQL, rows);
+            progress.batchWritten(batch.size(), rows.size());
+            logProgress(EMAIL, campaignId, progress);
+        }
+        progress.complete();
+    }
+
+    /**
+     * @return the progress of the latest run of the SMS campaign on the
+     *         current tenant since startup
+     */
+    public CampaignOutboundProgressData retrieveSmsProgress(final Long campaignId) {
+        return retrieveProgress(SMS, campaignId);
+    }
+
+    /**
+     * @return the progress of the latest run of the email campaign on the
+     *         current tenant since startup
+     */
+    public CampaignOutboundProgressData retrieveEmailProgress(final Long campaignId) {
+        return retrieveProgress(EMAIL, campaignId);
+    }
+
+    private CampaignOutboundProgressData retrieveProgress(final String kind, final Long campaignId) {
+        final CampaignOutboundProgress progress = retrieveTenantProgress().get(progressKey(kind, campaignId));
+        return progress == null ? CampaignOutboundProgressData.notStarted(campaignId) : progress.toData();
+    }
+
+    /**
+     * Replaces the progress of the previous run of the campaign, so one entry
+     * is kept per campaign and tenant.
+     */
+    private CampaignOutboundProgress startProgress(final String kind, final Long campaignId, final int totalRecipients) {
+        final CampaignOutboundProgress progress = new CampaignOutboundProgress(campaignId, totalRecipients);
+        retrieveTenantProgress().put(progressKey(kind, campaignId), progress);
+        return progress;
+    }
+
+    private ConcurrentMap<String, CampaignOutboundProgress> retrieveTenantProgress() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        ConcurrentMap<String, CampaignOutboundProgress> tenantProgress = this.progressByTenant.get(tenantIdentifier);
+        if (tenantProgress == null) {
+            tenantProgress = new ConcurrentHashMap<>();
+            final ConcurrentMap<String, CampaignOutboundProgress> existing = this.progressByTenant.putIfAbsent(tenantIdentifier,
+                    tenantProgress);
+            if (existing != null) {
+                tenantProgress = existing;
+            }
+        }
+        return tenantProgress;
+    }
+
+    private static String progressKey(final String kind, final Long campaignId) {
+        return kind + ":" + campaignId;
+    }
+
+    private static void logProgress(final String kind, final Long campaignId, final CampaignOutboundProgress progress) {
+        logger.info("Campaign " + kind + ":" + campaignId + " " + progress.summary());
+    }
+
+    private void insertBatch(final String sql, final List<Object[]> rows) {
+        if (rows.isEmpty()) { return; }
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(final TransactionStatus status) {
+                CampaignOutboundBatchWriter.this.jdbcTemplate.batchUpdate(sql, rows);
+            }
+        });
+    }
+
+    private static Long clientIdOf(final Map<String, Object> recipient) {
+        final Object id = recipient.get("id");
+        return id instanceof Number ? ((Number) id).longValue() : null;
+    }
+
+    private static Set<Long> clientIdsOf(final List<? extends Map<String, Object>> recipients) {
+        final Set<Long> clientIds = new HashSet<>();
+        for (final Map<String, Object> recipient : recipients) {
+            final Long clientId = clientIdOf(recipient);
+            if (clientId != null) {
+                clientIds.add(clientId);
+            }
+        }
+        return clientIds;
+    }
+
+    private Set<Long> retrieveExistingClientIds(final Collection<Long> clientIds) {
+        if (clientIds.isEmpty()) { return new HashSet<>(); }
+        final String sql = "select c.id from m_client c where c.id in (" + placeholders(clientIds.size()) + ")";
+        return new HashSet<>(this.jdbcTemplate.queryForList(sql, Long.class, clientIds.toArray()));
+    }
+
+    private Set<Long> retrieveRegisteredClientIds(final Collection<Long> clientIds) {
+        if (clientIds.isEmpty()) { return new HashSet<>(); }
+        final String sql = "select cdr.client_id from client_device_registration cdr where cdr.client_id in ("
+                + placeholders(clientIds.size()) + ")";
+        return new HashSet<>(this.jdbcTemplate.queryForList(sql, Long.class, clientIds.toArray()));
+    }
+
+    private Map<Long, String> retrieveEmailAddresses(final Collection<Long> clientIds) {
+        final Map<Long, String> emailAddresses = new HashMap<>();
+        if (clientIds.isEmpty()) { return emailAddresses; }
+        final String sql = "select c.id, c.email_address from m_client c where c.id in (" + placeholders(clientIds.size())
+                + ") and c.email_address is not null";
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                emailAddresses.put(rs.getLong("id"), rs.getString("email_address"));
+            }
+        }, clientIds.toArray());
+        return emailAddresses;
+    }
+
+    private static String placeholders(final int count) {
+        return StringUtils.repeat("?", ", ", count);
+    }
+}
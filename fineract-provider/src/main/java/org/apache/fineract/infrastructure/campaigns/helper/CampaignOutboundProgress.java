@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.campaigns.helper;
+
+import java.util.Date;
+
+import org.apache.fineract.infrastructure.campaigns.data.CampaignOutboundProgressData;
+
+/**
+ * Progress of the outbound messages being generated for one run of a
+ * campaign. The counters are only written by the thread generating the
+ * messages and may be read from any other thread.
+ */
+final class CampaignOutboundProgress {
+
+    private final Long campaignId;
+    private final int totalRecipients;
+    private final Date startedOn;
+    private volatile int processedRecipients;
+    private volatile int messagesWritten;
+    private volatile Date completedOn;
+
+    CampaignOutboundProgress(final Long campaignId, final int totalRecipients) {
+        this.campaignId = campaignId;
+        this.totalRecipients = totalRecipients;
+        this.startedOn = new Date();
+    }
+
+    void batchWritten(final int recipients, final int messages) {
+        this.processedRecipients += recipients;
+        this.messagesWritten += messages;
+    }
+
+    void complete() {
+        this.completedOn = new Date();
+    }
+
+    /**
+     * Recipients processed but skipped, e.g. for a missing mobile number,
+     * email address or device registration, are reported as the difference
+     * between the processed recipients and the messages written.
+     */
+    CampaignOutboundProgressData toData() {
+        // read first, so a completed run always reports its final counters
+        final Date completed = this.completedOn;
+        final int processed = this.processedRecipients;
+        final int written = this.messagesWritten;
+        return CampaignOutboundProgressData.instance(this.campaignId, completed != null, this.totalRecipients, processed, written,
+                processed - written, this.startedOn, completed);
+    }
+
+    String summary() {
+        return "processed " + this.processedRecipients + " of " + this.totalRecipients + " recipients, " + this.messagesWritten
+                + " messages queued";
+    }
+}
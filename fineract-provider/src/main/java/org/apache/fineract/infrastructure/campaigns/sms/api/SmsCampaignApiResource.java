@@ -39,6 +39,8 @@ import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.campaigns.constants.CampaignType;
+import org.apache.fineract.infrastructure.campaigns.data.CampaignOutboundProgressData;
+import org.apache.fineract.infrastructure.campaigns.helper.CampaignOutboundBatchWriter;
 import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
 import org.apache.fineract.infrastructure.campaigns.sms.data.CampaignPreviewData;
 import org.apache.fineract.infrastructure.campaigns.sms.data.SmsCampaignData;
@@ -73,6 +75,8 @@ public class SmsCampaignApiResource {
     private final FromJsonHelper fromJsonHelper;
     private final DefaultToApiJsonSerializer<CampaignPreviewData> previewCampaignMessageDefaultToApiJsonSerializer;
     private final SmsCampaignWritePlatformService smsCampaignWritePlatformService;
+    private final CampaignOutboundBatchWriter campaignOutboundBatchWriter;
+    private final DefaultToApiJsonSerializer<CampaignOutboundProgressData> progressToApiJsonSerializer;
 
     private final String resourceNameForPermissions = "SMS_CAMPAIGN";
     private final PlatformSecurityContext context;
@@ -84,7 +88,9 @@ public class SmsCampaignApiResource {
             final SmsCampaignReadPlatformService smsCampaignReadPlatformService, final ApiRequestParameterHelper apiRequestParameterHelper,
             final FromJsonHelper fromJsonHelper,
             final DefaultToApiJsonSerializer<CampaignPreviewData> previewCampaignMessageDefaultToApiJsonSerializer,
-            final PlatformSecurityContext context, final SmsCampaignWritePlatformService smsCampaignWritePlatformService) {
+            final PlatformSecurityContext context, final SmsCampaignWritePlatformService smsCampaignWritePlatformService,
+            final CampaignOutboundBatchWriter campaignOutboundBatchWriter,
+            final DefaultToApiJsonSerializer<CampaignOutboundProgressData> progressToApiJsonSerializer) {
         this.platformSecurityContext = platformSecurityContext;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
@@ -94,6 +100,8 @@ public class SmsCampaignApiResource {
         this.previewCampaignMessageDefaultToApiJsonSerializer = previewCampaignMessageDefaultToApiJsonSerializer;
         this.context = context;
         this.smsCampaignWritePlatformService = smsCampaignWritePlatformService;
+        this.campaignOutboundBatchWriter = campaignOutboundBatchWriter;
+        this.progressToApiJsonSerializer = progressToApiJsonSerializer;
     }
 
     @GET
@@ -133,6 +141,17 @@ public class SmsCampaignApiResource {
 
     }
 
+    @GET
+    @Path("{resourceId}/progress")
+    @Produces({ MediaType.APPLICATION_JSON })
+    @ApiOperation(value = "Retrieve SMS Campaign Progress", notes = "Returns the progress of the latest run of the campaign since startup: the recipients processed and the messages queued so far.\n" + "\n" + "Example Requests:\n" + "\n" + "smscampaigns/1/progress")
+    @ApiResponse(code = 200, message = "", response = CampaignOutboundProgressData.class)
+    public String retrieveCampaignProgress(@PathParam("resourceId") final Long resourceId) {
+        this.platformSecurityContext.authenticatedUser().validateHasReadPermission(SmsCampaignConstants.RESOURCE_NAME);
+        final CampaignOutboundProgressData progress = this.campaignOutboundBatchWriter.retrieveSmsProgress(resourceId);
+        return this.progressToApiJsonSerializer.serialize(progress);
+    }
+
     @GET
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "List SMS Campaigns", notes = "Example Requests:\n" + "\n" + "smscampaigns")
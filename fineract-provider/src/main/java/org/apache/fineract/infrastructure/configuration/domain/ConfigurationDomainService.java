@@ -84,7 +84,7 @@ public interface ConfigurationDomainService {
 
     Long getDailyTPTLimit();
 
-    void removeGlobalConfigurationPropertyDataFromCache(String propertyName);
+    void invalidateConfigurationSnapshot();
 
     boolean isSMSOTPDeliveryEnabled();
 
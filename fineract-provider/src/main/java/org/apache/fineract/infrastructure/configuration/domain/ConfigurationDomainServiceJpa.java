@@ -19,19 +19,22 @@
 package org.apache.fineract.infrastructure.configuration.domain;
 
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCache;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCacheRepository;
 import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.configuration.exception.GlobalConfigurationPropertyNotFoundException;
+import org.apache.fineract.infrastructure.core.service.TenantCacheGenerations;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.useradministration.domain.Permission;
 import org.apache.fineract.useradministration.domain.PermissionRepository;
 import org.apache.fineract.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,27 +44,31 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
-    private static Map<String, GlobalConfigurationPropertyData> configurations = new HashMap<>();
+    private final ConcurrentMap<String, GlobalConfigurationSnapshot> snapshotsByTenant = new ConcurrentHashMap<>();
+    private final TenantCacheGenerations generations = new TenantCacheGenerations();
+    private final long timeToLiveMillis;
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            @Value("${fineract.configuration.snapshot.ttl.seconds:60}") final long timeToLiveSeconds) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
     }
 
     @Override
     public boolean isMakerCheckerEnabledForTask(final String taskPermissionCode) {
         if (StringUtils.isBlank(taskPermissionCode)) { throw new PermissionNotFoundException(taskPermissionCode); }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+        final Boolean taskMakerCheckerEnabled = retrieveSnapshot().isMakerCheckerEnabled(taskPermissionCode);
+        if (taskMakerCheckerEnabled == null) { throw new PermissionNotFoundException(taskPermissionCode); }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
         final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return taskMakerCheckerEnabled && property.isEnabled();
     }
 
     @Override
@@ -278,11 +285,13 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return property.getValue();
     }
 
+    /**
+     * Called after a global configuration or permission change of the current
+     * tenant, so its snapshot is reloaded on next use.
+     */
     @Override
-    public void removeGlobalConfigurationPropertyDataFromCache(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        configurations.remove(key);
+    public void invalidateConfigurationSnapshot() {
+        this.generations.invalidate(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
     }
 
     @Override
@@ -320,13 +329,31 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     }
 
     private GlobalConfigurationPropertyData getGlobalConfigurationPropertyData(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        if (!configurations.containsKey(key)) {
-            GlobalConfigurationProperty configuration = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-            configurations.put(key, configuration.toData());
+        final GlobalConfigurationPropertyData property = retrieveSnapshot().property(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property;
+    }
+
+    /**
+     * The snapshot of the current tenant is loaded with one query for the
+     * configuration and one for the permissions, and then replaced as a whole
+     * when it goes stale instead of being updated in place. A snapshot is only
+     * served while it belongs to the current generation of the tenant and is
+     * younger than the configured time to live, which bounds how long changes
+     * made through another node go unnoticed.
+     */
+    private GlobalConfigurationSnapshot retrieveSnapshot() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final long generation = this.generations.current(tenantIdentifier);
+        GlobalConfigurationSnapshot snapshot = this.snapshotsByTenant.get(tenantIdentifier);
+        if (snapshot == null || !snapshot.isCurrent(generation, this.timeToLiveMillis)) {
+            snapshot = GlobalConfigurationSnapshot.instance(this.globalConfigurationRepository.findAll(),
+                    this.permissionRepository.findAll(), generation);
+            if (this.generations.isCurrent(tenantIdentifier, generation)) {
+                this.snapshotsByTenant.put(tenantIdentifier, snapshot);
+            }
         }
-        return configurations.get(key);
+        return snapshot;
     }
 
     @Override
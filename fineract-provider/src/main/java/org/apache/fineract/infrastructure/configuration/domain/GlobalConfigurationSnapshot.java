@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.useradministration.domain.Permission;
+
+/**
+ * Immutable copy of a tenant's global configuration properties and of the
+ * maker checker flag of its permissions, read by
+ * {@link ConfigurationDomainServiceJpa} instead of querying them on every
+ * call.
+ */
+public final class GlobalConfigurationSnapshot {
+
+    private final Map<String, GlobalConfigurationPropertyData> propertiesByName;
+    private final Map<String, Boolean> makerCheckerEnabledByPermissionCode;
+    private final long generation;
+    private final long loadedAt;
+
+    public static GlobalConfigurationSnapshot instance(final Collection<GlobalConfigurationProperty> properties,
+            final Collection<Permission> permissions, final long generation) {
+        final Map<String, GlobalConfigurationPropertyData> propertiesByName = new HashMap<>(properties.size());
+        for (final GlobalConfigurationProperty property : properties) {
+            propertiesByName.put(property.getName(), property.toData());
+        }
+        final Map<String, Boolean> makerCheckerEnabledByPermissionCode = new HashMap<>(permissions.size());
+        for (final Permission permission : permissions) {
+            makerCheckerEnabledByPermissionCode.put(permission.getCode(), permission.hasMakerCheckerEnabled());
+        }
+        return new GlobalConfigurationSnapshot(Collections.unmodifiableMap(propertiesByName),
+                Collections.unmodifiableMap(makerCheckerEnabledByPermissionCode), generation);
+    }
+
+    private GlobalConfigurationSnapshot(final Map<String, GlobalConfigurationPropertyData> propertiesByName,
+            final Map<String, Boolean> makerCheckerEnabledByPermissionCode, final long generation) {
+        this.propertiesByName = propertiesByName;
+        this.makerCheckerEnabledByPermissionCode = makerCheckerEnabledByPermissionCode;
+        this.generation = generation;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return whether the snapshot was loaded in the given generation and is
+     *         not older than the time to live
+     */
+    public boolean isCurrent(final long currentGeneration, final long timeToLiveMillis) {
+        return this.generation == currentGeneration && System.currentTimeMillis() - this.loadedAt <= timeToLiveMillis;
+    }
+
+    /**
+     * @return the property or null when the tenant has no property of that
+     *         name
+     */
+    public GlobalConfigurationPropertyData property(final String propertyName) {
+        return this.propertiesByName.get(propertyName);
+    }
+
+    /**
+     * @return whether maker checker is enabled for the permission, or null
+     *         when there is no permission with that code
+     */
+    public Boolean isMakerCheckerEnabled(final String permissionCode) {
+        return this.makerCheckerEnabledByPermissionCode.get(permissionCode);
+    }
+}
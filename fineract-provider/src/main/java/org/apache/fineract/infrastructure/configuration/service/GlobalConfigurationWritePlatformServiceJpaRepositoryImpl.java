@@ -71,7 +71,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
             final Map<String, Object> changes = configItemForUpdate.update(command);
 
             if (!changes.isEmpty()) {
-                this.configurationDomainService.removeGlobalConfigurationPropertyDataFromCache(configItemForUpdate.getName());
+                this.configurationDomainService.invalidateConfigurationSnapshot();
                 this.repository.save(configItemForUpdate);
             }
 
@@ -91,6 +91,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
         try{
             final GlobalConfigurationProperty ppi = GlobalConfigurationProperty.newSurveyConfiguration(name);
             this.repository.save(ppi);
+            this.configurationDomainService.invalidateConfigurationSnapshot();
         }
         catch (final DataIntegrityViolationException dve)
         {
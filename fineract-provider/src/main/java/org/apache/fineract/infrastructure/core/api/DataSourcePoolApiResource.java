@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.api;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.apache.fineract.infrastructure.core.data.DataSourcePoolData;
+import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.TomcatJdbcDataSourcePerTenantService;
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/datasourcepool")
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Component
+@Scope("singleton")
+@Api(value = "Data Source Pool", description = "Connection pool statistics of the data source used by the tenant of the request, to help size the pool of each tenant.")
+public class DataSourcePoolApiResource {
+
+    private final PlatformSecurityContext context;
+    private final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+    private final DefaultToApiJsonSerializer<DataSourcePoolData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public DataSourcePoolApiResource(final PlatformSecurityContext context,
+            final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService,
+            final DefaultToApiJsonSerializer<DataSourcePoolData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.context = context;
+        this.dataSourcePerTenantService = dataSourcePerTenantService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    @GET
+    @ApiOperation(value = "Retrieve Data Source Pool Statistics", notes = "Returns the size, active and idle connections, waiting threads and slow queries of the tenant connection pool. available is false when the tenant has no pool to report on.\n" + "\n" + "Example Requests:\n" + "\n" + "datasourcepool")
+    public String retrievePoolStatistics(@Context final UriInfo uriInfo) {
+
+        final boolean hasNotPermission = this.context.authenticatedUser().hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ");
+        if (hasNotPermission) {
+            final String authorizationMessage = "User has no authority to view the data source pool statistics";
+            throw new NoAuthorizationException(authorizationMessage);
+        }
+
+        final DataSourcePoolData poolData = this.dataSourcePerTenantService.retrievePoolStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, poolData);
+    }
+}
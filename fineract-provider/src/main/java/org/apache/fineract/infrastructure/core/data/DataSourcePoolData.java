@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.data;
+
+import java.util.Collection;
+
+/**
+ * Immutable data object representing the connection pool statistics of a
+ * tenant data source. When the tenant has no pool to report on, only the
+ * tenant identifier and <code>available = false</code> are returned.
+ */
+public class DataSourcePoolData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final boolean available;
+    @SuppressWarnings("unused")
+    private final String poolName;
+    @SuppressWarnings("unused")
+    private final Integer size;
+    @SuppressWarnings("unused")
+    private final Integer active;
+    @SuppressWarnings("unused")
+    private final Integer idle;
+    @SuppressWarnings("unused")
+    private final Integer waitCount;
+    @SuppressWarnings("unused")
+    private final Integer maxActive;
+    @SuppressWarnings("unused")
+    private final Integer maxWait;
+    @SuppressWarnings("unused")
+    private final Collection<DataSourceQueryStatsData> slowQueries;
+
+    public static DataSourcePoolData instance(final String tenantIdentifier, final String poolName, final int size, final int active,
+            final int idle, final int waitCount, final int maxActive, final int maxWait,
+            final Collection<DataSourceQueryStatsData> slowQueries) {
+        return new DataSourcePoolData(tenantIdentifier, true, poolName, size, active, idle, waitCount, maxActive, maxWait, slowQueries);
+    }
+
+    public static DataSourcePoolData unavailable(final String tenantIdentifier) {
+        return new DataSourcePoolData(tenantIdentifier, false, null, null, null, null, null, null, null, null);
+    }
+
+    private DataSourcePoolData(final String tenantIdentifier, final boolean available, final String poolName, final Integer size,
+            final Integer active, final Integer idle, final Integer waitCount, final Integer maxActive, final Integer maxWait,
+            final Collection<DataSourceQueryStatsData> slowQueries) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.available = available;
+        this.poolName = poolName;
+        this.size = size;
+        this.active = active;
+        this.idle = idle;
+        this.waitCount = waitCount;
+        this.maxActive = maxActive;
+        this.maxWait = maxWait;
+        this.slowQueries = slowQueries;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.data;
+
+/**
+ * Immutable data object representing the statistics collected for a slow
+ * query by the connection pool.
+ */
+public class DataSourceQueryStatsData {
+
+    @SuppressWarnings("unused")
+    private final String query;
+    @SuppressWarnings("unused")
+    private final int invocations;
+    @SuppressWarnings("unused")
+    private final int failures;
+    @SuppressWarnings("unused")
+    private final long maxInvocationTime;
+    @SuppressWarnings("unused")
+    private final long totalInvocationTime;
+
+    public static DataSourceQueryStatsData instance(final String query, final int invocations, final int failures,
+            final long maxInvocationTime, final long totalInvocationTime) {
+        return new DataSourceQueryStatsData(query, invocations, failures, maxInvocationTime, totalInvocationTime);
+    }
+
+    private DataSourceQueryStatsData(final String query, final int invocations, final int failures, final long maxInvocationTime,
+            final long totalInvocationTime) {
+        this.query = query;
+        this.invocations = invocations;
+        this.failures = failures;
+        this.maxInvocationTime = maxInvocationTime;
+        this.totalInvocationTime = totalInvocationTime;
+    }
+}
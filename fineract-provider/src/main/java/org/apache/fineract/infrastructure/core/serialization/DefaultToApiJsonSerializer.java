@@ -18,9 +18,13 @@
  */
 package org.apache.fineract.infrastructure.core.serialization;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -111,6 +115,40 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
         return serializeWithSettings(delegatedSerializer, settings, singleObject);
     }
 
+    @Override
+    public StreamingOutput serializeStreaming(final boolean prettyOn, final Object object) {
+        return streamingOutput(this.helper.excludeNothingSerializer(prettyOn), object);
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Page<T> singleObject) {
+        return streamingOutput(findStreamingSerializer(settings, findAppropriateSerializer(settings)), singleObject);
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Page<T> singleObject,
+            final Set<String> supportedResponseParameters) {
+        // resolved before the response is committed so unsupported fields are
+        // still reported as a normal error response
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        return streamingOutput(findStreamingSerializer(settings, delegatedSerializer), singleObject);
+    }
+
+    private Gson findStreamingSerializer(final ApiRequestJsonSerializationSettings settings, final Gson delegatedSerializer) {
+        if (delegatedSerializer != null) { return delegatedSerializer; }
+        return this.helper.excludeNothingSerializer(settings.isPrettyPrint());
+    }
+
+    private StreamingOutput streamingOutput(final Gson gson, final Object dataObject) {
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                DefaultToApiJsonSerializer.this.helper.serializedJsonTo(gson, dataObject, out);
+            }
+        };
+    }
+
     private String serializeWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object[] dataObject) {
         String json = null;
         if (gson != null) {
@@ -142,7 +180,7 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
     private Gson findAppropriateSerializer(final ApiRequestJsonSerializationSettings settings, final Set<String> supportedResponseParameters) {
         Gson gson = null;
         if (settings.isPartialResponseRequired()) {
-            gson = this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(supportedResponseParameters,
+            gson = this.helper.findGsonBuilderWithParameterExclusionSerializationStrategy(supportedResponseParameters,
                     settings.isPrettyPrint(), settings.getParametersForPartialResponse());
         }
         return gson;
@@ -151,7 +189,7 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
     private Gson findAppropriateSerializer(final ApiRequestJsonSerializationSettings settings) {
         Gson gson = null;
         if (settings.isPartialResponseRequired()) {
-            gson = this.helper.createGsonBuilderForPartialResponseFiltering(settings.isPrettyPrint(),
+            gson = this.helper.findGsonBuilderForPartialResponseFiltering(settings.isPrettyPrint(),
                     settings.getParametersForPartialResponse());
         }
         return gson;
@@ -18,8 +18,18 @@
  */
 package org.apache.fineract.infrastructure.core.serialization;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.fineract.infrastructure.core.api.JodaDateTimeAdapter;
@@ -36,6 +46,7 @@ import org.springframework.stereotype.Service;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Helper class for serialization of java objects into JSON using google-gson.
@@ -43,6 +54,27 @@ import com.google.gson.GsonBuilder;
 @Service
 public final class GoogleGsonSerializerHelper {
 
+    /**
+     * Field filtering serializers are keyed by the (client supplied)
+     * <code>fields</code> parameter set, so the cache is bounded and evicts
+     * the least recently used entry. {@link Gson} instances are thread-safe.
+     */
+    private static final int FILTERING_SERIALIZER_CACHE_SIZE = 256;
+
+    private final Map<List<Object>, Gson> filteringSerializers = Collections.synchronizedMap(new LinkedHashMap<List<Object>, Gson>(
+            16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<List<Object>, Gson> eldest) {
+            return size() > FILTERING_SERIALIZER_CACHE_SIZE;
+        }
+    });
+
+    private final Gson excludeNothingWithPrettyPrintingOff = createGsonBuilder(false);
+    private final Gson excludeNothingWithPrettyPrintingOn = createGsonBuilder(true);
+
     public Gson createGsonBuilder(final boolean prettyPrint) {
         final GsonBuilder builder = new GsonBuilder();
         builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
@@ -54,6 +86,16 @@ public final class GoogleGsonSerializerHelper {
         return builder.create();
     }
 
+    public Gson findGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
+        final List<Object> key = Arrays.<Object> asList("include", prettyPrint, new HashSet<>(responseParameters));
+        Gson gson = this.filteringSerializers.get(key);
+        if (gson == null) {
+            gson = createGsonBuilderForPartialResponseFiltering(prettyPrint, responseParameters);
+            this.filteringSerializers.put(key, gson);
+        }
+        return gson;
+    }
+
     public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
 
         final ExclusionStrategy strategy = new ParameterListInclusionStrategy(responseParameters);
@@ -68,8 +110,29 @@ public final class GoogleGsonSerializerHelper {
         return builder.create();
     }
 
+    /**
+     * Cached variant of
+     * {@link #createGsonBuilderWithParameterExclusionSerializationStrategy(Set, boolean, Set)}
+     * ; unsupported parameters are still reported on every call.
+     */
+    public Gson findGsonBuilderWithParameterExclusionSerializationStrategy(final Set<String> supportedParameters,
+            final boolean prettyPrint, final Set<String> responseParameters) {
+        final Set<String> parameterNamesToSkip = parameterNamesToSkip(supportedParameters, responseParameters);
+        final List<Object> key = Arrays.<Object> asList("exclude", prettyPrint, parameterNamesToSkip);
+        Gson gson = this.filteringSerializers.get(key);
+        if (gson == null) {
+            gson = createGsonBuilderWithParameterExclusionStrategy(prettyPrint, parameterNamesToSkip);
+            this.filteringSerializers.put(key, gson);
+        }
+        return gson;
+    }
+
     public Gson createGsonBuilderWithParameterExclusionSerializationStrategy(final Set<String> supportedParameters,
             final boolean prettyPrint, final Set<String> responseParameters) {
+        return createGsonBuilderWithParameterExclusionStrategy(prettyPrint, parameterNamesToSkip(supportedParameters, responseParameters));
+    }
+
+    private Set<String> parameterNamesToSkip(final Set<String> supportedParameters, final Set<String> responseParameters) {
 
         final Set<String> parameterNamesToSkip = new HashSet<>();
 
@@ -87,6 +150,11 @@ public final class GoogleGsonSerializerHelper {
             parameterNamesToSkip.removeAll(responseParameters);
         }
 
+        return parameterNamesToSkip;
+    }
+
+    private Gson createGsonBuilderWithParameterExclusionStrategy(final boolean prettyPrint, final Set<String> parameterNamesToSkip) {
+
         final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
 
         final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
@@ -106,4 +174,27 @@ public final class GoogleGsonSerializerHelper {
     public String serializedJsonFrom(final Gson serializer, final Object singleDataObject) {
         return serializer.toJson(singleDataObject);
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the shared serializer that writes every field, as used when no
+     *         partial response is requested
+     */
+    public Gson excludeNothingSerializer(final boolean prettyPrint) {
+        return prettyPrint ? this.excludeNothingWithPrettyPrintingOn : this.excludeNothingWithPrettyPrintingOff;
+    }
+
+    /**
+     * Writes the JSON through a {@link JsonWriter} straight to
+     * <code>out</code> instead of building the whole document as a
+     * {@link String} first. The stream is flushed but left open.
+     */
+    public void serializedJsonTo(final Gson serializer, final Object dataObject, final OutputStream out) throws IOException {
+        final JsonWriter jsonWriter = serializer.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        if (dataObject == null) {
+            jsonWriter.nullValue();
+        } else {
+            serializer.toJson(dataObject, dataObject.getClass(), jsonWriter);
+        }
+        jsonWriter.flush();
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.fineract.infrastructure.core.serialization;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.fineract.infrastructure.core.service.Page;
 
 public interface ToApiJsonSerializer<T> {
@@ -47,4 +49,15 @@ public interface ToApiJsonSerializer<T> {
     String serialize(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
 
     String serialize(ApiRequestJsonSerializationSettings settings, Page<T> singleObject, Set<String> supportedResponseParameters);
-}
\ No newline at end of file
+
+    /**
+     * Streaming counterparts for large responses: the JSON is written directly
+     * to the response stream rather than returned as one {@link String}.
+     */
+    StreamingOutput serializeStreaming(boolean prettyOn, Object object);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Page<T> singleObject);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Page<T> singleObject,
+            Set<String> supportedResponseParameters);
+}
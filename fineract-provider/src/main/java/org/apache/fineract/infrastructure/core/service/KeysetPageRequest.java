@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+
+/**
+ * Opt-in keyset (seek) pagination for list APIs backed by
+ * {@link PaginationHelper}.
+ * 
+ * Rows are returned in primary key order and each page continues after the
+ * last id of the previous one, so deep pages cost the same as the first one.
+ * The position is handed to clients as an opaque cursor.
+ */
+public final class KeysetPageRequest {
+
+    public static final String OFFSET_PAGING = "offset";
+    public static final String KEYSET_PAGING = "keyset";
+
+    private static final String CURSOR_PREFIX = "id:";
+    private static final Integer DEFAULT_PAGE_SIZE = SearchParameters.getCheckedLimit(null);
+
+    private final Long afterId;
+    private final boolean approximateTotal;
+
+    /**
+     * @return null unless keyset paging was asked for, either explicitly or by
+     *         passing a cursor
+     */
+    public static KeysetPageRequest from(final String paging, final String cursor, final Boolean approximateTotal) {
+        if (StringUtils.isNotBlank(paging) && !KEYSET_PAGING.equalsIgnoreCase(paging) && !OFFSET_PAGING.equalsIgnoreCase(paging)) {
+            throw new UnrecognizedQueryParamException("paging", paging, OFFSET_PAGING, KEYSET_PAGING);
+        }
+        if (!KEYSET_PAGING.equalsIgnoreCase(paging) && StringUtils.isBlank(cursor)) { return null; }
+
+        final Long afterId = StringUtils.isBlank(cursor) ? null : decodeCursor(cursor);
+        return new KeysetPageRequest(afterId, approximateTotal != null && approximateTotal);
+    }
+
+    public static String cursorFor(final Long id) {
+        final String position = CURSOR_PREFIX + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(final String cursor) {
+        try {
+            final String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (position.startsWith(CURSOR_PREFIX)) { return Long.valueOf(position.substring(CURSOR_PREFIX.length())); }
+        } catch (final IllegalArgumentException e) {
+            // falls through to the unrecognized cursor error below
+        }
+        throw new UnrecognizedQueryParamException("cursor", cursor);
+    }
+
+    private KeysetPageRequest(final Long afterId, final boolean approximateTotal) {
+        this.afterId = afterId;
+        this.approximateTotal = approximateTotal;
+    }
+
+    public boolean hasCursor() {
+        return this.afterId != null;
+    }
+
+    public Long getAfterId() {
+        return this.afterId;
+    }
+
+    public boolean isApproximateTotal() {
+        return this.approximateTotal;
+    }
+
+    /**
+     * Keyset pages are always bounded; an unlimited request falls back to the
+     * default page size.
+     */
+    public int pageSize(final Integer limit) {
+        if (limit != null && limit > 0) { return limit; }
+        return DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Appends the keyset ordering and fetches one row more than the page size
+     * so {@link PaginationHelper} can tell whether a next page exists.
+     */
+    public void appendOrderAndLimit(final StringBuilder sqlBuilder, final String idColumn, final Integer limit) {
+        sqlBuilder.append(" order by ").append(idColumn).append(" limit ").append(pageSize(limit) + 1);
+    }
+
+    /**
+     * Keyset pages are ordered by primary key only.
+     */
+    public void validateOrderBy(final SearchParameters searchParameters) {
+        if (searchParameters.isOrderByRequested()) {
+            throw new UnrecognizedQueryParamException("orderBy", searchParameters.getOrderBy(), "id");
+        }
+    }
+}
@@ -22,18 +22,32 @@ import java.util.List;
 
 public class Page<E> {
 
-    private final int totalFilteredRecords;
+    private final Integer totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextCursor;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, Integer.valueOf(totalFilteredRecords), null);
+    }
+
+    /**
+     * Keyset pages may skip the total (null) and carry the cursor for the next
+     * page, which is null on the last page.
+     */
+    public Page(final List<E> pageItems, final Integer totalFilteredRecords, final String nextCursor) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextCursor = nextCursor;
     }
 
-    public int getTotalFilteredRecords() {
+    public Integer getTotalFilteredRecords() {
         return this.totalFilteredRecords;
     }
 
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
     public List<E> getPageItems() {
         return this.pageItems;
     }
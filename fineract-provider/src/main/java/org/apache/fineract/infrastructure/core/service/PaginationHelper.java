@@ -18,6 +18,9 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -46,4 +49,43 @@ public class PaginationHelper<E> {
 
         return new Page<>(items, totalFilteredRecords);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches one keyset page. The query must select the primary key as
+     * <code>id</code>, be ordered by it and fetch one row more than
+     * <code>limit</code> (see {@link KeysetPageRequest#appendOrderAndLimit}).
+     * No total is computed unless an approximate one was asked for, which is
+     * read from the table statistics of <code>approximateTotalTableName</code>.
+     */
+    public Page<E> fetchKeysetPage(final JdbcTemplate jt, final String sqlFetchRows, final Object args[], final RowMapper<E> rowMapper,
+            final KeysetPageRequest keysetPageRequest, final Integer limit, final String approximateTotalTableName) {
+
+        final List<Long> ids = new ArrayList<>();
+        final RowMapper<E> idCapturingRowMapper = new RowMapper<E>() {
+
+            @Override
+            public E mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+                ids.add(rs.getLong("id"));
+                return rowMapper.mapRow(rs, rowNum);
+            }
+        };
+        final List<E> rows = jt.query(sqlFetchRows, args, idCapturingRowMapper);
+
+        final int pageSize = keysetPageRequest.pageSize(limit);
+        List<E> items = rows;
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            items = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = KeysetPageRequest.cursorFor(ids.get(pageSize - 1));
+        }
+
+        Integer totalFilteredRecords = null;
+        if (keysetPageRequest.isApproximateTotal()) {
+            totalFilteredRecords = jt.queryForObject(
+                    "select table_rows from information_schema.tables where table_schema = database() and table_name = ?",
+                    Integer.class, approximateTotalTableName);
+        }
+
+        return new Page<>(items, totalFilteredRecords, nextCursor);
+    }
+}
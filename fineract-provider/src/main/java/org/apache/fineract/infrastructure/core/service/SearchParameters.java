@@ -49,6 +49,8 @@ public final class SearchParameters {
     private final Long categoryId;
     private final boolean isSelfUser;
 
+    private final KeysetPageRequest keysetPageRequest;
+
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
         final Long staffId = null;
@@ -265,6 +267,7 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
+        this.keysetPageRequest = null;
 
     }
 
@@ -291,6 +294,7 @@ public final class SearchParameters {
         this.productId = productId;
         this.categoryId = categoryId;
         this.isSelfUser = false;
+        this.keysetPageRequest = null;
 
     }
 
@@ -319,6 +323,50 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = false;
+        this.keysetPageRequest = null;
+    }
+
+    private SearchParameters(final SearchParameters searchParameters, final KeysetPageRequest keysetPageRequest) {
+        this.sqlSearch = searchParameters.sqlSearch;
+        this.officeId = searchParameters.officeId;
+        this.externalId = searchParameters.externalId;
+        this.name = searchParameters.name;
+        this.hierarchy = searchParameters.hierarchy;
+        this.firstname = searchParameters.firstname;
+        this.lastname = searchParameters.lastname;
+        this.offset = searchParameters.offset;
+        this.limit = searchParameters.limit;
+        this.orderBy = searchParameters.orderBy;
+        this.sortOrder = searchParameters.sortOrder;
+        this.staffId = searchParameters.staffId;
+        this.accountNo = searchParameters.accountNo;
+        this.loanId = searchParameters.loanId;
+        this.savingsId = searchParameters.savingsId;
+        this.orphansOnly = searchParameters.orphansOnly;
+        this.currencyCode = searchParameters.currencyCode;
+        this.provisioningEntryId = searchParameters.provisioningEntryId;
+        this.productId = searchParameters.productId;
+        this.categoryId = searchParameters.categoryId;
+        this.isSelfUser = searchParameters.isSelfUser;
+        this.keysetPageRequest = keysetPageRequest;
+    }
+
+    /**
+     * @param keysetPageRequest
+     *            null keeps offset pagination
+     */
+    public SearchParameters withKeysetPageRequest(final KeysetPageRequest keysetPageRequest) {
+        if (keysetPageRequest == null) { return this; }
+        keysetPageRequest.validateOrderBy(this);
+        return new SearchParameters(this, keysetPageRequest);
+    }
+
+    public boolean isKeysetPaged() {
+        return this.keysetPageRequest != null;
+    }
+
+    public KeysetPageRequest getKeysetPageRequest() {
+        return this.keysetPageRequest;
     }
 
     public boolean isOrderByRequested() {
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Generation counters for a cache holding data per tenant. Cached data is
+ * tagged with the generation it was loaded in and only served, or stored,
+ * while that generation is still current.
+ * 
+ * {@link #invalidate(String)} moves the generation of the tenant on at once
+ * and, when called inside a transaction, again once the transaction
+ * completes. Data loaded concurrently with the change, including data read
+ * before the change was committed, therefore never outlives it.
+ */
+public final class TenantCacheGenerations {
+
+    private final ConcurrentMap<String, AtomicLong> generationsByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * @return the generation to tag data with, read before loading it
+     */
+    public long current(final String tenantIdentifier) {
+        return generation(tenantIdentifier).get();
+    }
+
+    public boolean isCurrent(final String tenantIdentifier, final long generation) {
+        return generation(tenantIdentifier).get() == generation;
+    }
+
+    public void invalidate(final String tenantIdentifier) {
+        generation(tenantIdentifier).incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    generation(tenantIdentifier).incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private AtomicLong generation(final String tenantIdentifier) {
+        AtomicLong generation = this.generationsByTenant.get(tenantIdentifier);
+        if (generation == null) {
+            final AtomicLong newGeneration = new AtomicLong();
+            generation = this.generationsByTenant.putIfAbsent(tenantIdentifier, newGeneration);
+            if (generation == null) {
+                generation = newGeneration;
+            }
+        }
+        return generation;
+    }
+}
@@ -18,16 +18,23 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.sql.DataSource;
 
 import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
+import org.apache.fineract.infrastructure.core.data.DataSourcePoolData;
+import org.apache.fineract.infrastructure.core.data.DataSourceQueryStatsData;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport;
+import org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport.QueryStats;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -43,7 +50,7 @@ import org.springframework.stereotype.Service;
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final ConcurrentMap<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<>(1);
     private final DataSource tenantDataSource;
 
     @Autowired
@@ -64,23 +71,59 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         if (tenant != null) {
             final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
 
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to
-                // appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenantConnection.getConnectionId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
+            // if tenantConnection information available switch to appropriate
+            // datasource for that tenant. The lookup does not lock, only the
+            // creation of a missing pool does.
+            tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+            if (tenantDataSource == null) {
+                tenantDataSource = retrieveOrCreateDataSourceFor(tenantConnection);
             }
         }
 
         return tenantDataSource;
     }
 
+    /**
+     * Returns the pool statistics of the data source used by the tenant of
+     * this request. They are reported as unavailable when no pool has been
+     * created for it yet or its data source is not a Tomcat JDBC pool.
+     */
+    public DataSourcePoolData retrievePoolStatistics() {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { return DataSourcePoolData.unavailable(null); }
+
+        final DataSource dataSource = this.tenantToDataSourceMap.get(tenant.getConnection().getConnectionId());
+        if (!(dataSource instanceof org.apache.tomcat.jdbc.pool.DataSource)) {
+            return DataSourcePoolData.unavailable(tenant.getTenantIdentifier());
+        }
+
+        final org.apache.tomcat.jdbc.pool.DataSource pool = (org.apache.tomcat.jdbc.pool.DataSource) dataSource;
+        final Collection<DataSourceQueryStatsData> slowQueries = new ArrayList<>();
+        final Map<String, QueryStats> queryStats = SlowQueryReport.getPoolStats(pool.getPoolName());
+        if (queryStats != null) {
+            for (final QueryStats stats : queryStats.values()) {
+                slowQueries.add(DataSourceQueryStatsData.instance(stats.getQuery(), stats.getNrOfInvocations(), stats.getFailures(),
+                        stats.getMaxInvocationTime(), stats.getTotalInvocationTime()));
+            }
+        }
+
+        return DataSourcePoolData.instance(tenant.getTenantIdentifier(), pool.getPoolName(), pool.getSize(), pool.getActive(),
+                pool.getIdle(), pool.getWaitCount(), pool.getMaxActive(), pool.getMaxWait(), slowQueries);
+    }
+
+    // pools are created under a lock so that the first concurrent requests of
+    // a tenant do not open redundant pools
+    private DataSource retrieveOrCreateDataSourceFor(final FineractPlatformTenantConnection tenantConnection) {
+        synchronized (this.tenantToDataSourceMap) {
+            DataSource tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+            if (tenantDataSource == null) {
+                tenantDataSource = createNewDataSourceFor(tenantConnection);
+                this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+            }
+            return tenantDataSource;
+        }
+    }
+
     // creates the data source oltp and report databases
     private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
         // see
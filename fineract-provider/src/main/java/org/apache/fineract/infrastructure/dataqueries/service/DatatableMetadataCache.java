@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per tenant cache of datatable metadata: the column headers read from
+ * <code>information_schema</code> (including the allowed code values) and the
+ * insert/update statement templates built from them.
+ * 
+ * Entries are dropped whenever a datatable is created, changed, deleted or
+ * (de)registered, and for the whole tenant when codes or code values change.
+ * Those invalidations only reach the node that made the change, so entries
+ * also expire after a time to live to pick up changes made on other nodes.
+ */
+@Component
+public class DatatableMetadataCache {
+
+    private final ConcurrentMap<String, ConcurrentMap<String, DatatableMetadata>> metadataByTenant = new ConcurrentHashMap<>();
+    private final long timeToLiveMillis;
+
+    @Autowired
+    public DatatableMetadataCache(@Value("${fineract.datatable.metadata.ttl.seconds:60}") final long timeToLiveSeconds) {
+        this.timeToLiveMillis = timeToLiveSeconds * 1000;
+    }
+
+    /**
+     * @return the cached column headers of the datatable, or null when they
+     *         still need to be read
+     */
+    public List<ResultsetColumnHeaderData> getColumnHeaders(final String datatable) {
+        final DatatableMetadata metadata = currentMetadata(datatable);
+        return metadata == null ? null : metadata.columnHeaders;
+    }
+
+    public void putColumnHeaders(final String datatable, final List<ResultsetColumnHeaderData> columnHeaders) {
+        final ConcurrentMap<String, DatatableMetadata> tenantMetadata = tenantMetadata();
+        final DatatableMetadata metadata = new DatatableMetadata(columnHeaders);
+        final DatatableMetadata existing = tenantMetadata.putIfAbsent(datatable, metadata);
+        if (existing != null && existing.isExpired(this.timeToLiveMillis)) {
+            tenantMetadata.replace(datatable, existing, metadata);
+        }
+    }
+
+    /**
+     * @return the statement template cached for the datatable under the key,
+     *         or null when none is cached or the column headers are not
+     */
+    public String getStatementTemplate(final String datatable, final String key) {
+        final DatatableMetadata metadata = currentMetadata(datatable);
+        return metadata == null ? null : metadata.statementTemplates.get(key);
+    }
+
+    /**
+     * Statement templates are only kept alongside cached column headers so
+     * they are dropped together.
+     */
+    public void putStatementTemplate(final String datatable, final String key, final String template) {
+        final DatatableMetadata metadata = currentMetadata(datatable);
+        if (metadata != null) {
+            metadata.statementTemplates.putIfAbsent(key, template);
+        }
+    }
+
+    /**
+     * Drops the metadata of one datatable of the current tenant, now and again
+     * once the surrounding transaction completes.
+     */
+    public void invalidate(final String datatable) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        removeDatatable(tenantIdentifier, datatable);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    removeDatatable(tenantIdentifier, datatable);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops the metadata of all datatables of the current tenant, now and
+     * again once the surrounding transaction completes.
+     */
+    public void invalidateAll() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        this.metadataByTenant.remove(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    DatatableMetadataCache.this.metadataByTenant.remove(tenantIdentifier);
+                }
+            });
+        }
+    }
+
+    private void removeDatatable(final String tenantIdentifier, final String datatable) {
+        final ConcurrentMap<String, DatatableMetadata> tenantMetadata = this.metadataByTenant.get(tenantIdentifier);
+        if (tenantMetadata != null) {
+            tenantMetadata.remove(datatable);
+        }
+    }
+
+    private DatatableMetadata currentMetadata(final String datatable) {
+        final DatatableMetadata metadata = tenantMetadata().get(datatable);
+        return metadata == null || metadata.isExpired(this.timeToLiveMillis) ? null : metadata;
+    }
+
+    private ConcurrentMap<String, DatatableMetadata> tenantMetadata() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        ConcurrentMap<String, DatatableMetadata> tenantMetadata = this.metadataByTenant.get(tenantIdentifier);
+        if (tenantMetadata == null) {
+            final ConcurrentMap<String, DatatableMetadata> newTenantMetadata = new ConcurrentHashMap<>();
+            tenantMetadata = this.metadataByTenant.putIfAbsent(tenantIdentifier, newTenantMetadata);
+            if (tenantMetadata == null) {
+                tenantMetadata = newTenantMetadata;
+            }
+        }
+        return tenantMetadata;
+    }
+
+    private static final class DatatableMetadata {
+
+        private final List<ResultsetColumnHeaderData> columnHeaders;
+        private final ConcurrentMap<String, String> statementTemplates = new ConcurrentHashMap<>();
+        private final long loadedAt;
+
+        DatatableMetadata(final List<ResultsetColumnHeaderData> columnHeaders) {
+            this.columnHeaders = columnHeaders;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired(final long timeToLiveMillis) {
+            return System.currentTimeMillis() - this.loadedAt > timeToLiveMillis;
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.Writer;
 import java.util.List;
 
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
@@ -29,6 +30,10 @@ public interface GenericDataService {
 
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
+    void writeJsonFromResultSet(String sql, Writer writer);
+
+    void writeCsvFromResultSet(String sql, Writer writer);
+
     String replace(String str, String pattern, String replace);
 
     String wrapSQL(String sql);
@@ -18,7 +18,13 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -37,6 +43,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
@@ -45,13 +52,20 @@ import org.springframework.stereotype.Service;
 public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
     private final DataSource dataSource;
+    private final DatatableMetadataCache datatableMetadataCache;
     private final static Logger logger = LoggerFactory.getLogger(GenericDataServiceImpl.class);
 
     @Autowired
-    public GenericDataServiceImpl(final RoutingDataSource dataSource) {
+    public GenericDataServiceImpl(final RoutingDataSource dataSource, final DatatableMetadataCache datatableMetadataCache) {
         this.dataSource = dataSource;
+        this.datatableMetadataCache = datatableMetadataCache;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(this.dataSource);
+        // MySQL Connector/J only streams a result set row by row for this
+        // fetch size; any other value buffers the full result set
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
 
     }
 
@@ -131,74 +145,232 @@ public class GenericDataServiceImpl implements GenericDataService {
         final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
 
         final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
-        final String doubleQuote = "\"";
-        final String slashDoubleQuote = "\\\"";
-        String currColType;
-        String currVal;
 
         for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
+            writer.append(jsonRow(columnHeaders, data.get(i).getRow()));
 
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
+            if (i < (data.size() - 1)) {
+                writer.append(",");
+            }
+        }
 
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
+        writer.append("\n]");
+        return writer.toString();
+
+    }
+
+    @Override
+    public void writeJsonFromResultSet(final String sql, final Writer writer) {
+        streamResultSet(sql, writer, new ResultSetRowFormatter() {
+
+            @Override
+            public String header(@SuppressWarnings("unused") final List<ResultsetColumnHeaderData> columnHeaders) {
+                return "[";
+            }
+
+            @Override
+            public String row(final List<ResultsetColumnHeaderData> columnHeaders, final List<String> row, final boolean first) {
+                final String json = jsonRow(columnHeaders, row);
+                return first ? json : "," + json;
+            }
+
+            @Override
+            public String footer() {
+                return "\n]";
+            }
+        });
+    }
+
+    @Override
+    public void writeCsvFromResultSet(final String sql, final Writer writer) {
+        streamResultSet(sql, writer, new ResultSetRowFormatter() {
+
+            @Override
+            public String header(final List<ResultsetColumnHeaderData> columnHeaders) {
+                final StringBuilder header = new StringBuilder();
+                final int chSize = columnHeaders.size();
+                for (int i = 0; i < chSize; i++) {
+                    header.append('"' + columnHeaders.get(i).getColumnName() + '"');
+                    if (i < (chSize - 1)) {
+                        header.append(",");
+                    }
                 }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
-                    } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = new LocalDate(currVal);
-                            writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
-                                    + "]");
-                        } else if (currColType.equals("DATETIME")) {
-                            final LocalDateTime localDateTime = new LocalDateTime(currVal);
-                            writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
-                                    + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
-                                    + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
-                                    + localDateTime.getMillisOfSecond() + "]");
-                        } else {
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
+                header.append('\n');
+                return header.toString();
+            }
+
+            @Override
+            public String row(final List<ResultsetColumnHeaderData> columnHeaders, final List<String> row,
+                    @SuppressWarnings("unused") final boolean first) {
+                return csvRow(columnHeaders, row);
+            }
+
+            @Override
+            public String footer() {
+                return "";
+            }
+        });
+    }
+
+    /**
+     * Runs the query with a forward only, read only cursor that the MySQL
+     * driver streams row by row (fetch size {@link Integer#MIN_VALUE}) and
+     * writes each row to the writer as soon as it is read, so the result set
+     * is never held in memory. The writer is flushed after the first row so
+     * the client starts receiving data while the rest of the rows are read.
+     */
+    private void streamResultSet(final String sql, final Writer writer, final ResultSetRowFormatter formatter) {
+        final long startTime = System.currentTimeMillis();
+        final Long rows;
+        try {
+            rows = this.streamingJdbcTemplate.query(sql, new ResultSetExtractor<Long>() {
+
+                @Override
+                public Long extractData(final ResultSet rs) throws SQLException {
+                    try {
+                        final List<ResultsetColumnHeaderData> columnHeaders = columnHeaders(rs.getMetaData());
+                        writer.write(formatter.header(columnHeaders));
+                        long count = 0;
+                        while (rs.next()) {
+                            final List<String> columnValues = new ArrayList<>(columnHeaders.size());
+                            for (int i = 0; i < columnHeaders.size(); i++) {
+                                columnValues.add(rs.getString(i + 1));
+                            }
+                            writer.write(formatter.row(columnHeaders, columnValues, count == 0));
+                            if (count == 0) {
+                                writer.flush();
+                                logger.info("First row of streamed result written after " + (System.currentTimeMillis() - startTime)
+                                        + " ms");
+                            }
+                            count++;
                         }
+                        return count;
+                    } catch (final IOException e) {
+                        throw new PlatformDataIntegrityException("error.msg.report.stream.write.failed", e.getMessage());
                     }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",\n");
                 }
-            }
+            });
+            writer.write(formatter.footer());
+            writer.flush();
+        } catch (final IOException e) {
+            throw new PlatformDataIntegrityException("error.msg.report.stream.write.failed", e.getMessage());
+        } catch (final DataAccessException e) {
+            throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName());
+        }
+        logger.info("Streamed " + rows + " rows in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
 
-            if (i < (data.size() - 1)) {
-                writer.append("},");
+    private static List<ResultsetColumnHeaderData> columnHeaders(final ResultSetMetaData rsmd) throws SQLException {
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
+        for (int i = 0; i < rsmd.getColumnCount(); i++) {
+            columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnName(i + 1), rsmd.getColumnTypeName(i + 1)));
+        }
+        return columnHeaders;
+    }
+
+    private String jsonRow(final List<ResultsetColumnHeaderData> columnHeaders, final List<String> row) {
+        final StringBuilder writer = new StringBuilder();
+        final String doubleQuote = "\"";
+        final String slashDoubleQuote = "\\\"";
+        String currColType;
+        String currVal;
+
+        writer.append("\n{");
+        final int rSize = row.size();
+        for (int j = 0; j < rSize; j++) {
+
+            writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
+            currColType = columnHeaders.get(j).getColumnDisplayType();
+            final String colType = columnHeaders.get(j).getColumnType();
+            if (currColType == null && colType.equalsIgnoreCase("INT")) {
+                currColType = "INTEGER";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                currColType = "VARCHAR";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("DATE")) {
+                currColType = "DATE";
+            }
+            currVal = row.get(j);
+            if (currVal != null && currColType != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
+                    writer.append(currVal);
+                } else {
+                    if (currColType.equals("DATE")) {
+                        final LocalDate localDate = new LocalDate(currVal);
+                        writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
+                                + "]");
+                    } else if (currColType.equals("DATETIME")) {
+                        final LocalDateTime localDateTime = new LocalDateTime(currVal);
+                        writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
+                                + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
+                                + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
+                                + localDateTime.getMillisOfSecond() + "]");
+                    } else {
+                        writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
+                    }
+                }
             } else {
-                writer.append("}");
+                writer.append("null");
+            }
+            if (j < (rSize - 1)) {
+                writer.append(",\n");
             }
         }
+        writer.append("}");
+        return writer.toString();
+    }
 
-        writer.append("\n]");
+    private String csvRow(final List<ResultsetColumnHeaderData> columnHeaders, final List<String> row) {
+        final StringBuilder writer = new StringBuilder();
+        final String doubleQuote = "\"";
+        final String twoDoubleQuotes = doubleQuote + doubleQuote;
+        String currColType;
+        String currVal;
+
+        final int rSize = row.size();
+        for (int j = 0; j < rSize; j++) {
+            currColType = columnHeaders.get(j).getColumnType();
+            currVal = row.get(j);
+            if (currVal != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
+                        || currColType.equals("SMALLINT") || currColType.equals("INT")) {
+                    writer.append(currVal);
+                } else {
+                    writer.append('"' + replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                }
+
+            }
+            if (j < (rSize - 1)) {
+                writer.append(",");
+            }
+        }
+        writer.append('\n');
         return writer.toString();
+    }
+
+    private interface ResultSetRowFormatter {
+
+        String header(List<ResultsetColumnHeaderData> columnHeaders);
+
+        String row(List<ResultsetColumnHeaderData> columnHeaders, List<String> row, boolean first);
 
+        String footer();
     }
 
     @Override
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
 
+        List<ResultsetColumnHeaderData> columnHeaders = this.datatableMetadataCache.getColumnHeaders(datatable);
+        if (columnHeaders == null) {
+            columnHeaders = Collections.unmodifiableList(readResultsetColumnHeaders(datatable));
+            this.datatableMetadataCache.putColumnHeaders(datatable, columnHeaders);
+        }
+        return columnHeaders;
+    }
+
+    private List<ResultsetColumnHeaderData> readResultsetColumnHeaders(final String datatable) {
+
         logger.debug("::3 Was inside the fill ResultSetColumnHeader");
 
         final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
@@ -18,12 +18,14 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -96,82 +98,37 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 	public StreamingOutput retrieveReportCSV(final String name, final String type,
 			final Map<String, String> queryParams, final boolean isSelfServiceUserReport) {
 
+        logger.info("STARTING CSV REPORT: " + name + "   Type: " + type);
+        // resolved before the response is committed, so that an unknown report
+        // or invalid sql is reported as such; only the rows are streamed
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+
 		return new StreamingOutput() {
 
             @Override
-            public void write(final OutputStream out) {
-                try {
-
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
-
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
-
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
-
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (final Exception e) {
-                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
-                }
+            public void write(final OutputStream out) throws IOException {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                ReadReportingServiceImpl.this.genericDataService.writeCsvFromResultSet(sql, writer);
             }
         };
 
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport) {
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
+        logger.info("STARTING JSON REPORT: " + name + "   Type: " + type);
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
 
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
-                }
-            }
-            writer.append('\n');
-        }
+        return new StreamingOutput() {
 
-        return writer;
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                ReadReportingServiceImpl.this.genericDataService.writeJsonFromResultSet(sql, writer);
+            }
+        };
     }
 
     @Override
@@ -120,6 +120,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     private final DataTableValidator dataTableValidator;
     private final ColumnValidator columnValidator;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final DatatableMetadataCache datatableMetadataCache;
 
     // private final GlobalConfigurationWritePlatformServiceJpaRepositoryImpl
     // configurationWriteService;
@@ -129,7 +130,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             final FromJsonHelper fromJsonHelper, final GenericDataService genericDataService,
             final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer, final CodeReadPlatformService codeReadPlatformService,
             final ConfigurationDomainService configurationDomainService, final DataTableValidator dataTableValidator,
-            final ColumnValidator columnValidator) {
+            final ColumnValidator columnValidator, final DatatableMetadataCache datatableMetadataCache) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.context = context;
@@ -143,6 +144,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         this.columnValidator = columnValidator;
         // this.configurationWriteService = configurationWriteService;
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.datatableMetadataCache = datatableMetadataCache;
     }
 
     @Override
@@ -273,6 +275,8 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             if (this.isSurveyCategory(category)) {
                 this.namedParameterJdbcTemplate.update("insert into c_configuration (name, value, enabled ) values( :dataTableName , '0','0')", paramMap);
             }
+            this.datatableMetadataCache.invalidate(dataTableName);
+            this.configurationDomainService.invalidateConfigurationSnapshot();
 
         }
         catch (final DataIntegrityViolationException dve) {
@@ -370,6 +374,8 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         sqlArray[3] = deleteFromConfigurationSql;
 
         this.jdbcTemplate.batchUpdate(sqlArray);
+        this.datatableMetadataCache.invalidate(datatable);
+        this.configurationDomainService.invalidateConfigurationSnapshot();
     }
 
     @Transactional
@@ -390,9 +396,10 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             final Type typeOfMap = new TypeToken<Map<String, String>>() {}.getType();
             final Map<String, String> dataParams = this.fromJsonHelper.extractDataMap(typeOfMap, json);
 
-            final String sql = getAddSql(columnHeaders, dataTableName, getFKField(appTable), appTableId, dataParams);
+            final List<Object> params = new ArrayList<>();
+            final String sql = getAddSql(columnHeaders, dataTableName, getFKField(appTable), appTableId, dataParams, params);
 
-            this.jdbcTemplate.update(sql);
+            this.jdbcTemplate.update(sql, params.toArray());
 
             return commandProcessingResult; //
 
@@ -1043,7 +1050,10 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             }
 
             throwExceptionIfValidationWarningsExist(dataValidationErrors);
-       }
+        } finally {
+            // columns may have changed even if a later statement failed
+            this.datatableMetadataCache.invalidate(datatableName);
+        }
     }
 
     @Transactional
@@ -1068,6 +1078,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             final String sql = "DROP TABLE `" + datatableName + "`";
             sqlArray[0] = sql;
             this.jdbcTemplate.batchUpdate(sqlArray);
+            this.datatableMetadataCache.invalidate(datatableName);
         } catch (final DataIntegrityViolationException e) {
             final Throwable realCause = e.getCause();
             final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
@@ -1135,10 +1146,11 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             if (datatableId != null) {
                 pkValue = datatableId;
             }
-            final String sql = getUpdateSql(grs.getColumnHeaders(), dataTableName, pkName, pkValue, changes);
+            final List<Object> params = new ArrayList<>();
+            final String sql = getUpdateSql(grs.getColumnHeaders(), dataTableName, pkName, pkValue, changes, params);
             logger.info("Update sql: " + sql);
             if (StringUtils.isNotBlank(sql)) {
-                this.jdbcTemplate.update(sql);
+                this.jdbcTemplate.update(sql, params.toArray());
                 changes.put("locale", dataParams.get("locale"));
                 changes.put("dateFormat", "yyyy-MM-dd");
             } else {
@@ -1203,9 +1215,9 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         if (id == null) {
         	String whereClause = getFKField(appTable) + " = " + appTableId;
         	SQLInjectionValidator.validateSQLInput(whereClause);
-            sql = sql + "select * from `" + dataTableName + "` where " + whereClause;
+            sql = sql + getSelectEntriesSql(dataTableName, columnHeaders) + " where " + whereClause;
         } else {
-            sql = sql + "select * from `" + dataTableName + "` where id = " + id;
+            sql = sql + getSelectEntriesSql(dataTableName, columnHeaders) + " where id = " + id;
         }
 
         if (StringUtils.isNotBlank(order)) {
@@ -1230,9 +1242,9 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         if (id == null) {
         	String whereClause = getFKField(appTable) + " = " + appTableId;
         	SQLInjectionValidator.validateSQLInput(whereClause);
-            sql = sql + "select * from `" + dataTableName + "` where " + whereClause;
+            sql = sql + getSelectEntriesSql(dataTableName, columnHeaders) + " where " + whereClause;
         } else {
-            sql = sql + "select * from `" + dataTableName + "` where id = " + id;
+            sql = sql + getSelectEntriesSql(dataTableName, columnHeaders) + " where id = " + id;
         }
 
         final List<ResultsetRowData> result = fillDatatableResultSetDataRows(sql);
@@ -1240,6 +1252,28 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return new GenericResultsetData(columnHeaders, result);
     }
 
+    /**
+     * Selects the columns of the cached headers by name, so that the values
+     * read always line up with the headers they are returned with even when
+     * the table was changed after the headers were cached
+     */
+    private String getSelectEntriesSql(final String datatable, final List<ResultsetColumnHeaderData> columnHeaders) {
+        final String templateKey = "select";
+        String selectSql = this.datatableMetadataCache.getStatementTemplate(datatable, templateKey);
+        if (selectSql == null) {
+            final StringBuilder columns = new StringBuilder();
+            for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+                if (columns.length() > 0) {
+                    columns.append(", ");
+                }
+                columns.append('`').append(columnHeader.getColumnName()).append('`');
+            }
+            selectSql = "select " + columns + " from `" + datatable + "`";
+            this.datatableMetadataCache.putStatementTemplate(datatable, templateKey, selectSql);
+        }
+        return selectSql;
+    }
+
     private CommandProcessingResult checkMainResourceExistsWithinScope(final String appTable, final Long appTableId) {
 
         final String sql = dataScopedSQL(appTable, appTableId);
@@ -1398,48 +1432,51 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return applicationTableName.substring(2) + "_id";
     }
 
+    /**
+     * Builds the insert statement for the affected columns and adds its
+     * parameter values to <code>params</code>. The statement only depends on
+     * which columns are affected, so it is cached per datatable.
+     */
     private String getAddSql(final List<ResultsetColumnHeaderData> columnHeaders, final String datatable, final String fkName,
-            final Long appTableId, final Map<String, String> queryParams) {
+            final Long appTableId, final Map<String, String> queryParams, final List<Object> params) {
 
         final Map<String, String> affectedColumns = getAffectedColumns(columnHeaders, queryParams, fkName);
 
-        String pValueWrite = "";
-        String addSql = "";
-        final String singleQuote = "'";
-
-        String insertColumns = "";
-        String selectColumns = "";
-        String columnName = "";
-        String pValue = null;
+        final List<String> insertColumnNames = new ArrayList<>();
+        params.add(appTableId);
         for (final ResultsetColumnHeaderData pColumnHeader : columnHeaders) {
             final String key = pColumnHeader.getColumnName();
             if (affectedColumns.containsKey(key)) {
-                pValue = affectedColumns.get(key);
-                if (StringUtils.isEmpty(pValue)) {
-                    pValueWrite = "null";
-                } else {
-                    if ("bit".equalsIgnoreCase(pColumnHeader.getColumnType())) {
-                        pValueWrite = BooleanUtils.toString(BooleanUtils.toBooleanObject(pValue), "1", "0", "null");
-                    } else {
-                        pValueWrite = singleQuote + this.genericDataService.replace(pValue, singleQuote, singleQuote + singleQuote)
-                                + singleQuote;
-                    }
-
-                }
-                columnName = "`" + key + "`";
-                insertColumns += ", " + columnName;
-                selectColumns += "," + pValueWrite + " as " + columnName;
+                insertColumnNames.add(key);
+                params.add(statementParameterValue(pColumnHeader, affectedColumns.get(key)));
             }
         }
 
-        addSql = "insert into `" + datatable + "` (`" + fkName + "` " + insertColumns + ")" + " select " + appTableId + " as id"
-                + selectColumns;
+        final String templateKey = "insert:" + fkName + ":" + StringUtils.join(insertColumnNames, ",");
+        String addSql = this.datatableMetadataCache.getStatementTemplate(datatable, templateKey);
+        if (addSql == null) {
+            final StringBuilder insertColumns = new StringBuilder();
+            final StringBuilder insertValues = new StringBuilder();
+            for (final String columnName : insertColumnNames) {
+                insertColumns.append(", `").append(columnName).append("`");
+                insertValues.append(", ?");
+            }
+            addSql = "insert into `" + datatable + "` (`" + fkName + "`" + insertColumns + ") values (?" + insertValues + ")";
+            this.datatableMetadataCache.putStatementTemplate(datatable, templateKey, addSql);
+        }
 
         logger.info(addSql);
 
         return addSql;
     }
 
+    private Object statementParameterValue(final ResultsetColumnHeaderData columnHeader, final String pValue) {
+        if (StringUtils.isEmpty(pValue)) { return null; }
+        if ("bit".equalsIgnoreCase(columnHeader.getColumnType())) { return BooleanUtils.toIntegerObject(BooleanUtils
+                .toBooleanObject(pValue)); }
+        return pValue;
+    }
+
     /**
      * This method is used special for ppi cases Where the score need to be
      * computed
@@ -1492,7 +1529,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     }
 
     private String getUpdateSql(List<ResultsetColumnHeaderData> columnHeaders, final String datatable, final String keyFieldName,
-            final Long keyFieldValue, final Map<String, Object> changedColumns) {
+            final Long keyFieldValue, final Map<String, Object> changedColumns, final List<Object> params) {
 
         // just updating fields that have changed since pre-update read - though
         // its possible these values are different from the page the user was
@@ -1503,37 +1540,29 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         if (changedColumns.size() == 0) { return null; }
 
-        String pValue = null;
-        String pValueWrite = "";
-        final String singleQuote = "'";
-        boolean firstColumn = true;
-        String sql = "update `" + datatable + "` ";
+        final List<String> updateColumnNames = new ArrayList<>();
         for (final ResultsetColumnHeaderData pColumnHeader : columnHeaders) {
             final String key = pColumnHeader.getColumnName();
             if (changedColumns.containsKey(key)) {
-                if (firstColumn) {
-                    sql += " set ";
-                    firstColumn = false;
-                } else {
-                    sql += ", ";
-                }
-
-                pValue = (String) changedColumns.get(key);
-                if (StringUtils.isEmpty(pValue)) {
-                    pValueWrite = "null";
-                } else {
-                    if ("bit".equalsIgnoreCase(pColumnHeader.getColumnType())) {
-                        pValueWrite = BooleanUtils.toString(BooleanUtils.toBooleanObject(pValue), "1", "0", "null");
-                    } else {
-                        pValueWrite = singleQuote + this.genericDataService.replace(pValue, singleQuote, singleQuote + singleQuote)
-                                + singleQuote;
-                    }
-                }
-                sql += "`" + key + "` = " + pValueWrite;
+                updateColumnNames.add(key);
+                params.add(statementParameterValue(pColumnHeader, (String) changedColumns.get(key)));
             }
         }
-
-        sql += " where " + keyFieldName + " = " + keyFieldValue;
+        params.add(keyFieldValue);
+
+        final String templateKey = "update:" + keyFieldName + ":" + StringUtils.join(updateColumnNames, ",");
+        String sql = this.datatableMetadataCache.getStatementTemplate(datatable, templateKey);
+        if (sql == null) {
+            final StringBuilder sqlBuilder = new StringBuilder("update `" + datatable + "` ");
+            boolean firstColumn = true;
+            for (final String columnName : updateColumnNames) {
+                sqlBuilder.append(firstColumn ? " set " : ", ").append("`").append(columnName).append("` = ?");
+                firstColumn = false;
+            }
+            sqlBuilder.append(" where ").append(keyFieldName).append(" = ?");
+            sql = sqlBuilder.toString();
+            this.datatableMetadataCache.putStatementTemplate(datatable, templateKey, sql);
+        }
 
         return sql;
     }
@@ -26,6 +26,7 @@ import javax.persistence.PersistenceException;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -65,12 +66,14 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
     private final ReportParameterRepository reportParameterRepository;
     private final PermissionRepository permissionRepository;
     private final ReadReportingService readReportingService;
+    private final ConfigurationDomainService configurationDomainService;
 
     @Autowired
     public ReportWritePlatformServiceImpl(final PlatformSecurityContext context,
             final ReportCommandFromApiJsonDeserializer fromApiJsonDeserializer, final ReportRepository reportRepository,
             final ReportParameterRepository reportParameterRepository, final ReportParameterUsageRepository reportParameterUsageRepository,
-            final PermissionRepository permissionRepository, final ReadReportingService readReportingService) {
+            final PermissionRepository permissionRepository, final ReadReportingService readReportingService,
+            final ConfigurationDomainService configurationDomainService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.reportRepository = reportRepository;
@@ -78,6 +81,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
         this.reportParameterUsageRepository = reportParameterUsageRepository;
         this.permissionRepository = permissionRepository;
         this.readReportingService = readReportingService;
+        this.configurationDomainService = configurationDomainService;
     }
 
     @Transactional
@@ -97,6 +101,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             final Permission permission = new Permission("report", report.getReportName(), "READ");
             this.permissionRepository.save(permission);
+            this.configurationDomainService.invalidateConfigurationSnapshot();
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -170,6 +175,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
         this.reportRepository.delete(report);
         this.permissionRepository.delete(permission);
+        this.configurationDomainService.invalidateConfigurationSnapshot();
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(reportId) //
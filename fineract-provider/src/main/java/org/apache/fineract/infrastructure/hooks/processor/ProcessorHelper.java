@@ -21,6 +21,9 @@ package org.apache.fineract.infrastructure.hooks.processor;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -31,11 +34,8 @@ import javax.net.ssl.X509TrustManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import retrofit.Callback;
 import retrofit.RestAdapter;
-import retrofit.RetrofitError;
 import retrofit.client.OkClient;
-import retrofit.client.Response;
 
 import com.squareup.okhttp.OkHttpClient;
 
@@ -45,6 +45,11 @@ public class ProcessorHelper {
 	private final static Logger logger = LoggerFactory
 			.getLogger(ProcessorHelper.class);
 
+	private final static int CONNECT_TIMEOUT_SECONDS = 30;
+	private final static int READ_TIMEOUT_SECONDS = 60;
+
+	private final static ConcurrentMap<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
 	@SuppressWarnings("null")
 	public static OkHttpClient configureClient(final OkHttpClient client) {
 		final TrustManager[] certs = new TrustManager[] { new X509TrustManager() {
@@ -90,26 +95,11 @@ public class ProcessorHelper {
 
 	public static OkHttpClient createClient() {
 		final OkHttpClient client = new OkHttpClient();
+		client.setConnectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		client.setReadTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 		return configureClient(client);
 	}
 
-	@SuppressWarnings("rawtypes")
-	public static Callback createCallback(final String url) {
-
-		return new Callback() {
-			@Override
-			public void success(final Object o, final Response response) {
-				logger.info("URL : " + url + "\tStatus : "
-						+ response.getStatus());
-			}
-
-			@Override
-			public void failure(final RetrofitError retrofitError) {
-				logger.info(retrofitError.getMessage());
-			}
-		};
-	}
-
 	public static WebHookService createWebHookService(final String url) {
 
 		final OkHttpClient client = ProcessorHelper.createClient();
@@ -120,4 +110,21 @@ public class ProcessorHelper {
 		return restAdapter.create(WebHookService.class);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns the service for the url, reusing its client and connection pool
+	 * for every delivery to the same endpoint.
+	 */
+	public static WebHookService retrieveWebHookService(final String url) {
+		WebHookService service = webHookServices.get(url);
+		if (service == null) {
+			service = createWebHookService(url);
+			final WebHookService existing = webHookServices.putIfAbsent(url,
+					service);
+			if (existing != null) {
+				service = existing;
+			}
+		}
+		return service;
+	}
+
+}
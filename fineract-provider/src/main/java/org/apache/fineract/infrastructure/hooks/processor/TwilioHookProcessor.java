@@ -36,8 +36,6 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import retrofit.Callback;
-
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -73,18 +71,13 @@ public class TwilioHookProcessor implements HookProcessor {
                 tenantIdentifier, authToken, hook);
     }
 
-    @SuppressWarnings("unchecked")
     private void sendRequest(final SmsProviderData smsProviderData,
             final String payload, String entityName, String actionName,
             final String tenantIdentifier, final String authToken,
             final Hook hook) {
 
         final WebHookService service = ProcessorHelper
-                .createWebHookService(smsProviderData.getUrl());
-
-        @SuppressWarnings("rawtypes")
-        final Callback callback = ProcessorHelper
-                .createCallback(smsProviderData.getUrl());
+                .retrieveWebHookService(smsProviderData.getUrl());
 
         String apiKey = this.hookConfigurationRepository
                 .findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
@@ -112,7 +105,7 @@ public class TwilioHookProcessor implements HookProcessor {
                 json = new JsonParser().parse(payload).getAsJsonObject();
             }
             service.sendSmsBridgeRequest(entityName, actionName,
-                    tenantIdentifier, apiKey, json, callback);
+                    tenantIdentifier, apiKey, json);
         }
 
     }
@@ -131,9 +124,8 @@ public class TwilioHookProcessor implements HookProcessor {
                 final Client client = this.clientRepositoryWrapper.findOneWithNotFoundDetection(clientId);
                 final String mobileNo = client.mobileNo();
                 if (mobileNo != null && !mobileNo.isEmpty()) {
-                    this.templateMergeService.setAuthToken(authToken);
                     final String compiledMessage = this.templateMergeService
-                            .compile(hook.getUgdTemplate(), map)
+                            .compile(hook.getUgdTemplate(), map, authToken)
                             .replace("<p>", "").replace("</p>", "");
                     final Map<String, String> jsonMap = new HashMap<>();
                     jsonMap.put("mobileNo", mobileNo);
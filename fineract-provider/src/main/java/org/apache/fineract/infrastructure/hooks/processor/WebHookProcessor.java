@@ -30,8 +30,6 @@ import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.stereotype.Service;
 
-import retrofit.Callback;
-
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -74,22 +72,19 @@ public class WebHookProcessor implements HookProcessor {
 
 		final String fineractEndpointUrl = System.getProperty("baseUrl");
 		final WebHookService service = ProcessorHelper
-				.createWebHookService(url);
-
-		@SuppressWarnings("rawtypes")
-		final Callback callback = ProcessorHelper.createCallback(url);
+				.retrieveWebHookService(url);
 
 		if (contentType.equalsIgnoreCase("json")
 				|| contentType.contains("json")) {
 			final JsonObject json = new JsonParser().parse(payload)
 					.getAsJsonObject();
 			service.sendJsonRequest(entityName, actionName, tenantIdentifier,
-					fineractEndpointUrl, json, callback);
+					fineractEndpointUrl, json);
 		} else {
 			Map<String, String> map = new HashMap<>();
 			map = new Gson().fromJson(payload, map.getClass());
 			service.sendFormRequest(entityName, actionName, tenantIdentifier,
-					fineractEndpointUrl, map, callback);
+					fineractEndpointUrl, map);
 		}
 
 	}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookOutboundStatusType;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+public class HookDeliveryServiceImpl implements HookDeliveryService {
+
+    private final static Logger logger = LoggerFactory.getLogger(HookDeliveryServiceImpl.class);
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final int INITIAL_BACKOFF_SECONDS = 30;
+    private static final int MAX_BACKOFF_SECONDS = 3600;
+    private static final int MAX_ERROR_LENGTH = 500;
+    /*
+     * How long a claimed event is left to its worker before the scheduled job
+     * may claim it again, comfortably above the read timeout of the hook
+     * clients so that only the events of a worker that died are taken over
+     */
+    private static final int IN_FLIGHT_LEASE_SECONDS = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+
+    @Autowired
+    public HookDeliveryServiceImpl(final RoutingDataSource dataSource, final HookRepository hookRepository,
+            final HookProcessorProvider hookProcessorProvider) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.hookRepository = hookRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+    }
+
+    /**
+     * Delivers a due outbound event. The row is first claimed by moving it to
+     * in flight with a single conditional update, so a worker and the
+     * scheduled job never send the same event twice. The endpoint is then
+     * called with no transaction or row lock held, and the outcome is
+     * recorded with a second update.
+     */
+    @Override
+    public void deliverHookEvent(final Long outboundId, final AppUser appUser, final String authToken) {
+        final HookOutboundData outbound = claim(outboundId);
+        if (outbound == null) { return; }
+
+        final Hook hook = this.hookRepository.findOne(outbound.hookId);
+        final HookProcessor processor = hook == null ? null : this.hookProcessorProvider.getProcessor(hook);
+        if (processor == null) {
+            recordOutcome(outbound, HookOutboundStatusType.FAILED, 0, "No processor available for hook " + outbound.hookId);
+            return;
+        }
+
+        try {
+            processor.process(hook, appUser, outbound.payload, outbound.entityName, outbound.actionName,
+                    ThreadLocalContextUtil.getTenant().getTenantIdentifier(), authToken);
+        } catch (final RuntimeException e) {
+            logger.warn("Delivery of hook event " + outboundId + " failed: " + e.getMessage());
+            reschedule(outbound, e.getMessage());
+            return;
+        }
+        recordOutcome(outbound, HookOutboundStatusType.DELIVERED, 0, null);
+    }
+
+    @Override
+    public void rescheduleHookEvent(final Long outboundId, final String error) {
+        final HookOutboundMapper mapper = new HookOutboundMapper();
+        final String sql = "select " + mapper.schema() + " where o.id = ? and o.status_enum = ?";
+        final List<HookOutboundData> inFlight = this.jdbcTemplate.query(sql, mapper, outboundId,
+                HookOutboundStatusType.IN_FLIGHT.getValue());
+        if (!inFlight.isEmpty()) {
+            reschedule(inFlight.get(0), error);
+        }
+    }
+
+    /**
+     * Moves a due pending event, or an in flight event whose lease has run
+     * out, to in flight and counts the attempt
+     * 
+     * @return the claimed event, null if it is not due or was claimed by
+     *         someone else
+     */
+    private HookOutboundData claim(final Long outboundId) {
+        final String claimSql = "update m_hook_outbound set status_enum = ?, attempts = attempts + 1, "
+                + "next_attempt_date = date_add(now(), interval ? second), lastmodified_date = now() "
+                + "where id = ? and status_enum in (?, ?) and next_attempt_date <= now()";
+        final int claimed = this.jdbcTemplate.update(claimSql, HookOutboundStatusType.IN_FLIGHT.getValue(), IN_FLIGHT_LEASE_SECONDS,
+                outboundId, HookOutboundStatusType.PENDING.getValue(), HookOutboundStatusType.IN_FLIGHT.getValue());
+        if (claimed == 0) { return null; }
+
+        final HookOutboundMapper mapper = new HookOutboundMapper();
+        final List<HookOutboundData> outbound = this.jdbcTemplate.query("select " + mapper.schema() + " where o.id = ?", mapper,
+                outboundId);
+        return outbound.isEmpty() ? null : outbound.get(0);
+    }
+
+    private void reschedule(final HookOutboundData outbound, final String error) {
+        if (outbound.attempts >= MAX_ATTEMPTS) {
+            recordOutcome(outbound, HookOutboundStatusType.FAILED, 0, error);
+        } else {
+            final long backoff = Math.min((long) INITIAL_BACKOFF_SECONDS << (outbound.attempts - 1), MAX_BACKOFF_SECONDS);
+            recordOutcome(outbound, HookOutboundStatusType.PENDING, backoff, error);
+        }
+    }
+
+    private void recordOutcome(final HookOutboundData outbound, final HookOutboundStatusType status, final long backoffSeconds,
+            final String error) {
+        final String sql = "update m_hook_outbound set status_enum = ?, next_attempt_date = date_add(now(), interval ? second), "
+                + "last_error = ?, lastmodified_date = now() where id = ? and status_enum = ?";
+        this.jdbcTemplate.update(sql, status.getValue(), backoffSeconds, StringUtils.left(error, MAX_ERROR_LENGTH), outbound.id,
+                HookOutboundStatusType.IN_FLIGHT.getValue());
+    }
+
+    private static final class HookOutboundData {
+
+        private final Long id;
+        private final Long hookId;
+        private final String entityName;
+        private final String actionName;
+        private final String payload;
+        private final int attempts;
+
+        HookOutboundData(final Long id, final Long hookId, final String entityName, final String actionName, final String payload,
+                final int attempts) {
+            this.id = id;
+            this.hookId = hookId;
+            this.entityName = entityName;
+            this.actionName = actionName;
+            this.payload = payload;
+            this.attempts = attempts;
+        }
+    }
+
+    private static final class HookOutboundMapper implements RowMapper<HookOutboundData> {
+
+        public String schema() {
+            return "o.id as id, o.hook_id as hookId, o.entity_name as entityName, o.action_name as actionName, "
+                    + "o.payload as payload, o.attempts as attempts from m_hook_outbound o";
+        }
+
+        @Override
+        public HookOutboundData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new HookOutboundData(rs.getLong("id"), rs.getLong("hookId"), rs.getString("entityName"),
+                    rs.getString("actionName"), rs.getString("payload"), rs.getInt("attempts"));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantCacheGenerations;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per tenant index of the active hooks listening to each entity and action,
+ * loaded with a single query. Hook changes made on this node invalidate the
+ * index of the tenant; changes made through other nodes are picked up once
+ * the index is older than its time to live.
+ */
+@Component
+public class HookEventIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long timeToLiveMillis;
+    private final ConcurrentMap<String, TenantHookIds> hookIdsByTenant = new ConcurrentHashMap<>();
+    private final TenantCacheGenerations generations = new TenantCacheGenerations();
+
+    @Autowired
+    public HookEventIndex(final RoutingDataSource dataSource,
+            @Value("${fineract.hooks.event.index.ttl.seconds:60}") final long timeToLiveSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+    }
+
+    public List<Long> retrieveHookIds(final String entityName, final String actionName) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        TenantHookIds tenantHookIds = this.hookIdsByTenant.get(tenantIdentifier);
+        if (tenantHookIds == null || !this.generations.isCurrent(tenantIdentifier, tenantHookIds.generation)
+                || tenantHookIds.isExpired(this.timeToLiveMillis)) {
+            final long generation = this.generations.current(tenantIdentifier);
+            tenantHookIds = new TenantHookIds(loadHookIdsByEvent(), generation);
+            if (this.generations.isCurrent(tenantIdentifier, generation)) {
+                this.hookIdsByTenant.put(tenantIdentifier, tenantHookIds);
+            }
+        }
+        final List<Long> hookIds = tenantHookIds.hookIdsByEvent.get(eventKey(entityName, actionName));
+        if (hookIds == null) { return Collections.emptyList(); }
+        return hookIds;
+    }
+
+    /**
+     * Called when hooks of the current tenant are created, updated or
+     * deleted, so the index is reloaded on its next use.
+     */
+    public void invalidate() {
+        this.generations.invalidate(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+    }
+
+    private Map<String, List<Long>> loadHookIdsByEvent() {
+        final String sql = "select e.entity_name as entityName, e.action_name as actionName, h.id as hookId from m_hook h "
+                + "join m_hook_registered_events e on e.hook_id = h.id where h.is_active = 1 order by h.id";
+        final Map<String, List<Long>> hookIdsByEvent = new HashMap<>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final String key = eventKey(rs.getString("entityName"), rs.getString("actionName"));
+                List<Long> hookIds = hookIdsByEvent.get(key);
+                if (hookIds == null) {
+                    hookIds = new ArrayList<>();
+                    hookIdsByEvent.put(key, hookIds);
+                }
+                hookIds.add(rs.getLong("hookId"));
+            }
+        });
+        return Collections.unmodifiableMap(hookIdsByEvent);
+    }
+
+    private static String eventKey(final String entityName, final String actionName) {
+        return entityName + ":" + actionName;
+    }
+
+    private static final class TenantHookIds {
+
+        private final Map<String, List<Long>> hookIdsByEvent;
+        private final long generation;
+        private final long loadedAt;
+
+        TenantHookIds(final Map<String, List<Long>> hookIdsByEvent, final long generation) {
+            this.hookIdsByEvent = hookIdsByEvent;
+            this.generation = generation;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired(final long timeToLiveMillis) {
+            return System.currentTimeMillis() - this.loadedAt > timeToLiveMillis;
+        }
+    }
+}
@@ -16,11 +16,13 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.listener;
+package org.apache.fineract.infrastructure.hooks.service;
 
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.springframework.context.ApplicationListener;
 
-public interface HookListener extends ApplicationListener<HookEvent> {
+public interface HookOutboundQueueService {
 
+    void enqueue(HookEvent event);
+
+    void deliverPendingHookEvents();
 }
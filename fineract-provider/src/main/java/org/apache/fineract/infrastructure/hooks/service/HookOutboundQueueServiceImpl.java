@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
+import org.apache.fineract.infrastructure.hooks.domain.HookOutboundStatusType;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Outbound queue for hook events. Events are stored in m_hook_outbound as part
+ * of the command transaction and handed to a bounded worker pool once it
+ * commits. Events the pool cannot take, and events whose delivery failed, stay
+ * pending and are picked up by the scheduled job.
+ */
+@Service
+public class HookOutboundQueueServiceImpl implements HookOutboundQueueService {
+
+    private final static Logger logger = LoggerFactory.getLogger(HookOutboundQueueServiceImpl.class);
+
+    private static final int WORKER_THREADS = 4;
+    private static final int WORKER_QUEUE_CAPACITY = 1000;
+    private static final int PENDING_BATCH_SIZE = 500;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookEventIndex hookEventIndex;
+    private final HookDeliveryService hookDeliveryService;
+    private final int retentionDays;
+    private ThreadPoolExecutor deliveryExecutorService;
+
+    @Autowired
+    public HookOutboundQueueServiceImpl(final RoutingDataSource dataSource, final HookEventIndex hookEventIndex,
+            final HookDeliveryService hookDeliveryService,
+            @Value("${fineract.hooks.outbound.retention.days:7}") final int retentionDays) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.hookEventIndex = hookEventIndex;
+        this.hookDeliveryService = hookDeliveryService;
+        this.retentionDays = retentionDays;
+    }
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.deliveryExecutorService = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(WORKER_QUEUE_CAPACITY), new RejectedExecutionHandler() {
+
+                    @Override
+                    public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+                        logger.warn("Hook delivery queue is full, events are left for the scheduled job");
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdownExecutorService() {
+        this.deliveryExecutorService.shutdown();
+    }
+
+    @Transactional
+    @Override
+    public void enqueue(final HookEvent event) {
+        final HookEventSource source = event.getSource();
+        final List<Long> hookIds = this.hookEventIndex.retrieveHookIds(source.getEntityName(), source.getActionName());
+        if (hookIds.isEmpty()) { return; }
+
+        final String sql = "insert into m_hook_outbound (hook_id, entity_name, action_name, payload, status_enum, attempts, "
+                + "next_attempt_date, created_date) values (?, ?, ?, ?, ?, 0, now(), now())";
+        final List<Long> outboundIds = new ArrayList<>(hookIds.size());
+        for (final Long hookId : hookIds) {
+            this.jdbcTemplate.update(sql, hookId, source.getEntityName(), source.getActionName(), event.getPayload(),
+                    HookOutboundStatusType.PENDING.getValue());
+            outboundIds.add(this.jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class));
+        }
+
+        final HookDeliveryTask task = new HookDeliveryTask(ThreadLocalContextUtil.getTenant(), outboundIds, event.getAppUser(),
+                event.getAuthToken());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+                HookOutboundQueueServiceImpl.this.deliveryExecutorService.execute(task);
+            }
+        });
+    }
+
+    /**
+     * Hands pending events that are due to the worker pool, one task per
+     * target URL so that events for the same endpoint are delivered in order,
+     * even when several hooks point at it. Events left in flight by a worker that died are
+     * picked up again once their lease has run out. The user and
+     * authentication token of the original request are not stored, so retried
+     * events are delivered without them. Delivered and failed events older
+     * than the retention period are purged on the way.
+     */
+    @Override
+    @CronTarget(jobName = JobName.DELIVER_HOOK_EVENTS)
+    public void deliverPendingHookEvents() {
+        purgeCompletedHookEvents();
+
+        final String sql = "select o.id as id, o.hook_id as hookId, c.field_value as targetUrl from m_hook_outbound o "
+                + "left join m_hook_configuration c on c.hook_id = o.hook_id and c.field_name = ? "
+                + "where o.status_enum in (?, ?) and o.next_attempt_date <= now() order by o.id limit " + PENDING_BATCH_SIZE;
+        final Map<String, List<Long>> outboundIdsByTarget = new LinkedHashMap<>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final String targetUrl = rs.getString("targetUrl");
+                final String target = targetUrl == null ? "hook " + rs.getLong("hookId") : targetUrl;
+                List<Long> outboundIds = outboundIdsByTarget.get(target);
+                if (outboundIds == null) {
+                    outboundIds = new ArrayList<>();
+                    outboundIdsByTarget.put(target, outboundIds);
+                }
+                outboundIds.add(rs.getLong("id"));
+            }
+        }, HookApiConstants.payloadURLName, HookOutboundStatusType.PENDING.getValue(), HookOutboundStatusType.IN_FLIGHT.getValue());
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        for (final List<Long> outboundIds : outboundIdsByTarget.values()) {
+            this.deliveryExecutorService.execute(new HookDeliveryTask(tenant, outboundIds, null, null));
+        }
+    }
+
+    /**
+     * Deletes delivered and failed events past the retention period, a batch
+     * at a time so that no long running delete holds locks on the table
+     */
+    private void purgeCompletedHookEvents() {
+        final String sql = "delete from m_hook_outbound where status_enum in (?, ?) "
+                + "and lastmodified_date < date_sub(now(), interval ? day) limit " + PURGE_BATCH_SIZE;
+        int purged;
+        int totalPurged = 0;
+        do {
+            purged = this.jdbcTemplate.update(sql, HookOutboundStatusType.DELIVERED.getValue(),
+                    HookOutboundStatusType.FAILED.getValue(), this.retentionDays);
+            totalPurged += purged;
+        } while (purged == PURGE_BATCH_SIZE);
+        if (totalPurged > 0) {
+            logger.info("Purged " + totalPurged + " delivered and failed hook events older than " + this.retentionDays + " days");
+        }
+    }
+
+    private class HookDeliveryTask implements Runnable {
+
+        private final FineractPlatformTenant tenant;
+        private final List<Long> outboundIds;
+        private final AppUser appUser;
+        private final String authToken;
+
+        HookDeliveryTask(final FineractPlatformTenant tenant, final List<Long> outboundIds, final AppUser appUser,
+                final String authToken) {
+            this.tenant = tenant;
+            this.outboundIds = outboundIds;
+            this.appUser = appUser;
+            this.authToken = authToken;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            try {
+                for (final Long outboundId : this.outboundIds) {
+                    try {
+                        HookOutboundQueueServiceImpl.this.hookDeliveryService.deliverHookEvent(outboundId, this.appUser,
+                                this.authToken);
+                    } catch (final RuntimeException e) {
+                        logger.error("Delivery of hook event " + outboundId + " failed", e);
+                        HookOutboundQueueServiceImpl.this.hookDeliveryService.rescheduleHookEvent(outboundId, e.getMessage());
+                    }
+                }
+            } catch (final RuntimeException e) {
+                logger.error("Hook delivery task for tenant " + this.tenant.getTenantIdentifier() + " failed", e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+}
@@ -51,6 +51,7 @@ public class SchedulerJobApiConstants {
     public static final String COMMAND = "command";
     public static final String JOB_ID = "jobId";
     public static final String JOB_RUN_HISTORY = "runhistory";
+    public static final String JOB_PROGRESS = "progress";
     public static final String SCHEDULER_STATUS_PATH = "scheduler";
 
     protected static final Set<String> JOB_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.jobs.api;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.ws.rs.Consumes;
@@ -45,8 +46,10 @@ import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSeria
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.jobs.data.ChunkedJobProgressData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor;
 import org.apache.fineract.infrastructure.jobs.service.JobRegisterService;
 import org.apache.fineract.infrastructure.jobs.service.SchedulerJobRunnerReadService;
 import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
@@ -68,6 +71,8 @@ public class SchedulerJobApiResource {
     private final ToApiJsonSerializer<JobDetailHistoryData> jobHistoryToApiJsonSerializer;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final PlatformSecurityContext context;
+    private final ChunkedJobExecutor chunkedJobExecutor;
+    private final ToApiJsonSerializer<ChunkedJobProgressData> jobProgressToApiJsonSerializer;
 
     @Autowired
     public SchedulerJobApiResource(final SchedulerJobRunnerReadService schedulerJobRunnerReadService,
@@ -75,7 +80,8 @@ public class SchedulerJobApiResource {
             final ApiRequestParameterHelper apiRequestParameterHelper,
             final ToApiJsonSerializer<JobDetailHistoryData> jobHistoryToApiJsonSerializer,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final PlatformSecurityContext context) {
+            final PlatformSecurityContext context, final ChunkedJobExecutor chunkedJobExecutor,
+            final ToApiJsonSerializer<ChunkedJobProgressData> jobProgressToApiJsonSerializer) {
         this.schedulerJobRunnerReadService = schedulerJobRunnerReadService;
         this.jobRegisterService = jobRegisterService;
         this.toApiJsonSerializer = toApiJsonSerializer;
@@ -83,6 +89,8 @@ public class SchedulerJobApiResource {
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.context = context;
+        this.chunkedJobExecutor = chunkedJobExecutor;
+        this.jobProgressToApiJsonSerializer = jobProgressToApiJsonSerializer;
     }
 
     @GET
@@ -95,6 +103,15 @@ public class SchedulerJobApiResource {
         return this.toApiJsonSerializer.serialize(settings, jobDetailDatas, SchedulerJobApiConstants.JOB_DETAIL_RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path(SchedulerJobApiConstants.JOB_PROGRESS)
+    @ApiOperation(value = "Retrieve Chunked Job Progress", notes = "Returns the progress of the last run of each chunked job, with a histogram of the time spent per item and the slowest items.\n" + "\n" + "Example Requests:\n" + "\n" + "jobs/progress")
+    public String retrieveProgress() {
+        this.context.authenticatedUser().validateHasReadPermission(SchedulerJobApiConstants.SCHEDULER_RESOURCE_NAME);
+        final Collection<ChunkedJobProgressData> progress = this.chunkedJobExecutor.retrieveProgress();
+        return this.jobProgressToApiJsonSerializer.serialize(progress);
+    }
+
     @GET
     @Path("{" + SchedulerJobApiConstants.JOB_ID + "}")
     @ApiOperation(value = "Retrieve a Job", notes = "Returns the details of a Job.\n" + "\n" + "Example Requests:\n" + "\n" + "jobs/5")
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.data;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Immutable data object representing the progress of a run of a chunked job.
+ */
+public class ChunkedJobProgressData {
+
+    @SuppressWarnings("unused")
+    private final String jobName;
+
+    @SuppressWarnings("unused")
+    private final Integer totalItems;
+
+    @SuppressWarnings("unused")
+    private final Integer processedItems;
+
+    @SuppressWarnings("unused")
+    private final Integer failedItems;
+
+    @SuppressWarnings("unused")
+    private final Date startTime;
+
+    @SuppressWarnings("unused")
+    private final Date endTime;
+
+    @SuppressWarnings("unused")
+    private final Map<String, Long> itemDurationHistogram;
+
+    @SuppressWarnings("unused")
+    private final Map<Long, Long> slowestItemDurations;
+
+    public static ChunkedJobProgressData instance(final String jobName, final Integer totalItems, final Integer processedItems,
+            final Integer failedItems, final Date startTime, final Date endTime, final Map<String, Long> itemDurationHistogram,
+            final Map<Long, Long> slowestItemDurations) {
+        return new ChunkedJobProgressData(jobName, totalItems, processedItems, failedItems, startTime, endTime, itemDurationHistogram,
+                slowestItemDurations);
+    }
+
+    private ChunkedJobProgressData(final String jobName, final Integer totalItems, final Integer processedItems,
+            final Integer failedItems, final Date startTime, final Date endTime, final Map<String, Long> itemDurationHistogram,
+            final Map<Long, Long> slowestItemDurations) {
+        this.jobName = jobName;
+        this.totalItems = totalItems;
+        this.processedItems = processedItems;
+        this.failedItems = failedItems;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.itemDurationHistogram = itemDurationHistogram;
+        this.slowestItemDurations = slowestItemDurations;
+    }
+}
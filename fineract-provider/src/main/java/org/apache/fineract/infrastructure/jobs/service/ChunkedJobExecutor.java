@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.data.ChunkedJobProgressData;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the items of a scheduled job in chunks on a pool of worker threads,
+ * with one transaction per chunk. Chunks that fail on a lock are retried with
+ * an exponential backoff, chunks that fail otherwise are retried one item at
+ * a time so that only the failing items are reported. The progress of the
+ * last run of each job is kept per tenant.
+ */
+@Service
+public class ChunkedJobExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(ChunkedJobExecutor.class);
+
+    private final ChunkedJobTransactionService chunkedJobTransactionService;
+    private final int threadCount;
+    private final int chunkSize;
+    private final ConcurrentMap<String, ConcurrentMap<JobName, ChunkedJobProgress>> progressByTenant = new ConcurrentHashMap<>();
+    private final Random random = new Random();
+
+    @Autowired
+    public ChunkedJobExecutor(final ChunkedJobTransactionService chunkedJobTransactionService,
+            @Value("${fineract.jobs.chunked.threads:1}") final int threadCount,
+            @Value("${fineract.jobs.chunked.chunk.size:20}") final int chunkSize) {
+        this.chunkedJobTransactionService = chunkedJobTransactionService;
+        this.threadCount = threadCount;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public <T> void execute(final JobName jobName, final List<T> items, final ChunkedJobItemProcessor<T> processor)
+            throws JobExecutionException {
+        final ChunkedJobProgress progress = new ChunkedJobProgress(jobName.toString(), items.size());
+        retrieveTenantProgress().put(jobName, progress);
+
+        final List<Callable<String>> chunks = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < items.size(); fromIndex += this.chunkSize) {
+            final List<T> chunk = new ArrayList<>(items.subList(fromIndex, Math.min(fromIndex + this.chunkSize, items.size())));
+            chunks.add(new Callable<String>() {
+
+                @Override
+                public String call() {
+                    final String errors = processChunk(jobName, chunk, processor, progress);
+                    logger.info(progress.summary());
+                    return errors;
+                }
+            });
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        try {
+            for (final String chunkErrors : JobPartitionExecutor.execute(this.threadCount, chunks)) {
+                sb.append(chunkErrors);
+            }
+        } finally {
+            progress.complete();
+            logger.info(progress.summary() + ", " + progress.durationSummary());
+        }
+        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+    }
+
+    public Collection<ChunkedJobProgressData> retrieveProgress() {
+        final List<ChunkedJobProgressData> progressData = new ArrayList<>();
+        for (final ChunkedJobProgress progress : retrieveTenantProgress().values()) {
+            progressData.add(progress.toData());
+        }
+        return progressData;
+    }
+
+    private ConcurrentMap<JobName, ChunkedJobProgress> retrieveTenantProgress() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        ConcurrentMap<JobName, ChunkedJobProgress> tenantProgress = this.progressByTenant.get(tenantIdentifier);
+        if (tenantProgress == null) {
+            tenantProgress = new ConcurrentHashMap<>();
+            final ConcurrentMap<JobName, ChunkedJobProgress> existing = this.progressByTenant.putIfAbsent(tenantIdentifier,
+                    tenantProgress);
+            if (existing != null) {
+                tenantProgress = existing;
+            }
+        }
+        return tenantProgress;
+    }
+
+    private <T> String processChunk(final JobName jobName, final List<T> chunk, final ChunkedJobItemProcessor<T> processor,
+            final ChunkedJobProgress progress) {
+        try {
+            progress.recordProcessed(processWithRetry(chunk, processor));
+            return "";
+        } catch (final RuntimeException e) {
+            if (chunk.size() == 1) {
+                progress.recordFailed();
+                return errorMessage(jobName, processor.getItemId(chunk.get(0)), e);
+            }
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (final T item : chunk) {
+            try {
+                progress.recordProcessed(processWithRetry(Collections.singletonList(item), processor));
+            } catch (final RuntimeException e) {
+                progress.recordFailed();
+                sb.append(errorMessage(jobName, processor.getItemId(item), e));
+            }
+        }
+        return sb.toString();
+    }
+
+    private <T> Map<Long, Long> processWithRetry(final List<T> items, final ChunkedJobItemProcessor<T> processor) {
+        final FineractPlatformTenantConnection connection = ThreadLocalContextUtil.getTenant().getConnection();
+        final int maxNumberOfRetries = connection.getMaxRetriesOnDeadlock();
+        final int maxIntervalBetweenRetries = connection.getMaxIntervalBetweenRetries();
+        int numberOfRetries = 0;
+        while (true) {
+            final Map<Long, Long> itemDurations = new HashMap<>();
+            try {
+                this.chunkedJobTransactionService.processChunk(items, processor, itemDurations);
+                return itemDurations;
+            } catch (PessimisticLockingFailureException | ObjectOptimisticLockingFailureException exception) {
+                if (numberOfRetries >= maxNumberOfRetries) {
+                    logger.warn("Chunk of " + items.size() + " items has been retried for the max allowed attempts of "
+                            + numberOfRetries + " and will be rolled back");
+                    throw exception;
+                }
+                numberOfRetries++;
+                final long backoffSeconds = Math.min(1L << (numberOfRetries - 1), Math.max(1, maxIntervalBetweenRetries));
+                logger.info("Chunk of " + items.size() + " items failed to acquire a lock, retry " + numberOfRetries + " in "
+                        + backoffSeconds + " second(s)");
+                try {
+                    Thread.sleep(backoffSeconds * 1000 + this.random.nextInt(1000));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw exception;
+                }
+            }
+        }
+    }
+
+    private static String errorMessage(final JobName jobName, final Long itemId, final RuntimeException e) {
+        final StringBuilder sb = new StringBuilder();
+        if (e instanceof PlatformApiDataValidationException) {
+            for (final ApiParameterError error : ((PlatformApiDataValidationException) e).getErrors()) {
+                sb.append(error.getDeveloperMessage());
+            }
+        } else if (e instanceof AbstractPlatformDomainRuleException) {
+            sb.append(((AbstractPlatformDomainRuleException) e).getDefaultUserMessage());
+        } else {
+            final Throwable realCause = e.getCause() != null ? e.getCause() : e;
+            sb.append(realCause.getMessage());
+        }
+        final String message = jobName + " failed for id:" + itemId + " with message " + sb.toString();
+        logger.error(message);
+        return message;
+    }
+}
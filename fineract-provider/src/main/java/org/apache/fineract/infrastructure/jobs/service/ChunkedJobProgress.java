@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.fineract.infrastructure.jobs.data.ChunkedJobProgressData;
+
+/**
+ * Live progress of a run of a chunked job, with a histogram of the time
+ * spent per item and the slowest items of the run.
+ */
+final class ChunkedJobProgress {
+
+    private static final long[] DURATION_BUCKET_LIMITS = { 100, 500, 1000, 5000, 30000 };
+    private static final String[] DURATION_BUCKET_NAMES = { "<100ms", "<500ms", "<1s", "<5s", "<30s", ">=30s" };
+    private static final int SLOWEST_ITEMS_TRACKED = 10;
+
+    private static final Comparator<long[]> BY_DURATION = new Comparator<long[]>() {
+
+        @Override
+        public int compare(final long[] first, final long[] second) {
+            return Long.compare(first[1], second[1]);
+        }
+    };
+
+    private final String jobName;
+    private final int totalItems;
+    private final Date startTime = new Date();
+    private volatile Date endTime;
+    private final AtomicInteger processedItems = new AtomicInteger();
+    private final AtomicInteger failedItems = new AtomicInteger();
+    private final AtomicLongArray durationHistogram = new AtomicLongArray(DURATION_BUCKET_NAMES.length);
+    private final PriorityQueue<long[]> slowestItems = new PriorityQueue<>(SLOWEST_ITEMS_TRACKED + 1, BY_DURATION);
+
+    ChunkedJobProgress(final String jobName, final int totalItems) {
+        this.jobName = jobName;
+        this.totalItems = totalItems;
+    }
+
+    void recordProcessed(final Map<Long, Long> itemDurations) {
+        for (final Map.Entry<Long, Long> itemDuration : itemDurations.entrySet()) {
+            final long duration = itemDuration.getValue();
+            int bucket = 0;
+            while (bucket < DURATION_BUCKET_LIMITS.length && duration >= DURATION_BUCKET_LIMITS[bucket]) {
+                bucket++;
+            }
+            this.durationHistogram.incrementAndGet(bucket);
+            synchronized (this.slowestItems) {
+                this.slowestItems.offer(new long[] { itemDuration.getKey(), duration });
+                if (this.slowestItems.size() > SLOWEST_ITEMS_TRACKED) {
+                    this.slowestItems.poll();
+                }
+            }
+        }
+        this.processedItems.addAndGet(itemDurations.size());
+    }
+
+    void recordFailed() {
+        this.failedItems.incrementAndGet();
+    }
+
+    void complete() {
+        this.endTime = new Date();
+    }
+
+    String summary() {
+        return this.jobName + ": " + this.processedItems.get() + " of " + this.totalItems + " processed, " + this.failedItems.get()
+                + " failed";
+    }
+
+    String durationSummary() {
+        return "item durations " + durationHistogram() + ", slowest items " + slowestItemDurations();
+    }
+
+    ChunkedJobProgressData toData() {
+        return ChunkedJobProgressData.instance(this.jobName, this.totalItems, this.processedItems.get(), this.failedItems.get(),
+                this.startTime, this.endTime, durationHistogram(), slowestItemDurations());
+    }
+
+    private Map<String, Long> durationHistogram() {
+        final Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < DURATION_BUCKET_NAMES.length; bucket++) {
+            histogram.put(DURATION_BUCKET_NAMES[bucket], this.durationHistogram.get(bucket));
+        }
+        return histogram;
+    }
+
+    private Map<Long, Long> slowestItemDurations() {
+        final List<long[]> slowest;
+        synchronized (this.slowestItems) {
+            slowest = new ArrayList<>(this.slowestItems);
+        }
+        Collections.sort(slowest, Collections.reverseOrder(BY_DURATION));
+        final Map<Long, Long> slowestItemDurations = new LinkedHashMap<>();
+        for (final long[] item : slowest) {
+            slowestItemDurations.put(item[0], item[1]);
+        }
+        return slowestItemDurations;
+    }
+}
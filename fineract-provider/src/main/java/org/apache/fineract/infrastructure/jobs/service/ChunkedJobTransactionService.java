@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ChunkedJobTransactionService {
+
+    /**
+     * Processes a chunk of items in a new transaction and records the time
+     * spent on each of them by item id.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public <T> void processChunk(final List<T> items, final ChunkedJobItemProcessor<T> processor, final Map<Long, Long> itemTimings) {
+        for (final T item : items) {
+            final long start = System.currentTimeMillis();
+            processor.process(item);
+            itemTimings.put(processor.getItemId(item), System.currentTimeMillis() - start);
+        }
+    }
+}
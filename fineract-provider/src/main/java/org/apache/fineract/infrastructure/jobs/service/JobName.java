@@ -50,7 +50,10 @@ public enum JobName {
 	SEND_MESSAGES_TO_EMAIL_GATEWAY("Send messages to Email gateway"),
     UPDATE_EMAIL_OUTBOUND_WITH_CAMPAIGN_MESSAGE("Update Email Outbound with campaign message"),
     EXECUTE_EMAIL("Execute Email"),
-    UPDATE_TRAIL_BALANCE_DETAILS("Update Trial Balance Details");
+    UPDATE_TRAIL_BALANCE_DETAILS("Update Trial Balance Details"),
+    GENERATE_SERVICECHARGE("Generate Service Charge"),
+    RECONCILE_SAVINGS_BALANCE_AGGREGATE("Reconcile Savings Balance Aggregate"),
+    DELIVER_HOOK_EVENTS("Deliver Hook Events");
 
     private final String name;
 
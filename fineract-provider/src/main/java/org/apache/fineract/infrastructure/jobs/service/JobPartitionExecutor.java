@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Runs the partitions of a scheduled job on a pool of worker threads created
+ * for the run. The tenant and the authenticated user of the job thread are
+ * propagated to the workers, and the results are returned in the order of the
+ * partitions.
+ */
+public final class JobPartitionExecutor {
+
+    private JobPartitionExecutor() {
+
+    }
+
+    public static <T> List<T> execute(final int threadCount, final List<Callable<T>> partitions) throws JobExecutionException {
+        final List<T> results = new ArrayList<>(partitions.size());
+        if (partitions.isEmpty()) { return results; }
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(threadCount, partitions.size())));
+        try {
+            final List<Future<T>> futures = new ArrayList<>(partitions.size());
+            for (final Callable<T> partition : partitions) {
+                futures.add(executorService.submit(new Callable<T>() {
+
+                    @Override
+                    public T call() throws Exception {
+                        ThreadLocalContextUtil.setTenant(tenant);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        try {
+                            return partition.call();
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                            ThreadLocalContextUtil.clearTenant();
+                        }
+                    }
+                }));
+            }
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (final ExecutionException e) {
+            final Throwable realCause = e.getCause() != null ? e.getCause() : e;
+            throw new JobExecutionException("Job partition failed with message " + realCause.getMessage());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Job was interrupted while waiting for its partitions");
+        } finally {
+            executorService.shutdownNow();
+        }
+        return results;
+    }
+}
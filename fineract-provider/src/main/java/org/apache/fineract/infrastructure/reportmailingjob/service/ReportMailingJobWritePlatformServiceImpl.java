@@ -29,6 +29,7 @@ import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
@@ -428,7 +429,15 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
             
             if (reportingProcessService != null) {
                 final Response processReport = reportingProcessService.processRequest(reportName, reportParams);
-                final Object reponseObject = (processReport != null) ? processReport.getEntity() : null;
+                Object reponseObject = (processReport != null) ? processReport.getEntity() : null;
+                
+                // streamed report output is rendered into memory for the attachment, which
+                // also hands back the rendering slot the report service holds for it
+                if (reponseObject instanceof StreamingOutput) {
+                    final ByteArrayOutputStream renderedReport = new ByteArrayOutputStream();
+                    ((StreamingOutput) reponseObject).write(renderedReport);
+                    reponseObject = renderedReport;
+                }
                 
                 if (reponseObject != null && reponseObject.getClass().equals(ByteArrayOutputStream.class)) {
                     final ByteArrayOutputStream byteArrayOutputStream = ByteArrayOutputStream.class.cast(reponseObject);
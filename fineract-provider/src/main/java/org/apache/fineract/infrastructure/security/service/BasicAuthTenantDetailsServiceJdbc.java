@@ -28,7 +28,6 @@ import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConn
 import org.apache.fineract.infrastructure.security.exception.InvalidTenantIdentiferException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -42,10 +41,13 @@ import org.springframework.stereotype.Service;
 public class BasicAuthTenantDetailsServiceJdbc implements BasicAuthTenantDetailsService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final TenantDetailsCache tenantDetailsCache;
 
     @Autowired
-    public BasicAuthTenantDetailsServiceJdbc(@Qualifier("tenantDataSourceJndi") final DataSource dataSource) {
+    public BasicAuthTenantDetailsServiceJdbc(@Qualifier("tenantDataSourceJndi") final DataSource dataSource,
+            final TenantDetailsCache tenantDetailsCache) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tenantDetailsCache = tenantDetailsCache;
     }
 
     private static final class TenantMapper implements RowMapper<FineractPlatformTenant> {
@@ -131,14 +133,18 @@ public class BasicAuthTenantDetailsServiceJdbc implements BasicAuthTenantDetails
     }
 
     @Override
-    @Cacheable(value = "tenantsById")
     public FineractPlatformTenant loadTenantById(final String tenantIdentifier, final boolean isReport) {
 
+        final FineractPlatformTenant cachedTenant = this.tenantDetailsCache.get(tenantIdentifier, isReport);
+        if (cachedTenant != null) { return cachedTenant; }
+
         try {
             final TenantMapper rm = new TenantMapper(isReport);
             final String sql = "select  " + rm.schema() + " where t.identifier like ?";
 
-            return this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenantIdentifier });
+            final FineractPlatformTenant tenant = this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenantIdentifier });
+            this.tenantDetailsCache.put(tenantIdentifier, isReport, tenant);
+            return tenant;
         } catch (final EmptyResultDataAccessException e) {
             throw new InvalidTenantIdentiferException("The tenant identifier: " + tenantIdentifier + " is not valid.");
         }
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.fineract.infrastructure.cache.data.TenantDetailsCacheData;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the tenant details resolved from the tenants database so that the
+ * authentication filters and listeners do not query it on every request.
+ * 
+ * Unlike the caches managed through {@link org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager}
+ * this cache cannot be switched per tenant, as the tenant is not yet known
+ * when it is consulted. Entries expire after a configurable time to live and
+ * can be invalidated explicitly.
+ * 
+ * Statistics are kept per tenant. A miss is only counted once the tenant has
+ * been loaded, so unknown tenant identifiers sent with requests do not add
+ * entries.
+ */
+@Component
+public class TenantDetailsCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(TenantDetailsCache.class);
+
+    private final ConcurrentMap<String, CachedTenant> tenants = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TenantStatistics> statisticsByTenant = new ConcurrentHashMap<>();
+    private final long timeToLiveMillis;
+
+    @Autowired
+    public TenantDetailsCache(@Value("${fineract.tenant.cache.ttl.seconds:600}") final long timeToLiveSeconds) {
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+    }
+
+    /**
+     * @return the cached tenant or null if it is not cached or has expired
+     */
+    public FineractPlatformTenant get(final String tenantIdentifier, final boolean isReport) {
+        final String key = key(tenantIdentifier, isReport);
+        final CachedTenant cachedTenant = this.tenants.get(key);
+        if (cachedTenant != null) {
+            if (!cachedTenant.isExpired(this.timeToLiveMillis)) {
+                tenantStatistics(tenantIdentifier).hits.incrementAndGet();
+                return cachedTenant.getTenant();
+            }
+            this.tenants.remove(key, cachedTenant);
+        }
+        return null;
+    }
+
+    /**
+     * Caches a tenant just loaded after a miss
+     */
+    public void put(final String tenantIdentifier, final boolean isReport, final FineractPlatformTenant tenant) {
+        this.tenants.put(key(tenantIdentifier, isReport), new CachedTenant(tenant));
+        tenantStatistics(tenantIdentifier).misses.incrementAndGet();
+    }
+
+    public void invalidate(final String tenantIdentifier) {
+        this.tenants.remove(key(tenantIdentifier, false));
+        this.tenants.remove(key(tenantIdentifier, true));
+        logger.info("Tenant details cache invalidated for tenant: " + tenantIdentifier);
+    }
+
+    public TenantDetailsCacheData retrieveStatistics(final String tenantIdentifier) {
+        final TenantStatistics statistics = tenantStatistics(tenantIdentifier);
+        int cachedEntries = 0;
+        for (final boolean isReport : new boolean[] { false, true }) {
+            final CachedTenant cachedTenant = this.tenants.get(key(tenantIdentifier, isReport));
+            if (cachedTenant != null && !cachedTenant.isExpired(this.timeToLiveMillis)) {
+                cachedEntries++;
+            }
+        }
+        return TenantDetailsCacheData.instance(tenantIdentifier, statistics.hits.get(), statistics.misses.get(), cachedEntries,
+                TimeUnit.MILLISECONDS.toSeconds(this.timeToLiveMillis));
+    }
+
+    private TenantStatistics tenantStatistics(final String tenantIdentifier) {
+        TenantStatistics statistics = this.statisticsByTenant.get(tenantIdentifier);
+        if (statistics == null) {
+            final TenantStatistics newStatistics = new TenantStatistics();
+            statistics = this.statisticsByTenant.putIfAbsent(tenantIdentifier, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        return statistics;
+    }
+
+    private static String key(final String tenantIdentifier, final boolean isReport) {
+        return tenantIdentifier + (isReport ? ":report" : ":oltp");
+    }
+
+    private static final class CachedTenant {
+
+        private final FineractPlatformTenant tenant;
+        private final long loadedAt;
+
+        CachedTenant(final FineractPlatformTenant tenant) {
+            this.tenant = tenant;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        FineractPlatformTenant getTenant() {
+            return this.tenant;
+        }
+
+        boolean isExpired(final long timeToLiveMillis) {
+            return System.currentTimeMillis() - this.loadedAt > timeToLiveMillis;
+        }
+    }
+
+    private static final class TenantStatistics {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Bounded cache of the unread notification flag sent in the response header
+ * of every authenticated request. Entries are kept up to date when
+ * notifications are created or read, the expiry only bounds how long a change
+ * made by another node can go unnoticed.
+ */
+@Component
+public class NotificationResponseHeaderCache {
+
+    private final Cache<String, CacheNotificationResponseHeader> responseHeaders;
+
+    @Autowired
+    public NotificationResponseHeaderCache(@Value("${fineract.notification.cache.size:10000}") final long maximumSize,
+            @Value("${fineract.notification.cache.ttl.seconds:600}") final long timeToLiveSeconds) {
+        this.responseHeaders = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * @return the cached flag of the user in the current tenant or null when
+     *         it is not cached
+     */
+    public CacheNotificationResponseHeader get(final Long appUserId) {
+        return this.responseHeaders.getIfPresent(key(appUserId));
+    }
+
+    public void put(final Long appUserId, final boolean hasNotifications) {
+        final Long now = System.currentTimeMillis() / 1000L;
+        this.responseHeaders.put(key(appUserId), new CacheNotificationResponseHeader(hasNotifications, now));
+    }
+
+    private static String key(final Long appUserId) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + appUserId;
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.notification.service;
 
+import org.apache.fineract.notification.cache.NotificationResponseHeaderCache;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.notification.domain.NotificationMapperRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,15 +28,21 @@ import org.springframework.stereotype.Service;
 public class NotificationMapperWritePlatformServiceImpl implements NotificationMapperWritePlatformService {
 
     private final NotificationMapperRepository notificationMapperRepository;
+    private final NotificationResponseHeaderCache notificationResponseHeaderCache;
 
     @Autowired
-    public NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository) {
+    public NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository,
+            NotificationResponseHeaderCache notificationResponseHeaderCache) {
         this.notificationMapperRepository = notificationMapperRepository;
+        this.notificationResponseHeaderCache = notificationResponseHeaderCache;
     }
 
     @Override
     public Long create(NotificationMapper notificationMapper) {
         this.notificationMapperRepository.save(notificationMapper);
+        if (!notificationMapper.isRead()) {
+            this.notificationResponseHeaderCache.put(notificationMapper.getUserId().getId(), true);
+        }
         return notificationMapper.getId();
     }
 }
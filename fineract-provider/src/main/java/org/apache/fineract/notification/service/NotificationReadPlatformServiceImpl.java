@@ -20,17 +20,16 @@ package org.apache.fineract.notification.service;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.notification.cache.CacheNotificationResponseHeader;
+import org.apache.fineract.notification.cache.NotificationResponseHeaderCache;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.data.NotificationMapperData;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,62 +46,31 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
     private final PaginationHelper<NotificationData> paginationHelper = new PaginationHelper<>();
     private final NotificationDataRow notificationDataRow = new NotificationDataRow();
     private final NotificationMapperRow notificationMapperRow = new NotificationMapperRow();
-    private HashMap<Long, HashMap<Long, CacheNotificationResponseHeader>>
-            tenantNotificationResponseHeaderCache = new HashMap<>();
+    private final NotificationResponseHeaderCache notificationResponseHeaderCache;
 
     @Autowired
     public NotificationReadPlatformServiceImpl(final RoutingDataSource dataSource,
     		final PlatformSecurityContext context,
-    		final ColumnValidator columnValidator) {
+    		final ColumnValidator columnValidator,
+    		final NotificationResponseHeaderCache notificationResponseHeaderCache) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.context = context;
         this.columnValidator = columnValidator;
+        this.notificationResponseHeaderCache = notificationResponseHeaderCache;
     }
 
     @Override
     public boolean hasUnreadNotifications(Long appUserId) {
-        Long tenantId = ThreadLocalContextUtil.getTenant().getId();
-        Long now = System.currentTimeMillis()/1000L;
-        if (this.tenantNotificationResponseHeaderCache.containsKey(tenantId)) {
-            HashMap<Long, CacheNotificationResponseHeader> notificationResponseHeaderCache =
-                    this.tenantNotificationResponseHeaderCache.get(tenantId);
-            if (notificationResponseHeaderCache.containsKey(appUserId)) {
-                Long lastFetch = notificationResponseHeaderCache.get(appUserId).getLastFetch();
-                if ((now - lastFetch) > 1) {
-                    return this.createUpdateCacheValue(appUserId, now, notificationResponseHeaderCache);
-                } else {
-                    return notificationResponseHeaderCache.get(appUserId).hasNotifications();
-                }
-            } else {
-                return this.createUpdateCacheValue(appUserId, now, notificationResponseHeaderCache);
-            }
-        } else {
-            return this.initializeTenantNotificationResponseHeaderCache(tenantId, now, appUserId);
-
-        }
-    }
-
-    private boolean initializeTenantNotificationResponseHeaderCache(Long tenantId, Long now, Long appUserId) {
-        HashMap<Long, CacheNotificationResponseHeader> notificationResponseHeaderCache = new HashMap<>();
-        this.tenantNotificationResponseHeaderCache.put(tenantId, notificationResponseHeaderCache);
-        return this.createUpdateCacheValue(appUserId, now, notificationResponseHeaderCache);
-    }
-
-    private boolean createUpdateCacheValue(Long appUserId, Long now, HashMap<Long,
-            CacheNotificationResponseHeader> notificationResponseHeaderCache) {
-        boolean hasNotifications;
-        Long tenantId = ThreadLocalContextUtil.getTenant().getId();
-        CacheNotificationResponseHeader cacheNotificationResponseHeader;
-        hasNotifications = checkForUnreadNotifications(appUserId);
-        cacheNotificationResponseHeader = new CacheNotificationResponseHeader(hasNotifications, now);
-        notificationResponseHeaderCache.put(appUserId, cacheNotificationResponseHeader);
-        this.tenantNotificationResponseHeaderCache.put(tenantId, notificationResponseHeaderCache);
+        final CacheNotificationResponseHeader cacheNotificationResponseHeader = this.notificationResponseHeaderCache.get(appUserId);
+        if (cacheNotificationResponseHeader != null) { return cacheNotificationResponseHeader.hasNotifications(); }
+        final boolean hasNotifications = checkForUnreadNotifications(appUserId);
+        this.notificationResponseHeaderCache.put(appUserId, hasNotifications);
         return hasNotifications;
     }
 
     private boolean checkForUnreadNotifications(Long appUserId) {
         String sql = "SELECT id, notification_id as notificationId, user_id as userId, is_read as isRead, created_at " +
-                "as createdAt FROM notification_mapper WHERE user_id = ? AND is_read = false";
+                "as createdAt FROM notification_mapper WHERE user_id = ? AND is_read = false limit 1";
         List<NotificationMapperData > notificationMappers = this.jdbcTemplate.query(
                 sql,
                 notificationMapperRow,
@@ -115,6 +83,7 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
         final Long appUserId = context.authenticatedUser().getId();
         String sql = "UPDATE notification_mapper SET is_read = true WHERE is_read = false and user_id = ?";
         this.jdbcTemplate.update(sql, appUserId);
+        this.notificationResponseHeaderCache.put(appUserId, false);
     }
 
     @Override
@@ -34,6 +34,7 @@ import org.apache.fineract.infrastructure.configuration.service.ConfigurationRea
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.KeysetPageRequest;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -190,9 +191,10 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         // this.context.validateAccessRights(searchParameters.getHierarchy());
         // underHierarchySearchString = searchParameters.getHierarchy() + "%";
         // }
+        final boolean keysetPaged = searchParameters != null && searchParameters.isKeysetPaged();
         List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString, underHierarchySearchString));
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(keysetPaged ? "select " : "select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.clientMapper.schema());
         sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
 
@@ -208,6 +210,17 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 sqlBuilder.append(" and (").append(extraCriteria).append(")");
             }
 
+            if (keysetPaged) {
+                final KeysetPageRequest keysetPageRequest = searchParameters.getKeysetPageRequest();
+                if (keysetPageRequest.hasCursor()) {
+                    sqlBuilder.append(" and c.id > ?");
+                    paramList.add(keysetPageRequest.getAfterId());
+                }
+                keysetPageRequest.appendOrderAndLimit(sqlBuilder, "c.id", searchParameters.getLimit());
+                return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(),
+                        this.clientMapper, keysetPageRequest, searchParameters.getLimit(), "m_client");
+            }
+
             if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -39,6 +39,7 @@ import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDoma
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.KeysetPageRequest;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -283,8 +284,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
         final String hierarchySearchString = hierarchy + "%";
 
+        final boolean keysetPaged = searchParameters != null && searchParameters.isKeysetPaged();
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(keysetPaged ? "select " : "select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -328,6 +331,19 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 arrayPos = arrayPos + 1;
             }
 
+            if (keysetPaged) {
+                final KeysetPageRequest keysetPageRequest = searchParameters.getKeysetPageRequest();
+                if (keysetPageRequest.hasCursor()) {
+                    sqlBuilder.append(" and l.id > ?");
+                    extraCriterias.add(keysetPageRequest.getAfterId());
+                    arrayPos = arrayPos + 1;
+                }
+                keysetPageRequest.appendOrderAndLimit(sqlBuilder, "l.id", searchParameters.getLimit());
+                final Object[] finalObjectArray = Arrays.copyOf(extraCriterias.toArray(), arrayPos);
+                return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray,
+                        this.loaanLoanMapper, keysetPageRequest, searchParameters.getLimit(), "m_loan");
+            }
+
             if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -296,6 +296,9 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
     @Embedded
     protected SavingsAccountSummary summary;
 
+    @Embedded
+    private SavingsAccountInterestCheckpoint interestCheckpoint;
+
     @OrderBy(value = "dateOf, createdDate, id")
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true, fetch=FetchType.LAZY)
     protected List<SavingsAccountTransaction> transactions = new ArrayList<>();
@@ -413,6 +416,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         }
 
         this.summary = new SavingsAccountSummary();
+        this.interestCheckpoint = SavingsAccountInterestCheckpoint.empty();
         this.allowOverdraft = allowOverdraft;
         this.overdraftLimit = overdraftLimit;
         this.nominalAnnualInterestRateOverdraft = nominalAnnualInterestRateOverdraft;
@@ -556,8 +560,94 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         }
 
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        updateInterestCheckpoint(postingPeriods, interestPostingUpToDate, isSavingsInterestPostingAtCurrentPeriodEnd,
+                financialYearBeginningMonth);
+    }
+
+    /**
+     * Records the end of the last posting period whose interest is now posted
+     * so that later calculations can start from it.
+     */
+    private void updateInterestCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate,
+            final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth) {
+        if (!isInterestCheckpointSupported()) { return; }
+
+        PostingPeriod lastClosedPeriod = null;
+        Money interestEarnedAfterClosedPeriod = Money.zero(this.currency);
+        for (final PostingPeriod postingPeriod : postingPeriods) {
+            if (!postingPeriod.dateOfPostingTransaction().isAfter(interestPostingUpToDate)) {
+                lastClosedPeriod = postingPeriod;
+                interestEarnedAfterClosedPeriod = Money.zero(this.currency);
+            } else if (postingPeriod.interest() != null) {
+                interestEarnedAfterClosedPeriod = interestEarnedAfterClosedPeriod.plus(postingPeriod.interest());
+            }
+        }
+        if (lastClosedPeriod == null) { return; }
+
+        final LocalDate checkpointDate = lastClosedPeriod.getPeriodInterval().endDate();
+        final Money interestEarned = Money.of(this.currency, this.summary.getTotalInterestEarned()).minus(
+                interestEarnedAfterClosedPeriod);
+        if (this.interestCheckpoint == null) {
+            this.interestCheckpoint = SavingsAccountInterestCheckpoint.empty();
+        }
+        this.interestCheckpoint.update(checkpointDate, lastClosedPeriod.closingBalance(),
+                lastClosedPeriod.compoundedInterestAtPeriodEnd(), lastClosedPeriod.uncompoundedInterestAtPeriodEnd(), interestEarned,
+                interestCheckpointFingerprint(checkpointDate, isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth));
+    }
+
+    /**
+     * Returns the persisted interest checkpoint when calculation can resume
+     * from it, that is when nothing on or before the end of the last closed
+     * posting period has changed since it was recorded. Otherwise interest is
+     * calculated over the entire history of the account.
+     */
+    private SavingsAccountInterestCheckpoint resumableInterestCheckpoint(final LocalDate upToInterestCalculationDate,
+            final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,
+            final LocalDate postInterestOnDate) {
+        if (!isInterestCheckpointSupported() || this.interestCheckpoint == null || !this.interestCheckpoint.isRecorded()) { return null; }
+
+        final LocalDate checkpointDate = this.interestCheckpoint.getCheckpointLocalDate();
+        if (!checkpointDate.isBefore(upToInterestCalculationDate)) { return null; }
+        if (postInterestOnDate != null && !postInterestOnDate.isAfter(checkpointDate)) { return null; }
+
+        final long fingerprint = interestCheckpointFingerprint(checkpointDate, isSavingsInterestPostingAtCurrentPeriodEnd,
+                financialYearBeginningMonth);
+        if (!this.interestCheckpoint.isRecordedFor(fingerprint)) { return null; }
+        return this.interestCheckpoint;
+    }
+
+    /**
+     * Checkpoints are limited to plain savings accounts whose interest stays
+     * in the account; deposit products derive their rate from charts and may
+     * transfer interest out, so they keep calculating over full history.
+     */
+    private boolean isInterestCheckpointSupported() {
+        return depositAccountType().isSavingsDeposit() && !isTransferInterestToOtherAccount();
     }
 
+    /**
+     * Fingerprint of everything that determines interest up to
+     * <code>checkpointDate</code>: the transactions dated on or before it, the
+     * interest posted for the period ending on it and the interest settings.
+     */
+    private long interestCheckpointFingerprint(final LocalDate checkpointDate, final boolean isSavingsInterestPostingAtCurrentPeriodEnd,
+            final Integer financialYearBeginningMonth) {
+        final LocalDate postingDate = isSavingsInterestPostingAtCurrentPeriodEnd ? checkpointDate : checkpointDate.plusDays(1);
+        final long transactionsFingerprint = SavingsAccountInterestCheckpoint.transactionsFingerprint(this.transactions, checkpointDate,
+                postingDate);
+
+        final int settingsHash = Arrays.hashCode(new Object[] {
+                SavingsAccountInterestCheckpoint.amountHash(this.nominalAnnualInterestRate),
+                SavingsAccountInterestCheckpoint.amountHash(this.nominalAnnualInterestRateOverdraft),
+                SavingsAccountInterestCheckpoint.amountHash(this.minBalanceForInterestCalculation),
+                SavingsAccountInterestCheckpoint.amountHash(this.minOverdraftForInterestCalculation), this.interestCompoundingPeriodType,
+                this.interestPostingPeriodType,
+                this.interestCalculationType, this.interestCalculationDaysInYearType, getStartInterestCalculationDate(),
+                isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth });
+        return 31L * transactionsFingerprint + settingsHash;
+    }
+
+
     protected List<SavingsAccountTransaction> findWithHoldTransactions() {
         final List<SavingsAccountTransaction> withholdTransactions = new ArrayList<>();
         List<SavingsAccountTransaction> trans = getTransactions() ;
@@ -706,14 +796,26 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
          if(postInterestOnDate != null){
              postedAsOnDates.add(postInterestOnDate);
          }
+
+        // resume from the last closed posting period when it is still valid
+        // so that only periods after it are recalculated
+        final SavingsAccountInterestCheckpoint checkpoint = resumableInterestCheckpoint(upToInterestCalculationDate,
+                isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth, postInterestOnDate);
+        LocalDate interestCalculationStartDate = getStartInterestCalculationDate();
+        if (checkpoint != null) {
+            interestCalculationStartDate = checkpoint.getCheckpointLocalDate().plusDays(1);
+        }
+
         final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
+                interestCalculationStartDate, upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
                 postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null) {
+        if (checkpoint != null) {
+            periodStartingBalance = checkpoint.getClosingBalance(this.currency);
+        } else if (this.startInterestCalculationDate != null) {
             LocalDate startInterestCalculationDate = new LocalDate(this.startInterestCalculationDate);
             final SavingsAccountTransaction transaction = findLastTransaction(startInterestCalculationDate);
 
@@ -743,6 +845,14 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        if (checkpoint != null && !postingPeriodIntervals.isEmpty()) {
+            final LocalDateInterval calculatedInterval = LocalDateInterval.create(postingPeriodIntervals.get(0).startDate(),
+                    postingPeriodIntervals.get(postingPeriodIntervals.size() - 1).endDate());
+            orderedNonInterestPostingTransactions = retreiveTransactionsWithBalanceWithin(orderedNonInterestPostingTransactions,
+                    calculatedInterval);
+        }
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
             
             boolean isUserPosting = false;
@@ -751,7 +861,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
             }
 
             final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
                     interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
                     isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
                     overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
@@ -761,15 +871,32 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
-
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        if (checkpoint != null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), checkpoint.getCompoundedInterest(), checkpoint.getUncompoundedInterest());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods,
+                    checkpoint.getInterestEarned(this.currency));
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        }
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
 
         return allPostingPeriods;
     }
 
+    private static List<SavingsAccountTransaction> retreiveTransactionsWithBalanceWithin(
+            final List<SavingsAccountTransaction> orderedTransactions, final LocalDateInterval interval) {
+        final List<SavingsAccountTransaction> transactionsWithinInterval = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : orderedTransactions) {
+            if (transaction.fallsWithin(interval) || transaction.spansAnyPortionOf(interval)) {
+                transactionsWithinInterval.add(transaction);
+            }
+        }
+        return transactionsWithinInterval;
+    }
+
     private BigDecimal getEffectiveOverdraftInterestRateAsFraction(MathContext mc) {
         return this.nominalAnnualInterestRateOverdraft.divide(BigDecimal.valueOf(100l), mc);
     }
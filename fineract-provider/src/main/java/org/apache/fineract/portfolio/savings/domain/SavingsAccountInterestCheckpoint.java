@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.joda.time.LocalDate;
+
+/**
+ * {@link SavingsAccountInterestCheckpoint} records the end-of-day state of a
+ * {@link SavingsAccount} at the end of its last closed interest posting period
+ * so that interest calculation can resume from there instead of from the
+ * start of the account.
+ * 
+ * The checkpoint is only valid while the fingerprint of the transactions and
+ * interest settings it was recorded against still matches the account.
+ */
+@Embeddable
+public final class SavingsAccountInterestCheckpoint {
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "interest_checkpoint_date")
+    private Date checkpointDate;
+
+    @Column(name = "interest_checkpoint_balance", scale = 6, precision = 19)
+    private BigDecimal closingBalance;
+
+    @Column(name = "interest_checkpoint_compounded", scale = 6, precision = 19)
+    private BigDecimal compoundedInterest;
+
+    @Column(name = "interest_checkpoint_uncompounded", scale = 6, precision = 19)
+    private BigDecimal uncompoundedInterest;
+
+    @Column(name = "interest_checkpoint_earned", scale = 6, precision = 19)
+    private BigDecimal interestEarned;
+
+    @Column(name = "interest_checkpoint_fingerprint")
+    private Long fingerprint;
+
+    public static SavingsAccountInterestCheckpoint empty() {
+        return new SavingsAccountInterestCheckpoint();
+    }
+
+    protected SavingsAccountInterestCheckpoint() {
+        //
+    }
+
+    public void update(final LocalDate checkpointDate, final Money closingBalance, final BigDecimal compoundedInterest,
+            final BigDecimal uncompoundedInterest, final Money interestEarned, final long fingerprint) {
+        this.checkpointDate = checkpointDate.toDate();
+        this.closingBalance = closingBalance.getAmount();
+        this.compoundedInterest = compoundedInterest == null ? BigDecimal.ZERO : compoundedInterest;
+        this.uncompoundedInterest = uncompoundedInterest == null ? BigDecimal.ZERO : uncompoundedInterest;
+        this.interestEarned = interestEarned.getAmount();
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Checkpoints recorded before the compounded interest was kept are not
+     * resumable; the next posting records a complete one.
+     */
+    public boolean isRecorded() {
+        return this.checkpointDate != null && this.fingerprint != null && this.compoundedInterest != null;
+    }
+
+    public boolean isRecordedFor(final long fingerprint) {
+        return isRecorded() && this.fingerprint.longValue() == fingerprint;
+    }
+
+    public LocalDate getCheckpointLocalDate() {
+        LocalDate checkpointLocalDate = null;
+        if (this.checkpointDate != null) {
+            checkpointLocalDate = new LocalDate(this.checkpointDate);
+        }
+        return checkpointLocalDate;
+    }
+
+    public Money getClosingBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.closingBalance);
+    }
+
+    public BigDecimal getCompoundedInterest() {
+        return this.compoundedInterest == null ? BigDecimal.ZERO : this.compoundedInterest;
+    }
+
+    public BigDecimal getUncompoundedInterest() {
+        return this.uncompoundedInterest == null ? BigDecimal.ZERO : this.uncompoundedInterest;
+    }
+
+    public Money getInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.interestEarned);
+    }
+
+    /**
+     * Fingerprint of the transactions that determine interest up to
+     * <code>checkpointDate</code>: those dated on or before it, plus the
+     * interest posting and withholding tax of the period ending on it, which
+     * are dated <code>postingDate</code>. Reversed transactions are left out,
+     * so undoing a transaction changes the fingerprint as well.
+     */
+    static long transactionsFingerprint(final Collection<SavingsAccountTransaction> transactions, final LocalDate checkpointDate,
+            final LocalDate postingDate) {
+        long transactionsFingerprint = 0;
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (transaction.isReversed()) {
+                continue;
+            }
+            final LocalDate transactionDate = transaction.getTransactionLocalDate();
+            final boolean postedForCheckpointPeriod = transactionDate.isEqual(postingDate)
+                    && (transaction.isInterestPosting() || transaction.isWithHoldTaxAndNotReversed());
+            if (transactionDate.isAfter(checkpointDate) && !postedForCheckpointPeriod) {
+                continue;
+            }
+            long transactionHash = 31L * transactionDate.hashCode() + transaction.getTypeOf();
+            transactionHash = 31L * transactionHash + amountHash(transaction.getAmount());
+            // order independent so that transactions not yet persisted hash
+            // the same as when reloaded
+            transactionsFingerprint += spread(transactionHash);
+        }
+        return transactionsFingerprint;
+    }
+
+    static int amountHash(final BigDecimal amount) {
+        return amount == null ? 0 : amount.stripTrailingZeros().hashCode();
+    }
+
+    private static long spread(final long hash) {
+        final long spread = hash * 0x9E3779B97F4A7C15L;
+        return spread ^ (spread >>> 32);
+    }
+}
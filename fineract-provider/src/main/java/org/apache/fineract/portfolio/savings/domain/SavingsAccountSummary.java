@@ -111,8 +111,18 @@ public final class SavingsAccountSummary {
     }
 
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency));
+    }
+
+    /**
+     * Updates the interest earned where <code>allPostingPeriods</code> only
+     * covers the periods after <code>interestEarnedBeforePeriods</code> was
+     * last recorded.
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBeforePeriods) {
 
-        Money totalEarned = Money.zero(currency);
+        Money totalEarned = interestEarnedBeforePeriods;
         LocalDate interestCalculationDate = DateUtils.getLocalDateOfTenant();
         for (final PostingPeriod period : allPostingPeriods) {
             Money interestEarned = period.interest();
@@ -136,6 +146,10 @@ public final class SavingsAccountSummary {
         return this.accountBalance;
     }
 
+    public BigDecimal getTotalInterestEarned() {
+        return this.totalInterestEarned;
+    }
+
     public BigDecimal getTotalInterestPosted() {
         return this.totalInterestPosted;
     }
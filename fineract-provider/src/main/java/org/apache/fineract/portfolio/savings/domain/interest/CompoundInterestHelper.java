@@ -41,13 +41,27 @@ public class CompoundInterestHelper {
      */
     public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
             LocalDate lockUntil, Boolean interestTransferEnabled) {
+        return calculateInterestForAllPostingPeriods(currency, allPeriods, lockUntil, interestTransferEnabled, BigDecimal.ZERO,
+                BigDecimal.ZERO);
+    }
+
+    /**
+     * Calculates interest for posting periods that continue on from earlier,
+     * already closed periods. The interest those periods compounded and the
+     * interest they left uncompounded are passed in as
+     * <code>compoundedInterestCarriedForward</code> and
+     * <code>uncompoundedInterestCarriedForward</code>.
+     */
+    public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
+            LocalDate lockUntil, Boolean interestTransferEnabled, final BigDecimal compoundedInterestCarriedForward,
+            final BigDecimal uncompoundedInterestCarriedForward) {
 
         // sum up the 'rounded' values that are posted each posting period
         Money interestEarned = Money.zero(currency);
 
         // total interest earned in previous periods but not yet recognised
-		BigDecimal compoundedInterest = BigDecimal.ZERO;
-		BigDecimal unCompoundedInterest = BigDecimal.ZERO;
+		BigDecimal compoundedInterest = compoundedInterestCarriedForward;
+		BigDecimal unCompoundedInterest = uncompoundedInterestCarriedForward;
 		final CompoundInterestValues compoundInterestValues = new CompoundInterestValues(compoundedInterest,
 				unCompoundedInterest);
         for (final PostingPeriod postingPeriod : allPeriods) {
@@ -65,6 +79,7 @@ public class CompoundInterestHelper {
                     || (lockUntil != null && !postingPeriod.dateOfPostingTransaction().isAfter(lockUntil)))) {
             	compoundInterestValues.setcompoundedInterest(BigDecimal.ZERO);
             }
+            postingPeriod.recordInterestCarriedForward(compoundInterestValues);
         }
 
         return interestEarned;
@@ -47,6 +47,8 @@ public class PostingPeriod {
     private final LocalDate dateOfPostingTransaction;
     private BigDecimal interestEarnedUnrounded;
     private Money interestEarnedRounded;
+    private BigDecimal compoundedInterestAtPeriodEnd;
+    private BigDecimal uncompoundedInterestAtPeriodEnd;
 
     // opening/closing details
     private final Money openingBalance;
@@ -237,6 +239,31 @@ public class PostingPeriod {
         return this.interestEarnedRounded;
     }
 
+    /**
+     * Records the compounding state left at the end of this period, once
+     * {@link CompoundInterestHelper} has applied its end of period rules.
+     */
+    void recordInterestCarriedForward(final CompoundInterestValues compoundInterestValues) {
+        this.compoundedInterestAtPeriodEnd = compoundInterestValues.getcompoundedInterest();
+        this.uncompoundedInterestAtPeriodEnd = compoundInterestValues.getuncompoundedInterest();
+    }
+
+    /**
+     * Interest compounded up to the end of this period that is added to the
+     * balance interest is calculated on in the next posting period.
+     */
+    public BigDecimal compoundedInterestAtPeriodEnd() {
+        return this.compoundedInterestAtPeriodEnd;
+    }
+
+    /**
+     * Interest accrued in this period that is not yet compounded and so
+     * carries forward into the next posting period.
+     */
+    public BigDecimal uncompoundedInterestAtPeriodEnd() {
+        return this.uncompoundedInterestAtPeriodEnd;
+    }
+
     private static List<CompoundingPeriod> compoundingPeriodsInPostingPeriod(final LocalDateInterval postingPeriodInterval,
             final SavingsCompoundingInterestPeriodType interestPeriodType, final List<EndOfDayBalance> allEndOfDayBalances,
             final LocalDate upToInterestCalculationDate, int financialYearBeginningMonth) {
@@ -30,6 +30,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.KeysetPageRequest;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -168,14 +169,16 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
         final String hierarchy = currentUser.getOffice().getHierarchy();
         final String hierarchySearchString = hierarchy + "%";
 
+        final boolean keysetPaged = searchParameters != null && searchParameters.isKeysetPaged();
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(keysetPaged ? "select " : "select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.savingAccountMapper.schema());
 
         sqlBuilder.append(" join m_office o on o.id = c.office_id");
         sqlBuilder.append(" where o.hierarchy like ?");
 
-        final Object[] objectArray = new Object[2];
+        final Object[] objectArray = new Object[4];
         objectArray[0] = hierarchySearchString;
         int arrayPos = 1;
         if(searchParameters!=null) {
@@ -196,6 +199,18 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
                 objectArray[arrayPos]=searchParameters.getOfficeId();
                 arrayPos = arrayPos + 1;
             }
+            if (keysetPaged) {
+                final KeysetPageRequest keysetPageRequest = searchParameters.getKeysetPageRequest();
+                if (keysetPageRequest.hasCursor()) {
+                    sqlBuilder.append(" and sa.id > ?");
+                    objectArray[arrayPos] = keysetPageRequest.getAfterId();
+                    arrayPos = arrayPos + 1;
+                }
+                keysetPageRequest.appendOrderAndLimit(sqlBuilder, "sa.id", searchParameters.getLimit());
+                final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
+                return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray,
+                        this.savingAccountMapper, keysetPageRequest, searchParameters.getLimit(), "m_savings_account");
+            }
             if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -1208,6 +1223,12 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
 		return ret;
 	}
 
+    @Override
+    public List<Long> retrieveActiveSavingsIds() {
+        final String sql = "select sa.id from m_savings_account sa where sa.status_enum = ? order by sa.id";
+        return this.jdbcTemplate.queryForList(sql, Long.class, SavingsAccountStatusType.ACTIVE.getValue());
+    }
+
     @Override
     public boolean isAccountBelongsToClient(final Long clientId, final Long accountId, final DepositAccountType depositAccountType,
             final String currencyCode) {
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.savings.service;
 
+import java.util.List;
 import java.util.Set;
 
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
@@ -88,6 +89,8 @@ public interface SavingsAccountWritePlatformService {
     CommandProcessingResult postInterest(JsonCommand command);
 
     void postInterest(SavingsAccount account, boolean postInterestAs, LocalDate transactionDate);
+
+    void postInterestForAccounts(List<Long> savingsIds);
     
     CommandProcessingResult blockAccount(Long savingsId);
 
@@ -483,6 +483,22 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         }
     }
 
+    /**
+     * Posts interest for a chunk of active accounts in a single transaction,
+     * a failure for any of them rolls back the whole chunk.
+     */
+    @Transactional
+    @Override
+    public void postInterestForAccounts(final List<Long> savingsIds) {
+        for (final Long savingsId : savingsIds) {
+            final SavingsAccount account = this.savingAccountRepositoryWrapper.findOneWithNotFoundDetection(savingsId);
+            if (account.isActive()) {
+                this.savingAccountAssembler.assignSavingAccountHelpers(account);
+                postInterest(account, false, null);
+            }
+        }
+    }
+
     @Override
     public CommandProcessingResult undoTransaction(final Long savingsId, final Long transactionId,
             final boolean allowAccountTransferModification) {
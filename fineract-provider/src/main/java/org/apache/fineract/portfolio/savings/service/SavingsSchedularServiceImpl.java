@@ -18,19 +18,26 @@
  */
 package org.apache.fineract.portfolio.savings.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionExecutor;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
 import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -38,24 +45,35 @@ import org.springframework.stereotype.Service;
 @Service
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
+    private final static Logger logger = LoggerFactory.getLogger(SavingsSchedularServiceImpl.class);
+
+    private static final int INTEREST_POSTING_CHUNK_SIZE = 100;
+
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
     private final SavingsAccountRepositoryWrapper savingsAccountRepository;
+    private final int interestPostingThreads;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
-            final SavingsAccountReadPlatformService savingAccountReadPlatformService, final SavingsAccountRepositoryWrapper savingsAccountRepository) {
+            final SavingsAccountReadPlatformService savingAccountReadPlatformService, final SavingsAccountRepositoryWrapper savingsAccountRepository,
+            @Value("${fineract.savings.interest.posting.threads:1}") final int interestPostingThreads) {
         this.savingAccountAssembler = savingAccountAssembler;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingAccountReadPlatformService = savingAccountReadPlatformService;
         this.savingsAccountRepository = savingsAccountRepository;
+        this.interestPostingThreads = interestPostingThreads;
     }
 
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
     public void postInterestForAccounts() throws JobExecutionException {
+        if (this.interestPostingThreads > 1) {
+            postInterestForAccountsInPartitions();
+            return;
+        }
         int page = 0;
         Integer initialSize = 500;
         Integer totalPageSize = 0;
@@ -87,6 +105,76 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
     }
 
+    /**
+     * Splits the active accounts into contiguous id ranges, one per worker
+     * thread. Each range is posted in chunks with one transaction per chunk,
+     * the accounts of a failed chunk are retried one at a time so that only
+     * the failing accounts are left without interest.
+     */
+    private void postInterestForAccountsInPartitions() throws JobExecutionException {
+        final List<Long> savingsIds = this.savingAccountReadPlatformService.retrieveActiveSavingsIds();
+        final int partitionSize = (savingsIds.size() + this.interestPostingThreads - 1) / this.interestPostingThreads;
+        final List<Callable<String>> partitions = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < savingsIds.size(); fromIndex += partitionSize) {
+            final List<Long> partitionIds = savingsIds.subList(fromIndex, Math.min(fromIndex + partitionSize, savingsIds.size()));
+            partitions.add(new InterestPostingPartition(partitions.size() + 1, partitionIds));
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (final String partitionErrors : JobPartitionExecutor.execute(this.interestPostingThreads, partitions)) {
+            sb.append(partitionErrors);
+        }
+        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+    }
+
+    private class InterestPostingPartition implements Callable<String> {
+
+        private final int partitionNumber;
+        private final List<Long> savingsIds;
+
+        InterestPostingPartition(final int partitionNumber, final List<Long> savingsIds) {
+            this.partitionNumber = partitionNumber;
+            this.savingsIds = savingsIds;
+        }
+
+        @Override
+        public String call() {
+            int posted = 0;
+            int failed = 0;
+            final StringBuilder errors = new StringBuilder();
+            for (int fromIndex = 0; fromIndex < this.savingsIds.size(); fromIndex += INTEREST_POSTING_CHUNK_SIZE) {
+                final List<Long> chunk = new ArrayList<>(this.savingsIds.subList(fromIndex,
+                        Math.min(fromIndex + INTEREST_POSTING_CHUNK_SIZE, this.savingsIds.size())));
+                try {
+                    SavingsSchedularServiceImpl.this.savingsAccountWritePlatformService.postInterestForAccounts(chunk);
+                    posted += chunk.size();
+                } catch (Exception e) {
+                    for (final Long savingsId : chunk) {
+                        try {
+                            SavingsSchedularServiceImpl.this.savingsAccountWritePlatformService.postInterestForAccounts(Collections
+                                    .singletonList(savingsId));
+                            posted++;
+                        } catch (Exception ex) {
+                            Throwable realCause = ex;
+                            if (ex.getCause() != null) {
+                                realCause = ex.getCause();
+                            }
+                            errors.append("failed to post interest for Savings with id " + savingsId + " with message "
+                                    + realCause.getMessage());
+                            failed++;
+                        }
+                    }
+                }
+            }
+
+            final String progress = "Interest posting partition " + this.partitionNumber + " (savings ids " + this.savingsIds.get(0)
+                    + " to " + this.savingsIds.get(this.savingsIds.size() - 1) + "): " + posted + " posted, " + failed + " failed. ";
+            logger.info(progress);
+            if (failed == 0) { return ""; }
+            return progress + errors.toString();
+        }
+    }
+
     @CronTarget(jobName = JobName.UPDATE_SAVINGS_DORMANT_ACCOUNTS)
     @Override
     public void updateSavingsDormancyStatus() throws JobExecutionException {
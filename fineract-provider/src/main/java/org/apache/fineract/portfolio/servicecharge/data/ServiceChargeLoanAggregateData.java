@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Immutable data object holding the service charge figures of one loan over a
+ * service charge date range, as computed by the set based aggregation
+ */
+public class ServiceChargeLoanAggregateData {
+
+    private final Long loanId;
+    private final Long loanProductId;
+    private final boolean demandLoan;
+    private final Date disbursementDate;
+    private final boolean disbursedInRange;
+    private final BigDecimal principalDisbursed;
+    private final BigDecimal totalRepayments;
+    private final BigDecimal totalOutstanding;
+
+    public static ServiceChargeLoanAggregateData instance(final Long loanId, final Long loanProductId, final boolean demandLoan,
+            final Date disbursementDate, final boolean disbursedInRange, final BigDecimal principalDisbursed,
+            final BigDecimal totalRepayments, final BigDecimal totalOutstanding) {
+        return new ServiceChargeLoanAggregateData(loanId, loanProductId, demandLoan, disbursementDate, disbursedInRange,
+                principalDisbursed, totalRepayments, totalOutstanding);
+    }
+
+    private ServiceChargeLoanAggregateData(final Long loanId, final Long loanProductId, final boolean demandLoan,
+            final Date disbursementDate, final boolean disbursedInRange, final BigDecimal principalDisbursed,
+            final BigDecimal totalRepayments, final BigDecimal totalOutstanding) {
+        this.loanId = loanId;
+        this.loanProductId = loanProductId;
+        this.demandLoan = demandLoan;
+        this.disbursementDate = disbursementDate;
+        this.disbursedInRange = disbursedInRange;
+        this.principalDisbursed = principalDisbursed;
+        this.totalRepayments = totalRepayments;
+        this.totalOutstanding = totalOutstanding;
+    }
+
+    public Long getLoanId() {
+        return this.loanId;
+    }
+
+    public Long getLoanProductId() {
+        return this.loanProductId;
+    }
+
+    public boolean isDemandLoan() {
+        return this.demandLoan;
+    }
+
+    public Date getDisbursementDate() {
+        return this.disbursementDate;
+    }
+
+    /**
+     * @return true if the loan was disbursed within the date range
+     */
+    public boolean isDisbursedInRange() {
+        return this.disbursedInRange;
+    }
+
+    public BigDecimal getPrincipalDisbursed() {
+        return this.principalDisbursed;
+    }
+
+    /**
+     * @return principal repaid on the loan within the date range
+     */
+    public BigDecimal getTotalRepayments() {
+        return this.totalRepayments;
+    }
+
+    /**
+     * @return summation of the daily principal outstanding within the date
+     *         range
+     */
+    public BigDecimal getTotalOutstanding() {
+        return this.totalOutstanding;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.data;
+
+import java.math.BigDecimal;
+
+/**
+ * Data object holding the service charge figures of all the loans of a loan
+ * product over a service charge date range. Values are accumulated with
+ * {@link #add(ServiceChargeLoanAggregateData)} while the loan aggregates are
+ * being computed
+ */
+public class ServiceChargeProductAggregateData {
+
+    private final Long loanProductId;
+    private final boolean demandLoan;
+    private int numberOfLoans;
+    private int numberOfLoansDisbursed;
+    private BigDecimal totalDisbursed;
+    private BigDecimal totalRepayments;
+    private BigDecimal totalOutstanding;
+
+    public static ServiceChargeProductAggregateData instance(final Long loanProductId, final boolean demandLoan) {
+        return new ServiceChargeProductAggregateData(loanProductId, demandLoan);
+    }
+
+    private ServiceChargeProductAggregateData(final Long loanProductId, final boolean demandLoan) {
+        this.loanProductId = loanProductId;
+        this.demandLoan = demandLoan;
+        this.numberOfLoans = 0;
+        this.numberOfLoansDisbursed = 0;
+        this.totalDisbursed = BigDecimal.ZERO;
+        this.totalRepayments = BigDecimal.ZERO;
+        this.totalOutstanding = BigDecimal.ZERO;
+    }
+
+    public void add(final ServiceChargeLoanAggregateData loanAggregate) {
+        this.numberOfLoans++;
+        if (loanAggregate.isDisbursedInRange()) {
+            this.numberOfLoansDisbursed++;
+            this.totalDisbursed = this.totalDisbursed.add(loanAggregate.getPrincipalDisbursed());
+        }
+        this.totalRepayments = this.totalRepayments.add(loanAggregate.getTotalRepayments());
+        this.totalOutstanding = this.totalOutstanding.add(loanAggregate.getTotalOutstanding());
+    }
+
+    public Long getLoanProductId() {
+        return this.loanProductId;
+    }
+
+    public boolean isDemandLoan() {
+        return this.demandLoan;
+    }
+
+    public int getNumberOfLoans() {
+        return this.numberOfLoans;
+    }
+
+    public int getNumberOfLoansDisbursed() {
+        return this.numberOfLoansDisbursed;
+    }
+
+    public BigDecimal getTotalDisbursed() {
+        return this.totalDisbursed;
+    }
+
+    public BigDecimal getTotalRepayments() {
+        return this.totalRepayments;
+    }
+
+    public BigDecimal getTotalOutstanding() {
+        return this.totalOutstanding;
+    }
+}
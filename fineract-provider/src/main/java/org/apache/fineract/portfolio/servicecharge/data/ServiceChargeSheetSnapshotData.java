@@ -0,0 +1,201 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Immutable data object holding one row of the persisted service charge sheet
+ * snapshot. The snapshot carries the inputs of the final sheet for a date
+ * range, namely the expense tag totals of the journal entries and the loan
+ * figures, so that the sheet does not have to be re-aggregated on every call
+ */
+public class ServiceChargeSheetSnapshotData {
+
+    private final Long id;
+    private final int quarter;
+    private final int year;
+    private final int calculationMethod;
+    private final BigDecimal mobilizationAmount;
+    private final BigDecimal servicingAmount;
+    private final BigDecimal investmentAmount;
+    private final BigDecimal overheadsAmount;
+    private final BigDecimal provisionsAmount;
+    private final BigDecimal bfServicingAmount;
+    private final Long lastJournalEntryId;
+    private final BigDecimal dlOutstandingAmount;
+    private final BigDecimal ndlOutstandingAmount;
+    private final BigDecimal totalRepaymentAmount;
+    private final int noOfDemandLoans;
+    private final boolean loanDataStale;
+    private final Date loanDataComputedOn;
+    private final Long loanDataVersion;
+
+    public static ServiceChargeSheetSnapshotData instance(final Long id, final int quarter, final int year, final int calculationMethod,
+            final BigDecimal mobilizationAmount, final BigDecimal servicingAmount, final BigDecimal investmentAmount,
+            final BigDecimal overheadsAmount, final BigDecimal provisionsAmount, final BigDecimal bfServicingAmount,
+            final Long lastJournalEntryId, final BigDecimal dlOutstandingAmount, final BigDecimal ndlOutstandingAmount,
+            final BigDecimal totalRepaymentAmount, final int noOfDemandLoans, final boolean loanDataStale, final Date loanDataComputedOn,
+            final Long loanDataVersion) {
+        return new ServiceChargeSheetSnapshotData(id, quarter, year, calculationMethod, mobilizationAmount, servicingAmount,
+                investmentAmount, overheadsAmount, provisionsAmount, bfServicingAmount, lastJournalEntryId, dlOutstandingAmount,
+                ndlOutstandingAmount, totalRepaymentAmount, noOfDemandLoans, loanDataStale, loanDataComputedOn, loanDataVersion);
+    }
+
+    private ServiceChargeSheetSnapshotData(final Long id, final int quarter, final int year, final int calculationMethod,
+            final BigDecimal mobilizationAmount, final BigDecimal servicingAmount, final BigDecimal investmentAmount,
+            final BigDecimal overheadsAmount, final BigDecimal provisionsAmount, final BigDecimal bfServicingAmount,
+            final Long lastJournalEntryId, final BigDecimal dlOutstandingAmount, final BigDecimal ndlOutstandingAmount,
+            final BigDecimal totalRepaymentAmount, final int noOfDemandLoans, final boolean loanDataStale, final Date loanDataComputedOn,
+            final Long loanDataVersion) {
+        this.id = id;
+        this.quarter = quarter;
+        this.year = year;
+        this.calculationMethod = calculationMethod;
+        this.mobilizationAmount = mobilizationAmount;
+        this.servicingAmount = servicingAmount;
+        this.investmentAmount = investmentAmount;
+        this.overheadsAmount = overheadsAmount;
+        this.provisionsAmount = provisionsAmount;
+        this.bfServicingAmount = bfServicingAmount;
+        this.lastJournalEntryId = lastJournalEntryId;
+        this.dlOutstandingAmount = dlOutstandingAmount;
+        this.ndlOutstandingAmount = ndlOutstandingAmount;
+        this.totalRepaymentAmount = totalRepaymentAmount;
+        this.noOfDemandLoans = noOfDemandLoans;
+        this.loanDataStale = loanDataStale;
+        this.loanDataComputedOn = loanDataComputedOn;
+        this.loanDataVersion = loanDataVersion;
+    }
+
+    /**
+     * @return a copy of the snapshot with the given journal entry amounts,
+     *         which are not folded into the persisted totals yet, added to the
+     *         expense tag totals
+     */
+    public ServiceChargeSheetSnapshotData plusJournalEntryAmounts(final BigDecimal mobilizationAmount, final BigDecimal servicingAmount,
+            final BigDecimal investmentAmount, final BigDecimal overheadsAmount, final BigDecimal provisionsAmount,
+            final BigDecimal bfServicingAmount) {
+        return new ServiceChargeSheetSnapshotData(this.id, this.quarter, this.year, this.calculationMethod,
+                this.mobilizationAmount.add(mobilizationAmount), this.servicingAmount.add(servicingAmount),
+                this.investmentAmount.add(investmentAmount), this.overheadsAmount.add(overheadsAmount),
+                this.provisionsAmount.add(provisionsAmount), this.bfServicingAmount.add(bfServicingAmount), this.lastJournalEntryId,
+                this.dlOutstandingAmount, this.ndlOutstandingAmount, this.totalRepaymentAmount, this.noOfDemandLoans, this.loanDataStale,
+                this.loanDataComputedOn, this.loanDataVersion);
+    }
+
+    /**
+     * Copies the snapshot values into the given sheet. The sheet is expected
+     * to be a freshly created one as the repayment amount gets added up
+     * 
+     * @param sheetData
+     */
+    public void populateSheetData(final ServiceChargeFinalSheetData sheetData) {
+        sheetData.setJounEntriesData(this.mobilizationAmount, this.servicingAmount, this.investmentAmount, this.overheadsAmount,
+                this.provisionsAmount, this.bfServicingAmount);
+        sheetData.setLoanOutstandingAmount(this.dlOutstandingAmount, this.ndlOutstandingAmount);
+        sheetData.addTotalLoanRepaymentAmount(this.totalRepaymentAmount);
+        sheetData.setNoOfDemandLoans(this.noOfDemandLoans);
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public int getQuarter() {
+        return this.quarter;
+    }
+
+    public int getYear() {
+        return this.year;
+    }
+
+    public int getCalculationMethod() {
+        return this.calculationMethod;
+    }
+
+    public BigDecimal getMobilizationAmount() {
+        return this.mobilizationAmount;
+    }
+
+    public BigDecimal getServicingAmount() {
+        return this.servicingAmount;
+    }
+
+    public BigDecimal getInvestmentAmount() {
+        return this.investmentAmount;
+    }
+
+    public BigDecimal getOverheadsAmount() {
+        return this.overheadsAmount;
+    }
+
+    public BigDecimal getProvisionsAmount() {
+        return this.provisionsAmount;
+    }
+
+    public BigDecimal getBfServicingAmount() {
+        return this.bfServicingAmount;
+    }
+
+    /**
+     * @return id of the last journal entry that has been folded into the
+     *         expense tag totals
+     */
+    public Long getLastJournalEntryId() {
+        return this.lastJournalEntryId;
+    }
+
+    public BigDecimal getDlOutstandingAmount() {
+        return this.dlOutstandingAmount;
+    }
+
+    public BigDecimal getNdlOutstandingAmount() {
+        return this.ndlOutstandingAmount;
+    }
+
+    public BigDecimal getTotalRepaymentAmount() {
+        return this.totalRepaymentAmount;
+    }
+
+    public int getNoOfDemandLoans() {
+        return this.noOfDemandLoans;
+    }
+
+    /**
+     * @return true if a loan transaction has touched the range since the loan
+     *         figures were last computed
+     */
+    public boolean isLoanDataStale() {
+        return this.loanDataStale;
+    }
+
+    public Date getLoanDataComputedOn() {
+        return this.loanDataComputedOn;
+    }
+
+    /**
+     * @return version of the loan figures, moved on whenever they are marked
+     *         stale or claimed for a refresh
+     */
+    public Long getLoanDataVersion() {
+        return this.loanDataVersion;
+    }
+}
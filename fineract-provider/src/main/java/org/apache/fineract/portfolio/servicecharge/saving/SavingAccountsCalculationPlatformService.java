@@ -31,4 +31,11 @@ public interface SavingAccountsCalculationPlatformService {
 
     void validateDepositUpperLimit(BigDecimal accountBalance, Long savingsId);
 
+    /**
+     * Recomputes the total and count of active saving account balances from
+     * the saving accounts table. Deposits only read these figures, so they are
+     * as current as the last run of the job
+     */
+    void reconcileSavingsBalanceAggregate();
+
 }
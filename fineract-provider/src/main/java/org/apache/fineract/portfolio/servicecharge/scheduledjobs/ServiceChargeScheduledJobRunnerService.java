@@ -21,4 +21,6 @@ package org.apache.fineract.portfolio.servicecharge.scheduledjobs;
 
 public interface ServiceChargeScheduledJobRunnerService {
     void generateServiceCharge();
+
+    void reconcileSavingsBalanceAggregate();
 }
@@ -26,6 +26,7 @@ import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeReportTableHeaders;
 import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeData;
 import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
+import org.apache.fineract.portfolio.servicecharge.saving.SavingAccountsCalculationPlatformService;
 import org.apache.fineract.portfolio.servicecharge.service.ServiceChargeInstallmentCalculatorService;
 import org.apache.fineract.portfolio.servicecharge.service.ServiceChargeJournalDetailsReadPlatformService;
 import org.apache.fineract.portfolio.servicecharge.service.ServiceChargeReadPlatformService;
@@ -51,20 +52,23 @@ public class ServiceChargeScheduledJobRunnerServiceImpl implements ServiceCharge
     private final ServiceChargeReadPlatformService scChargeReadPlatformService;
     private final ServiceChargeInstallmentCalculatorService serviceChargeInstallmentCalculator;
     private final ServiceChargeJournalDetailsReadPlatformService scJournalDetailsReadPlatformService;
+    private final SavingAccountsCalculationPlatformService savingAccountsCalculationPlatformService;
 
     @Autowired
     public ServiceChargeScheduledJobRunnerServiceImpl(
             final ServiceChargeJournalDetailsReadPlatformService scJournalDetailsReadPlatformService,
             ServiceChargeWritePlatformService scWritePlatformService, ServiceChargeReadPlatformService scChargeReadPlatformService,
-            ServiceChargeInstallmentCalculatorService serviceChargeInstallmentCalculator) {
+            ServiceChargeInstallmentCalculatorService serviceChargeInstallmentCalculator,
+            final SavingAccountsCalculationPlatformService savingAccountsCalculationPlatformService) {
         this.serviceChargeInstallmentCalculator = serviceChargeInstallmentCalculator;
         this.scJournalDetailsReadPlatformService = scJournalDetailsReadPlatformService;
         this.scChargeReadPlatformService = scChargeReadPlatformService;
         this.scWritePlatformService = scWritePlatformService;
+        this.savingAccountsCalculationPlatformService = savingAccountsCalculationPlatformService;
     }
 
     @Override
-    // @CronTarget(jobName = JobName.GENERATE_SERVICECHARGE)
+    @CronTarget(jobName = JobName.GENERATE_SERVICECHARGE)
     public void generateServiceCharge() {
         logger.info("ServiceChargeScheduledJobRunnerServiceImpl::generateServiceCharge: Inside Generate Service Charge");
 
@@ -94,6 +98,13 @@ public class ServiceChargeScheduledJobRunnerServiceImpl implements ServiceCharge
         serviceChargeInstallmentCalculator.recalculateServiceChargeForAllLoans();
     }
 
+    @Override
+    @CronTarget(jobName = JobName.RECONCILE_SAVINGS_BALANCE_AGGREGATE)
+    public void reconcileSavingsBalanceAggregate() {
+        logger.info("ServiceChargeScheduledJobRunnerServiceImpl::reconcileSavingsBalanceAggregate: Reconciling the average savings figures");
+        savingAccountsCalculationPlatformService.reconcileSavingsBalanceAggregate();
+    }
+
     private void saveServiceCharge(ServiceChargeDateRange quarter, int year, ServiceChargeReportTableHeaders header,
             ServiceChargeFinalSheetData dataSheet) {
         BigDecimal amount = dataSheet.getColumnValue(header, 0);
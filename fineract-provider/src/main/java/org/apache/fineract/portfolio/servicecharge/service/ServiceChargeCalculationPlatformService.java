@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.servicecharge.service;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
 
@@ -37,7 +38,9 @@ public interface ServiceChargeCalculationPlatformService {
     /**
      * Service charge calculation method for a given loan and for the given
      * quarter and year, with the loan being already saved and is currently
-     * active and functional.
+     * active and functional. The loan figures are the same as those used by
+     * the batch calculation, so a loan not considered for the quarter has no
+     * service charge.
      * 
      * @param loanId
      *            - Loan ID for which the Service Charge needs to be calculated
@@ -49,6 +52,27 @@ public interface ServiceChargeCalculationPlatformService {
      */
     BigDecimal calculateServiceChargeForLoan(Long loanId, ServiceChargeDateRange quarter, int year);
 
+    /**
+     * Batch service charge calculation for all the loans to be considered for
+     * the given quarter and year. The quarter rates are read once and the loan
+     * figures are computed set-wise instead of loan by loan.
+     * 
+     * @param quarter
+     *            - Quarter to be considered for calculation
+     * @param year
+     *            - Year to be considered for the calculation
+     * @param officeId
+     *            - Restrict to the loans of this office and its children, null
+     *            for the offices of the logged in user
+     * @param loanProductId
+     *            - Restrict to the loans of this product, null for all
+     * @param demandLoansOnly
+     *            - Skip the loans whose product has no service charge
+     * @return Service Charge per loan ID
+     */
+    Map<Long, BigDecimal> calculateServiceChargeForLoans(ServiceChargeDateRange quarter, int year, Long officeId, Long loanProductId,
+            boolean demandLoansOnly);
+
     /**
      * Service charge calculation method for a given loan, when the loan is yet
      * being disbursed and hence only the principal amount is known. It assumes
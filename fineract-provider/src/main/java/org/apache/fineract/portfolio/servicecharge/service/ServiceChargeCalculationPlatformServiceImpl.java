@@ -22,12 +22,16 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
 import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeApiConstants;
 import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeReportTableHeaders;
 import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeData;
 import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanAggregateData;
 import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeDateUtils;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRangeFactory;
@@ -43,19 +47,22 @@ public class ServiceChargeCalculationPlatformServiceImpl implements ServiceCharg
 	private final static Logger logger = LoggerFactory.getLogger(ServiceChargeCalculationPlatformServiceImpl.class);
 
 	private final ServiceChargeJournalDetailsReadPlatformService scJournalDetailsReadPlatformService;
-	private final ServiceChargeLoanDetailsReadPlatformService scLoanDetailsReadPlatformService;
 	private final ServiceChargeReadPlatformService scChargeReadPlatformService;
+	private final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService;
+	private final OfficeRepositoryWrapper officeRepositoryWrapper;
 	@Autowired
 	private ApplicationContext appContext;
 
 	@Autowired
 	public ServiceChargeCalculationPlatformServiceImpl(
 			final ServiceChargeJournalDetailsReadPlatformService scJournalDetailsReadPlatformService,
-			final ServiceChargeLoanDetailsReadPlatformService scLoanDetailsReadPlatformService,
-			ServiceChargeReadPlatformService scChargeReadPlatformService) {
+			ServiceChargeReadPlatformService scChargeReadPlatformService,
+			final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService,
+			final OfficeRepositoryWrapper officeRepositoryWrapper) {
 		this.scJournalDetailsReadPlatformService = scJournalDetailsReadPlatformService;
-		this.scLoanDetailsReadPlatformService = scLoanDetailsReadPlatformService;
 		this.scChargeReadPlatformService = scChargeReadPlatformService;
+		this.scLoanAggregationReadPlatformService = scLoanAggregationReadPlatformService;
+		this.officeRepositoryWrapper = officeRepositoryWrapper;
 	}
 
 	@Override
@@ -68,19 +75,51 @@ public class ServiceChargeCalculationPlatformServiceImpl implements ServiceCharg
 
 	@Override
 	public BigDecimal calculateServiceChargeForLoan(Long loanId, ServiceChargeDateRange quarter, int year) {
-		boolean isDisbursed = scLoanDetailsReadPlatformService.findIfLoanDisbursedInCurrentQuarter(loanId);
-		BigDecimal totalRepaymensts = scLoanDetailsReadPlatformService.getTotalRepaymentsForCurrentQuarter(loanId);
-		BigDecimal totalOutstanding = scLoanDetailsReadPlatformService
-				.getTotalOutstandingAmountForCurrentQuarter(loanId);
-
-		logger.debug("ServiceChargeCalculationPlatformServiceImpl::calculateServiceChargeForLoan:isDisbursed="
-				+ isDisbursed);
-		logger.debug("ServiceChargeCalculationPlatformServiceImpl::calculateServiceChargeForLoan:totalRepaymensts="
-				+ totalRepaymensts);
-		logger.debug("ServiceChargeCalculationPlatformServiceImpl::calculateServiceChargeForLoan:totalOutstanding="
-				+ totalOutstanding);
+		// Same figures as in the batch calculation, restricted to the one loan
+		ServiceChargeLoanAggregateData loanAggregate = scLoanAggregationReadPlatformService.retrieveLoanAggregate(quarter,
+				loanId);
+		if (loanAggregate == null) {
+			logger.debug("ServiceChargeCalculationPlatformServiceImpl::calculateServiceChargeForLoan: loan not considered for the quarter="
+					+ loanId);
+			return BigDecimal.ZERO;
+		}
+		ServiceChargeRates rates = retrieveServiceChargeRates(quarter, year);
+		return calculateServiceCharge(loanAggregate, rates, quarter);
+	}
 
-		return serviceChargeCalculationLogic(isDisbursed, totalRepaymensts, totalOutstanding, quarter, year);
+	@Override
+	public Map<Long, BigDecimal> calculateServiceChargeForLoans(ServiceChargeDateRange quarter, int year, Long officeId,
+			Long loanProductId, boolean demandLoansOnly) {
+		// The rates are the same for all the loans of the quarter, so read them
+		// only once
+		ServiceChargeRates rates = retrieveServiceChargeRates(quarter, year);
+		String officeHierarchy = null;
+		if (officeId != null) {
+			officeHierarchy = officeRepositoryWrapper.findOneWithNotFoundDetection(officeId).getHierarchy();
+		}
+		Collection<ServiceChargeLoanAggregateData> loanAggregates = scLoanAggregationReadPlatformService
+				.retrieveLoanAggregates(quarter, officeHierarchy, loanProductId);
+
+		Map<Long, BigDecimal> serviceCharges = new LinkedHashMap<>();
+		for (ServiceChargeLoanAggregateData loanAggregate : loanAggregates) {
+			if (demandLoansOnly && !loanAggregate.isDemandLoan()) {
+				continue;
+			}
+			serviceCharges.put(loanAggregate.getLoanId(), calculateServiceCharge(loanAggregate, rates, quarter));
+		}
+		logger.debug("ServiceChargeCalculationPlatformServiceImpl::calculateServiceChargeForLoans: loans computed="
+				+ serviceCharges.size());
+		return serviceCharges;
+	}
+
+	private BigDecimal calculateServiceCharge(ServiceChargeLoanAggregateData loanAggregate, ServiceChargeRates rates,
+			ServiceChargeDateRange quarter) {
+		logger.debug("ServiceChargeCalculationPlatformServiceImpl::calculateServiceCharge: loanId=" + loanAggregate.getLoanId()
+				+ " isDisbursed=" + loanAggregate.isDisbursedInRange() + " totalRepayments="
+				+ loanAggregate.getTotalRepayments() + " totalOutstanding=" + loanAggregate.getTotalOutstanding());
+		return serviceCalculationLogic(loanAggregate.isDisbursedInRange(), loanAggregate.getTotalRepayments(),
+				loanAggregate.getTotalOutstanding(), rates.repaymentCostPerRupee, rates.annualizedCost,
+				rates.serviceCostPerLoan, quarter);
 	}
 
 	private BigDecimal serviceChargeCalculationLogic(boolean isDisbursed, BigDecimal totalRepaymensts,
@@ -107,16 +146,25 @@ public class ServiceChargeCalculationPlatformServiceImpl implements ServiceCharg
 	 */
 	private BigDecimal serviceChargeCalculationLogic(boolean isDisbursed, BigDecimal totalRepaymensts,
 			BigDecimal totalOutstanding, ServiceChargeDateRange quarter, int year) {
+		ServiceChargeRates rates = retrieveServiceChargeRates(quarter, year);
+		return serviceCalculationLogic(isDisbursed, totalRepaymensts, totalOutstanding, rates.repaymentCostPerRupee,
+				rates.annualizedCost, rates.serviceCostPerLoan, quarter);
+	}
+
+	/**
+	 * Gets the per-quarter service charge rates, either from the values stored
+	 * for the quarter or, if the quarter has not been computed yet, from the
+	 * final sheet
+	 */
+	private ServiceChargeRates retrieveServiceChargeRates(ServiceChargeDateRange quarter, int year) {
 		Collection<ServiceChargeData> retrivedSCList = scChargeReadPlatformService.retrieveCharge(quarter, year);
 		if (retrivedSCList == null || retrivedSCList.isEmpty()) {
-			return calculateServiceChargeForGivenQuarter(isDisbursed, totalRepaymensts, totalOutstanding, quarter);
+			return retrieveServiceChargeRatesForGivenQuarter();
 		}
-		return calculateServiceChargeFromDBValues(isDisbursed, totalRepaymensts, totalOutstanding, retrivedSCList,
-				quarter);
+		return retrieveServiceChargeRatesFromDBValues(retrivedSCList);
 	}
 
-	private BigDecimal calculateServiceChargeFromDBValues(boolean isDisbursed, BigDecimal totalRepaymensts,
-			BigDecimal totalOutstanding, Collection<ServiceChargeData> retrivedSCList, ServiceChargeDateRange quarter) {
+	private ServiceChargeRates retrieveServiceChargeRatesFromDBValues(Collection<ServiceChargeData> retrivedSCList) {
 		BigDecimal repaymentCostPerRupee = BigDecimal.ZERO;
 		BigDecimal annualizedCost = BigDecimal.ZERO;
 		BigDecimal serviceCostPerLoan = BigDecimal.ZERO;
@@ -148,14 +196,10 @@ public class ServiceChargeCalculationPlatformServiceImpl implements ServiceCharg
 				"ServiceChargeCalculationPlatformServiceImpl::calculateServiceChargeFromDBValues: serviceCostPerLoan/disbursement="
 						+ serviceCostPerLoan.toPlainString());
 
-		BigDecimal serviceCharge = serviceCalculationLogic(isDisbursed, totalRepaymensts, totalOutstanding,
-				repaymentCostPerRupee, annualizedCost, serviceCostPerLoan, quarter);
-
-		return serviceCharge;
+		return new ServiceChargeRates(repaymentCostPerRupee, annualizedCost, serviceCostPerLoan);
 	}
 
-	private BigDecimal calculateServiceChargeForGivenQuarter(boolean isDisbursed, BigDecimal totalRepaymensts,
-			BigDecimal totalOutstanding, ServiceChargeDateRange quarter) {
+	private ServiceChargeRates retrieveServiceChargeRatesForGivenQuarter() {
 		ServiceChargeFinalSheetData finalSheetData = (ServiceChargeFinalSheetData) appContext
 				.getBean("serviceChargeFinalSheetData");
 		scJournalDetailsReadPlatformService.generatefinalSheetData(finalSheetData);
@@ -176,9 +220,7 @@ public class ServiceChargeCalculationPlatformServiceImpl implements ServiceCharg
 				"ServiceChargeCalculationPlatformServiceImpl:: calculateServiceChargeForCurrentQuarter: serviceCostPerLoan/disbursement="
 						+ serviceCostPerLoan.toPlainString());
 
-		BigDecimal serviceCharge = serviceCalculationLogic(isDisbursed, totalRepaymensts, totalOutstanding,
-				repaymentCostPerRupee, annualizedCost, serviceCostPerLoan, quarter);
-		return serviceCharge;
+		return new ServiceChargeRates(repaymentCostPerRupee, annualizedCost, serviceCostPerLoan);
 	}
 
 	private BigDecimal serviceCalculationLogic(boolean isDisbursed, BigDecimal totalRepaymensts,
@@ -233,4 +275,20 @@ public class ServiceChargeCalculationPlatformServiceImpl implements ServiceCharg
 		return serviceChargeAmount;
 	}
 
+	/**
+	 * Per-quarter rates that the service charge of a loan is computed from
+	 */
+	private static final class ServiceChargeRates {
+
+		private final BigDecimal repaymentCostPerRupee;
+		private final BigDecimal annualizedCost;
+		private final BigDecimal serviceCostPerLoan;
+
+		ServiceChargeRates(BigDecimal repaymentCostPerRupee, BigDecimal annualizedCost, BigDecimal serviceCostPerLoan) {
+			this.repaymentCostPerRupee = repaymentCostPerRupee;
+			this.annualizedCost = annualizedCost;
+			this.serviceCostPerLoan = serviceCostPerLoan;
+		}
+	}
+
 }
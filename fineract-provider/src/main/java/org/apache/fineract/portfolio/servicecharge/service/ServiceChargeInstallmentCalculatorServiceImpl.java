@@ -20,16 +20,17 @@ package org.apache.fineract.portfolio.servicecharge.service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
-import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
 import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
@@ -45,13 +46,10 @@ import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionComparator;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionType;
 import org.apache.fineract.portfolio.loanaccount.service.LoanAssembler;
-import org.apache.fineract.portfolio.loanproduct.data.LoanProductData;
-import org.apache.fineract.portfolio.loanproduct.service.LoanProductReadPlatformService;
 import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeApiConstants;
-import org.apache.fineract.portfolio.servicecharge.data.SCLoanAccountData;
 import org.apache.fineract.portfolio.servicecharge.exception.ServiceChargeException;
 import org.apache.fineract.portfolio.servicecharge.exception.ServiceChargeException.SERVICE_CHARGE_EXCEPTION_REASON;
-import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeOperationUtils;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRangeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,47 +65,36 @@ public class ServiceChargeInstallmentCalculatorServiceImpl implements ServiceCha
     private final LoanAssembler loanAssembler;
     private final LoanChargeRepository loanChargeRepository;
     private final LoanRepositoryWrapper loanRepositoryWrapper;
-    private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final ServiceChargeCalculationPlatformService serviceChargeCalculationService;
     private final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository;
-    private final ServiceChargeLoanDetailsReadPlatformService serviceChargeLoanDetailsReadPlatformService;
 
     @Autowired
     public ServiceChargeInstallmentCalculatorServiceImpl(final LoanAssembler loanAssembler, final LoanChargeRepository loanChargeRepository,
-            final LoanRepositoryWrapper loanRepositoryWrapper, final LoanProductReadPlatformService loanProductReadPlatformService,
-            final ServiceChargeCalculationPlatformService serviceChargeCalculationService,
-            final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository,
-            final ServiceChargeLoanDetailsReadPlatformService serviceChargeLoanDetailsReadPlatformService) {
+            final LoanRepositoryWrapper loanRepositoryWrapper, final ServiceChargeCalculationPlatformService serviceChargeCalculationService,
+            final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository) {
         this.loanAssembler = loanAssembler;
         this.loanChargeRepository = loanChargeRepository;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
-        this.loanProductReadPlatformService = loanProductReadPlatformService;
         this.serviceChargeCalculationService = serviceChargeCalculationService;
         this.repaymentScheduleInstallmentRepository = repaymentScheduleInstallmentRepository;
-        this.serviceChargeLoanDetailsReadPlatformService = serviceChargeLoanDetailsReadPlatformService;
     }
 
     @Override
 	public void recalculateServiceChargeForAllLoans() {
-		final Page<SCLoanAccountData> currentQuarterLoans = serviceChargeLoanDetailsReadPlatformService
-				.retrieveLoansToBeConsideredForTheCurrentQuarter();
-		// If no loans to be processed for the current quarter then return
-		if (currentQuarterLoans == null || currentQuarterLoans.getPageItems().isEmpty()) {
-			return;
-		}
-		for (int i = 0; i < currentQuarterLoans.getPageItems().size(); i++) {
-			SCLoanAccountData loanAccData = currentQuarterLoans.getPageItems().get(i);
-			LoanProductData loanProduct = loanProductReadPlatformService
-					.retrieveLoanProduct(loanAccData.getLoanProductId());
-			// Only if it is demand loan
-			if (ServiceChargeOperationUtils.checkDemandLaon(loanProduct)) {
-				Long loanId = loanAccData.getId();
-				logger.debug(
-						"ServiceChargeInstallmentCalculatorServiceImpl:recalculateServiceChargeForAllLoans::Demand Loan-"
-								+ loanId);
-				// Re-calculate charge based on Service Charge calculation
-				recalculateServiceChargeForGivenLoan(loanId, ServiceChargeApiConstants.ASSUMED_SERVICE_CHARGE_ID);
-			}
+		final ServiceChargeDateRange quarter = ServiceChargeDateRangeFactory.getCurrentDateRange();
+		final int year = Calendar.getInstance().get(Calendar.YEAR);
+		// Service charge of all the demand loans of the current quarter computed
+		// in one pass
+		final Map<Long, BigDecimal> serviceCharges = serviceChargeCalculationService.calculateServiceChargeForLoans(quarter, year,
+				null, null, true);
+		for (Map.Entry<Long, BigDecimal> serviceCharge : serviceCharges.entrySet()) {
+			Long loanId = serviceCharge.getKey();
+			logger.debug("ServiceChargeInstallmentCalculatorServiceImpl:recalculateServiceChargeForAllLoans::Demand Loan-" + loanId);
+			// Re-calculate charge based on Service Charge calculation
+			final Loan loan = this.loanAssembler.assembleFrom(loanId);
+			List<LoanRepaymentScheduleInstallment> installments = recalculateServiceChargeForGivenLoan(loan,
+					ServiceChargeApiConstants.ASSUMED_SERVICE_CHARGE_ID, serviceCharge.getValue());
+			saveIfLoanAmountCanBeUpdated(loan, installments);
 		}
 	}
 
@@ -115,6 +102,10 @@ public class ServiceChargeInstallmentCalculatorServiceImpl implements ServiceCha
 	public void recalculateServiceChargeForGivenLoan(Long loanId, Long loanChargeId) {
 		final Loan loan = this.loanAssembler.assembleFrom(loanId);
 		List<LoanRepaymentScheduleInstallment> installments = recalculateServiceChargeForGivenLoan(loan, loanChargeId);
+		saveIfLoanAmountCanBeUpdated(loan, installments);
+	}
+
+	private void saveIfLoanAmountCanBeUpdated(Loan loan, List<LoanRepaymentScheduleInstallment> installments) {
 		// If it is open loan then the transactions can be updated
 		if (checkIfLoanAmountCanBeUpdated(loan)) {
 			loan.updateLoanSummaryDerivedFields();
@@ -133,6 +124,11 @@ public class ServiceChargeInstallmentCalculatorServiceImpl implements ServiceCha
 
 	public List<LoanRepaymentScheduleInstallment> recalculateServiceChargeForGivenLoan(Loan loan, Long loanChargeId) {
         BigDecimal serviceChargeForLoan = serviceChargeCalculationService.calculateServiceChargeForLoan(loan.getId());
+        return recalculateServiceChargeForGivenLoan(loan, loanChargeId, serviceChargeForLoan);
+    }
+
+    private List<LoanRepaymentScheduleInstallment> recalculateServiceChargeForGivenLoan(Loan loan, Long loanChargeId,
+            BigDecimal serviceChargeForLoan) {
         final LoanCharge loanCharge = retrieveLoanChargeBy(loan.getId(), loanChargeId);
         final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement(loan);
         List<LoanRepaymentScheduleInstallment> installments = loan.getRepaymentScheduleInstallments();
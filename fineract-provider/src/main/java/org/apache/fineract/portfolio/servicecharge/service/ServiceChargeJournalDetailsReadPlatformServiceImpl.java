@@ -20,24 +20,14 @@ package org.apache.fineract.portfolio.servicecharge.service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang.StringUtils;
-import org.apache.fineract.accounting.glaccount.data.GLAccountData;
-import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
-import org.apache.fineract.accounting.glaccount.service.GLAccountReadPlatformService;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryAssociationParametersData;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
-import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
-import org.apache.fineract.accounting.journalentry.service.JournalEntryReadPlatformService;
-import org.apache.fineract.infrastructure.core.service.Page;
-import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.portfolio.servicecharge.constants.GLExpenseTagsForServiceCharge;
 import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeReportTableHeaders;
 import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeSheetSnapshotData;
 import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeOperationUtils;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRangeFactory;
@@ -51,27 +41,23 @@ public class ServiceChargeJournalDetailsReadPlatformServiceImpl implements Servi
 
     private final static Logger logger = LoggerFactory.getLogger(ServiceChargeJournalDetailsReadPlatformServiceImpl.class);
 
-    private final JournalEntryReadPlatformService journalEntryReadPlatformService;
-    private final GLAccountReadPlatformService glAccountReadPlatformService;
-    private final ServiceChargeLoanDetailsReadPlatformService scLoanDetailsReadPlatformService;
+    private final ServiceChargeSheetSnapshotPlatformService scSheetSnapshotPlatformService;
 
     @Autowired
-    public ServiceChargeJournalDetailsReadPlatformServiceImpl(JournalEntryReadPlatformService journalEntryReadPlatformService,
-            GLAccountReadPlatformService glAccountReadPlatformService,
-            ServiceChargeLoanDetailsReadPlatformService scLoanDetailsReadPlatformService) {
+    public ServiceChargeJournalDetailsReadPlatformServiceImpl(
+            final ServiceChargeSheetSnapshotPlatformService scSheetSnapshotPlatformService) {
         // Initialize the class level final autowired variables
-        this.journalEntryReadPlatformService = journalEntryReadPlatformService;
-        this.glAccountReadPlatformService = glAccountReadPlatformService;
-        this.scLoanDetailsReadPlatformService = scLoanDetailsReadPlatformService;
+        this.scSheetSnapshotPlatformService = scSheetSnapshotPlatformService;
     }
 
     public ServiceChargeFinalSheetData generatefinalSheetData(ServiceChargeFinalSheetData finalSheetData) {
-        // Call this method to populate all the values needed for computation
-        // right at the outset
-        // Make sure that this method is called only once per-calculation as the
-        // data get cumulatively added
-        scLoanDetailsReadPlatformService.populateRepaymentsInSheetData(finalSheetData);
-        finalSheetData = generateExpenseTagsData(finalSheetData);
+        // The expense tag totals and the loan figures are read from the
+        // persisted snapshot of the current range, which is kept up to date
+        // incrementally. Make sure that this method is called only once
+        // per-calculation as the data get cumulatively added
+        ServiceChargeDateRange currentDateRange = ServiceChargeDateRangeFactory.getCurrentDateRange();
+        ServiceChargeSheetSnapshotData snapshot = scSheetSnapshotPlatformService.retrieveSnapshot(currentDateRange);
+        snapshot.populateSheetData(finalSheetData);
         Map<GLExpenseTagsForServiceCharge, BigDecimal> resultDataHolder = new HashMap<>();
         generateFinalTableOfJournalEntries(finalSheetData, resultDataHolder);
         computeFinalCalculations(finalSheetData);
@@ -79,58 +65,6 @@ public class ServiceChargeJournalDetailsReadPlatformServiceImpl implements Servi
         return finalSheetData;
     }
 
-    private ServiceChargeFinalSheetData generateExpenseTagsData(ServiceChargeFinalSheetData finalSheetData) {
-        List<GLAccountData> glAccountData = glAccountReadPlatformService.retrieveAllEnabledDetailGLAccounts(GLAccountType.EXPENSE);
-
-        Map<GLExpenseTagsForServiceCharge, List<GLAccountData>> filteredGLAccountMap = new HashMap<>();
-        for (GLExpenseTagsForServiceCharge serviceChargeTag : GLExpenseTagsForServiceCharge.values()) {
-            filteredGLAccountMap.put(serviceChargeTag, new ArrayList<GLAccountData>());
-        }
-        for (GLAccountData glAccount : glAccountData) {
-            if (checkGLAccountDataCode(glAccount, GLExpenseTagsForServiceCharge.MOBILIZATION)) {
-                List<GLAccountData> filteredGLAccountList = filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.MOBILIZATION);
-                filteredGLAccountList.add(glAccount);
-            } else if (checkGLAccountDataCode(glAccount, GLExpenseTagsForServiceCharge.SERVICING)) {
-                List<GLAccountData> filteredGLAccountList = filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.SERVICING);
-                filteredGLAccountList.add(glAccount);
-            } else if (checkGLAccountDataCode(glAccount, GLExpenseTagsForServiceCharge.INVESTMENT)) {
-                List<GLAccountData> filteredGLAccountList = filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.INVESTMENT);
-                filteredGLAccountList.add(glAccount);
-            } else if (checkGLAccountDataCode(glAccount, GLExpenseTagsForServiceCharge.OVERHEADS)) {
-                List<GLAccountData> filteredGLAccountList = filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.OVERHEADS);
-                filteredGLAccountList.add(glAccount);
-            } else if (checkGLAccountDataCode(glAccount, GLExpenseTagsForServiceCharge.PROVISIONS)) {
-                List<GLAccountData> filteredGLAccountList = filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.PROVISIONS);
-                filteredGLAccountList.add(glAccount);
-            } else if (checkGLAccountDataCode(glAccount, GLExpenseTagsForServiceCharge.BFSERVICING)) {
-                List<GLAccountData> filteredGLAccountList = filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.BFSERVICING);
-                filteredGLAccountList.add(glAccount);
-            }
-        }
-
-        BigDecimal totalMobilizationAmount = calculateTotalAmountForJournalEntriesOfGivenListOfGLs(
-                filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.MOBILIZATION));
-        BigDecimal totalServicingAmount = calculateTotalAmountForJournalEntriesOfGivenListOfGLs(
-                filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.SERVICING));
-        BigDecimal totalInvestmentAmount = calculateTotalAmountForJournalEntriesOfGivenListOfGLs(
-                filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.INVESTMENT));
-        BigDecimal totalOverHeadsAmount = calculateTotalAmountForJournalEntriesOfGivenListOfGLs(
-                filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.OVERHEADS));
-        BigDecimal totalProvisionsAmount = calculateTotalAmountForJournalEntriesOfGivenListOfGLs(
-                filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.PROVISIONS));
-        BigDecimal totalBFServicingAmount = calculateTotalAmountForJournalEntriesOfGivenListOfGLs(
-                filteredGLAccountMap.get(GLExpenseTagsForServiceCharge.BFSERVICING));
-        finalSheetData.setJounEntriesData(totalMobilizationAmount, totalServicingAmount, totalInvestmentAmount, totalOverHeadsAmount,
-                totalProvisionsAmount, totalBFServicingAmount);
-        return finalSheetData;
-    }
-
-    private boolean checkGLAccountDataCode(GLAccountData glAccount, GLExpenseTagsForServiceCharge expenseTag) {
-        if (glAccount != null && glAccount.getTagId() != null
-                && glAccount.getTagId().getName() != null) { return glAccount.getTagId().getName().equals(expenseTag.getCode()); }
-        return false;
-    }
-
     public void computeFinalCalculations(ServiceChargeFinalSheetData sheetData) {
         BigDecimal mobilizationCostPercent, avgDLRePm, lsCostPa, lsCostPerLoan, reForPeriod, reCostPer100;
         int totalNoDlLoans = 0;
@@ -257,35 +191,4 @@ public class ServiceChargeJournalDetailsReadPlatformServiceImpl implements Servi
         finalSheetData.setMobilizationApportionedValues(servicingAmount, investmentAmount);
     }
 
-    private BigDecimal calculateTotalAmountForJournalEntriesOfGivenListOfGLs(List<GLAccountData> glAccountData) {
-        BigDecimal finalAmount = new BigDecimal(0);
-
-        if (glAccountData != null && !glAccountData.isEmpty()) {
-            for (GLAccountData glAccount : glAccountData) {
-                // Start from 0 entries and get all entries by passing limit=-1
-                final SearchParameters searchParameters = SearchParameters.forJournalEntries(null, 0, -1, null, null, null, null);
-                final JournalEntryAssociationParametersData associationParametersData = new JournalEntryAssociationParametersData(false,
-                        false);
-
-                final Date fromDateParam = ServiceChargeDateRangeFactory.getCurrentDateRange().getFromDateForCurrentYear();
-                final Date toDateParam = ServiceChargeDateRangeFactory.getCurrentDateRange().getToDateForCurrentYear();
-
-                Page<JournalEntryData> journalEntryDataPage = journalEntryReadPlatformService.retrieveAll(searchParameters,
-                        glAccount.getId(), true, fromDateParam, toDateParam, StringUtils.EMPTY, 0, associationParametersData);
-                for (JournalEntryData journalData : journalEntryDataPage.getPageItems()) {
-                    JournalEntryType entryType = JournalEntryType.fromInt(journalData.getEntryType().getId().intValue());
-                    switch (entryType) {
-                        case DEBIT:
-                            finalAmount = finalAmount.add(journalData.getAmount());
-                        break;
-                        case CREDIT:
-                            finalAmount = finalAmount.subtract(journalData.getAmount());
-                        break;
-                    }
-                }
-            } // End of for-loop
-        } // End of outer if-condition
-        return finalAmount;
-    }
-
 }
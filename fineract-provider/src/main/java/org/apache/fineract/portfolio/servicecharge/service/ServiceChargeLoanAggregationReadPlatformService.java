@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanAggregateData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeProductAggregateData;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
+
+/**
+ * Set based computation of the loan figures needed for the service charge
+ * calculation. All the loans to be considered for a date range are processed
+ * with a fixed number of grouped queries instead of a set of queries per loan
+ */
+public interface ServiceChargeLoanAggregationReadPlatformService {
+
+    /**
+     * Computes the repayments, daily outstanding and disbursement figures of
+     * every loan to be considered for the given date range
+     * 
+     * @param dateRange
+     * @return Collection of per-loan aggregates
+     */
+    Collection<ServiceChargeLoanAggregateData> retrieveLoanAggregates(ServiceChargeDateRange dateRange);
+
+    /**
+     * Same as retrieveLoanAggregates but restricted to the loans of the given
+     * office hierarchy and loan product. A null office hierarchy falls back to
+     * that of the logged in user and a null product includes all the products
+     * 
+     * @param dateRange
+     * @param officeHierarchy
+     * @param loanProductId
+     * @return Collection of per-loan aggregates
+     */
+    Collection<ServiceChargeLoanAggregateData> retrieveLoanAggregates(ServiceChargeDateRange dateRange, String officeHierarchy,
+            Long loanProductId);
+
+    /**
+     * Same as retrieveLoanAggregates but for a single loan, so that the service
+     * charge of one loan is computed from the very same figures as in the
+     * batch calculation
+     * 
+     * @param dateRange
+     * @param loanId
+     * @return aggregate of the loan, null if the loan is not to be considered
+     *         for the date range
+     */
+    ServiceChargeLoanAggregateData retrieveLoanAggregate(ServiceChargeDateRange dateRange, Long loanId);
+
+    /**
+     * Same as retrieveLoanAggregates but rolled up to the loan product
+     * 
+     * @param dateRange
+     * @return Collection of per-product aggregates
+     */
+    Collection<ServiceChargeProductAggregateData> retrieveProductAggregates(ServiceChargeDateRange dateRange);
+
+    /**
+     * Total amount repaid on all the active loans within the given date range
+     * 
+     * @param dateRange
+     * @return total repayment amount
+     */
+    BigDecimal retrieveTotalRepaymentsOfActiveLoans(ServiceChargeDateRange dateRange);
+
+    /**
+     * Populates the repayment, DL/non-DL outstanding and number of demand loans
+     * disbursed in the given sheet. The loans are streamed through and no
+     * per-loan data is retained
+     * 
+     * @param sheetData
+     * @param dateRange
+     */
+    void populateLoanDetailsInSheetData(ServiceChargeFinalSheetData sheetData, ServiceChargeDateRange dateRange);
+
+    /**
+     * Same as populateLoanDetailsInSheetData but restricted to the loans of
+     * the given office hierarchy instead of that of the logged in user
+     * 
+     * @param sheetData
+     * @param dateRange
+     * @param officeHierarchy
+     */
+    void populateLoanDetailsInSheetData(ServiceChargeFinalSheetData sheetData, ServiceChargeDateRange dateRange, String officeHierarchy);
+
+}
@@ -0,0 +1,320 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeApiConstants;
+import org.apache.fineract.portfolio.servicecharge.data.SCLoanAccountData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanAggregateData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanProductSummary;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeProductAggregateData;
+import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeLoanSummaryFactory;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ServiceChargeLoanAggregationReadPlatformServiceImpl
+        implements ServiceChargeLoanAggregationReadPlatformService, ServiceChargeApiConstants {
+
+    private final static Logger logger = LoggerFactory.getLogger(ServiceChargeLoanAggregationReadPlatformServiceImpl.class);
+
+    /*
+     * Loans to be considered for a date range: either active or closed
+     * within the range, and not disbursed after the end of the range. This is
+     * the same criteria that is used while retrieving the loans one by one
+     */
+    private static final String LOANS_IN_RANGE_CRITERIA = " from m_loan l join m_client c on c.id = l.client_id"
+            + " join m_office o on o.id = c.office_id"
+            + " left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id"
+            + " where ( o.hierarchy like ? or transferToOffice.hierarchy like ?)"
+            + " and (l.loan_status_id = 300 or l.closedon_date between ? and ?) and NOT l.disbursedon_date > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformSecurityContext context;
+
+    @Autowired
+    public ServiceChargeLoanAggregationReadPlatformServiceImpl(final RoutingDataSource dataSource, final PlatformSecurityContext context) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.context = context;
+    }
+
+    @Override
+    public Collection<ServiceChargeLoanAggregateData> retrieveLoanAggregates(final ServiceChargeDateRange dateRange) {
+        return retrieveLoanAggregates(dateRange, null, null);
+    }
+
+    @Override
+    public Collection<ServiceChargeLoanAggregateData> retrieveLoanAggregates(final ServiceChargeDateRange dateRange,
+            final String officeHierarchy, final Long loanProductId) {
+        final String hierarchySearchString = officeHierarchy == null ? getHierarchySearchString() : officeHierarchy + "%";
+        final List<ServiceChargeLoanAggregateData> loanAggregates = new ArrayList<>();
+        processLoanAggregates(dateRange, hierarchySearchString, loanProductId, null, new LoanAggregateHandler() {
+
+            @Override
+            public void handle(ServiceChargeLoanAggregateData loanAggregate) {
+                loanAggregates.add(loanAggregate);
+            }
+        });
+        return loanAggregates;
+    }
+
+    @Override
+    public ServiceChargeLoanAggregateData retrieveLoanAggregate(final ServiceChargeDateRange dateRange, final Long loanId) {
+        final List<ServiceChargeLoanAggregateData> loanAggregates = new ArrayList<>(1);
+        processLoanAggregates(dateRange, getHierarchySearchString(), null, loanId, new LoanAggregateHandler() {
+
+            @Override
+            public void handle(ServiceChargeLoanAggregateData loanAggregate) {
+                loanAggregates.add(loanAggregate);
+            }
+        });
+        return loanAggregates.isEmpty() ? null : loanAggregates.get(0);
+    }
+
+    @Override
+    public Collection<ServiceChargeProductAggregateData> retrieveProductAggregates(final ServiceChargeDateRange dateRange) {
+        final Map<Long, ServiceChargeProductAggregateData> productAggregates = new LinkedHashMap<>();
+        processLoanAggregates(dateRange, getHierarchySearchString(), null, null, new LoanAggregateHandler() {
+
+            @Override
+            public void handle(ServiceChargeLoanAggregateData loanAggregate) {
+                ServiceChargeProductAggregateData productAggregate = productAggregates.get(loanAggregate.getLoanProductId());
+                if (productAggregate == null) {
+                    productAggregate = ServiceChargeProductAggregateData.instance(loanAggregate.getLoanProductId(),
+                            loanAggregate.isDemandLoan());
+                    productAggregates.put(loanAggregate.getLoanProductId(), productAggregate);
+                }
+                productAggregate.add(loanAggregate);
+            }
+        });
+        return productAggregates.values();
+    }
+
+    @Override
+    public BigDecimal retrieveTotalRepaymentsOfActiveLoans(final ServiceChargeDateRange dateRange) {
+        final String hierarchySearchString = getHierarchySearchString();
+        final String sql = "select sum(tr.amount) from m_loan_transaction tr join m_loan l on l.id = tr.loan_id"
+                + " join m_client c on c.id = l.client_id join m_office o on o.id = c.office_id"
+                + " left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id"
+                + " where ( o.hierarchy like ? or transferToOffice.hierarchy like ?) and l.loan_status_id = 300"
+                + " and tr.transaction_type_enum = 2 and (tr.is_reversed=0 or tr.manually_adjusted_or_reversed = 1)"
+                + " and tr.transaction_date between ? and ?";
+        final BigDecimal totalRepayment = this.jdbcTemplate.queryForObject(sql, BigDecimal.class, hierarchySearchString,
+                hierarchySearchString, dateRange.getFormattedFromDateString(), dateRange.getFormattedToDateString());
+        return totalRepayment == null ? BigDecimal.ZERO : totalRepayment;
+    }
+
+    @Override
+    public void populateLoanDetailsInSheetData(final ServiceChargeFinalSheetData sheetData, final ServiceChargeDateRange dateRange) {
+        populateLoanDetails(sheetData, dateRange, getHierarchySearchString());
+    }
+
+    @Override
+    public void populateLoanDetailsInSheetData(final ServiceChargeFinalSheetData sheetData, final ServiceChargeDateRange dateRange,
+            final String officeHierarchy) {
+        populateLoanDetails(sheetData, dateRange, officeHierarchy + "%");
+    }
+
+    private void populateLoanDetails(final ServiceChargeFinalSheetData sheetData, final ServiceChargeDateRange dateRange,
+            final String hierarchySearchString) {
+        final BigDecimal[] totals = new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO };
+        final int[] noOfDL = new int[] { 0 };
+        processLoanAggregates(dateRange, hierarchySearchString, null, null, new LoanAggregateHandler() {
+
+            @Override
+            public void handle(ServiceChargeLoanAggregateData loanAggregate) {
+                if (!loanAggregate.isDemandLoan()) {
+                    totals[1] = totals[1].add(loanAggregate.getTotalOutstanding());
+                } else {
+                    if (loanAggregate.isDisbursedInRange()) {
+                        noOfDL[0]++;
+                    }
+                    totals[0] = totals[0].add(loanAggregate.getTotalOutstanding());
+                }
+                totals[2] = totals[2].add(loanAggregate.getTotalRepayments());
+            }
+        });
+        sheetData.setNoOfDemandLoans(noOfDL[0]);
+        sheetData.setLoanOutstandingAmount(totals[0], totals[1]);
+        sheetData.addTotalLoanRepaymentAmount(totals[2]);
+        logger.debug("ServiceChargeLoanAggregationReadPlatformServiceImpl.populateLoanDetailsInSheetData::totalOutstanding DL Amount:"
+                + totals[0] + " Non DL Amount:" + totals[1] + " Repayments:" + totals[2] + " No of DL:" + noOfDL[0]);
+    }
+
+    /**
+     * Runs the aggregation in three grouped passes: the demand loan products,
+     * the principal repaid per loan per day and finally the loans themselves.
+     * The loans are streamed through the handler as they are read so that
+     * only the repayments of the range are held in memory
+     */
+    private void processLoanAggregates(final ServiceChargeDateRange dateRange, final String hierarchySearchString,
+            final Long loanProductId, final Long loanId, final LoanAggregateHandler handler) {
+        final String startDate = dateRange.getFormattedFromDateString();
+        final String endDate = dateRange.getFormattedToDateString();
+        final Date fromDate = dateRange.getFromDateForCurrentYear();
+        final Date toDate = dateRange.getToDateForCurrentYear();
+        final StringBuilder loanCriteriaBuilder = new StringBuilder(LOANS_IN_RANGE_CRITERIA);
+        final List<Object> loanCriteriaParamList = new ArrayList<>();
+        loanCriteriaParamList.add(hierarchySearchString);
+        loanCriteriaParamList.add(hierarchySearchString);
+        loanCriteriaParamList.add(startDate);
+        loanCriteriaParamList.add(endDate);
+        loanCriteriaParamList.add(endDate);
+        if (loanProductId != null) {
+            loanCriteriaBuilder.append(" and l.product_id = ?");
+            loanCriteriaParamList.add(loanProductId);
+        }
+        if (loanId != null) {
+            loanCriteriaBuilder.append(" and l.id = ?");
+            loanCriteriaParamList.add(loanId);
+        }
+        final String loanCriteria = loanCriteriaBuilder.toString();
+        final Object[] loanCriteriaParams = loanCriteriaParamList.toArray();
+
+        final Set<Long> demandLoanProductIds = retrieveDemandLoanProductIds();
+        final Map<Long, NavigableMap<Date, BigDecimal>> dailyRepayments = retrieveDailyPrincipalRepayments(loanCriteria,
+                loanCriteriaParams, startDate, endDate);
+        logger.debug("ServiceChargeLoanAggregationReadPlatformServiceImpl.processLoanAggregates::DL products:" + demandLoanProductIds
+                + " loans with repayments:" + dailyRepayments.size());
+
+        final ServiceChargeLoanSummaryFactory loanSummaryFactory = new ServiceChargeLoanSummaryFactory();
+        final LoanAggregateMapper rm = new LoanAggregateMapper();
+        final String sql = "select " + rm.schema() + loanCriteria;
+        this.jdbcTemplate.query(sql, loanCriteriaParams, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                final SCLoanAccountData loanAccData = rm.mapRow(rs);
+                final boolean isDemandLoan = demandLoanProductIds.contains(loanAccData.getLoanProductId());
+                final ServiceChargeLoanProductSummary loanSummary = loanSummaryFactory.createLoanSummaryObject(dateRange, loanAccData,
+                        isDemandLoan, dailyRepayments.get(loanAccData.getId()));
+                final Date dateDisbursement = loanSummary.getDisbursmentDate();
+                final boolean disbursedInRange = dateDisbursement.compareTo(fromDate) >= 0 && dateDisbursement.compareTo(toDate) <= 0;
+                final BigDecimal principalDisbursed = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "principalDisbursed");
+
+                handler.handle(ServiceChargeLoanAggregateData.instance(loanAccData.getId(), loanAccData.getLoanProductId(), isDemandLoan,
+                        dateDisbursement, disbursedInRange, principalDisbursed, loanSummary.getTotalRepayments(),
+                        loanSummary.getTotalOutstanding()));
+            }
+        });
+    }
+
+    private Set<Long> retrieveDemandLoanProductIds() {
+        final String sql = "select distinct plc.product_loan_id from m_product_loan_charge plc join m_charge ch on ch.id = plc.charge_id"
+                + " where ch.is_deleted=false and ch.is_active=true and ch.name = ?";
+        return new HashSet<>(this.jdbcTemplate.queryForList(sql, Long.class, SERVICE_CHARGE_NAME));
+    }
+
+    private Map<Long, NavigableMap<Date, BigDecimal>> retrieveDailyPrincipalRepayments(final String loanCriteria,
+            final Object[] loanCriteriaParams, final String startDate, final String endDate) {
+        final Map<Long, NavigableMap<Date, BigDecimal>> dailyRepayments = new HashMap<>();
+        final String sql = "select tr.loan_id as loanId, tr.transaction_date as transactionDate,"
+                + " sum(tr.principal_portion_derived) as principalPortion from m_loan_transaction tr"
+                + " where tr.transaction_type_enum = 2 and (tr.is_reversed=0 or tr.manually_adjusted_or_reversed = 1)"
+                + " and tr.transaction_date between ? and ? and tr.loan_id in (select l.id" + loanCriteria + ")"
+                + " group by tr.loan_id, tr.transaction_date";
+        final Object[] params = new Object[loanCriteriaParams.length + 2];
+        params[0] = startDate;
+        params[1] = endDate;
+        System.arraycopy(loanCriteriaParams, 0, params, 2, loanCriteriaParams.length);
+
+        this.jdbcTemplate.query(sql, params, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                final Long loanId = rs.getLong("loanId");
+                final LocalDate transactionDate = JdbcSupport.getLocalDate(rs, "transactionDate");
+                final BigDecimal principalPortion = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "principalPortion");
+                NavigableMap<Date, BigDecimal> loanRepayments = dailyRepayments.get(loanId);
+                if (loanRepayments == null) {
+                    loanRepayments = new TreeMap<>();
+                    dailyRepayments.put(loanId, loanRepayments);
+                }
+                loanRepayments.put(transactionDate.toDate(), principalPortion);
+            }
+        });
+        return dailyRepayments;
+    }
+
+    private String getHierarchySearchString() {
+        final AppUser currentUser = this.context.authenticatedUser();
+        final String hierarchy = currentUser.getOffice().getHierarchy();
+        return hierarchy + "%";
+    }
+
+    /**
+     * Callback through which the per-loan aggregates are handed over as soon
+     * as they are computed
+     */
+    private interface LoanAggregateHandler {
+
+        void handle(ServiceChargeLoanAggregateData loanAggregate);
+    }
+
+    private static final class LoanAggregateMapper {
+
+        public String schema() {
+            return "l.id as id, l.product_id as loanProductId, l.client_id as clientId,"
+                    + " l.principal_outstanding_derived as principalOutstanding, l.approved_principal as approvedPrincipal,"
+                    + " l.principal_disbursed_derived as principalDisbursed,"
+                    + " l.total_charges_due_at_disbursement_derived as feeChargesDueAtDisbursementCharged,"
+                    + " l.expected_disbursedon_date as expectedDisbursementDate, l.disbursedon_date as actualDisbursementDate";
+        }
+
+        public SCLoanAccountData mapRow(final ResultSet rs) throws SQLException {
+            final Long id = rs.getLong("id");
+            final Long loanProductId = JdbcSupport.getLong(rs, "loanProductId");
+            final Long clientId = JdbcSupport.getLong(rs, "clientId");
+            final BigDecimal principalOutstanding = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "principalOutstanding");
+            final BigDecimal approvedPrincipal = rs.getBigDecimal("approvedPrincipal");
+            final BigDecimal feeChargesDueAtDisbursementCharged = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs,
+                    "feeChargesDueAtDisbursementCharged");
+            final LocalDate expectedDisbursementDate = JdbcSupport.getLocalDate(rs, "expectedDisbursementDate");
+            final LocalDate actualDisbursementDate = JdbcSupport.getLocalDate(rs, "actualDisbursementDate");
+
+            return SCLoanAccountData.SCLoanDetails(id, loanProductId, principalOutstanding, approvedPrincipal, clientId,
+                    feeChargesDueAtDisbursementCharged, expectedDisbursementDate, actualDisbursementDate);
+        }
+    }
+}
@@ -67,8 +67,6 @@ import org.apache.fineract.portfolio.paymenttype.data.PaymentTypeData;
 import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeApiConstants;
 import org.apache.fineract.portfolio.servicecharge.data.SCLoanAccountData;
 import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
-import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanProductSummary;
-import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeLoanSummaryFactory;
 import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeOperationUtils;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
 import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRangeFactory;
@@ -93,18 +91,21 @@ public class ServiceChargeLoanDetailsReadPlatformServiceImpl
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
+    private final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService;
     private final SCLoanMapper loaanLoanMapper = new SCLoanMapper();
     private final PaginationHelper<SCLoanAccountData> paginationHelper = new PaginationHelper<>();
 
     @Autowired
     public ServiceChargeLoanDetailsReadPlatformServiceImpl(LoanReadPlatformService loanReadPlatformService,
             LoanChargeReadPlatformService loanChargeReadPlatformService, final LoanProductReadPlatformService readPlatformService,
-            final RoutingDataSource dataSource, final PlatformSecurityContext context) {
+            final RoutingDataSource dataSource, final PlatformSecurityContext context,
+            final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanChargeReadPlatformService = loanChargeReadPlatformService;
         this.loanProductReadPlatformService = readPlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.context = context;
+        this.scLoanAggregationReadPlatformService = scLoanAggregationReadPlatformService;
     }
 
     public BigDecimal getTotalLoansForCurrentQuarter() {
@@ -129,66 +130,10 @@ public class ServiceChargeLoanDetailsReadPlatformServiceImpl
     }
 
     public BigDecimal getAllLoansRepaymentData() throws Exception {
-
-        BigDecimal totalRepayment = new BigDecimal("0");
-
         // Get the dates
         ServiceChargeDateRange quarter = ServiceChargeDateRangeFactory.getCurrentDateRange();
-        String startDate = quarter.getFormattedFromDateString();
-        String endDate = quarter.getFormattedToDateString();
-
-        final SearchParameters searchParameters = SearchParameters.forLoans(null, null, 0, -1, null, null, null);
-        Page<LoanAccountData> loanAccountData = null;
-        try {
-            loanAccountData = loanReadPlatformService.retrieveAll(searchParameters);
-        } catch (Exception e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
-
-        int dataListSize = loanAccountData.getPageItems().size();
-        logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::Total number of accounts" + dataListSize);
-        for (int i = 0; i < dataListSize; i++) {
-
-            try {
-                Long loanId = loanAccountData.getPageItems().get(i).getId();
-                if (!loanAccountData.getPageItems().get(i).isActive()) {
-                    logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::Loan ID:" + loanId
-                            + " is inactive!");
-                    continue;
-                }
-                logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::The loan id is " + loanId);
-                final Collection<LoanTransactionData> currentLoanRepayments = retrieveLoanTransactionsMonthlyPayments(
-                        loanAccountData.getPageItems().get(i).getId(), startDate, endDate);
-
-                for (LoanTransactionData loanTransactionData : currentLoanRepayments) {
-                    BigDecimal repaymentAmount = loanTransactionData.getAmount();
-                    logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::Date = "
-                            + loanTransactionData.dateOf() + "  Repayment Amount = " + repaymentAmount);
-
-                    // perform add operation on bg1 with augend bg2 and context
-                    // mc
-                    totalRepayment = totalRepayment.add(repaymentAmount);
-
-                    logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::Partial totalRepayment:"
-                            + totalRepayment.toPlainString());
-                }
-
-                /*
-                 * Get Loan Charge Name - TODO: Need to decide if we need to
-                 * identify the loan type String loanCharges =
-                 * getLoanChargeName(loanAccountData.getPageItems().get(i).getId
-                 * ()); logger.
-                 * debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::Loan Charge Name:"
-                 * + loanCharges);
-                 */
-
-            } catch (Exception e) {
-                // Exception on a particular loan is ignored and continue to
-                // calculate
-                e.printStackTrace();
-            }
-        }
+        // Summed up across all the active loans in a single query
+        BigDecimal totalRepayment = this.scLoanAggregationReadPlatformService.retrieveTotalRepaymentsOfActiveLoans(quarter);
         logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.getAllLoansRepaymentData::totalRepayment:"
                 + totalRepayment.toPlainString());
 
@@ -209,70 +154,15 @@ public class ServiceChargeLoanDetailsReadPlatformServiceImpl
 
     public void populateRepaymentsInSheetData(ServiceChargeFinalSheetData sheetData) {
         logger.debug("entered into ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData");
-        BigDecimal dLtotalOutstandingAmount = BigDecimal.ZERO;
-        BigDecimal nDLtotalOutstandingAmount = BigDecimal.ZERO;
-        int noOfDL = 0;
         // Get the dates
         ServiceChargeDateRange quarter = ServiceChargeDateRangeFactory.getCurrentDateRange();
-        String strStartDate = quarter.getFormattedFromDateString();
-        String strEndDate = quarter.getFormattedToDateString();
-        Date startDate = quarter.getFromDateForCurrentYear();
-        Date endDate = quarter.getToDateForCurrentYear();
-
-        final SearchParameters searchParameters = SearchParameters.forLoans(null, null, 0, -1, null, null, null);
-        Page<SCLoanAccountData> loanAccountDataForOutstandingAmount = null;
-        try {
-            loanAccountDataForOutstandingAmount = retrieveLoansToBeConsideredForTheQuarter(searchParameters, strStartDate, strEndDate);
-        } catch (Exception e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
-        ServiceChargeLoanSummaryFactory loanSummaryFactory = new ServiceChargeLoanSummaryFactory();
-        if (loanAccountDataForOutstandingAmount != null) {
-            for (int i = 0; i < loanAccountDataForOutstandingAmount.getPageItems().size(); i++) {
-                SCLoanAccountData loanAccData = loanAccountDataForOutstandingAmount.getPageItems().get(i);
-                LoanProductData loanProduct = loanProductReadPlatformService.retrieveLoanProduct(loanAccData.getLoanProductId());
-
-                // logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData::Total
-                // Outstanding Amount " +
-                // loanAccData.getTotalOutstandingAmount());
-                logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData::Account Loan id "
-                        + loanAccData.getId());
-                // logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData::Outstanding
-                // Amount: " + loanAccData.getTotalOutstandingAmount());
-                ServiceChargeLoanProductSummary loanSummary = loanSummaryFactory.getLoanSummaryObject(this, loanAccData, loanProduct);
-                if (!loanSummary.isDemandLaon()) {
-                    nDLtotalOutstandingAmount = nDLtotalOutstandingAmount.add(loanSummary.getTotalOutstanding());
-                } else {
-                    Date dateDisbursement = loanSummary.getDisbursmentDate();
-                    if (dateDisbursement.compareTo(startDate) >= 0 && dateDisbursement.compareTo(endDate) <= 0) {
-                        noOfDL++;
-                    }
-                    dLtotalOutstandingAmount = dLtotalOutstandingAmount.add(loanSummary.getTotalOutstanding());
-                }
-                // Add the repayments amount of this loan to sheet data
-                sheetData.addTotalLoanRepaymentAmount(loanSummary.getTotalRepayments());
-            } // End of for-loop
-        } // End of (loanAccountDataForOutstandingAmount != null)
-        sheetData.setNoOfDemandLoans(noOfDL);
-        /*
-         * This division need not be done in case of daily outstanding
-         * calculation but in case of Monthly outstanding then a divsion by
-         * fixed number (3) is applicable only on a quarterly based calculation
-         */
-        // nDLtotalOutstandingAmount = nDLtotalOutstandingAmount.divide(new
-        // BigDecimal(3), roundingMode);
-        // dLtotalOutstandingAmount = dLtotalOutstandingAmount.divide(new
-        // BigDecimal(3), roundingMode);
-        sheetData.setLoanOutstandingAmount(dLtotalOutstandingAmount, nDLtotalOutstandingAmount);
+        // All the loans of the range are aggregated set-wise rather than
+        // querying the repayments and product of each loan individually
+        this.scLoanAggregationReadPlatformService.populateLoanDetailsInSheetData(sheetData, quarter);
         logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData::totalOutstanding DL Amount:"
-                + dLtotalOutstandingAmount);
+                + sheetData.getDlOutstandingAmount());
         logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData::totalOutstanding Non DL Amount:"
-                + nDLtotalOutstandingAmount);
-        logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData:: DL Monthly cost list:"
-                + loanSummaryFactory.getMonthWiseOutstandingAmount(true));
-        logger.debug("ServiceChargeLoanDetailsReadPlatformServiceImpl.populateRepaymentsInSheetData:: Non-DL Monthly cost list:"
-                + loanSummaryFactory.getMonthWiseOutstandingAmount(false));
+                + sheetData.getNDlOutstandingAmount());
     }
 
     public void getRepaymentsInSheetData(ServiceChargeFinalSheetData sheetData) {
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.service;
+
+import java.util.Date;
+
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeSheetSnapshotData;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
+
+/**
+ * Maintains the persisted snapshot of the service charge sheet inputs, one row
+ * per (quarter, year, calculation method). Journal entries are folded into the
+ * expense tag totals incrementally using the id of the last journal entry
+ * applied, while loan transactions mark the loan figures of the affected
+ * ranges as stale so that they get recomputed on the next read
+ */
+public interface ServiceChargeSheetSnapshotPlatformService {
+
+    /**
+     * Retrieves the snapshot for the given date range after bringing it up to
+     * date with the journal entries and loan transactions posted since it was
+     * last read. The row is created on first access
+     * 
+     * @param dateRange
+     * @return ServiceChargeSheetSnapshotData
+     */
+    ServiceChargeSheetSnapshotData retrieveSnapshot(ServiceChargeDateRange dateRange);
+
+    /**
+     * Marks the loan figures of every snapshot whose range ends on or after the
+     * given date as stale. Passing null marks all the snapshots
+     * 
+     * @param transactionDate
+     */
+    void markLoanDataStale(Date transactionDate);
+
+    /**
+     * Discards the expense tag totals of all the snapshots so that they get
+     * rebuilt from the journal entries on the next read. To be used when the
+     * GL accounts contributing to the totals change
+     */
+    void resetJournalEntryTotals();
+}
@@ -0,0 +1,450 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.fineract.accounting.glaccount.data.GLAccountData;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
+import org.apache.fineract.accounting.glaccount.service.GLAccountReadPlatformService;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryReadPlatformService;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.common.service.BusinessEventListner;
+import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.servicecharge.constants.GLExpenseTagsForServiceCharge;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeFinalSheetData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeSheetSnapshotData;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ServiceChargeSheetSnapshotPlatformServiceImpl implements ServiceChargeSheetSnapshotPlatformService {
+
+    private final static Logger logger = LoggerFactory.getLogger(ServiceChargeSheetSnapshotPlatformServiceImpl.class);
+
+    // The sheet is computed for the organisation as a whole
+    private static final String HEAD_OFFICE_HIERARCHY = ".";
+
+    // Loan events that can change the repayments or outstanding of a range
+    private static final BUSINESS_EVENTS[] LOAN_EVENTS = new BUSINESS_EVENTS[] { BUSINESS_EVENTS.LOAN_DISBURSAL,
+            BUSINESS_EVENTS.LOAN_UNDO_DISBURSAL, BUSINESS_EVENTS.LOAN_UNDO_LASTDISBURSAL, BUSINESS_EVENTS.LOAN_MAKE_REPAYMENT,
+            BUSINESS_EVENTS.LOAN_UNDO_TRANSACTION, BUSINESS_EVENTS.LOAN_ADJUST_TRANSACTION, BUSINESS_EVENTS.LOAN_WRITTEN_OFF,
+            BUSINESS_EVENTS.LOAN_UNDO_WRITTEN_OFF, BUSINESS_EVENTS.LOAN_CLOSE, BUSINESS_EVENTS.LOAN_CLOSE_AS_RESCHEDULE,
+            BUSINESS_EVENTS.LOAN_REFUND, BUSINESS_EVENTS.LOAN_FORECLOSURE };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long journalEntrySafetyWindowMillis;
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService;
+    private final JournalEntryReadPlatformService journalEntryReadPlatformService;
+    private final GLAccountReadPlatformService glAccountReadPlatformService;
+
+    @Autowired
+    public ServiceChargeSheetSnapshotPlatformServiceImpl(final RoutingDataSource dataSource,
+            final BusinessEventNotifierService businessEventNotifierService,
+            final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService,
+            final JournalEntryReadPlatformService journalEntryReadPlatformService,
+            final GLAccountReadPlatformService glAccountReadPlatformService, final PlatformTransactionManager transactionManager,
+            @Value("${fineract.servicecharge.journal.safety.window.minutes:10}") final long journalEntrySafetyWindowMinutes) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // writes to the snapshot are committed on their own so that its row
+        // is not held locked by the transaction of the caller
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.journalEntrySafetyWindowMillis = TimeUnit.MINUTES.toMillis(journalEntrySafetyWindowMinutes);
+        this.businessEventNotifierService = businessEventNotifierService;
+        this.scLoanAggregationReadPlatformService = scLoanAggregationReadPlatformService;
+        this.journalEntryReadPlatformService = journalEntryReadPlatformService;
+        this.glAccountReadPlatformService = glAccountReadPlatformService;
+    }
+
+    @PostConstruct
+    public void addListners() {
+        final LoanTransactionListener listener = new LoanTransactionListener();
+        for (final BUSINESS_EVENTS event : LOAN_EVENTS) {
+            this.businessEventNotifierService.addBusinessEventPostListners(event, listener);
+        }
+    }
+
+    /**
+     * Nothing is locked while the snapshot is brought up to date. Each write
+     * runs in its own short transaction and only goes through when the row
+     * has not moved on since it was read: the journal entry watermark for the
+     * expense tag totals and the loan data version for the loan figures.
+     */
+    @Override
+    public ServiceChargeSheetSnapshotData retrieveSnapshot(final ServiceChargeDateRange dateRange) {
+        final int quarter = dateRange.getId();
+        final int year = getYear(dateRange);
+        final int calculationMethod = dateRange.getChargeCalculationMethodEnum().getRangeCode();
+
+        ServiceChargeSheetSnapshotData snapshot = retrieveSnapshot(quarter, year, calculationMethod);
+        if (snapshot == null) {
+            final String sql = "insert ignore into m_loan_service_charge_sheet (sc_quarter, sc_year, sc_calculation_method, from_date,"
+                    + " to_date, lastmodified_date) values (?, ?, ?, ?, ?, ?)";
+            this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    ServiceChargeSheetSnapshotPlatformServiceImpl.this.jdbcTemplate.update(sql, quarter, year, calculationMethod,
+                            dateRange.getFormattedFromDateString(), dateRange.getFormattedToDateString(), DateUtils.getDateOfTenant());
+                }
+            });
+            snapshot = retrieveSnapshot(quarter, year, calculationMethod);
+        }
+
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        final boolean isComputedToday = snapshot.getLoanDataComputedOn() != null
+                && today.isEqual(new LocalDate(snapshot.getLoanDataComputedOn()));
+        if (!isComputedToday || snapshot.isLoanDataStale()) {
+            // The daily outstanding of a running range grows with the days
+            // elapsed, so the loan figures are recomputed at least once a
+            // day. The expense tag totals are rebuilt along with them so that
+            // journal entries committed behind the watermark are picked up
+            final Long claimedVersion = claimLoanDataRefresh(snapshot, today, !isComputedToday);
+            if (claimedVersion != null) {
+                refreshLoanData(snapshot.getId(), dateRange, claimedVersion);
+            }
+            snapshot = retrieveSnapshot(quarter, year, calculationMethod);
+        }
+
+        if (applyNewJournalEntries(snapshot, dateRange)) {
+            snapshot = retrieveSnapshot(quarter, year, calculationMethod);
+        }
+        return plusUnsettledJournalEntries(snapshot, dateRange);
+    }
+
+    @Override
+    public void markLoanDataStale(final Date transactionDate) {
+        // Look up the rows with a plain read first so that the loan
+        // transactions do not contend on snapshots that are already stale
+        final List<Long> snapshotIds;
+        if (transactionDate == null) {
+            snapshotIds = this.jdbcTemplate.queryForList("select id from m_loan_service_charge_sheet where is_loan_data_stale = 0",
+                    Long.class);
+        } else {
+            snapshotIds = this.jdbcTemplate.queryForList(
+                    "select id from m_loan_service_charge_sheet where is_loan_data_stale = 0 and to_date >= ?", Long.class,
+                    DateUtils.formatToSqlDate(transactionDate));
+        }
+        // Moving the version on makes a refresh that is already running
+        // discard its figures, as they may not include this transaction
+        final String sql = "update m_loan_service_charge_sheet set is_loan_data_stale = 1, loan_data_version = loan_data_version + 1"
+                + " where id = ? and is_loan_data_stale = 0";
+        for (final Long snapshotId : snapshotIds) {
+            this.jdbcTemplate.update(sql, snapshotId);
+        }
+    }
+
+    @Override
+    public void resetJournalEntryTotals() {
+        final String sql = "update m_loan_service_charge_sheet set mobilization_amount = 0, servicing_amount = 0, investment_amount = 0,"
+                + " overheads_amount = 0, provisions_amount = 0, bf_servicing_amount = 0, last_journal_entry_id = 0";
+        this.jdbcTemplate.update(sql);
+    }
+
+    /**
+     * Adds the net amount (debits minus credits) of the journal entries posted
+     * after the last applied journal entry to the expense tag totals. Journal
+     * entries are never updated in place, a reversal is posted as a new entry,
+     * so the totals stay exact by only looking at the new ids.
+     * 
+     * Ids are handed out when an entry is inserted rather than when it is
+     * committed, so the watermark is only moved up to entries created longer
+     * ago than the safety window. Entries past the watermark are added on read
+     * by {@link #plusUnsettledJournalEntries}.
+     */
+    private boolean applyNewJournalEntries(final ServiceChargeSheetSnapshotData snapshot, final ServiceChargeDateRange dateRange) {
+        final Long settledJournalEntryId = retrieveLastSettledJournalEntryId();
+        if (settledJournalEntryId == null || settledJournalEntryId <= snapshot.getLastJournalEntryId()) { return false; }
+
+        final Map<GLExpenseTagsForServiceCharge, BigDecimal> tagAmounts = retrieveExpenseTagAmounts(dateRange,
+                snapshot.getLastJournalEntryId(), settledJournalEntryId);
+        logger.debug("ServiceChargeSheetSnapshotPlatformServiceImpl.applyNewJournalEntries::journal entries from "
+                + snapshot.getLastJournalEntryId() + " to " + settledJournalEntryId + " tag amounts:" + tagAmounts);
+
+        final String updateSql = "update m_loan_service_charge_sheet set mobilization_amount = mobilization_amount + ?,"
+                + " servicing_amount = servicing_amount + ?, investment_amount = investment_amount + ?,"
+                + " overheads_amount = overheads_amount + ?, provisions_amount = provisions_amount + ?,"
+                + " bf_servicing_amount = bf_servicing_amount + ?, last_journal_entry_id = ?, lastmodified_date = ?"
+                + " where id = ? and last_journal_entry_id = ?";
+        // another reader may have applied the same entries in the meantime,
+        // in which case the watermark has moved and nothing is added
+        final Integer updated = this.transactionTemplate.execute(new TransactionCallback<Integer>() {
+
+            @Override
+            public Integer doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                return ServiceChargeSheetSnapshotPlatformServiceImpl.this.jdbcTemplate.update(updateSql,
+                        tagAmounts.get(GLExpenseTagsForServiceCharge.MOBILIZATION),
+                        tagAmounts.get(GLExpenseTagsForServiceCharge.SERVICING), tagAmounts.get(GLExpenseTagsForServiceCharge.INVESTMENT),
+                        tagAmounts.get(GLExpenseTagsForServiceCharge.OVERHEADS),
+                        tagAmounts.get(GLExpenseTagsForServiceCharge.PROVISIONS),
+                        tagAmounts.get(GLExpenseTagsForServiceCharge.BFSERVICING), settledJournalEntryId, DateUtils.getDateOfTenant(),
+                        snapshot.getId(), snapshot.getLastJournalEntryId());
+            }
+        });
+        return updated > 0;
+    }
+
+    /**
+     * Adds the journal entries past the watermark to the expense tag totals of
+     * the returned snapshot without persisting them, so that entries posted
+     * within the safety window are not missed
+     */
+    private ServiceChargeSheetSnapshotData plusUnsettledJournalEntries(final ServiceChargeSheetSnapshotData snapshot,
+            final ServiceChargeDateRange dateRange) {
+        final Map<GLExpenseTagsForServiceCharge, BigDecimal> tagAmounts = retrieveExpenseTagAmounts(dateRange,
+                snapshot.getLastJournalEntryId(), null);
+        return snapshot.plusJournalEntryAmounts(tagAmounts.get(GLExpenseTagsForServiceCharge.MOBILIZATION),
+                tagAmounts.get(GLExpenseTagsForServiceCharge.SERVICING), tagAmounts.get(GLExpenseTagsForServiceCharge.INVESTMENT),
+                tagAmounts.get(GLExpenseTagsForServiceCharge.OVERHEADS), tagAmounts.get(GLExpenseTagsForServiceCharge.PROVISIONS),
+                tagAmounts.get(GLExpenseTagsForServiceCharge.BFSERVICING));
+    }
+
+    /**
+     * Net amount of each tagged GL account in one grouped query, rolled up to
+     * the tags afterwards
+     */
+    private Map<GLExpenseTagsForServiceCharge, BigDecimal> retrieveExpenseTagAmounts(final ServiceChargeDateRange dateRange,
+            final Long afterJournalEntryId, final Long uptoJournalEntryId) {
+        final Map<Long, GLExpenseTagsForServiceCharge> glAccountTags = retrieveExpenseTagsOfGLAccounts();
+        final Map<Long, BigDecimal> glAccountAmounts = this.journalEntryReadPlatformService.retrieveNetAmountsOfGLAccounts(
+                glAccountTags.keySet(), true, dateRange.getFromDateForCurrentYear(), dateRange.getToDateForCurrentYear(),
+                afterJournalEntryId, uptoJournalEntryId);
+        final Map<GLExpenseTagsForServiceCharge, BigDecimal> tagAmounts = new HashMap<>();
+        for (final GLExpenseTagsForServiceCharge tag : GLExpenseTagsForServiceCharge.values()) {
+            tagAmounts.put(tag, BigDecimal.ZERO);
+        }
+        for (final Map.Entry<Long, BigDecimal> glAccountAmount : glAccountAmounts.entrySet()) {
+            final GLExpenseTagsForServiceCharge tag = glAccountTags.get(glAccountAmount.getKey());
+            tagAmounts.put(tag, tagAmounts.get(tag).add(glAccountAmount.getValue()));
+        }
+        return tagAmounts;
+    }
+
+    /**
+     * @return id of the latest journal entry created before the safety
+     *         window, or null if there is none
+     */
+    private Long retrieveLastSettledJournalEntryId() {
+        final Date settledBefore = new Date(System.currentTimeMillis() - this.journalEntrySafetyWindowMillis);
+        final List<Long> journalEntryIds = this.jdbcTemplate.queryForList(
+                "select id from acc_gl_journal_entry where created_date <= ? order by id desc limit 1", Long.class, settledBefore);
+        return journalEntryIds.isEmpty() ? null : journalEntryIds.get(0);
+    }
+
+    /**
+     * Claims the refresh of the loan figures by moving the loan data version
+     * on, provided no other reader has done so since the snapshot was read.
+     * The row is only locked for this update, the figures are aggregated after
+     * it has been committed.
+     * 
+     * @return the claimed version, or null when another reader claimed first
+     */
+    private Long claimLoanDataRefresh(final ServiceChargeSheetSnapshotData snapshot, final LocalDate today,
+            final boolean resetJournalEntryTotals) {
+        final StringBuilder sqlBuilder = new StringBuilder(300);
+        sqlBuilder.append("update m_loan_service_charge_sheet set is_loan_data_stale = 0, loan_data_computed_on = ?,");
+        sqlBuilder.append(" loan_data_version = loan_data_version + 1");
+        if (resetJournalEntryTotals) {
+            sqlBuilder.append(", mobilization_amount = 0, servicing_amount = 0, investment_amount = 0, overheads_amount = 0,");
+            sqlBuilder.append(" provisions_amount = 0, bf_servicing_amount = 0, last_journal_entry_id = 0");
+        }
+        sqlBuilder.append(" where id = ? and loan_data_version = ?");
+        final Integer updated = this.transactionTemplate.execute(new TransactionCallback<Integer>() {
+
+            @Override
+            public Integer doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                return ServiceChargeSheetSnapshotPlatformServiceImpl.this.jdbcTemplate.update(sqlBuilder.toString(),
+                        DateUtils.formatToSqlDate(today.toDate()), snapshot.getId(), snapshot.getLoanDataVersion());
+            }
+        });
+        return updated > 0 ? snapshot.getLoanDataVersion() + 1 : null;
+    }
+
+    /**
+     * Aggregates the loan figures outside any transaction of the snapshot and
+     * stores them only if the version is still the claimed one. A loan
+     * transaction that marked the range stale in the meantime moved the
+     * version on, so the row stays stale and is refreshed on the next read.
+     */
+    private void refreshLoanData(final Long snapshotId, final ServiceChargeDateRange dateRange, final Long claimedVersion) {
+        final ServiceChargeFinalSheetData loanSheetData = new ServiceChargeFinalSheetData();
+        try {
+            this.scLoanAggregationReadPlatformService.populateLoanDetailsInSheetData(loanSheetData, dateRange, HEAD_OFFICE_HIERARCHY);
+        } catch (final RuntimeException e) {
+            // hand the refresh back so that the next read retries it
+            this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    ServiceChargeSheetSnapshotPlatformServiceImpl.this.jdbcTemplate.update(
+                            "update m_loan_service_charge_sheet set is_loan_data_stale = 1 where id = ? and loan_data_version = ?",
+                            snapshotId, claimedVersion);
+                }
+            });
+            throw e;
+        }
+
+        final String sql = "update m_loan_service_charge_sheet set dl_outstanding_amount = ?, ndl_outstanding_amount = ?,"
+                + " total_repayment_amount = ?, no_of_demand_loans = ?, lastmodified_date = ? where id = ? and loan_data_version = ?";
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                ServiceChargeSheetSnapshotPlatformServiceImpl.this.jdbcTemplate.update(sql, loanSheetData.getDlOutstandingAmount(),
+                        loanSheetData.getNDlOutstandingAmount(), loanSheetData.getTotalLoanRepaymentAmount(),
+                        loanSheetData.getNoOfDemandLoans(), DateUtils.getDateOfTenant(), snapshotId, claimedVersion);
+            }
+        });
+    }
+
+    private ServiceChargeSheetSnapshotData retrieveSnapshot(final int quarter, final int year, final int calculationMethod) {
+        final SheetSnapshotMapper rm = new SheetSnapshotMapper();
+        final String sql = "select " + rm.schema() + " where s.sc_quarter = ? and s.sc_year = ? and s.sc_calculation_method = ?";
+        final List<ServiceChargeSheetSnapshotData> snapshots = this.jdbcTemplate.query(sql, rm,
+                new Object[] { quarter, year, calculationMethod });
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    /**
+     * Maps the enabled detail expense GL accounts to the service charge tag
+     * they are tagged with. Untagged accounts and accounts with other tags are
+     * left out
+     */
+    private Map<Long, GLExpenseTagsForServiceCharge> retrieveExpenseTagsOfGLAccounts() {
+        final Map<String, GLExpenseTagsForServiceCharge> tagsByCode = new HashMap<>();
+        for (final GLExpenseTagsForServiceCharge tag : GLExpenseTagsForServiceCharge.values()) {
+            tagsByCode.put(tag.getCode(), tag);
+        }
+        final Map<Long, GLExpenseTagsForServiceCharge> glAccountTags = new HashMap<>();
+        for (final GLAccountData glAccount : this.glAccountReadPlatformService.retrieveAllEnabledDetailGLAccounts(GLAccountType.EXPENSE)) {
+            if (glAccount.getTagId() != null && glAccount.getTagId().getName() != null) {
+                final GLExpenseTagsForServiceCharge tag = tagsByCode.get(glAccount.getTagId().getName());
+                if (tag != null) {
+                    glAccountTags.put(glAccount.getId(), tag);
+                }
+            }
+        }
+        return glAccountTags;
+    }
+
+    private static int getYear(final ServiceChargeDateRange dateRange) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTime(dateRange.getFromDateForCurrentYear());
+        return calendar.get(Calendar.YEAR);
+    }
+
+    private class LoanTransactionListener implements BusinessEventListner {
+
+        @Override
+        public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+            // Nothing to do before the transaction
+        }
+
+        @Override
+        public void businessEventWasExecuted(Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+            Date earliestDate = null;
+            for (final BUSINESS_ENTITY entityType : new BUSINESS_ENTITY[] { BUSINESS_ENTITY.LOAN_TRANSACTION,
+                    BUSINESS_ENTITY.LOAN_ADJUSTED_TRANSACTION }) {
+                final Object entity = businessEventEntity.get(entityType);
+                if (entity instanceof LoanTransaction) {
+                    final Date transactionDate = ((LoanTransaction) entity).getTransactionDate().toDate();
+                    if (earliestDate == null || transactionDate.before(earliestDate)) {
+                        earliestDate = transactionDate;
+                    }
+                }
+            }
+            // Disbursal and closure events only carry the loan, in which case
+            // all the snapshots are marked
+            markLoanDataStale(earliestDate);
+        }
+    }
+
+    private static final class SheetSnapshotMapper implements RowMapper<ServiceChargeSheetSnapshotData> {
+
+        public String schema() {
+            return "s.id as id, s.sc_quarter as quarter, s.sc_year as year, s.sc_calculation_method as calculationMethod,"
+                    + " s.mobilization_amount as mobilizationAmount, s.servicing_amount as servicingAmount,"
+                    + " s.investment_amount as investmentAmount, s.overheads_amount as overheadsAmount,"
+                    + " s.provisions_amount as provisionsAmount, s.bf_servicing_amount as bfServicingAmount,"
+                    + " s.last_journal_entry_id as lastJournalEntryId, s.dl_outstanding_amount as dlOutstandingAmount,"
+                    + " s.ndl_outstanding_amount as ndlOutstandingAmount, s.total_repayment_amount as totalRepaymentAmount,"
+                    + " s.no_of_demand_loans as noOfDemandLoans, s.is_loan_data_stale as loanDataStale,"
+                    + " s.loan_data_computed_on as loanDataComputedOn, s.loan_data_version as loanDataVersion"
+                    + " from m_loan_service_charge_sheet s";
+        }
+
+        @Override
+        public ServiceChargeSheetSnapshotData mapRow(ResultSet rs, @SuppressWarnings("unused") int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final int quarter = rs.getInt("quarter");
+            final int year = rs.getInt("year");
+            final int calculationMethod = rs.getInt("calculationMethod");
+            final BigDecimal mobilizationAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "mobilizationAmount");
+            final BigDecimal servicingAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "servicingAmount");
+            final BigDecimal investmentAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "investmentAmount");
+            final BigDecimal overheadsAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "overheadsAmount");
+            final BigDecimal provisionsAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "provisionsAmount");
+            final BigDecimal bfServicingAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "bfServicingAmount");
+            final Long lastJournalEntryId = rs.getLong("lastJournalEntryId");
+            final BigDecimal dlOutstandingAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "dlOutstandingAmount");
+            final BigDecimal ndlOutstandingAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "ndlOutstandingAmount");
+            final BigDecimal totalRepaymentAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "totalRepaymentAmount");
+            final int noOfDemandLoans = rs.getInt("noOfDemandLoans");
+            final boolean loanDataStale = rs.getBoolean("loanDataStale");
+            final LocalDate loanDataComputedOn = JdbcSupport.getLocalDate(rs, "loanDataComputedOn");
+            final Long loanDataVersion = rs.getLong("loanDataVersion");
+
+            return ServiceChargeSheetSnapshotData.instance(id, quarter, year, calculationMethod, mobilizationAmount, servicingAmount,
+                    investmentAmount, overheadsAmount, provisionsAmount, bfServicingAmount, lastJournalEntryId, dlOutstandingAmount,
+                    ndlOutstandingAmount, totalRepaymentAmount, noOfDemandLoans, loanDataStale,
+                    loanDataComputedOn == null ? null : loanDataComputedOn.toDate(), loanDataVersion);
+        }
+    }
+}
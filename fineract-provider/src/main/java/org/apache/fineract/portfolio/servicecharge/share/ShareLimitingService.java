@@ -32,4 +32,11 @@ public interface ShareLimitingService {
 
     void validateSharesSubscriptionWithPaidupCapital(ShareAccount account, ShareAccountTransaction transaction,
             DataValidatorBuilder baseDataValidator);
+
+    /**
+     * Adds the shares of a redeem transaction to the redemption counter of
+     * its product for the financial year of the transaction. Expected to be
+     * called within the transaction that persists the redemption.
+     */
+    void recordSharesRedemption(ShareAccount account, ShareAccountTransaction transaction);
 }
@@ -18,26 +18,17 @@
  */
 package org.apache.fineract.portfolio.servicecharge.share;
 
-import java.math.BigDecimal;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Collection;
+import java.util.Date;
 
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
-import org.apache.fineract.infrastructure.core.data.EnumOptionData;
-import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
-import org.apache.fineract.portfolio.servicecharge.util.Pair;
 import org.apache.fineract.portfolio.servicecharge.util.ServiceChargeDateUtils;
-import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountTransactionData;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccount;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccountTransaction;
-import org.apache.fineract.portfolio.shareaccounts.service.SharesEnumerations;
-import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 
@@ -107,15 +98,9 @@ public class ShareLimitingServiceImpl implements ShareLimitingService {
                     .failWithCodeNoParameterAddedToErrorCode("shares.redemption.limit.percent.configured.is.greater.than.hundred");
         }
 
-        // Loop over the share transactions
-        Collection<ShareAccountTransactionData> shareProductTransactions = retrieveShareProductAccountRedeemTransactionDataForCurrentFinancialYear(
-                account.getShareProduct().getId());
-        // Now that we have the total share withdrawal transactions, get the sum
-        // of the values
-        Long redeemedShares = new Long(0);
-        for (ShareAccountTransactionData shareAccountTransaction : shareProductTransactions) {
-            redeemedShares += shareAccountTransaction.getNumberOfShares();
-        }
+        // Redemptions of the product in the current financial year are kept
+        // in a counter that is updated along with each redemption
+        Long redeemedShares = retrieveRedeemedSharesForCurrentFinancialYear(account.getShareProduct().getId());
 
         // Final amount on which to check is also includes currently redeem
         // requested shares
@@ -136,78 +121,32 @@ public class ShareLimitingServiceImpl implements ShareLimitingService {
         }
     }
 
-    private Collection<ShareAccountTransactionData> retrieveShareProductAccountRedeemTransactionData(Long productId) {
-        ShareProductAccountTransactionDataRowMapper mapper = new ShareProductAccountTransactionDataRowMapper();
-        // To get only active active transactions is_active = 1 and active
-        // accounts status_enum = 300. See {@link ShareAccountStatusType}
-        final String sql = "select " + mapper.schema()
-                + " where sapr.id = ? and saps.is_active = 1 and sacc.status_enum = 300 and saps.type_enum = 600";
-        return this.jdbcTemplate.query(sql, mapper, new Object[] { productId });
+    @Override
+    public void recordSharesRedemption(final ShareAccount account, final ShareAccountTransaction transaction) {
+        if (!transaction.isRedeemTransaction() || transaction.getTotalShares() == null) { return; }
+
+        final Date financialYearStart = ServiceChargeDateUtils.getFinancialYearStartDate(transaction.getPurchasedDate());
+        final String sql = "insert into m_share_product_redemption_counter (product_id, financial_year_start, redeemed_shares, lastmodified_date)"
+                + " values (?, ?, ?, now()) on duplicate key update redeemed_shares = redeemed_shares + values(redeemed_shares),"
+                + " lastmodified_date = values(lastmodified_date)";
+        this.jdbcTemplate.update(sql, account.getShareProduct().getId(), financialYearStart, transaction.getTotalShares());
     }
 
     /**
-     * Based on the product ID returns the share account transactions only for
-     * the current financial year.<br/>
-     * The conditions are:<br/>
-     * Transaction should be active (is_active = 1) <br/>
-     * Account should be active (status_enum = 300) <br/>
-     * Share transaction should be approved (type_enum = 600) <br/>
+     * Based on the product ID returns the number of shares redeemed in the
+     * current financial year.<br/>
      * 
      * <b>Note</b>: The current financial year here implies from 1st April to
      * 31st March
      * 
      * @param productId
-     * @return Collection of ShareAccountTransactionData
+     * @return number of redeemed shares
      */
-    private Collection<ShareAccountTransactionData> retrieveShareProductAccountRedeemTransactionDataForCurrentFinancialYear(
-            Long productId) {
-        Pair<String, String> currentFinancialYearDatePair = ServiceChargeDateUtils.getCurrentFinancialYearDatePair();
-        ShareProductAccountTransactionDataRowMapper mapper = new ShareProductAccountTransactionDataRowMapper();
-        // To get only active active transactions is_active = 1 and active
-        // accounts status_enum = 300. See {@link ShareAccountStatusType}
-        final String sql = "select " + mapper.schema()
-                + " where sapr.id = ? and saps.is_active = 1 and sacc.status_enum = 300 and saps.type_enum = 600"
-                + " and (transaction_date between '" + currentFinancialYearDatePair.getFirst() + "' and '"
-                + currentFinancialYearDatePair.getSecond() + "')";
-        return this.jdbcTemplate.query(sql, mapper, new Object[] { productId });
-    }
-
-    private final static class ShareProductAccountTransactionDataRowMapper implements RowMapper<ShareAccountTransactionData> {
-
-        private final String schema;
-
-        public ShareProductAccountTransactionDataRowMapper() {
-            StringBuffer buff = new StringBuffer()
-                    .append("saps.id, saps.account_id, saps.transaction_date, saps.total_shares, saps.unit_price, ")
-                    .append("saps.status_enum, saps.type_enum, saps.amount, saps.charge_amount as chargeamount, ")
-                    .append("saps.amount_paid as amountPaid").append(" from m_share_account_transactions saps ")
-                    .append("INNER JOIN m_share_account sacc ON saps.account_id = sacc.id ")
-                    .append("INNER JOIN m_share_product sapr ON sacc.product_id = sapr.id");
-            schema = buff.toString();
-        }
-
-        @Override
-        public ShareAccountTransactionData mapRow(ResultSet rs, int rowNum) throws SQLException {
-            final Long id = rs.getLong("id");
-            final Long accountId = rs.getLong("account_id");
-            final LocalDate purchasedDate = new LocalDate(rs.getDate("transaction_date"));
-            final Long numberOfShares = JdbcSupport.getLong(rs, "total_shares");
-            final BigDecimal purchasedPrice = rs.getBigDecimal("unit_price");
-            final Integer status = rs.getInt("status_enum");
-            final EnumOptionData statusEnum = SharesEnumerations.purchasedSharesEnum(status);
-            final Integer type = rs.getInt("type_enum");
-            final EnumOptionData typeEnum = SharesEnumerations.purchasedSharesEnum(type);
-            final BigDecimal amount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "amount");
-            final BigDecimal chargeAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "chargeamount");
-            final BigDecimal amountPaid = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "amountPaid");
-
-            return new ShareAccountTransactionData(id, accountId, purchasedDate, numberOfShares, purchasedPrice, statusEnum, typeEnum,
-                    amount, chargeAmount, amountPaid);
-        }
-
-        public String schema() {
-            return this.schema;
-        }
+    private Long retrieveRedeemedSharesForCurrentFinancialYear(final Long productId) {
+        final Date financialYearStart = ServiceChargeDateUtils.getFinancialYearStartDate(DateUtils.getDateOfTenant());
+        final String sql = "select ifnull(sum(rc.redeemed_shares), 0) from m_share_product_redemption_counter rc"
+                + " where rc.product_id = ? and rc.financial_year_start = ?";
+        return this.jdbcTemplate.queryForObject(sql, Long.class, productId, financialYearStart);
     }
 
 }
@@ -61,6 +61,25 @@ public class ServiceChargeDateUtils implements ServiceChargeApiConstants {
         return Pair.of(financiyalYearFrom, financiyalYearTo);
     }
 
+    /**
+     * Returns the first day of the financial year (1st April) in which the
+     * given date falls
+     *
+     * @param date
+     * @return Date on which the financial year starts
+     */
+    public static Date getFinancialYearStartDate(final Date date) {
+        final Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        int year = cal.get(Calendar.YEAR);
+        if (cal.get(Calendar.MONTH) < Calendar.APRIL) {
+            year = year - 1;
+        }
+        cal.clear();
+        cal.set(year, Calendar.APRIL, 1);
+        return cal.getTime();
+    }
+
     public static int getDiffBetweenDates(Date beginDate, Date endDate, int offset) {
         Period duration;
         // Get begin LocalDate value
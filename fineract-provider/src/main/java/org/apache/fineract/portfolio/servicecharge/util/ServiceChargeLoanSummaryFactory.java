@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.portfolio.loanaccount.data.LoanAccountData;
@@ -79,6 +80,31 @@ public class ServiceChargeLoanSummaryFactory {
         return loanSummary;
     }
 
+    /**
+     * Variant of getLoanSummaryObject that does not go back to the database.
+     * The repayments of the loan over the date range have to be supplied
+     * already aggregated per day, which allows the summaries of all the loans
+     * to be computed from a single grouped query. The created object is not
+     * held in the map, so that a caller iterating over the whole loan book
+     * does not retain every summary in memory
+     *
+     * @param dateRange
+     *            - date range over which the summary is computed
+     * @param loanAccData
+     *            - loan for which the summary is computed
+     * @param isDemandLoan
+     *            - true if the loan product carries the service charge
+     * @param dailyRepayments
+     *            - principal repaid per day, may be null if there were none
+     * @return ServiceChargeLoanProductSummary
+     */
+    public ServiceChargeLoanProductSummary createLoanSummaryObject(ServiceChargeDateRange dateRange, SCLoanAccountData loanAccData,
+            boolean isDemandLoan, NavigableMap<Date, BigDecimal> dailyRepayments) {
+        LoanSummaryDaily loanSummary = new LoanSummaryDaily();
+        loanSummary.populateOutstandingAndRepaymentAmounts(dateRange, isDemandLoan, loanAccData, dailyRepayments);
+        return loanSummary;
+    }
+
     public List<BigDecimal> getMonthWiseOutstandingAmount(boolean isDemandLoan) {
         List<BigDecimal> result = new LinkedList<>();
         for (Long identifier : loanSummaryObjectMap.keySet()) {
@@ -431,13 +457,51 @@ public class ServiceChargeLoanSummaryFactory {
             return calendar.getTime();
         }
 
-        BigDecimal populateOutstandingAndRepaymentAmounts(ServiceChargeLoanDetailsReadPlatformService scLoanDetailsReadPlatform,
-                LoanProductData loanProduct, SCLoanAccountData loanAccData) {
-            List<BigDecimal> outstanding = new LinkedList<>();
+        BigDecimal populateOutstandingAndRepaymentAmounts(final ServiceChargeLoanDetailsReadPlatformService scLoanDetailsReadPlatform,
+                LoanProductData loanProduct, final SCLoanAccountData loanAccData) {
             // Set the demand loan type
             setDemandLaon(ServiceChargeOperationUtils.checkDemandLaon(loanProduct));
-            // Date details to iterate over
-            ServiceChargeDateRange dateRange = ServiceChargeDateRangeFactory.getCurrentDateRange();
+            // Repayments are fetched from the DB for every month of the range
+            MonthlyRepaymentsProvider repaymentsProvider = new MonthlyRepaymentsProvider() {
+
+                @Override
+                public BigDecimal populateRepayments(Map<String, BigDecimal> repaymentDateAmountMap, Date fromDate, Date toDate) {
+                    final Collection<LoanTransactionData> currentLoanRepayments = scLoanDetailsReadPlatform
+                            .retrieveLoanTransactionsMonthlyPayments(loanAccData.getId(), DateUtils.formatToSqlDate(fromDate),
+                                    DateUtils.formatToSqlDate(toDate));
+                    if (currentLoanRepayments.isEmpty()) { return BigDecimal.ZERO; }
+                    return populateRepaymentsIntoMap(repaymentDateAmountMap, currentLoanRepayments);
+                }
+            };
+            return populateOutstandingAndRepaymentAmounts(ServiceChargeDateRangeFactory.getCurrentDateRange(), loanAccData,
+                    repaymentsProvider);
+        }
+
+        BigDecimal populateOutstandingAndRepaymentAmounts(ServiceChargeDateRange dateRange, boolean isDemandLoan,
+                SCLoanAccountData loanAccData, final NavigableMap<Date, BigDecimal> dailyRepayments) {
+            setDemandLaon(isDemandLoan);
+            // Repayments have already been aggregated per day, only slice them
+            MonthlyRepaymentsProvider repaymentsProvider = new MonthlyRepaymentsProvider() {
+
+                @Override
+                public BigDecimal populateRepayments(Map<String, BigDecimal> repaymentDateAmountMap, Date fromDate, Date toDate) {
+                    BigDecimal totalRepaymentAmount = BigDecimal.ZERO;
+                    if (dailyRepayments == null || dailyRepayments.isEmpty()) { return totalRepaymentAmount; }
+                    final Date fromDay = ServiceChargeDateUtils.formatSqlStringToDate(DateUtils.formatToSqlDate(fromDate));
+                    final Date toDay = ServiceChargeDateUtils.formatSqlStringToDate(DateUtils.formatToSqlDate(toDate));
+                    for (Map.Entry<Date, BigDecimal> entry : dailyRepayments.subMap(fromDay, true, toDay, true).entrySet()) {
+                        repaymentDateAmountMap.put(ServiceChargeDateUtils.getDateStringFromDate(entry.getKey()), entry.getValue());
+                        totalRepaymentAmount = totalRepaymentAmount.add(entry.getValue());
+                    }
+                    return totalRepaymentAmount;
+                }
+            };
+            return populateOutstandingAndRepaymentAmounts(dateRange, loanAccData, repaymentsProvider);
+        }
+
+        private BigDecimal populateOutstandingAndRepaymentAmounts(ServiceChargeDateRange dateRange, SCLoanAccountData loanAccData,
+                MonthlyRepaymentsProvider repaymentsProvider) {
+            List<BigDecimal> outstanding = new LinkedList<>();
             // Last day of the date range
             Date lastDayOfRange = dateRange.getToDateForCurrentYear();
             // Start with the last outstanding amount
@@ -454,17 +518,10 @@ public class ServiceChargeLoanSummaryFactory {
                 // Loan will be considered only if the disbursement date is
                 // before the date under consideration
                 if (getDisbursmentDate().compareTo(lastDayOfRange) < 0) {
-                    // Retrieve transactions between the given dates for loan
-                    final Collection<LoanTransactionData> currentLoanRepayments = scLoanDetailsReadPlatform
-                            .retrieveLoanTransactionsMonthlyPayments(loanAccData.getId(), DateUtils.formatToSqlDate(firstDayOfMonth),
-                                    DateUtils.formatToSqlDate(lastDayOfRange));
-
+                    // Map of date and amount of repayments between the dates
                     Map<String, BigDecimal> repaymentDateAmountMap = new HashMap<>();
-                    if (!currentLoanRepayments.isEmpty()) {
-                        // There are some repayments so add them back to the map
-                        // of date and amount
-                        monthlyTotalRepaymentAmount = populateRepaymentsIntoMap(repaymentDateAmountMap, currentLoanRepayments);
-                    }
+                    monthlyTotalRepaymentAmount = repaymentsProvider.populateRepayments(repaymentDateAmountMap, firstDayOfMonth,
+                            lastDayOfRange);
                     // Before starting the iterator determine the number of
                     // times the loop has to run
                     firstDayOfMonth = ServiceChargeDateUtils.determineSCLoopEndDate(firstDayOfMonth, lastDayOfRange, getDisbursmentDate());
@@ -577,4 +634,15 @@ public class ServiceChargeLoanSummaryFactory {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Source of the repayments made on a loan between two dates. Implementations
+     * populate the given map with the per-day principal repaid (keyed by
+     * {@link ServiceChargeDateUtils#getDateStringFromDate(Date)}) and return the
+     * total principal repaid between the dates
+     */
+    private interface MonthlyRepaymentsProvider {
+
+        BigDecimal populateRepayments(Map<String, BigDecimal> repaymentDateAmountMap, Date fromDate, Date toDate);
+    }
+}
@@ -56,6 +56,10 @@ public enum ServiceChargeCalculatoinMethod {
         return values.get(methodKey);
     }
 
+    public int getRangeCode() {
+        return this.rangeCode;
+    }
+
     public int getScale() {
         return this.scale;
     }
@@ -50,6 +50,7 @@ import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants;
 import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
 import org.apache.fineract.portfolio.note.domain.Note;
 import org.apache.fineract.portfolio.note.domain.NoteRepository;
+import org.apache.fineract.portfolio.servicecharge.share.ShareLimitingService;
 import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountTransactionEnumData;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccount;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccountChargePaidBy;
@@ -81,6 +82,8 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
     private final NoteRepository noteRepository;
 
     private final BusinessEventNotifierService businessEventNotifierService;
+
+    private final ShareLimitingService shareLimitingService;
     
     @Autowired
     public ShareAccountWritePlatformServiceJpaRepositoryImpl(final ShareAccountDataSerializer accountDataSerializer,
@@ -90,7 +93,8 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
             final AccountNumberFormatRepositoryWrapper accountNumberFormatRepository,
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final NoteRepository noteRepository,
-            final BusinessEventNotifierService businessEventNotifierService) {
+            final BusinessEventNotifierService businessEventNotifierService,
+            final ShareLimitingService shareLimitingService) {
         this.accountDataSerializer = accountDataSerializer;
         this.shareAccountRepository = shareAccountRepository;
         this.shareProductRepository = shareProductRepository ;
@@ -99,6 +103,7 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.noteRepository = noteRepository;
         this.businessEventNotifierService = businessEventNotifierService;
+        this.shareLimitingService = shareLimitingService;
     }
 
     @Override
@@ -475,6 +480,7 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
                 //remove the redeem shares from total subscribed shares 
                 shareProduct.removeSubscribedShares(redeemShares); 
                 this.shareProductRepository.save(shareProduct);
+                this.shareLimitingService.recordSharesRedemption(account, transaction);
                 
                 Set<ShareAccountTransaction> transactions = new HashSet<>();
                 transactions.add(transaction);
@@ -510,6 +516,7 @@ public class ShareAccountWritePlatformServiceJpaRepositoryImpl implements ShareA
                 ShareAccountTransaction transaction = (ShareAccountTransaction) changes
                         .get(ShareAccountApiConstants.requestedshares_paramname);
                 transaction = account.getShareAccountTransaction(transaction);
+                this.shareLimitingService.recordSharesRedemption(account, transaction);
                 Set<ShareAccountTransaction> transactions = new HashSet<>();
                 transactions.add(transaction);
                 this.journalEntryWritePlatformService.createJournalEntriesForShares(populateJournalEntries(account, transactions));
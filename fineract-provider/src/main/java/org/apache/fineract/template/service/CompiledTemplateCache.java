@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.template.service;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.github.mustachejava.MustacheFactory;
+
+/**
+ * Compiles mustache templates once and renders them for many scopes.
+ * 
+ * Compiled templates are keyed by their text, so an edited template or
+ * campaign message is compiled again on its next use and its previous version
+ * ages out of the bounded cache. Compiled {@link Mustache} instances are
+ * thread-safe, which lets {@link #renderAll(String, String, List)} spread
+ * large recipient lists over a pool of worker threads.
+ */
+@Component
+public class CompiledTemplateCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(CompiledTemplateCache.class);
+
+    private static final int COMPILED_TEMPLATE_CACHE_SIZE = 512;
+
+    private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
+    private final Map<String, Mustache> compiledTemplates = Collections.synchronizedMap(new LinkedHashMap<String, Mustache>(16, 0.75f,
+            true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Mustache> eldest) {
+            return size() > COMPILED_TEMPLATE_CACHE_SIZE;
+        }
+    });
+
+    private final int threadCount;
+    private final int chunkSize;
+
+    @Autowired
+    public CompiledTemplateCache(@Value("${fineract.templates.render.threads:4}") final int threadCount,
+            @Value("${fineract.templates.render.chunk.size:500}") final int chunkSize) {
+        this.threadCount = Math.max(1, threadCount);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public Mustache compile(final String name, final String text) {
+        Mustache mustache = this.compiledTemplates.get(text);
+        if (mustache == null) {
+            mustache = this.mustacheFactory.compile(new StringReader(text), name);
+            this.compiledTemplates.put(text, mustache);
+        }
+        return mustache;
+    }
+
+    public String render(final String name, final String text, final Object scopes) {
+        return render(compile(name, text), scopes);
+    }
+
+    /**
+     * @return the rendered text for each of the scopes, in the order of the
+     *         scopes
+     */
+    public List<String> renderAll(final String name, final String text, final List<? extends Map<String, Object>> scopes) {
+        final Mustache mustache = compile(name, text);
+        final String[] rendered = new String[scopes.size()];
+        final int chunks = (scopes.size() + this.chunkSize - 1) / this.chunkSize;
+        if (this.threadCount == 1 || chunks <= 1) {
+            renderChunk(mustache, scopes, 0, scopes.size(), rendered);
+            return Arrays.asList(rendered);
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(this.threadCount, chunks));
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(chunks);
+            for (int from = 0; from < scopes.size(); from += this.chunkSize) {
+                final int chunkFrom = from;
+                final int chunkTo = Math.min(from + this.chunkSize, scopes.size());
+                futures.add(executorService.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() {
+                        renderChunk(mustache, scopes, chunkFrom, chunkTo, rendered);
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final ExecutionException e) {
+            final Throwable realCause = e.getCause() != null ? e.getCause() : e;
+            throw new GeneralPlatformDomainRuleException("error.msg.template.render.failed", "Rendering template " + name
+                    + " failed with message " + realCause.getMessage(), name, realCause.getMessage());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeneralPlatformDomainRuleException("error.msg.template.render.interrupted", "Rendering template " + name
+                    + " was interrupted", name);
+        } finally {
+            executorService.shutdownNow();
+        }
+        logger.info("Rendered template " + name + " for " + scopes.size() + " scopes in " + (System.currentTimeMillis() - startTime)
+                + " ms");
+        return Arrays.asList(rendered);
+    }
+
+    private static void renderChunk(final Mustache mustache, final List<? extends Map<String, Object>> scopes, final int from,
+            final int to, final String[] rendered) {
+        for (int i = from; i < to; i++) {
+            rendered[i] = render(mustache, scopes.get(i));
+        }
+    }
+
+    private static String render(final Mustache mustache, final Object scopes) {
+        final StringWriter stringWriter = new StringWriter();
+        mustache.execute(stringWriter, scopes);
+        return stringWriter.toString();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.template.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.apache.fineract.portfolio.client.api.ClientApiConstants;
+import org.apache.fineract.portfolio.client.service.ClientReadPlatformService;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves template mapper URLs that address a single client or office by
+ * calling the read services in-process, instead of making an HTTP call back
+ * into this server. The resulting map matches the JSON the API returns for
+ * the same URL without query parameters.
+ * 
+ * Other URLs, URLs with query parameters other than the tenant identifier and
+ * calls made without an authenticated user are left to the HTTP lookup.
+ */
+@Component
+public class TemplateMapperResolver {
+
+    private static final Pattern ENTITY_PATH = Pattern.compile("^/?(clients|offices)/(\\d+)/?$");
+
+    private final PlatformSecurityContext context;
+    private final ClientReadPlatformService clientReadPlatformService;
+    private final OfficeReadPlatformService officeReadPlatformService;
+    private final GoogleGsonSerializerHelper gsonSerializerHelper;
+
+    @Autowired
+    public TemplateMapperResolver(final PlatformSecurityContext context, final ClientReadPlatformService clientReadPlatformService,
+            final OfficeReadPlatformService officeReadPlatformService, final GoogleGsonSerializerHelper gsonSerializerHelper) {
+        this.context = context;
+        this.clientReadPlatformService = clientReadPlatformService;
+        this.officeReadPlatformService = officeReadPlatformService;
+        this.gsonSerializerHelper = gsonSerializerHelper;
+    }
+
+    /**
+     * @return the mapper data, or null when the URL has to be fetched over
+     *         HTTP
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> resolve(final String url, final Object baseUri) throws IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) { return null; }
+
+        String path = url;
+        if (baseUri != null && path.startsWith(baseUri.toString())) {
+            path = path.substring(baseUri.toString().length());
+        } else if (path.startsWith("http")) { return null; }
+
+        final int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            if (!isTenantIdentifierOnly(path.substring(queryStart + 1))) { return null; }
+            path = path.substring(0, queryStart);
+        }
+
+        final Matcher matcher = ENTITY_PATH.matcher(path);
+        if (!matcher.matches()) { return null; }
+
+        final Long id = Long.valueOf(matcher.group(2));
+        final Object data;
+        if ("clients".equals(matcher.group(1))) {
+            this.context.authenticatedUser().validateHasReadPermission(ClientApiConstants.CLIENT_RESOURCE_NAME);
+            data = this.clientReadPlatformService.retrieveOne(id);
+        } else {
+            this.context.authenticatedUser().validateHasReadPermission("OFFICE");
+            data = this.officeReadPlatformService.retrieveOffice(id);
+        }
+
+        final String json = this.gsonSerializerHelper.excludeNothingSerializer(false).toJson(data);
+        return new ObjectMapper().readValue(json, HashMap.class);
+    }
+
+    private static boolean isTenantIdentifierOnly(final String query) {
+        for (final String parameter : StringUtils.split(query, '&')) {
+            if (!parameter.startsWith("tenantIdentifier=")) { return false; }
+        }
+        return true;
+    }
+}
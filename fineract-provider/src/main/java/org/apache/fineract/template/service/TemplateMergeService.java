@@ -22,7 +22,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.Authenticator;
 import java.net.HttpURLConnection;
@@ -36,83 +35,82 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateFunctions;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 
 @Service
 public class TemplateMergeService {
 	private final static Logger logger = LoggerFactory.getLogger(TemplateMergeService.class);
-	
 
-    // private final FromJsonHelper fromApiJsonHelper;
-    private Map<String, Object> scopes;
-    private String authToken;
+    private final CompiledTemplateCache compiledTemplateCache;
+    private final TemplateMapperResolver templateMapperResolver;
 
-    // @Autowired
-    // public TemplateMergeService(final FromJsonHelper fromApiJsonHelper) {
-    // this.fromApiJsonHelper = fromApiJsonHelper;
-    //
-
-    public void setAuthToken(final String authToken) {
-        //final String auth = ThreadLocalContextUtil.getAuthToken();
-    	this.authToken =  authToken;
+    @Autowired
+    public TemplateMergeService(final CompiledTemplateCache compiledTemplateCache, final TemplateMapperResolver templateMapperResolver) {
+        this.compiledTemplateCache = compiledTemplateCache;
+        this.templateMapperResolver = templateMapperResolver;
     }
-    
 
     public String compile(final Template template, final Map<String, Object> scopes) throws MalformedURLException, IOException {
-        this.scopes = scopes;
-        this.scopes.put("static", new TemplateFunctions());
-        
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(template.getText()), template.getName());
+        return compile(template, scopes, null);
+    }
 
-        final Map<String, Object> mappers = getCompiledMapFromMappers(template.getMappersAsMap());
-        this.scopes.putAll(mappers);
+    /**
+     * @param authToken
+     *            basic authentication token for mapper URLs fetched over
+     *            HTTP; when null the credentials of the current user are used
+     */
+    public String compile(final Template template, final Map<String, Object> scopes, final String authToken)
+            throws MalformedURLException, IOException {
+        scopes.put("static", new TemplateFunctions());
+
+        final Mustache mustache = this.compiledTemplateCache.compile(template.getName(), template.getText());
+
+        final Map<String, Object> mappers = getCompiledMapFromMappers(template.getMappersAsMap(), scopes, authToken);
+        scopes.putAll(mappers);
 
         expandMapArrays(scopes);
 
         final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, this.scopes);
+        mustache.execute(stringWriter, scopes);
 
         return stringWriter.toString();
     }
 
-	private Map<String, Object> getCompiledMapFromMappers(final Map<String, String> data) {
-        final MustacheFactory mf = new DefaultMustacheFactory();
+	private Map<String, Object> getCompiledMapFromMappers(final Map<String, String> data, final Map<String, Object> scopes,
+            final String authToken) {
 
         if (data != null) {
             for (final Map.Entry<String, String> entry : data.entrySet()) {
-                final Mustache mappersMustache = mf.compile(new StringReader(entry.getValue()), "");
-                final StringWriter stringWriter = new StringWriter();
-
-                mappersMustache.execute(stringWriter, this.scopes);
-                String url = stringWriter.toString();
+                String url = this.compiledTemplateCache.render("", entry.getValue(), scopes);
                 if (!url.startsWith("http")) {
-                    url = this.scopes.get("BASE_URI") + url;
+                    url = scopes.get("BASE_URI") + url;
                 }
                 try {
-                    this.scopes.put(entry.getKey(), getMapFromUrl(url));
+                    Map<String, Object> mapperData = this.templateMapperResolver.resolve(url, scopes.get("BASE_URI"));
+                    if (mapperData == null) {
+                        mapperData = getMapFromUrl(url, authToken);
+                    }
+                    scopes.put(entry.getKey(), mapperData);
                 } catch (final IOException e) {
                 	logger.error("getCompiledMapFromMappers() failed", e);
                 }
             }
         }
-        return this.scopes;
+        return scopes;
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> getMapFromUrl(final String url) throws MalformedURLException, IOException {
-        final HttpURLConnection connection = getConnection(url);
+    private Map<String, Object> getMapFromUrl(final String url, final String authToken) throws MalformedURLException, IOException {
+        final HttpURLConnection connection = getConnection(url, authToken);
 
         final String response = getStringFromInputStream(connection.getInputStream());
         HashMap<String, Object> result = new HashMap<>();
@@ -124,8 +122,8 @@ public class TemplateMergeService {
         return result;
     }
 
-    private HttpURLConnection getConnection(final String url) {
-        if (this.authToken == null) {
+    private HttpURLConnection getConnection(final String url, final String authToken) {
+        if (authToken == null) {
             final String name = SecurityContextHolder.getContext().getAuthentication().getName();
             final String password = SecurityContextHolder.getContext().getAuthentication().getCredentials().toString();
 
@@ -140,8 +138,8 @@ public class TemplateMergeService {
         HttpURLConnection connection = null;
         try {
             connection = (HttpURLConnection) new URL(url).openConnection();
-            if (this.authToken != null) {
-                connection.setRequestProperty("Authorization", "Basic " + this.authToken);
+            if (authToken != null) {
+                connection.setRequestProperty("Authorization", "Basic " + authToken);
             }
             TrustModifier.relaxHostChecking(connection);
 
@@ -23,17 +23,22 @@ package org.mifosplatform.infrastructure.report.service;
  * License, v. 2.0. If a copy of the MPL was not distributed with this file,
  * You can obtain one at http://mozilla.org/MPL/2.0/.
  */
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.Date;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
@@ -41,6 +46,7 @@ import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.report.annotation.ReportService;
 import org.apache.fineract.infrastructure.report.service.ReportingProcessService;
@@ -63,6 +69,7 @@ import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -74,16 +81,21 @@ public class PentahoReportingProcessServiceImpl implements ReportingProcessServi
 
     private final PlatformSecurityContext context;
     private boolean noPentaho = false;
+    private final int maxConcurrentRendersPerTenant;
+    private final ConcurrentHashMap<String, CachedReportDefinition> reportDefinitions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Semaphore> renderPermits = new ConcurrentHashMap<>();
 
     @Autowired private JDBCDriverConfig driverConfig ;
     
     @Autowired
-    public PentahoReportingProcessServiceImpl(final PlatformSecurityContext context) {
+    public PentahoReportingProcessServiceImpl(final PlatformSecurityContext context,
+            @Value("${fineract.reports.pentaho.max.concurrent.per.tenant:4}") final int maxConcurrentRendersPerTenant) {
         // kick off pentaho reports server
         ClassicEngineBoot.getInstance().start();
         this.noPentaho = false;
 
         this.context = context;
+        this.maxConcurrentRendersPerTenant = maxConcurrentRendersPerTenant;
     }
 
     @Override
@@ -98,9 +110,12 @@ public class PentahoReportingProcessServiceImpl implements ReportingProcessServi
             outputType = outputTypeParam;
         }
 
-        if (!(outputType.equalsIgnoreCase("HTML") || outputType.equalsIgnoreCase("PDF") || outputType.equalsIgnoreCase("XLS")
-                || outputType.equalsIgnoreCase("XLSX") || outputType.equalsIgnoreCase("CSV"))) { throw new PlatformDataIntegrityException(
-                "error.msg.invalid.outputType", "No matching Output Type: " + outputType); }
+        // validated up front: once the streaming output is returned the
+        // response is committed and can no longer be turned into an error
+        final String format = outputType.toUpperCase();
+        if (!(format.equals("HTML") || format.equals("PDF") || format.equals("XLS") || format.equals("XLSX")
+                || format.equals("CSV"))) { throw new PlatformDataIntegrityException("error.msg.invalid.outputType",
+                "No matching Output Type: " + outputType); }
 
         if (this.noPentaho) { throw new PlatformDataIntegrityException("error.msg.no.pentaho", "Pentaho is not enabled",
                 "Pentaho is not enabled"); }
@@ -108,58 +123,142 @@ public class PentahoReportingProcessServiceImpl implements ReportingProcessServi
         final String reportPath = MIFOS_BASE_DIR + File.separator + "pentahoReports" + File.separator + reportName + ".prpt";
         logger.info("Report path: " + reportPath);
 
-        // load report definition
-        final ResourceManager manager = new ResourceManager();
-        manager.registerDefaults();
-        Resource res;
+        final MasterReport masterReport = retrieveReportDefinition(reportPath);
+        final DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
+        if (locale != null) {
+            reportEnvironment.setLocale(locale);
+        }
+        addParametersToReport(masterReport, reportParams);
+
+        // taken before the response is built, so that a tenant with too many
+        // reports rendering gets a 503 instead of a committed response that
+        // fails while streaming
+        final RenderPermit renderPermit = acquireRenderPermit(renderPermitsFor(ThreadLocalContextUtil.getTenant()
+                .getTenantIdentifier()), reportName);
+        final StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                try {
+                    final OutputStream bufferedOut = new BufferedOutputStream(out);
+                    if ("PDF".equals(format)) {
+                        PdfReportUtil.createPDF(masterReport, bufferedOut);
+                    } else if ("XLS".equals(format)) {
+                        ExcelReportUtil.createXLS(masterReport, bufferedOut);
+                    } else if ("XLSX".equals(format)) {
+                        ExcelReportUtil.createXLSX(masterReport, bufferedOut);
+                    } else if ("CSV".equals(format)) {
+                        CSVReportUtil.createCSV(masterReport, bufferedOut, "UTF-8");
+                    } else if ("HTML".equals(format)) {
+                        HtmlReportUtil.createStreamHTML(masterReport, bufferedOut);
+                    }
+                    bufferedOut.flush();
+                } catch (final ReportProcessingException e) {
+                    throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+                } finally {
+                    renderPermit.release();
+                }
+            }
+        };
 
         try {
-            res = manager.createDirectly(reportPath, MasterReport.class);
-            final MasterReport masterReport = (MasterReport) res.getResource();
-            final DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
-            if (locale != null) {
-                reportEnvironment.setLocale(locale);
-            }
-            addParametersToReport(masterReport, reportParams);
+            return buildResponse(output, format, reportName);
+        } catch (final RuntimeException e) {
+            // the output is never written, so its permit is handed back here
+            renderPermit.release();
+            throw e;
+        }
+    }
 
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private static Response buildResponse(final StreamingOutput output, final String format, final String reportName) {
+        if ("PDF".equals(format)) { return Response.ok().entity(output).type("application/pdf").build(); }
 
-            if ("PDF".equalsIgnoreCase(outputType)) {
-                PdfReportUtil.createPDF(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/pdf").build();
-            }
+        if ("XLS".equals(format)) { return Response.ok().entity(output).type("application/vnd.ms-excel")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build(); }
 
-            if ("XLS".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLS(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build();
-            }
+        if ("XLSX".equals(format)) { return Response.ok().entity(output)
+                .type("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xlsx").build(); }
+
+        if ("CSV".equals(format)) { return Response.ok().entity(output).type("text/csv")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build(); }
 
-            if ("XLSX".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLSX(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xlsx").build();
+        if ("HTML".equals(format)) { return Response.ok().entity(output).type("text/html").build(); }
+
+        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + format);
+    }
+
+    /**
+     * Returns a copy of the parsed report definition, parsing the .prpt file
+     * only when it is not cached yet or has been modified since it was
+     * parsed. Callers get their own copy because parameters and locale are
+     * set on the report before it is rendered.
+     */
+    private MasterReport retrieveReportDefinition(final String reportPath) {
+        final long lastModified = new File(reportPath).lastModified();
+        CachedReportDefinition cached = this.reportDefinitions.get(reportPath);
+        if (cached == null || cached.lastModified != lastModified) {
+            // load report definition
+            final ResourceManager manager = new ResourceManager();
+            manager.registerDefaults();
+            try {
+                final Resource res = manager.createDirectly(reportPath, MasterReport.class);
+                cached = new CachedReportDefinition((MasterReport) res.getResource(), lastModified);
+            } catch (final ResourceException e) {
+                throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
             }
+            this.reportDefinitions.put(reportPath, cached);
+        }
+        return (MasterReport) cached.report.clone();
+    }
 
-            if ("CSV".equalsIgnoreCase(outputType)) {
-                CSVReportUtil.createCSV(masterReport, baos, "UTF-8");
-                return Response.ok().entity(baos.toByteArray()).type("text/csv")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
+    private Semaphore renderPermitsFor(final String tenantIdentifier) {
+        Semaphore permits = this.renderPermits.get(tenantIdentifier);
+        if (permits == null) {
+            final Semaphore created = new Semaphore(this.maxConcurrentRendersPerTenant);
+            permits = this.renderPermits.putIfAbsent(tenantIdentifier, created);
+            if (permits == null) {
+                permits = created;
             }
+        }
+        return permits;
+    }
+
+    private static RenderPermit acquireRenderPermit(final Semaphore permits, final String reportName) {
+        if (!permits.tryAcquire()) { throw new PlatformServiceUnavailableException("error.msg.reporting.too.many.concurrent.reports",
+                "Too many reports are being generated, try again later: " + reportName, reportName); }
+        return new RenderPermit(permits);
+    }
+
+    /**
+     * A rendering slot of a tenant. It is released once, whether the output
+     * was written or the response could not be built.
+     */
+    private static final class RenderPermit {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        RenderPermit(final Semaphore permits) {
+            this.permits = permits;
+        }
 
-            if ("HTML".equalsIgnoreCase(outputType)) {
-                HtmlReportUtil.createStreamHTML(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("text/html").build();
+        void release() {
+            if (this.released.compareAndSet(false, true)) {
+                this.permits.release();
             }
-        } catch (final ResourceException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (final ReportProcessingException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (final IOException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
         }
+    }
 
-        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
+    private static final class CachedReportDefinition {
+
+        private final MasterReport report;
+        private final long lastModified;
+
+        CachedReportDefinition(final MasterReport report, final long lastModified) {
+            this.report = report;
+            this.lastModified = lastModified;
+        }
     }
 
     private void addParametersToReport(final MasterReport report, final Map<String, String> queryParams) {
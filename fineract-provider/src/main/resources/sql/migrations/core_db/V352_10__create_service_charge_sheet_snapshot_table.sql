@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+-- materialized inputs of the service charge final sheet, one row per range
+CREATE TABLE `m_loan_service_charge_sheet` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `sc_quarter` tinyint(2) NOT NULL,
+  `sc_year` smallint(4) NOT NULL,
+  `sc_calculation_method` tinyint(1) NOT NULL,
+  `from_date` date NOT NULL,
+  `to_date` date NOT NULL,
+  `mobilization_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `servicing_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `investment_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `overheads_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `provisions_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `bf_servicing_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `last_journal_entry_id` bigint(20) NOT NULL DEFAULT '0',
+  `dl_outstanding_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `ndl_outstanding_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `total_repayment_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `no_of_demand_loans` int(11) NOT NULL DEFAULT '0',
+  `is_loan_data_stale` tinyint(1) NOT NULL DEFAULT '1',
+  `loan_data_computed_on` date NULL DEFAULT NULL,
+  `loan_data_version` bigint(20) NOT NULL DEFAULT '0',
+  `lastmodified_date` datetime NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `m_loan_service_charge_sheet_UNIQUE` (`sc_quarter`, `sc_year`, `sc_calculation_method`),
+  KEY `m_loan_service_charge_sheet_to_date` (`to_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,37 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+CREATE TABLE `m_savings_balance_aggregate` (
+	`id` INT(11) NOT NULL,
+	`total_available_balance` DECIMAL(19,6) NOT NULL DEFAULT '0.000000',
+	`active_account_count` BIGINT(20) NOT NULL DEFAULT '0',
+	`last_reconciled_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `m_savings_balance_aggregate` (`id`, `total_available_balance`, `active_account_count`, `last_reconciled_date`)
+SELECT 1,
+	IFNULL(SUM(IFNULL(sa.account_balance_derived, 0) - IFNULL(sa.on_hold_funds_derived, 0) - IFNULL(sa.total_savings_amount_on_hold, 0)), 0),
+	COUNT(sa.id), NOW()
+FROM m_savings_account sa
+WHERE sa.status_enum IN (300, 303, 304);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`) VALUES ('Reconcile Savings Balance Aggregate', 'Reconcile Savings Balance Aggregate', '0 0 0/1 1/1 * ? *', now());
@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+CREATE TABLE `m_share_product_redemption_counter` (
+	`product_id` BIGINT(20) NOT NULL,
+	`financial_year_start` DATE NOT NULL,
+	`redeemed_shares` BIGINT(20) NOT NULL DEFAULT '0',
+	`lastmodified_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`product_id`, `financial_year_start`),
+	CONSTRAINT `FK_share_redemption_counter_product` FOREIGN KEY (`product_id`) REFERENCES `m_share_product` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `m_share_product_redemption_counter` (`product_id`, `financial_year_start`, `redeemed_shares`, `lastmodified_date`)
+SELECT sacc.product_id,
+	STR_TO_DATE(CONCAT(YEAR(saps.transaction_date) - IF(MONTH(saps.transaction_date) < 4, 1, 0), '-04-01'), '%Y-%m-%d'),
+	SUM(IFNULL(saps.total_shares, 0)), NOW()
+FROM m_share_account_transactions saps
+INNER JOIN m_share_account sacc ON saps.account_id = sacc.id
+WHERE saps.is_active = 1 AND saps.status_enum = 300 AND saps.type_enum = 600
+GROUP BY sacc.product_id, YEAR(saps.transaction_date) - IF(MONTH(saps.transaction_date) < 4, 1, 0);
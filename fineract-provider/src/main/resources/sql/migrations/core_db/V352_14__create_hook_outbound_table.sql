@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+CREATE TABLE `m_hook_outbound` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`hook_id` BIGINT(20) NOT NULL,
+	`entity_name` VARCHAR(45) NOT NULL,
+	`action_name` VARCHAR(45) NOT NULL,
+	`payload` TEXT NOT NULL,
+	`status_enum` SMALLINT(5) NOT NULL DEFAULT '100',
+	`attempts` INT(11) NOT NULL DEFAULT '0',
+	`next_attempt_date` DATETIME NOT NULL,
+	`last_error` VARCHAR(500) NULL DEFAULT NULL,
+	`created_date` DATETIME NOT NULL,
+	`lastmodified_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `IND_m_hook_outbound_status_next_attempt` (`status_enum`, `next_attempt_date`),
+	CONSTRAINT `FK_m_hook_outbound_m_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`) VALUES ('Deliver Hook Events', 'Deliver Hook Events', '0 0/1 * 1/1 * ? *', now());
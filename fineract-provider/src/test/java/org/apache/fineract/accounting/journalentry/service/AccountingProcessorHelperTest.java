@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepository;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToGLAccountMappingIndex;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionRepository;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Journal entry legs of loan and savings transactions are written through the
+ * {@link JournalEntryBatchWriter} and must still reference the transaction
+ * they were posted for.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AccountingProcessorHelperTest {
+
+    private LoanTransactionRepository loanTransactionRepository;
+    private SavingsAccountTransactionRepository savingsAccountTransactionRepository;
+    private GLAccountRepositoryWrapper accountRepositoryWrapper;
+    private GLAccountRepository glAccountRepository;
+    private ProductToGLAccountMappingIndex productToGLAccountMappingIndex;
+    private JournalEntryBatchWriter journalEntryBatchWriter;
+    private AccountingProcessorHelper helper;
+
+    private Office office;
+    private GLAccount glAccount;
+    private final Date transactionDate = new Date();
+    private final BigDecimal amount = new BigDecimal("125.50");
+
+    @Before
+    public void setUp() throws Exception {
+        this.loanTransactionRepository = Mockito.mock(LoanTransactionRepository.class);
+        this.savingsAccountTransactionRepository = Mockito.mock(SavingsAccountTransactionRepository.class);
+        this.accountRepositoryWrapper = Mockito.mock(GLAccountRepositoryWrapper.class);
+        this.glAccountRepository = Mockito.mock(GLAccountRepository.class);
+        this.productToGLAccountMappingIndex = Mockito.mock(ProductToGLAccountMappingIndex.class);
+        this.journalEntryBatchWriter = Mockito.mock(JournalEntryBatchWriter.class);
+        this.helper = new AccountingProcessorHelper(null, this.productToGLAccountMappingIndex, null, null, this.loanTransactionRepository,
+                this.savingsAccountTransactionRepository, null, this.accountRepositoryWrapper, this.glAccountRepository, null,
+                this.journalEntryBatchWriter);
+
+        this.office = newEntity(Office.class, 1L);
+        this.glAccount = newEntity(GLAccount.class, 11L);
+    }
+
+    @Test
+    public void loanLegsKeepTheirLoanTransaction() throws Exception {
+        final LoanTransaction loanTransaction = newEntity(LoanTransaction.class, 42L);
+        Mockito.when(this.loanTransactionRepository.findOne(42L)).thenReturn(loanTransaction);
+
+        this.helper.createCreditJournalEntryOrReversalForLoan(this.office, "USD", 7L, "42", this.transactionDate, this.amount,
+                Boolean.FALSE, this.glAccount);
+        this.helper.createCreditJournalEntryOrReversalForLoan(this.office, "USD", 7L, "42", this.transactionDate, this.amount,
+                Boolean.TRUE, this.glAccount);
+
+        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
+        Mockito.verify(this.journalEntryBatchWriter, Mockito.times(2)).add(captor.capture());
+        for (final JournalEntry journalEntry : captor.getAllValues()) {
+            assertSame(loanTransaction, journalEntry.getLoanTransaction());
+            assertNull(journalEntry.getSavingsTransaction());
+            assertEquals("L42", journalEntry.getTransactionId());
+
+            final Object[] parameters = insertParameters(journalEntry);
+            assertEquals(Long.valueOf(42L), parameters[JournalEntryBatchWriter.LOAN_TRANSACTION_ID_INDEX]);
+            assertNull(parameters[JournalEntryBatchWriter.SAVINGS_TRANSACTION_ID_INDEX]);
+        }
+    }
+
+    @Test
+    public void savingsLegsKeepTheirSavingsTransaction() throws Exception {
+        final SavingsAccountTransaction savingsTransaction = newEntity(SavingsAccountTransaction.class, 43L);
+        Mockito.when(this.savingsAccountTransactionRepository.findOne(43L)).thenReturn(savingsTransaction);
+        Mockito.when(this.accountRepositoryWrapper.findOneWithNotFoundDetection(11L)).thenReturn(this.glAccount);
+
+        this.helper.createCashBasedDebitJournalEntriesAndReversalsForSavings(this.office, "USD", 11L, 9L, "43", this.transactionDate,
+                this.amount, Boolean.FALSE);
+        this.helper.createCashBasedCreditJournalEntriesAndReversalsForSavings(this.office, "USD", 11L, 9L, "43", this.transactionDate,
+                this.amount, Boolean.FALSE);
+
+        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
+        Mockito.verify(this.journalEntryBatchWriter, Mockito.times(2)).add(captor.capture());
+        for (final JournalEntry journalEntry : captor.getAllValues()) {
+            assertSame(savingsTransaction, journalEntry.getSavingsTransaction());
+            assertNull(journalEntry.getLoanTransaction());
+            assertEquals("S43", journalEntry.getTransactionId());
+
+            final Object[] parameters = insertParameters(journalEntry);
+            assertEquals(Long.valueOf(43L), parameters[JournalEntryBatchWriter.SAVINGS_TRANSACTION_ID_INDEX]);
+            assertNull(parameters[JournalEntryBatchWriter.LOAN_TRANSACTION_ID_INDEX]);
+        }
+    }
+
+    @Test
+    public void loanTransactionIsResolvedOncePerPosting() throws Exception {
+        final LoanTransaction loanTransaction = newEntity(LoanTransaction.class, 42L);
+        Mockito.when(this.loanTransactionRepository.findOne(42L)).thenReturn(loanTransaction);
+        Mockito.when(
+                this.productToGLAccountMappingIndex.findGLAccountId(Mockito.any(PortfolioProductType.class), Mockito.anyLong(),
+                        Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong())).thenReturn(11L);
+        Mockito.when(this.glAccountRepository.getOne(11L)).thenReturn(this.glAccount);
+
+        this.helper.createCashBasedJournalEntriesAndReversalsForLoan(this.office, "USD", 1, 2, 3L, null, 7L, "42", this.transactionDate,
+                this.amount, Boolean.FALSE);
+
+        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
+        Mockito.verify(this.journalEntryBatchWriter, Mockito.times(2)).add(captor.capture());
+        Mockito.verify(this.loanTransactionRepository, Mockito.times(1)).findOne(42L);
+        for (final JournalEntry journalEntry : captor.getAllValues()) {
+            assertSame(loanTransaction, journalEntry.getLoanTransaction());
+        }
+    }
+
+    @Test
+    public void nonNumericTransactionIdIsNotLinked() {
+        this.helper.createCreditJournalEntryOrReversalForLoan(this.office, "USD", 7L, "ACCRUAL-7", this.transactionDate, this.amount,
+                Boolean.FALSE, this.glAccount);
+
+        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
+        Mockito.verify(this.journalEntryBatchWriter).add(captor.capture());
+        Mockito.verifyZeroInteractions(this.loanTransactionRepository);
+        assertNull(captor.getValue().getLoanTransaction());
+        assertEquals("ACCRUAL-7", captor.getValue().getTransactionId());
+    }
+
+    private static Object[] insertParameters(final JournalEntry journalEntry) {
+        return JournalEntryBatchWriter.insertParameters(journalEntry, 1L, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private static <T extends AbstractPersistableCustom<Long>> T newEntity(final Class<T> type, final Long id) throws Exception {
+        final Constructor<T> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        final T entity = constructor.newInstance();
+        final Field idField = AbstractPersistableCustom.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(entity, id);
+        return entity;
+    }
+}
@@ -0,0 +1,313 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that interest calculated from a {@link SavingsAccountInterestCheckpoint}
+ * matches interest calculated over the full history of the account, and that
+ * the checkpoint fingerprint notices changes to the history it covers.
+ */
+public class SavingsAccountInterestCheckpointTest {
+
+    private static final BigDecimal INTEREST_RATE_AS_FRACTION = BigDecimal.valueOf(0.1);
+    private static final long DAYS_IN_YEAR = 365;
+    private static final int FINANCIAL_YEAR_BEGINNING_MONTH = 1;
+
+    private final MonetaryCurrency currency = new MonetaryCurrency("USD", 2, null);
+    private final SavingsHelper savingsHelper = new SavingsHelper(null);
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void resumedMonthlyCompoundingMatchesFullHistoryAcrossQuarterlyPostings() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 1), 10000));
+        transactions.add(withdrawal(new LocalDate(2016, 2, 15), 1500));
+        transactions.add(deposit(new LocalDate(2016, 5, 20), 3000));
+        transactions.add(deposit(new LocalDate(2016, 8, 3), 250));
+        transactions.add(withdrawal(new LocalDate(2016, 11, 28), 4000));
+
+        assertResumedMatchesFullHistory(transactions, new LocalDate(2016, 1, 1), new LocalDate(2016, 12, 31),
+                SavingsPostingInterestPeriodType.QUATERLY, SavingsCompoundingInterestPeriodType.MONTHLY);
+    }
+
+    @Test
+    public void resumedDailyCompoundingMatchesFullHistoryAcrossMonthlyPostings() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 10), 5000));
+        // balance of this withdrawal spans the end of several posting periods
+        transactions.add(withdrawal(new LocalDate(2016, 2, 20), 700));
+        transactions.add(deposit(new LocalDate(2016, 6, 30), 1200));
+        transactions.add(withdrawal(new LocalDate(2016, 7, 1), 300));
+
+        assertResumedMatchesFullHistory(transactions, new LocalDate(2016, 1, 10), new LocalDate(2016, 9, 30),
+                SavingsPostingInterestPeriodType.MONTHLY, SavingsCompoundingInterestPeriodType.DAILY);
+    }
+
+    @Test
+    public void resumedQuarterlyCompoundingMatchesFullHistoryWhenCheckpointFallsWithinCompoundingPeriod() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 1), 20000));
+        transactions.add(withdrawal(new LocalDate(2016, 3, 12), 2500));
+        transactions.add(deposit(new LocalDate(2016, 4, 18), 800));
+        transactions.add(withdrawal(new LocalDate(2016, 8, 31), 6000));
+
+        // monthly checkpoints mostly fall inside a quarter and so carry
+        // uncompounded as well as compounded interest
+        assertResumedMatchesFullHistory(transactions, new LocalDate(2016, 1, 1), new LocalDate(2016, 10, 31),
+                SavingsPostingInterestPeriodType.MONTHLY, SavingsCompoundingInterestPeriodType.QUATERLY);
+    }
+
+    @Test
+    public void backdatedTransactionInvalidatesCheckpoint() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 1), 10000));
+        transactions.add(withdrawal(new LocalDate(2016, 2, 15), 1500));
+        final LocalDate checkpointDate = new LocalDate(2016, 3, 31);
+        final LocalDate postingDate = checkpointDate.plusDays(1);
+        final LocalDate upToDate = new LocalDate(2016, 9, 30);
+
+        final List<PostingPeriod> fullHistory = calculate(transactions, new LocalDate(2016, 1, 1), upToDate,
+                SavingsPostingInterestPeriodType.QUATERLY, SavingsCompoundingInterestPeriodType.MONTHLY);
+        final SavingsAccountInterestCheckpoint checkpoint = checkpointAt(fullHistory, 0,
+                SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate));
+
+        transactions.add(deposit(new LocalDate(2016, 3, 1), 2000));
+        final long fingerprint = SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate);
+        assertFalse(checkpoint.isRecordedFor(fingerprint));
+
+        // resuming from the stale checkpoint would miss the backdated deposit
+        final List<PostingPeriod> recalculated = calculate(transactions, new LocalDate(2016, 1, 1), upToDate,
+                SavingsPostingInterestPeriodType.QUATERLY, SavingsCompoundingInterestPeriodType.MONTHLY);
+        final List<PostingPeriod> resumedFromStale = resume(transactions, checkpoint, upToDate, SavingsPostingInterestPeriodType.QUATERLY,
+                SavingsCompoundingInterestPeriodType.MONTHLY);
+        assertNotEquals(recalculated.get(1).interest().getAmount(), resumedFromStale.get(0).interest().getAmount());
+    }
+
+    @Test
+    public void undoneTransactionInvalidatesCheckpoint() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 1), 10000));
+        final SavingsAccountTransaction withdrawal = withdrawal(new LocalDate(2016, 2, 15), 1500);
+        transactions.add(withdrawal);
+        final LocalDate checkpointDate = new LocalDate(2016, 3, 31);
+        final LocalDate postingDate = checkpointDate.plusDays(1);
+
+        final long recorded = SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate);
+        withdrawal.reverse();
+
+        assertNotEquals(recorded, SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate));
+    }
+
+    @Test
+    public void transactionAfterCheckpointKeepsCheckpointValid() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 1), 10000));
+        transactions.add(withdrawal(new LocalDate(2016, 2, 15), 1500));
+        final LocalDate checkpointDate = new LocalDate(2016, 3, 31);
+        final LocalDate postingDate = checkpointDate.plusDays(1);
+
+        final long recorded = SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate);
+        transactions.add(deposit(postingDate, 400));
+        transactions.add(withdrawal(new LocalDate(2016, 5, 2), 900));
+
+        assertEquals(recorded, SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate));
+    }
+
+    @Test
+    public void interestPostedForCheckpointPeriodIsPartOfFingerprint() {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        transactions.add(deposit(new LocalDate(2016, 1, 1), 10000));
+        final LocalDate checkpointDate = new LocalDate(2016, 3, 31);
+        final LocalDate postingDate = checkpointDate.plusDays(1);
+
+        final long recorded = SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate);
+        transactions.add(SavingsAccountTransaction.interestPosting(null, null, postingDate, Money.of(this.currency,
+                BigDecimal.valueOf(246.58)), false));
+
+        assertNotEquals(recorded, SavingsAccountInterestCheckpoint.transactionsFingerprint(transactions, checkpointDate, postingDate));
+    }
+
+    /**
+     * Records a checkpoint at the end of every closed posting period in turn
+     * and checks that resuming from it gives the same periods as calculating
+     * over the full history.
+     */
+    private void assertResumedMatchesFullHistory(final List<SavingsAccountTransaction> transactions, final LocalDate startDate,
+            final LocalDate upToDate, final SavingsPostingInterestPeriodType postingPeriodType,
+            final SavingsCompoundingInterestPeriodType compoundingPeriodType) {
+        final List<PostingPeriod> fullHistory = calculate(transactions, startDate, upToDate, postingPeriodType, compoundingPeriodType);
+
+        for (int checkpointIndex = 0; checkpointIndex < fullHistory.size() - 1; checkpointIndex++) {
+            final SavingsAccountInterestCheckpoint checkpoint = checkpointAt(fullHistory, checkpointIndex, 0L);
+            final List<PostingPeriod> resumed = resume(transactions, checkpoint, upToDate, postingPeriodType, compoundingPeriodType);
+
+            assertEquals(fullHistory.size() - checkpointIndex - 1, resumed.size());
+            Money interestEarned = checkpoint.getInterestEarned(this.currency);
+            for (int i = 0; i < resumed.size(); i++) {
+                final PostingPeriod expected = fullHistory.get(checkpointIndex + 1 + i);
+                final PostingPeriod actual = resumed.get(i);
+                assertEquals(expected.getPeriodInterval().startDate(), actual.getPeriodInterval().startDate());
+                assertEquals(expected.getPeriodInterval().endDate(), actual.getPeriodInterval().endDate());
+                assertEquals(expected.interest().getAmount(), actual.interest().getAmount());
+                assertEquals(expected.closingBalance().getAmount(), actual.closingBalance().getAmount());
+                interestEarned = interestEarned.plus(actual.interest());
+            }
+            assertEquals(totalInterest(fullHistory).getAmount(), interestEarned.getAmount());
+        }
+    }
+
+    private List<PostingPeriod> calculate(final List<SavingsAccountTransaction> transactions, final LocalDate startDate,
+            final LocalDate upToDate, final SavingsPostingInterestPeriodType postingPeriodType,
+            final SavingsCompoundingInterestPeriodType compoundingPeriodType) {
+        final List<PostingPeriod> postingPeriods = postingPeriods(transactions, startDate, upToDate, Money.zero(this.currency),
+                postingPeriodType, compoundingPeriodType);
+        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, postingPeriods, null, false);
+        return postingPeriods;
+    }
+
+    private List<PostingPeriod> resume(final List<SavingsAccountTransaction> transactions,
+            final SavingsAccountInterestCheckpoint checkpoint, final LocalDate upToDate,
+            final SavingsPostingInterestPeriodType postingPeriodType, final SavingsCompoundingInterestPeriodType compoundingPeriodType) {
+        final List<PostingPeriod> postingPeriods = postingPeriods(transactions, checkpoint.getCheckpointLocalDate().plusDays(1), upToDate,
+                checkpoint.getClosingBalance(this.currency), postingPeriodType, compoundingPeriodType);
+        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, postingPeriods, null, false,
+                checkpoint.getCompoundedInterest(), checkpoint.getUncompoundedInterest());
+        return postingPeriods;
+    }
+
+    /**
+     * Builds the checkpoint {@link SavingsAccount} records at the end of the
+     * given period, with the carried interest at the scale it is stored at.
+     */
+    private SavingsAccountInterestCheckpoint checkpointAt(final List<PostingPeriod> postingPeriods, final int periodIndex,
+            final long fingerprint) {
+        final PostingPeriod closedPeriod = postingPeriods.get(periodIndex);
+        final SavingsAccountInterestCheckpoint checkpoint = SavingsAccountInterestCheckpoint.empty();
+        checkpoint.update(closedPeriod.getPeriodInterval().endDate(), closedPeriod.closingBalance(),
+                stored(closedPeriod.compoundedInterestAtPeriodEnd()), stored(closedPeriod.uncompoundedInterestAtPeriodEnd()),
+                totalInterest(postingPeriods.subList(0, periodIndex + 1)), fingerprint);
+        return checkpoint;
+    }
+
+    private List<PostingPeriod> postingPeriods(final List<SavingsAccountTransaction> transactions, final LocalDate startDate,
+            final LocalDate upToDate, final Money startingBalance, final SavingsPostingInterestPeriodType postingPeriodType,
+            final SavingsCompoundingInterestPeriodType compoundingPeriodType) {
+        final List<SavingsAccountTransaction> orderedTransactions = recalculateDailyBalances(transactions, upToDate);
+        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(startDate, upToDate,
+                postingPeriodType, FINANCIAL_YEAR_BEGINNING_MONTH, new ArrayList<LocalDate>());
+
+        final List<PostingPeriod> postingPeriods = new ArrayList<>();
+        Money periodStartingBalance = startingBalance;
+        for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedTransactions,
+                    this.currency, compoundingPeriodType, SavingsInterestCalculationType.DAILY_BALANCE, INTEREST_RATE_AS_FRACTION,
+                    DAYS_IN_YEAR, upToDate, new ArrayList<Long>(), false, Money.zero(this.currency), false, BigDecimal.ZERO,
+                    Money.zero(this.currency), false, FINANCIAL_YEAR_BEGINNING_MONTH);
+            periodStartingBalance = postingPeriod.closingBalance();
+            postingPeriods.add(postingPeriod);
+        }
+        return postingPeriods;
+    }
+
+    /**
+     * Maintains running balances and balance end dates the way
+     * {@link SavingsAccount} does before calculating interest, leaving out
+     * interest postings.
+     */
+    private List<SavingsAccountTransaction> recalculateDailyBalances(final List<SavingsAccountTransaction> transactions,
+            final LocalDate upToDate) {
+        final List<SavingsAccountTransaction> orderedTransactions = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (transaction.isNotReversed() && !transaction.isInterestPostingAndNotReversed()) {
+                orderedTransactions.add(transaction);
+            }
+        }
+        Collections.sort(orderedTransactions, new SavingsAccountTransactionComparator());
+
+        Money runningBalance = Money.zero(this.currency);
+        for (final SavingsAccountTransaction transaction : orderedTransactions) {
+            if (transaction.isCredit()) {
+                runningBalance = runningBalance.plus(transaction.getAmount(this.currency));
+            } else if (transaction.isDebit()) {
+                runningBalance = runningBalance.minus(transaction.getAmount(this.currency));
+            }
+            transaction.updateRunningBalance(runningBalance);
+        }
+
+        LocalDate endOfBalanceDate = upToDate;
+        for (int i = orderedTransactions.size() - 1; i >= 0; i--) {
+            final SavingsAccountTransaction transaction = orderedTransactions.get(i);
+            transaction.updateCumulativeBalanceAndDates(this.currency, endOfBalanceDate);
+            endOfBalanceDate = transaction.transactionLocalDate().minusDays(1);
+        }
+        return orderedTransactions;
+    }
+
+    private Money totalInterest(final List<PostingPeriod> postingPeriods) {
+        Money interest = Money.zero(this.currency);
+        for (final PostingPeriod postingPeriod : postingPeriods) {
+            interest = interest.plus(postingPeriod.interest());
+        }
+        return interest;
+    }
+
+    private static BigDecimal stored(final BigDecimal interest) {
+        return interest.setScale(6, RoundingMode.HALF_EVEN);
+    }
+
+    private SavingsAccountTransaction deposit(final LocalDate date, final long amount) {
+        return SavingsAccountTransaction.deposit(null, null, null, date, Money.of(this.currency, BigDecimal.valueOf(amount)), new Date(),
+                null);
+    }
+
+    private SavingsAccountTransaction withdrawal(final LocalDate date, final long amount) {
+        return SavingsAccountTransaction.withdrawal(null, null, null, date, Money.of(this.currency, BigDecimal.valueOf(amount)),
+                new Date(), null);
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.apache.fineract.portfolio.servicecharge.constants.ServiceChargeReportTableHeaders;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeData;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanAggregateData;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the service charge is computed from the loan aggregates and the
+ * rates stored for the quarter
+ */
+public class ServiceChargeCalculationPlatformServiceImplTest {
+
+    private static final int YEAR = 2018;
+
+    private final ServiceChargeDateRange quarter = mock(ServiceChargeDateRange.class);
+    private final ServiceChargeLoanAggregationReadPlatformService scLoanAggregationReadPlatformService = mock(
+            ServiceChargeLoanAggregationReadPlatformService.class);
+    private final ServiceChargeReadPlatformService scChargeReadPlatformService = mock(ServiceChargeReadPlatformService.class);
+    private final List<ServiceChargeLoanAggregateData> loanAggregates = new ArrayList<>();
+
+    private ServiceChargeCalculationPlatformServiceImpl calculationService;
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+
+        when(this.quarter.getFromDateForCurrentYear()).thenReturn(date(YEAR, Calendar.JANUARY, 1));
+        when(this.quarter.getToDateForCurrentYear()).thenReturn(date(YEAR, Calendar.JANUARY, 31));
+
+        final List<ServiceChargeData> rates = new ArrayList<>();
+        rates.add(ServiceChargeData.instance(1L, this.quarter, YEAR, ServiceChargeReportTableHeaders.REPAYMENT_PER_100,
+                new BigDecimal("2.00")));
+        rates.add(ServiceChargeData.instance(2L, this.quarter, YEAR, ServiceChargeReportTableHeaders.ANNUALIZED_COST_I,
+                new BigDecimal("1.50")));
+        rates.add(ServiceChargeData.instance(3L, this.quarter, YEAR, ServiceChargeReportTableHeaders.LOAN_SERVICING_PER_LOAN,
+                new BigDecimal("12.50")));
+        when(this.scChargeReadPlatformService.retrieveCharge(this.quarter, YEAR)).thenReturn(rates);
+
+        addLoanAggregate(1L, true, true, "1000.00", "3100000.00");
+        addLoanAggregate(2L, true, false, "2500.00", "1234567.89");
+        addLoanAggregate(3L, false, false, "0", "77777.77");
+        addLoanAggregate(4L, true, false, "0", "0");
+        when(this.scLoanAggregationReadPlatformService.retrieveLoanAggregates(this.quarter, null, null)).thenReturn(this.loanAggregates);
+
+        this.calculationService = new ServiceChargeCalculationPlatformServiceImpl(
+                mock(ServiceChargeJournalDetailsReadPlatformService.class), this.scChargeReadPlatformService,
+                this.scLoanAggregationReadPlatformService, mock(OfficeRepositoryWrapper.class));
+    }
+
+    @Test
+    public void serviceChargeIsComputedFromTheLoanAggregate() {
+        // 12.50 for the disbursement + (3100000.00 * 2.00 / 31 / 36500) for
+        // the mobilization + (1000.00 * 1.50 / 100) for the repayments
+        final BigDecimal serviceCharge = this.calculationService.calculateServiceChargeForLoan(1L, this.quarter, YEAR);
+
+        assertEquals(0, new BigDecimal("32.9795").compareTo(serviceCharge));
+    }
+
+    @Test
+    public void demandLoansOnlySkipsTheOtherLoans() {
+        final Map<Long, BigDecimal> serviceCharges = this.calculationService.calculateServiceChargeForLoans(this.quarter, YEAR, null,
+                null, true);
+
+        assertEquals(3, serviceCharges.size());
+        assertFalse(serviceCharges.containsKey(3L));
+    }
+
+    @Test
+    public void loanNotConsideredForTheQuarterHasNoServiceCharge() {
+        assertEquals(BigDecimal.ZERO, this.calculationService.calculateServiceChargeForLoan(99L, this.quarter, YEAR));
+    }
+
+    private void addLoanAggregate(final Long loanId, final boolean demandLoan, final boolean disbursedInRange,
+            final String totalRepayments, final String totalOutstanding) {
+        final ServiceChargeLoanAggregateData loanAggregate = ServiceChargeLoanAggregateData.instance(loanId, 1L, demandLoan,
+                date(YEAR, Calendar.JANUARY, 10), disbursedInRange, new BigDecimal("10000.00"), new BigDecimal(totalRepayments),
+                new BigDecimal(totalOutstanding));
+        this.loanAggregates.add(loanAggregate);
+        when(this.scLoanAggregationReadPlatformService.retrieveLoanAggregate(this.quarter, loanId)).thenReturn(loanAggregate);
+    }
+
+    private static Date date(final int year, final int month, final int day) {
+        return new GregorianCalendar(year, month, day).getTime();
+    }
+}
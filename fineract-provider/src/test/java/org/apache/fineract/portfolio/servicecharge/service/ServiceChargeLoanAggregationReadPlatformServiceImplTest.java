@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.servicecharge.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.servicecharge.data.ServiceChargeLoanAggregateData;
+import org.apache.fineract.portfolio.servicecharge.util.daterange.ServiceChargeDateRange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Checks the figures of the set-based loan aggregation against values worked
+ * out by hand for January 2018
+ */
+public class ServiceChargeLoanAggregationReadPlatformServiceImplTest {
+
+    private static final Long DEMAND_LOAN_PRODUCT_ID = 1L;
+    private static final Long OTHER_LOAN_PRODUCT_ID = 2L;
+
+    private final ServiceChargeDateRange dateRange = mock(ServiceChargeDateRange.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<ResultSet> loanRows = new ArrayList<>();
+    private final List<ResultSet> repaymentRows = new ArrayList<>();
+
+    private ServiceChargeLoanAggregationReadPlatformServiceImpl aggregationService;
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", TimeZone.getDefault().getID(), null));
+
+        when(this.dateRange.getFormattedFromDateString()).thenReturn("2018-01-01");
+        when(this.dateRange.getFormattedToDateString()).thenReturn("2018-01-31");
+        when(this.dateRange.getFromDateForCurrentYear()).thenReturn(date(2018, Calendar.JANUARY, 1));
+        when(this.dateRange.getToDateForCurrentYear()).thenReturn(date(2018, Calendar.JANUARY, 31));
+        when(this.dateRange.getDateRangeDurationMonths()).thenReturn(1);
+
+        when(this.jdbcTemplate.queryForList(anyString(), eq(Long.class), anyVararg())).thenReturn(Arrays.asList(DEMAND_LOAN_PRODUCT_ID));
+        final List<ResultSet> loans = this.loanRows;
+        final List<ResultSet> repayments = this.repaymentRows;
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final String sql = (String) invocation.getArguments()[0];
+                final RowCallbackHandler handler = (RowCallbackHandler) invocation.getArguments()[2];
+                final List<ResultSet> rows = sql.contains("from m_loan_transaction") ? repayments : loans;
+                for (final ResultSet rs : rows) {
+                    handler.processRow(rs);
+                }
+                return null;
+            }
+        }).when(this.jdbcTemplate).query(anyString(), any(Object[].class), any(RowCallbackHandler.class));
+
+        // Demand loan disbursed in the range, 700.00 still outstanding after
+        // repaying 200.00 on the 20th and 100.00 on the 25th
+        addLoanRow(1L, DEMAND_LOAN_PRODUCT_ID, "1000.00", "700.00", "2018-01-10");
+        addRepaymentRow(1L, "2018-01-20", "200.00");
+        addRepaymentRow(1L, "2018-01-25", "100.00");
+
+        // Other loan disbursed before the range, 4500.00 still outstanding
+        // after repaying 500.00 on the 15th
+        addLoanRow(2L, OTHER_LOAN_PRODUCT_ID, "5000.00", "4500.00", "2017-12-05");
+        addRepaymentRow(2L, "2018-01-15", "500.00");
+
+        this.aggregationService = new ServiceChargeLoanAggregationReadPlatformServiceImpl(mock(RoutingDataSource.class),
+                mock(PlatformSecurityContext.class));
+        final Field field = ServiceChargeLoanAggregationReadPlatformServiceImpl.class.getDeclaredField("jdbcTemplate");
+        field.setAccessible(true);
+        field.set(this.aggregationService, this.jdbcTemplate);
+    }
+
+    @After
+    public void tearDownForEachTestCase() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void loanDisbursedInTheRangeIsAggregatedFromItsDisbursement() {
+        final ServiceChargeLoanAggregateData loanAggregate = retrieveLoanAggregates().next();
+
+        assertEquals(Long.valueOf(1L), loanAggregate.getLoanId());
+        assertTrue(loanAggregate.isDemandLoan());
+        assertTrue(loanAggregate.isDisbursedInRange());
+        assertAmount("1000.00", loanAggregate.getPrincipalDisbursed());
+        assertAmount("300.00", loanAggregate.getTotalRepayments());
+        // 700.00 x 6 days (25th to 31st) + 800.00 x 5 days (20th to 25th) +
+        // 1000.00 x 10 days (10th to 20th)
+        assertAmount("18200.00", loanAggregate.getTotalOutstanding());
+    }
+
+    @Test
+    public void loanDisbursedBeforeTheRangeIsAggregatedOverTheWholeRange() {
+        final Iterator<ServiceChargeLoanAggregateData> loanAggregates = retrieveLoanAggregates();
+        loanAggregates.next();
+        final ServiceChargeLoanAggregateData loanAggregate = loanAggregates.next();
+
+        assertEquals(Long.valueOf(2L), loanAggregate.getLoanId());
+        assertFalse(loanAggregate.isDemandLoan());
+        assertFalse(loanAggregate.isDisbursedInRange());
+        assertAmount("5000.00", loanAggregate.getPrincipalDisbursed());
+        assertAmount("500.00", loanAggregate.getTotalRepayments());
+        // 4500.00 x 16 days (15th to 31st) + 5000.00 x 15 days (31st of the
+        // previous month to 15th)
+        assertAmount("147000.00", loanAggregate.getTotalOutstanding());
+    }
+
+    private Iterator<ServiceChargeLoanAggregateData> retrieveLoanAggregates() {
+        final Collection<ServiceChargeLoanAggregateData> loanAggregates = this.aggregationService.retrieveLoanAggregates(this.dateRange,
+                ".", null);
+        assertEquals(2, loanAggregates.size());
+        return loanAggregates.iterator();
+    }
+
+    private void addLoanRow(final Long loanId, final Long loanProductId, final String principalDisbursed,
+            final String principalOutstanding, final String disbursedOn) throws SQLException {
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(loanId);
+        when(rs.findColumn("loanProductId")).thenReturn(2);
+        when(rs.getLong(2)).thenReturn(loanProductId);
+        when(rs.findColumn("clientId")).thenReturn(3);
+        when(rs.getLong(3)).thenReturn(loanId);
+        when(rs.getBigDecimal("principalOutstanding")).thenReturn(new BigDecimal(principalOutstanding));
+        when(rs.getBigDecimal("approvedPrincipal")).thenReturn(new BigDecimal(principalDisbursed));
+        when(rs.getBigDecimal("principalDisbursed")).thenReturn(new BigDecimal(principalDisbursed));
+        when(rs.getDate("expectedDisbursementDate")).thenReturn(java.sql.Date.valueOf(disbursedOn));
+        when(rs.getDate("actualDisbursementDate")).thenReturn(java.sql.Date.valueOf(disbursedOn));
+        this.loanRows.add(rs);
+    }
+
+    private void addRepaymentRow(final Long loanId, final String transactionDate, final String principalPortion) throws SQLException {
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("loanId")).thenReturn(loanId);
+        when(rs.getDate("transactionDate")).thenReturn(java.sql.Date.valueOf(transactionDate));
+        when(rs.getBigDecimal("principalPortion")).thenReturn(new BigDecimal(principalPortion));
+        this.repaymentRows.add(rs);
+    }
+
+    private static void assertAmount(final String expected, final BigDecimal actual) {
+        assertEquals("expected " + expected + " but was " + actual, 0, new BigDecimal(expected).compareTo(actual));
+    }
+
+    private static Date date(final int year, final int month, final int day) {
+        return new GregorianCalendar(year, month, day).getTime();
+    }
+}
@@ -45,6 +45,7 @@ import org.apache.fineract.portfolio.loanaccount.MonetaryCurrencyBuilder;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateMapper;
+import org.apache.fineract.template.service.CompiledTemplateCache;
 import org.apache.fineract.template.service.TemplateMergeService;
 import org.joda.time.LocalDate;
 import org.junit.Before;
@@ -52,7 +53,7 @@ import org.junit.Test;
 
 public class TemplateMergeServiceTest {
 
-    private TemplateMergeService tms = new TemplateMergeService();
+    private TemplateMergeService tms = new TemplateMergeService(new CompiledTemplateCache(1, 500), null);
 
     @Before
     public void setUpForEachTestCase() throws Exception {